@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Collects results of concurrent tasks, e.g. insertion tasks or random walks.
+ *
+ * <p>If a task fails or the calling thread is interrupted, all other tasks are cancelled, i.e. their threads are
+ * interrupted. Tasks are expected to check {@link Thread#isInterrupted()} regularly and to stop if so. The failure is
+ * then rethrown in the calling thread: unchecked exceptions and errors as they are, checked exceptions wrapped in an
+ * {@link IllegalStateException}.
+ *
+ * @author schroeder
+ *
+ */
+public final class ConcurrentTasks {
+
+	private ConcurrentTasks() {
+	}
+
+	public static <T> T get(Future<T> future, Collection<? extends Future<?>> tasks) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			cancel(tasks);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for concurrent tasks", e);
+		} catch (ExecutionException e) {
+			cancel(tasks);
+			throw rethrow(e.getCause());
+		}
+	}
+
+	public static void cancel(Collection<? extends Future<?>> tasks) {
+		for(Future<?> task : tasks) task.cancel(true);
+	}
+
+	public static boolean isCancelled() {
+		return Thread.currentThread().isInterrupted();
+	}
+
+	private static RuntimeException rethrow(Throwable cause) {
+		if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+		if(cause instanceof Error) throw (Error) cause;
+		throw new IllegalStateException("concurrent task failed", cause);
+	}
+
+}
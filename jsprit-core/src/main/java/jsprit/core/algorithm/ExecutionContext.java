@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor service that is used by a {@link VehicleRoutingAlgorithm} to run its concurrent parts.
+ *
+ * <p>The executor service is either owned by the algorithm or shared among many algorithms. An owned executor service
+ * is shut down when the algorithm ends (successfully or not), thus an algorithm with an owned executor service can only
+ * search solutions once. A shared executor service is never shut down by the algorithm, its lifecycle is controlled by
+ * the client. This allows to pool threads across algorithms that run concurrently in one JVM.
+ *
+ * @author schroeder
+ *
+ */
+public class ExecutionContext {
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+
+		private static final AtomicInteger poolNumber = new AtomicInteger(1);
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		private final String namePrefix = "jsprit-pool-" + poolNumber.getAndIncrement() + "-thread-";
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+	/**
+	 * Returns an execution context that owns a fixed thread pool with nuOfThreads daemon threads. It is shut down
+	 * when the algorithm ends.
+	 *
+	 * @param nuOfThreads number of threads
+	 * @return execution context
+	 */
+	public static ExecutionContext newInstance(int nuOfThreads){
+		if(nuOfThreads < 1) throw new IllegalArgumentException("number of threads must be at least 1");
+		return new ExecutionContext(Executors.newFixedThreadPool(nuOfThreads, new DaemonThreadFactory()), nuOfThreads, false);
+	}
+
+	/**
+	 * Returns an execution context that uses the shared executorService. It is never shut down by the algorithm.
+	 *
+	 * @param executorService the shared executor service
+	 * @param nuOfThreads number of concurrent tasks the algorithm should split its work into
+	 * @return execution context
+	 */
+	public static ExecutionContext newInstance(ExecutorService executorService, int nuOfThreads){
+		if(executorService == null) throw new IllegalArgumentException("executor service must not be null");
+		if(nuOfThreads < 1) throw new IllegalArgumentException("number of threads must be at least 1");
+		return new ExecutionContext(executorService, nuOfThreads, true);
+	}
+
+	private final ExecutorService executorService;
+
+	private final int nuOfThreads;
+
+	private final boolean shared;
+
+	private ExecutionContext(ExecutorService executorService, int nuOfThreads, boolean shared) {
+		super();
+		this.executorService = executorService;
+		this.nuOfThreads = nuOfThreads;
+		this.shared = shared;
+	}
+
+	public ExecutorService getExecutorService() {
+		return executorService;
+	}
+
+	public int getNuOfThreads() {
+		return nuOfThreads;
+	}
+
+	public boolean isShared() {
+		return shared;
+	}
+
+	/**
+	 * Shuts down the executor service if it is owned by the algorithm, and interrupts tasks that are still running.
+	 */
+	void release(){
+		if(!shared) executorService.shutdownNow();
+	}
+
+	@Override
+	public String toString() {
+		return "[nuOfThreads=" + nuOfThreads + "][shared=" + shared + "]";
+	}
+
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import jsprit.core.algorithm.recreate.listener.JobInsertedListener;
+import jsprit.core.algorithm.recreate.listener.VehicleSwitchedListener;
+import jsprit.core.algorithm.ruin.listener.RuinListener;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.RouteCostCalculator;
+import jsprit.core.problem.solution.SolutionCostCalculator;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.Vehicle;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Objective function that only re-evaluates the routes that have changed since the solution has been copied.
+ * 
+ * <p>It listens to ruin and insertion, and memorizes each route whose job has been removed or inserted, or whose vehicle
+ * has been switched. When evaluating a solution, changed routes are evaluated with the routeCostCalculator. Costs of all
+ * other routes are looked up from the previous evaluation. Since a copied activity sequence keeps the version of its 
+ * original until one of them is modified (see {@link jsprit.core.problem.solution.route.activity.TourActivities#getVersion()}),
+ * route costs are memorized by this version together with vehicle and departure time of the route. Thus evaluating a solution 
+ * is O(changed routes) rather than O(activities).
+ * 
+ * <p>To cross-check the incremental evaluation, set a verification calculator that calculates the costs of the entire 
+ * solution. Each evaluation is then compared with it.
+ * 
+ * <p>This needs to be registered as listener of the search strategy modules. If it is set as objective function of
+ * {@link jsprit.core.algorithm.io.VehicleRoutingAlgorithms}, this is done automatically.
+ * 
+ * @author schroeder
+ *
+ */
+public class IncrementalSolutionCostCalculator implements SolutionCostCalculator, RuinListener, JobInsertedListener, VehicleSwitchedListener {
+
+	private final RouteCostCalculator routeCostCalculator;
+	
+	private static class RouteCosts {
+		
+		final Vehicle vehicle;
+		
+		final double departureTime;
+		
+		final double costs;
+
+		RouteCosts(Vehicle vehicle, double departureTime, double costs) {
+			super();
+			this.vehicle = vehicle;
+			this.departureTime = departureTime;
+			this.costs = costs;
+		}
+		
+	}
+	
+	private Map<Object, RouteCosts> routeCosts = new IdentityHashMap<Object, RouteCosts>();
+	
+	private final Map<VehicleRoute, Boolean> changedRoutes = new IdentityHashMap<VehicleRoute, Boolean>();
+	
+	private SolutionCostCalculator verificationCalculator;
+	
+	private double tolerance = 0.01;
+	
+	private int noRouteEvaluations = 0;
+	
+	public IncrementalSolutionCostCalculator(RouteCostCalculator routeCostCalculator) {
+		super();
+		this.routeCostCalculator = routeCostCalculator;
+	}
+
+	/**
+	 * Sets a calculator that evaluates the entire solution. If set, each evaluation is cross-checked with it.
+	 * 
+	 * @param verificationCalculator calculator calculating the costs of the entire solution
+	 * @param tolerance max absolute difference of both costs
+	 */
+	public void setVerification(SolutionCostCalculator verificationCalculator, double tolerance){
+		this.verificationCalculator = verificationCalculator;
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Returns costs of solution, i.e. the sum of its route costs plus solution level costs.
+	 * 
+	 * @throws IllegalStateException if verification is set and the costs differ from the verification costs
+	 */
+	@Override
+	public double getCosts(VehicleRoutingProblemSolution solution) {
+		Map<Object, RouteCosts> costsOfThisSolution = new IdentityHashMap<Object, RouteCosts>();
+		double costs = 0.0;
+		for(VehicleRoute route : solution.getRoutes()){
+			costs += getRouteCosts(route, costsOfThisSolution);
+		}
+		routeCosts = costsOfThisSolution;
+		changedRoutes.clear();
+		costs += getSolutionLevelCosts(solution, costs);
+		if(verificationCalculator != null) verify(solution, costs);
+		return costs;
+	}
+
+	private double getRouteCosts(VehicleRoute route, Map<Object, RouteCosts> costsOfThisSolution) {
+		if(route.isEmpty()){
+			noRouteEvaluations++;
+			return routeCostCalculator.getCosts(route);
+		}
+		Object key = route.getTourActivities().getVersion();
+		RouteCosts costs = null;
+		if(!changedRoutes.containsKey(route)) costs = routeCosts.get(key);
+		if(costs == null || costs.vehicle != route.getVehicle() || costs.departureTime != route.getDepartureTime()){
+			noRouteEvaluations++;
+			costs = new RouteCosts(route.getVehicle(), route.getDepartureTime(), routeCostCalculator.getCosts(route));
+		}
+		costsOfThisSolution.put(key, costs);
+		return costs.costs;
+	}
+
+	private void verify(VehicleRoutingProblemSolution solution, double costs) {
+		double verificationCosts = verificationCalculator.getCosts(solution);
+		if(Math.abs(verificationCosts - costs) > tolerance){
+			throw new IllegalStateException("incrementally calculated costs " + costs + " differ from verification costs " + verificationCosts + ". " +
+					"probably routes have been modified without informing ruin- or insertion-listeners.");
+		}
+	}
+
+	/**
+	 * Returns costs that do not belong to a single route, e.g. penalties for unassigned jobs. By default, these are 0.
+	 * 
+	 * @param solution the solution to be evaluated
+	 * @param routeCosts sum of route costs of solution
+	 * @return solution level costs
+	 */
+	protected double getSolutionLevelCosts(VehicleRoutingProblemSolution solution, double routeCosts){
+		return 0.0;
+	}
+
+	/**
+	 * Returns the number of routes that have been evaluated with the routeCostCalculator so far.
+	 * 
+	 * @return number of route evaluations
+	 */
+	public int getNoRouteEvaluations() {
+		return noRouteEvaluations;
+	}
+
+	@Override
+	public void ruinStarts(Collection<VehicleRoute> routes) {}
+
+	@Override
+	public void ruinEnds(Collection<VehicleRoute> routes, Collection<Job> unassignedJobs) {}
+
+	@Override
+	public void removed(Job job, VehicleRoute fromRoute) {
+		changedRoutes.put(fromRoute, Boolean.TRUE);
+	}
+
+	@Override
+	public void informJobInserted(Job job2insert, VehicleRoute inRoute, double additionalCosts, double additionalTime) {
+		changedRoutes.put(inRoute, Boolean.TRUE);
+	}
+
+	@Override
+	public void vehicleSwitched(VehicleRoute vehicleRoute, Vehicle oldVehicle, Vehicle newVehicle) {
+		changedRoutes.put(vehicleRoute, Boolean.TRUE);
+	}
+
+	@Override
+	public String toString() {
+		return "[name=incrementalSolutionCostCalculator]";
+	}
+
+}
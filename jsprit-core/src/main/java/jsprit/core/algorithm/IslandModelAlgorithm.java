@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import jsprit.core.algorithm.SearchStrategy.DiscoveredSolution;
+import jsprit.core.algorithm.listener.IterationEndsListener;
+import jsprit.core.algorithm.termination.PrematureAlgorithmTermination;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.util.RandomNumberGeneration;
+import jsprit.core.util.Solutions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Island model that runs a number of independent {@link VehicleRoutingAlgorithm}s (islands) in parallel.
+ *
+ * <p>Each island is created by the island factory in its own thread, thus it has its own solutions, state manager and
+ * fleet manager. Every migrationInterval iterations, an island offers (a copy of) its best solution to a shared pool
+ * and, if the best solution of all islands is better than its own best, replaces its worst solution with a copy of it.
+ *
+ * <p>If an island fails, all other islands are terminated and the failure is rethrown by {@link #searchSolutions()}.
+ *
+ * @author schroeder
+ *
+ */
+public class IslandModelAlgorithm {
+
+	/**
+	 * Builder that builds an {@link IslandModelAlgorithm}.
+	 *
+	 * @author schroeder
+	 *
+	 */
+	public static class Builder {
+
+		/**
+		 * Returns a new instance of this builder.
+		 *
+		 * @param vrp the problem to solve
+		 * @param islandFactory factory that creates the algorithm of each island
+		 * @return builder
+		 */
+		public static Builder newInstance(VehicleRoutingProblem vrp, VehicleRoutingAlgorithmFactory islandFactory){
+			return new Builder(vrp, islandFactory);
+		}
+
+		private final VehicleRoutingProblem vrp;
+
+		private final VehicleRoutingAlgorithmFactory islandFactory;
+
+		private int nuOfIslands = 2;
+
+		private int migrationInterval = 100;
+
+		private ExecutionContext executionContext;
+
+		private Long seed;
+
+		private Builder(VehicleRoutingProblem vrp, VehicleRoutingAlgorithmFactory islandFactory) {
+			super();
+			this.vrp = vrp;
+			this.islandFactory = islandFactory;
+		}
+
+		/**
+		 * Sets the number of islands. Default is 2.
+		 *
+		 * @param nuOfIslands number of islands
+		 * @return builder
+		 */
+		public Builder setNuOfIslands(int nuOfIslands){
+			if(nuOfIslands < 1) throw new IllegalArgumentException("number of islands must be at least 1");
+			this.nuOfIslands = nuOfIslands;
+			return this;
+		}
+
+		/**
+		 * Sets the number of iterations after which islands exchange their best solutions. Default is 100.
+		 *
+		 * @param migrationInterval number of iterations between two migrations
+		 * @return builder
+		 */
+		public Builder setMigrationInterval(int migrationInterval){
+			if(migrationInterval < 1) throw new IllegalArgumentException("migration interval must be at least 1");
+			this.migrationInterval = migrationInterval;
+			return this;
+		}
+
+		/**
+		 * Sets the execution context the islands run in. Its executor service must be able to run all islands
+		 * concurrently. By default, an own thread pool with one thread per island is used.
+		 *
+		 * @param executionContext the execution context
+		 * @return builder
+		 */
+		public Builder setExecutionContext(ExecutionContext executionContext){
+			this.executionContext = executionContext;
+			return this;
+		}
+
+		/**
+		 * Sets the master seed the random number streams of the islands are derived from. Each island is created and run
+		 * in a thread bound to its own stream (see {@link RandomNumberGeneration#newStream(long, int)}). By default, the
+		 * master seed is drawn from {@link RandomNumberGeneration#getRandom()} when the search starts.
+		 *
+		 * @param seed the master seed
+		 * @return builder
+		 */
+		public Builder setSeed(long seed){
+			this.seed = seed;
+			return this;
+		}
+
+		public IslandModelAlgorithm build(){
+			return new IslandModelAlgorithm(this);
+		}
+
+	}
+
+	/**
+	 * Keeps the best solution offered by the islands.
+	 */
+	static class MigrationPool {
+
+		private VehicleRoutingProblemSolution best;
+
+		/**
+		 * Memorizes a copy of solution if it is better than the best solution so far.
+		 *
+		 * @param solution the solution offered
+		 */
+		synchronized void offer(VehicleRoutingProblemSolution solution){
+			if(best == null || solution.getCost() < best.getCost()) best = VehicleRoutingProblemSolution.copyOf(solution);
+		}
+
+		synchronized VehicleRoutingProblemSolution getBest(){
+			return best;
+		}
+
+	}
+
+	/**
+	 * Exchanges the best solution of an island with the migration pool.
+	 */
+	static class Migration implements IterationEndsListener {
+
+		private final MigrationPool pool;
+
+		private final int migrationInterval;
+
+		private int noImmigrants = 0;
+
+		Migration(MigrationPool pool, int migrationInterval) {
+			super();
+			this.pool = pool;
+			this.migrationInterval = migrationInterval;
+		}
+
+		@Override
+		public void informIterationEnds(int i, VehicleRoutingProblem problem, Collection<VehicleRoutingProblemSolution> solutions) {
+			if(i % migrationInterval == 0) migrate(solutions);
+		}
+
+		void migrate(Collection<VehicleRoutingProblemSolution> solutions){
+			if(solutions.isEmpty()) return;
+			VehicleRoutingProblemSolution best = Solutions.bestOf(solutions);
+			pool.offer(best);
+			VehicleRoutingProblemSolution globalBest = pool.getBest();
+			if(globalBest.getCost() < best.getCost()){
+				VehicleRoutingProblemSolution worst = null;
+				for(VehicleRoutingProblemSolution solution : solutions){
+					if(worst == null || solution.getCost() > worst.getCost()) worst = solution;
+				}
+				solutions.remove(worst);
+				solutions.add(VehicleRoutingProblemSolution.copyOf(globalBest));
+				noImmigrants++;
+			}
+		}
+
+		int getNoImmigrants() {
+			return noImmigrants;
+		}
+
+	}
+
+	private static class InterruptionTermination implements PrematureAlgorithmTermination {
+
+		@Override
+		public boolean isPrematureBreak(DiscoveredSolution discoveredSolution) {
+			return Thread.currentThread().isInterrupted();
+		}
+
+	}
+
+	private static Logger logger = LogManager.getLogger(IslandModelAlgorithm.class);
+
+	private final VehicleRoutingProblem vrp;
+
+	private final VehicleRoutingAlgorithmFactory islandFactory;
+
+	private final int nuOfIslands;
+
+	private final int migrationInterval;
+
+	private final ExecutionContext executionContext;
+
+	private final Long seed;
+
+	private VehicleRoutingProblemSolution bestEver = null;
+
+	private IslandModelAlgorithm(Builder builder) {
+		this.vrp = builder.vrp;
+		this.islandFactory = builder.islandFactory;
+		this.nuOfIslands = builder.nuOfIslands;
+		this.migrationInterval = builder.migrationInterval;
+		this.executionContext = builder.executionContext;
+		this.seed = builder.seed;
+		logger.info("initialise " + this);
+	}
+
+	/**
+	 * Runs all islands and returns the solutions of all islands.
+	 *
+	 * @return the solutions of all islands
+	 */
+	public Collection<VehicleRoutingProblemSolution> searchSolutions(){
+		ExecutionContext context = executionContext;
+		if(context == null) context = ExecutionContext.newInstance(nuOfIslands);
+		final MigrationPool pool = new MigrationPool();
+		List<Future<Collection<VehicleRoutingProblemSolution>>> futures = new ArrayList<Future<Collection<VehicleRoutingProblemSolution>>>();
+		try{
+			long masterSeed = getMasterSeed();
+			for(int i=0;i<nuOfIslands;i++){
+				final Random random = RandomNumberGeneration.newStream(masterSeed, i);
+				futures.add(context.getExecutorService().submit(new Callable<Collection<VehicleRoutingProblemSolution>>() {
+
+					@Override
+					public Collection<VehicleRoutingProblemSolution> call() throws Exception {
+						Random previous = RandomNumberGeneration.bindToCurrentThread(random);
+						try{
+							VehicleRoutingAlgorithm island = islandFactory.createAlgorithm(vrp);
+							island.addListener(new Migration(pool, migrationInterval));
+							island.addTerminationCriterion(new InterruptionTermination());
+							return island.searchSolutions();
+						}
+						finally{
+							RandomNumberGeneration.bindToCurrentThread(previous);
+						}
+					}
+
+				}));
+			}
+			Collection<VehicleRoutingProblemSolution> solutions = new ArrayList<VehicleRoutingProblemSolution>();
+			for(Future<Collection<VehicleRoutingProblemSolution>> future : futures){
+				solutions.addAll(get(future, futures));
+			}
+			bestEver = Solutions.bestOf(solutions);
+			return solutions;
+		}
+		finally{
+			if(context != executionContext) context.release();
+		}
+	}
+
+	private long getMasterSeed() {
+		if(seed != null) return seed;
+		return RandomNumberGeneration.getRandom().nextLong();
+	}
+
+	private Collection<VehicleRoutingProblemSolution> get(Future<Collection<VehicleRoutingProblemSolution>> future, List<Future<Collection<VehicleRoutingProblemSolution>>> futures) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			cancel(futures);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for islands", e);
+		} catch (ExecutionException e) {
+			cancel(futures);
+			if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if(e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new IllegalStateException("island failed", e.getCause());
+		}
+	}
+
+	private void cancel(List<Future<Collection<VehicleRoutingProblemSolution>>> futures) {
+		for(Future<Collection<VehicleRoutingProblemSolution>> future : futures) future.cancel(true);
+	}
+
+	/**
+	 * Returns the best solution found by all islands, or null if the algorithm has not been run yet.
+	 *
+	 * @return best solution
+	 */
+	public VehicleRoutingProblemSolution getBestEver() {
+		return bestEver;
+	}
+
+	@Override
+	public String toString() {
+		return "[name=islandModel][nuOfIslands=" + nuOfIslands + "][migrationInterval=" + migrationInterval + "]";
+	}
+
+}
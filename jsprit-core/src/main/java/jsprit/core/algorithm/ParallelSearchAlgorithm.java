@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import jsprit.core.algorithm.SearchStrategy.DiscoveredSolution;
+import jsprit.core.algorithm.termination.PrematureAlgorithmTermination;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.util.RandomNumberGeneration;
+import jsprit.core.util.Solutions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Algorithm that runs a number of workers searching concurrently on one shared {@link SolutionPool}.
+ *
+ * <p>In contrary to the {@link IslandModelAlgorithm}, workers do not have their own solutions. In each iteration, a
+ * worker selects a solution from the shared pool, ruins and recreates it, and lets the acceptor of its search strategy
+ * decide whether the new solution is accepted into the pool. Each worker is created by the worker factory in its own
+ * thread, thus it has its own state manager, constraint manager, fleet manager and random number stream.
+ *
+ * <p>The workers share the iteration counter, i.e. the algorithm runs maxIterations iterations in total. Iteration
+ * dependent components such as {@link jsprit.core.algorithm.acceptor.SchrimpfAcceptance} are informed about the
+ * total number of iterations run so far.
+ *
+ * <p>If a worker fails, all other workers are terminated and the failure is rethrown by {@link #searchSolutions()}.
+ *
+ * @author schroeder
+ *
+ */
+public class ParallelSearchAlgorithm {
+
+	/**
+	 * Builder that builds a {@link ParallelSearchAlgorithm}.
+	 *
+	 * @author schroeder
+	 *
+	 */
+	public static class Builder {
+
+		/**
+		 * Returns a new instance of this builder.
+		 *
+		 * @param vrp the problem to solve
+		 * @param workerFactory factory that creates the algorithm of each worker
+		 * @return builder
+		 */
+		public static Builder newInstance(VehicleRoutingProblem vrp, VehicleRoutingAlgorithmFactory workerFactory){
+			return new Builder(vrp, workerFactory);
+		}
+
+		private final VehicleRoutingProblem vrp;
+
+		private final VehicleRoutingAlgorithmFactory workerFactory;
+
+		private int nuOfWorkers = Runtime.getRuntime().availableProcessors();
+
+		private int maxIterations = 0;
+
+		private ExecutionContext executionContext;
+
+		private Long seed;
+
+		private Builder(VehicleRoutingProblem vrp, VehicleRoutingAlgorithmFactory workerFactory) {
+			super();
+			this.vrp = vrp;
+			this.workerFactory = workerFactory;
+		}
+
+		/**
+		 * Sets the number of workers. Default is the number of available processors.
+		 *
+		 * @param nuOfWorkers number of workers
+		 * @return builder
+		 */
+		public Builder setNuOfWorkers(int nuOfWorkers){
+			if(nuOfWorkers < 1) throw new IllegalArgumentException("number of workers must be at least 1");
+			this.nuOfWorkers = nuOfWorkers;
+			return this;
+		}
+
+		/**
+		 * Sets the total number of iterations of all workers. By default, the max number of iterations of the worker
+		 * algorithms is used.
+		 *
+		 * @param maxIterations total number of iterations
+		 * @return builder
+		 */
+		public Builder setMaxIterations(int maxIterations){
+			if(maxIterations < 1) throw new IllegalArgumentException("max number of iterations must be at least 1");
+			this.maxIterations = maxIterations;
+			return this;
+		}
+
+		/**
+		 * Sets the execution context the workers run in. Its executor service must be able to run all workers
+		 * concurrently. By default, an own thread pool with one thread per worker is used.
+		 *
+		 * @param executionContext the execution context
+		 * @return builder
+		 */
+		public Builder setExecutionContext(ExecutionContext executionContext){
+			this.executionContext = executionContext;
+			return this;
+		}
+
+		/**
+		 * Sets the master seed the random number streams of the workers are derived from. Each worker is created and run
+		 * in a thread bound to its own stream (see {@link RandomNumberGeneration#newStream(long, int)}). By default, the
+		 * master seed is drawn from {@link RandomNumberGeneration#getRandom()} when the search starts.
+		 *
+		 * @param seed the master seed
+		 * @return builder
+		 */
+		public Builder setSeed(long seed){
+			this.seed = seed;
+			return this;
+		}
+
+		public ParallelSearchAlgorithm build(){
+			return new ParallelSearchAlgorithm(this);
+		}
+
+	}
+
+	private static class InterruptionTermination implements PrematureAlgorithmTermination {
+
+		@Override
+		public boolean isPrematureBreak(DiscoveredSolution discoveredSolution) {
+			return Thread.currentThread().isInterrupted();
+		}
+
+	}
+
+	private static Logger logger = LogManager.getLogger(ParallelSearchAlgorithm.class);
+
+	private final VehicleRoutingProblem vrp;
+
+	private final VehicleRoutingAlgorithmFactory workerFactory;
+
+	private final int nuOfWorkers;
+
+	private final int maxIterations;
+
+	private final ExecutionContext executionContext;
+
+	private final Long seed;
+
+	private VehicleRoutingProblemSolution bestEver = null;
+
+	private ParallelSearchAlgorithm(Builder builder) {
+		this.vrp = builder.vrp;
+		this.workerFactory = builder.workerFactory;
+		this.nuOfWorkers = builder.nuOfWorkers;
+		this.maxIterations = builder.maxIterations;
+		this.executionContext = builder.executionContext;
+		this.seed = builder.seed;
+		logger.info("initialise " + this);
+	}
+
+	/**
+	 * Runs all workers and returns the solutions in the shared pool together with the best solution found.
+	 *
+	 * @return solutions
+	 */
+	public Collection<VehicleRoutingProblemSolution> searchSolutions(){
+		ExecutionContext context = executionContext;
+		if(context == null) context = ExecutionContext.newInstance(nuOfWorkers);
+		final SolutionPool solutionPool = new SolutionPool();
+		final AtomicInteger iterations = new AtomicInteger(0);
+		List<Future<Collection<VehicleRoutingProblemSolution>>> futures = new ArrayList<Future<Collection<VehicleRoutingProblemSolution>>>();
+		double now = System.currentTimeMillis();
+		try{
+			long masterSeed = getMasterSeed();
+			for(int i=0;i<nuOfWorkers;i++){
+				final Random random = RandomNumberGeneration.newStream(masterSeed, i);
+				futures.add(context.getExecutorService().submit(new Callable<Collection<VehicleRoutingProblemSolution>>() {
+
+					@Override
+					public Collection<VehicleRoutingProblemSolution> call() throws Exception {
+						Random previous = RandomNumberGeneration.bindToCurrentThread(random);
+						try{
+							VehicleRoutingAlgorithm worker = workerFactory.createAlgorithm(vrp);
+							if(maxIterations > 0) worker.setMaxIterations(maxIterations);
+							worker.addTerminationCriterion(new InterruptionTermination());
+							return worker.searchSolutions(solutionPool, iterations);
+						}
+						finally{
+							RandomNumberGeneration.bindToCurrentThread(previous);
+						}
+					}
+
+				}));
+			}
+			Collection<VehicleRoutingProblemSolution> bestOfWorkers = new ArrayList<VehicleRoutingProblemSolution>();
+			for(Future<Collection<VehicleRoutingProblemSolution>> future : futures){
+				bestOfWorkers.add(Solutions.bestOf(get(future, futures)));
+			}
+			Collection<VehicleRoutingProblemSolution> solutions = solutionPool.getSolutions();
+			bestEver = Solutions.bestOf(bestOfWorkers);
+			if(bestEver != null && !solutions.contains(bestEver)) solutions.add(bestEver);
+			logger.info("total time: " + ((System.currentTimeMillis()-now)/1000.0) + "s");
+			return solutions;
+		}
+		finally{
+			if(context != executionContext) context.release();
+		}
+	}
+
+	private long getMasterSeed() {
+		if(seed != null) return seed;
+		return RandomNumberGeneration.getRandom().nextLong();
+	}
+
+	private Collection<VehicleRoutingProblemSolution> get(Future<Collection<VehicleRoutingProblemSolution>> future, List<Future<Collection<VehicleRoutingProblemSolution>>> futures) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			cancel(futures);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for workers", e);
+		} catch (ExecutionException e) {
+			cancel(futures);
+			if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if(e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new IllegalStateException("worker failed", e.getCause());
+		}
+	}
+
+	private void cancel(List<Future<Collection<VehicleRoutingProblemSolution>>> futures) {
+		for(Future<Collection<VehicleRoutingProblemSolution>> future : futures) future.cancel(true);
+	}
+
+	/**
+	 * Returns the best solution found by all workers, or null if the algorithm has not been run yet.
+	 *
+	 * @return best solution
+	 */
+	public VehicleRoutingProblemSolution getBestEver() {
+		return bestEver;
+	}
+
+	@Override
+	public String toString() {
+		return "[name=parallelSearch][nuOfWorkers=" + nuOfWorkers + "]";
+	}
+
+}
@@ -121,6 +121,29 @@ public class SearchStrategy {
      */
 	@SuppressWarnings("UnusedParameters")
     public DiscoveredSolution run(VehicleRoutingProblem vrp, Collection<VehicleRoutingProblemSolution> solutions){
+		VehicleRoutingProblemSolution lastSolution = search(solutions);
+		boolean solutionAccepted = solutionAcceptor.acceptSolution(solutions, lastSolution);
+		return new DiscoveredSolution(lastSolution, solutionAccepted, getName());
+	}
+
+	/**
+	 * Runs the search-strategy on a pool of solutions that is shared by concurrently searching threads, and returns DiscoveredSolution.
+	 *
+	 * <p>The solution is selected from a snapshot of the pool, and accepted into the pool by {@link SolutionPool#accept(SolutionAcceptor, VehicleRoutingProblemSolution)}.
+	 *
+	 * @param vrp the underlying vehicle routing problem
+	 * @param solutionPool the shared pool of solutions
+	 * @return discoveredSolution
+	 * @throws java.lang.IllegalStateException if selector cannot select any solution
+	 */
+	@SuppressWarnings("UnusedParameters")
+	public DiscoveredSolution runOnPool(VehicleRoutingProblem vrp, SolutionPool solutionPool){
+		VehicleRoutingProblemSolution lastSolution = search(solutionPool.getSolutions());
+		boolean solutionAccepted = solutionPool.accept(solutionAcceptor, lastSolution);
+		return new DiscoveredSolution(lastSolution, solutionAccepted, getName());
+	}
+
+	private VehicleRoutingProblemSolution search(Collection<VehicleRoutingProblemSolution> solutions) {
 		VehicleRoutingProblemSolution solution = solutionSelector.selectSolution(solutions);
 		if(solution == null) throw new IllegalStateException(getErrMsg());
 		VehicleRoutingProblemSolution lastSolution = VehicleRoutingProblemSolution.copyOf(solution);
@@ -129,8 +152,7 @@ public class SearchStrategy {
 		}
 		double costs = solutionCostCalculator.getCosts(lastSolution);
 		lastSolution.setCost(costs);
-		boolean solutionAccepted = solutionAcceptor.acceptSolution(solutions, lastSolution);
-		return new DiscoveredSolution(lastSolution, solutionAccepted, getName());
+		return lastSolution;
 	}
 
     private String getErrMsg() {
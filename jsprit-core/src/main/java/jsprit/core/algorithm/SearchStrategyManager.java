@@ -39,6 +39,26 @@ public class SearchStrategyManager {
 	
 	private double sumOfProbabilities = 0;
 	
+	private boolean adaptive = false;
+	
+	private double reactionFactor = 0.1;
+	
+	private int segmentLength = 100;
+	
+	private double minProbability = 0.01;
+	
+	private double rewardForNewBestSolution = 3.;
+	
+	private double rewardForAcceptedSolution = 1.;
+	
+	private int noRunsInSegment = 0;
+	
+	private double[] rewardsInSegment;
+	
+	private long[] timeInSegment;
+	
+	private int[] noRunsOfStrategyInSegment;
+	
 	public void setRandom(Random random) {
 		this.random = random;
 	}
@@ -96,6 +116,111 @@ public class SearchStrategyManager {
 		throw new IllegalStateException("no search-strategy found");
 	}
 	
+	/**
+	 * Activates adaptive strategy selection, i.e. the probabilities of search strategies are adapted to their performance.
+	 * 
+	 * <p>Each run of a strategy is rewarded if it finds a new best solution or if its solution is accepted. At the end of each
+	 * segment of segmentLength runs, the strategies that have been run in this segment share their total probability
+	 * according to their reward per millisecond. Thus cheap strategies are favoured over expensive ones that do not yield
+	 * better results. The new probability of a strategy is then
+	 * <p>(1 - reactionFactor) * probability + reactionFactor * share
+	 * <p>Probabilities never fall below minProbability (default 0.01), such that each strategy keeps a chance to be selected.
+	 * 
+	 * @param reactionFactor how fast probabilities react to the performance of the last segment, must be within [0,1]
+	 * @param segmentLength number of strategy runs after which probabilities are adapted
+	 * @throws java.lang.IllegalArgumentException if reactionFactor is not within [0,1] or segmentLength is lower than one
+	 */
+	public void activateAdaptiveWeights(double reactionFactor, int segmentLength){
+		if(reactionFactor < 0.0 || reactionFactor > 1.0) throw new IllegalArgumentException("reaction factor must be within [0,1]");
+		if(segmentLength < 1) throw new IllegalArgumentException("segment length must be at least 1");
+		this.adaptive = true;
+		this.reactionFactor = reactionFactor;
+		this.segmentLength = segmentLength;
+	}
+	
+	/**
+	 * Sets the rewards of a strategy run. Default is 3 for finding a new best solution and 1 for an accepted solution.
+	 * 
+	 * @param rewardForNewBestSolution reward if the run has found a new best solution
+	 * @param rewardForAcceptedSolution reward if the solution of the run has been accepted
+	 */
+	public void setRewards(double rewardForNewBestSolution, double rewardForAcceptedSolution){
+		this.rewardForNewBestSolution = rewardForNewBestSolution;
+		this.rewardForAcceptedSolution = rewardForAcceptedSolution;
+	}
+	
+	/**
+	 * Sets the probability a strategy never falls below if weights are adaptive. Default is 0.01.
+	 * 
+	 * @param minProbability the min probability
+	 */
+	public void setMinProbability(double minProbability){
+		this.minProbability = minProbability;
+	}
+	
+	public boolean isAdaptive() {
+		return adaptive;
+	}
+	
+	/**
+	 * Informs this manager about the run of a strategy. If adaptive strategy selection is activated, it memorizes the
+	 * reward and the time of the run, and adapts the probabilities at the end of a segment.
+	 * 
+	 * @param strategy the strategy that has been run
+	 * @param discoveredSolution the solution discovered by strategy
+	 * @param newBestSolution true if the discovered solution is the best solution found so far
+	 * @param runTimeNanos the time strategy has been running in nanoseconds
+	 */
+	public void informStrategyRun(SearchStrategy strategy, SearchStrategy.DiscoveredSolution discoveredSolution, boolean newBestSolution, long runTimeNanos){
+		if(!adaptive) return;
+		int index = strategies.indexOf(strategy);
+		if(index < 0) return;
+		if(rewardsInSegment == null || rewardsInSegment.length != strategies.size()) resetSegment();
+		if(newBestSolution) rewardsInSegment[index] += rewardForNewBestSolution;
+		else if(discoveredSolution != null && discoveredSolution.isAccepted()) rewardsInSegment[index] += rewardForAcceptedSolution;
+		timeInSegment[index] += runTimeNanos;
+		noRunsOfStrategyInSegment[index]++;
+		noRunsInSegment++;
+		if(noRunsInSegment >= segmentLength){
+			adaptProbabilities();
+			resetSegment();
+		}
+	}
+	
+	private void adaptProbabilities() {
+		double probabilityOfRunStrategies = 0.0;
+		double sumOfRewardsPerMs = 0.0;
+		double[] rewardsPerMs = new double[strategies.size()];
+		for(int i=0;i<strategies.size();i++){
+			if(noRunsOfStrategyInSegment[i] == 0) continue;
+			probabilityOfRunStrategies += probabilities.get(i);
+			rewardsPerMs[i] = rewardsInSegment[i] / Math.max(timeInSegment[i] / 1.0e6, 1.0e-3);
+			sumOfRewardsPerMs += rewardsPerMs[i];
+		}
+		if(sumOfRewardsPerMs == 0.0) return;
+		double sum = 0.0;
+		for(int i=0;i<strategies.size();i++){
+			double probability = probabilities.get(i);
+			if(noRunsOfStrategyInSegment[i] > 0){
+				double share = probabilityOfRunStrategies * rewardsPerMs[i] / sumOfRewardsPerMs;
+				probability = (1. - reactionFactor) * probability + reactionFactor * share;
+			}
+			probability = Math.max(probability, minProbability);
+			probabilities.set(i, probability);
+			sum += probability;
+		}
+		for(int i=0;i<strategies.size();i++){
+			probabilities.set(i, probabilities.get(i) * sumOfProbabilities / sum);
+		}
+	}
+	
+	private void resetSegment() {
+		rewardsInSegment = new double[strategies.size()];
+		timeInSegment = new long[strategies.size()];
+		noRunsOfStrategyInSegment = new int[strategies.size()];
+		noRunsInSegment = 0;
+	}
+	
 	public void addSearchStrategyListener(SearchStrategyListener strategyListener){
 		searchStrategyListeners.add(strategyListener);
 	}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import jsprit.core.algorithm.acceptor.SolutionAcceptor;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.util.Solutions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe pool of solutions that is shared by concurrently searching workers.
+ *
+ * <p>The pool memorizes an immutable snapshot of its solutions. To accept a new solution, the acceptor runs on a
+ * private copy of the current snapshot and, if it accepts, the modified copy replaces the snapshot unless another
+ * thread has replaced it in the meantime. In that case, the acceptor runs again on the new snapshot. Thus acceptance is
+ * lock-free, and readers never block writers.
+ *
+ * <p>Note that acceptors must not have side effects other than modifying the solutions they are passed, since they
+ * might run more than once per solution.
+ *
+ * @author schroeder
+ *
+ */
+public class SolutionPool {
+
+	private final AtomicReference<List<VehicleRoutingProblemSolution>> solutions = new AtomicReference<List<VehicleRoutingProblemSolution>>(Collections.<VehicleRoutingProblemSolution>emptyList());
+
+	/**
+	 * Evaluates newSolution with acceptor and, if it is accepted, applies the modifications of the acceptor to this pool.
+	 *
+	 * @param acceptor the acceptor deciding whether newSolution is accepted
+	 * @param newSolution the solution to be evaluated
+	 * @return true if newSolution has been accepted
+	 */
+	public boolean accept(SolutionAcceptor acceptor, VehicleRoutingProblemSolution newSolution){
+		while(true){
+			List<VehicleRoutingProblemSolution> current = solutions.get();
+			List<VehicleRoutingProblemSolution> next = new ArrayList<VehicleRoutingProblemSolution>(current);
+			if(!acceptor.acceptSolution(next, newSolution)) return false;
+			if(solutions.compareAndSet(current, next)) return true;
+		}
+	}
+
+	/**
+	 * Adds initialSolutions to this pool if the pool is empty.
+	 *
+	 * <p>If several workers create initial solutions, only the ones that come first are memorized.
+	 *
+	 * @param initialSolutions the initial solutions
+	 * @return true if initialSolutions have been added
+	 */
+	public boolean seed(Collection<VehicleRoutingProblemSolution> initialSolutions){
+		if(initialSolutions.isEmpty()) return false;
+		List<VehicleRoutingProblemSolution> current = solutions.get();
+		if(!current.isEmpty()) return false;
+		return solutions.compareAndSet(current, new ArrayList<VehicleRoutingProblemSolution>(initialSolutions));
+	}
+
+	/**
+	 * Returns a copy of the solutions currently memorized.
+	 *
+	 * @return solutions
+	 */
+	public Collection<VehicleRoutingProblemSolution> getSolutions(){
+		return new ArrayList<VehicleRoutingProblemSolution>(solutions.get());
+	}
+
+	/**
+	 * Returns the best solution currently memorized, or null if the pool is empty.
+	 *
+	 * @return best solution
+	 */
+	public VehicleRoutingProblemSolution getBest(){
+		return Solutions.bestOf(solutions.get());
+	}
+
+	public int size(){
+		return solutions.get().size();
+	}
+
+}
@@ -19,6 +19,7 @@
 package jsprit.core.algorithm;
 
 import jsprit.core.algorithm.state.InternalStates;
+import jsprit.core.problem.solution.RouteCostCalculator;
 import jsprit.core.problem.solution.SolutionCostCalculator;
 import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
 import jsprit.core.problem.solution.route.VehicleRoute;
@@ -49,19 +50,52 @@ public class VariablePlusFixedSolutionCostCalculatorFactory {
 			public double getCosts(VehicleRoutingProblemSolution solution) {
 				double c = 0.0;
                 for(VehicleRoute r : solution.getRoutes()){
-					c += stateManager.getRouteState(r, InternalStates.COSTS, Double.class);
-					c += getFixedCosts(r.getVehicle());
+					c += getRouteCosts(r);
 				}
-                c += solution.getUnassignedJobs().size() * c * .1;
+                c += getUnassignedJobCosts(solution, c);
 				return c;
 			}
 
-            private double getFixedCosts(Vehicle vehicle) {
-                if(vehicle == null) return 0.0;
-                if(vehicle.getType() == null) return 0.0;
-                return vehicle.getType().getVehicleCostParams().fix;
-            }
 		};
 	}
 
+	/**
+	 * Returns a calculator evaluating the same objective function as {@link #createCalculator()}, but that only re-evaluates
+	 * routes that have changed since the solution has been copied.
+	 *
+	 * @return incremental calculator
+	 * @see IncrementalSolutionCostCalculator
+	 */
+	public IncrementalSolutionCostCalculator createIncrementalCalculator(){
+		return new IncrementalSolutionCostCalculator(new RouteCostCalculator() {
+
+			@Override
+			public double getCosts(VehicleRoute route) {
+				return getRouteCosts(route);
+			}
+
+		}) {
+
+			@Override
+			protected double getSolutionLevelCosts(VehicleRoutingProblemSolution solution, double routeCosts) {
+				return getUnassignedJobCosts(solution, routeCosts);
+			}
+
+		};
+	}
+
+	private double getRouteCosts(VehicleRoute r) {
+		return stateManager.getRouteState(r, InternalStates.COSTS, Double.class) + getFixedCosts(r.getVehicle());
+	}
+
+	private double getUnassignedJobCosts(VehicleRoutingProblemSolution solution, double routeCosts) {
+		return solution.getUnassignedJobs().size() * routeCosts * .1;
+	}
+
+    private double getFixedCosts(Vehicle vehicle) {
+        if(vehicle == null) return 0.0;
+        if(vehicle.getType() == null) return 0.0;
+        return vehicle.getType().getVehicleCostParams().fix;
+    }
+
 }
@@ -29,6 +29,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -100,6 +101,8 @@ public class VehicleRoutingAlgorithm {
     private TerminationManager terminationManager = new TerminationManager();
 
     private VehicleRoutingProblemSolution bestEver = null;
+
+    private ExecutionContext executionContext = null;
 	
 	public VehicleRoutingAlgorithm(VehicleRoutingProblem problem, SearchStrategyManager searchStrategyManager) {
 		super();
@@ -185,11 +188,22 @@ public class VehicleRoutingAlgorithm {
 	 * <p>The algorithm runs as long as it is specified in nuOfIterations and prematureBreak. In each iteration it selects a searchStrategy according
 	 * to searchStrategyManager and runs the strategy to improve solutions. 
 	 * <p>Note that clients are allowed to observe/listen the algorithm. See {@link VehicleRoutingAlgorithmListener} and its according listeners.
+	 * <p>Exceptions thrown in concurrent parts of the algorithm are rethrown. If the algorithm owns its execution context,
+	 * the executor service is shut down when this method returns, whether successfully or not.
 	 * 
 	 * @return Collection<VehicleRoutingProblemSolution> the solutions 
 	 * @see {@link SearchStrategyManager}, {@link VehicleRoutingAlgorithmListener}, {@link AlgorithmStartsListener}, {@link AlgorithmEndsListener}, {@link IterationStartsListener}, {@link IterationEndsListener}
 	 */
 	public Collection<VehicleRoutingProblemSolution> searchSolutions(){
+		try{
+			return search();
+		}
+		finally{
+			if(executionContext != null) executionContext.release();
+		}
+	}
+
+	private Collection<VehicleRoutingProblemSolution> search(){
 		logger.info("------------------------------------------------");
 		logger.info("algorithm starts");
 		double now = System.currentTimeMillis();
@@ -204,7 +218,9 @@ public class VehicleRoutingAlgorithm {
 			iterationStarts(i+1,problem,solutions);
 			counter.incCounter();
 			SearchStrategy strategy = searchStrategyManager.getRandomStrategy();
+			long start = System.nanoTime();
 			DiscoveredSolution discoveredSolution = strategy.run(problem, solutions);
+			searchStrategyManager.informStrategyRun(strategy, discoveredSolution, isBestEver(discoveredSolution), System.nanoTime() - start);
             memorizeIfBestEver(discoveredSolution);
 			selectedStrategy(strategy.getName(),problem, solutions);
             if(terminationManager.isPrematureBreak(discoveredSolution)){
@@ -223,10 +239,68 @@ public class VehicleRoutingAlgorithm {
 		return solutions;
 	}
 
+	/**
+	 * Runs this algorithm as one of several workers that search concurrently on a shared pool of solutions.
+	 *
+	 * <p>Iterations are drawn from the shared iteration counter until maxIterations is reached, thus the iteration numbers
+	 * passed to listeners count the iterations of all workers. Listeners receive a copy of the solutions in the pool, i.e.
+	 * modifying them has no effect on the pool. If this worker terminates prematurely, the other workers stop after their
+	 * current iteration.
+	 *
+	 * @param solutionPool the shared pool of solutions
+	 * @param iterations the shared iteration counter
+	 * @return the solutions in the pool when this worker stops, and the best solution this worker has found
+	 */
+	Collection<VehicleRoutingProblemSolution> searchSolutions(SolutionPool solutionPool, AtomicInteger iterations){
+		try{
+			return search(solutionPool, iterations);
+		}
+		finally{
+			if(executionContext != null) executionContext.release();
+		}
+	}
+
+	private Collection<VehicleRoutingProblemSolution> search(SolutionPool solutionPool, AtomicInteger iterations){
+		logger.info("worker starts");
+		verify();
+		counter.reset();
+		Collection<VehicleRoutingProblemSolution> solutions = new ArrayList<VehicleRoutingProblemSolution>(initialSolutions);
+		algorithmStarts(problem,solutions);
+		solutionPool.seed(solutions);
+		bestEver = Solutions.bestOf(solutions);
+		int i;
+		while((i = iterations.incrementAndGet()) <= maxIterations){
+			iterationStarts(i,problem,solutionPool.getSolutions());
+			counter.incCounter();
+			SearchStrategy strategy = searchStrategyManager.getRandomStrategy();
+			long start = System.nanoTime();
+			DiscoveredSolution discoveredSolution = strategy.runOnPool(problem, solutionPool);
+			searchStrategyManager.informStrategyRun(strategy, discoveredSolution, isBestEver(discoveredSolution), System.nanoTime() - start);
+			memorizeIfBestEver(discoveredSolution);
+			selectedStrategy(strategy.getName(),problem,solutionPool.getSolutions());
+			if(terminationManager.isPrematureBreak(discoveredSolution)){
+				logger.info("premature algorithm termination at iteration "+ i);
+				iterations.set(maxIterations);
+				break;
+			}
+			iterationEnds(i,problem,solutionPool.getSolutions());
+		}
+		solutions = solutionPool.getSolutions();
+		addBestEver(solutions);
+		algorithmEnds(problem, solutions);
+		logger.info("worker done");
+		return solutions;
+	}
+
     private void addBestEver(Collection<VehicleRoutingProblemSolution> solutions) {
         if(bestEver != null) solutions.add(bestEver);
     }
 
+    private boolean isBestEver(DiscoveredSolution discoveredSolution) {
+        if(discoveredSolution == null) return false;
+        return bestEver == null || discoveredSolution.getSolution().getCost() < bestEver.getCost();
+    }
+
     private void memorizeIfBestEver(DiscoveredSolution discoveredSolution) {
         if(discoveredSolution == null) return;
         if(bestEver == null) bestEver = discoveredSolution.getSolution();
@@ -286,6 +360,19 @@ public class VehicleRoutingAlgorithm {
 		algoListeners.algorithmStarts(problem, this, solutions);
 	}
 
+    /**
+     * Sets the execution context whose executor service runs the concurrent parts of this algorithm.
+     *
+     * @param executionContext the execution context
+     */
+    public void setExecutionContext(ExecutionContext executionContext) {
+        this.executionContext = executionContext;
+    }
+
+    public ExecutionContext getExecutionContext() {
+        return executionContext;
+    }
+
     /**
      * Sets max number of iterations.
      *
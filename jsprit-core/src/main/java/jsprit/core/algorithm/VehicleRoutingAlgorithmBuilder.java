@@ -50,6 +50,14 @@ public class VehicleRoutingAlgorithmBuilder {
 	private ConstraintManager constraintManager;
 
 	private int nuOfThreads=0;
+
+	private ExecutionContext executionContext;
+
+	private boolean adaptiveStrategyWeights = false;
+
+	private double reactionFactor;
+
+	private int segmentLength;
 	
 	/**
 	 * Constructs the builder with the problem and an algorithmConfigFile. Latter is to configure and specify the ruin-and-recreate meta-heuristic.
@@ -81,6 +89,9 @@ public class VehicleRoutingAlgorithmBuilder {
 	 * <p>If objective function is not set, a default function is applied (which basically minimizes 
 	 * fixed and variable transportation costs ({@link VariablePlusFixedSolutionCostCalculatorFactory}).
 	 * 
+	 * <p>If objective function listens to ruin and insertion, such as {@link IncrementalSolutionCostCalculator}, it is
+	 * registered as listener of the search strategy modules.
+	 * 
 	 * @param objectiveFunction to be minimized
 	 * @see VariablePlusFixedSolutionCostCalculatorFactory
 	 */
@@ -145,6 +156,29 @@ public class VehicleRoutingAlgorithmBuilder {
 		this.nuOfThreads=nuOfThreads;
 	}
 
+	/**
+	 * Sets the execution context, e.g. to share one executor service among many algorithms. It overrides nuOfThreads.
+	 *
+	 * @param executionContext the execution context
+	 */
+	public void setExecutionContext(ExecutionContext executionContext){
+		this.executionContext=executionContext;
+	}
+
+	/**
+	 * Activates adaptive strategy selection, i.e. probabilities of search strategies are adapted to their reward per
+	 * millisecond. It overrides the adaptive weights specified in the algorithm config.
+	 *
+	 * @param reactionFactor how fast probabilities react to the performance of the last segment, must be within [0,1]
+	 * @param segmentLength number of strategy runs after which probabilities are adapted
+	 * @see SearchStrategyManager#activateAdaptiveWeights(double, int)
+	 */
+	public void setAdaptiveStrategyWeights(double reactionFactor, int segmentLength){
+		this.adaptiveStrategyWeights=true;
+		this.reactionFactor=reactionFactor;
+		this.segmentLength=segmentLength;
+	}
+
 	/**
 	 * Builds and returns the algorithm.
 	 * 
@@ -172,7 +206,13 @@ public class VehicleRoutingAlgorithmBuilder {
 			AlgorithmConfigXmlReader xmlReader = new AlgorithmConfigXmlReader(algorithmConfig);
 			xmlReader.read(algorithmConfigFile);
 		}
-		return VehicleRoutingAlgorithms.readAndCreateAlgorithm(vrp, algorithmConfig, nuOfThreads, solutionCostCalculator, stateManager, constraintManager, addDefaultCostCalculators);
+		VehicleRoutingAlgorithm algorithm;
+		if(executionContext != null){
+			algorithm = VehicleRoutingAlgorithms.readAndCreateAlgorithm(vrp, algorithmConfig, executionContext, solutionCostCalculator, stateManager, constraintManager, addDefaultCostCalculators);
+		}
+		else algorithm = VehicleRoutingAlgorithms.readAndCreateAlgorithm(vrp, algorithmConfig, nuOfThreads, solutionCostCalculator, stateManager, constraintManager, addDefaultCostCalculators);
+		if(adaptiveStrategyWeights) algorithm.getSearchStrategyManager().activateAdaptiveWeights(reactionFactor, segmentLength);
+		return algorithm;
 	}
 
 	
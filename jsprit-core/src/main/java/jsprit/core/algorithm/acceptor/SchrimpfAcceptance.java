@@ -25,6 +25,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -71,11 +72,11 @@ public class SchrimpfAcceptance implements SolutionAcceptor, IterationStartsList
 	
 	private final double alpha;
 	
-	private int maxIterations = 1000;
+	private volatile int maxIterations = 1000;
 	
-	private int currentIteration = 0;
+	private final AtomicInteger currentIteration = new AtomicInteger(0);
 	
-	private double initialThreshold = 0.0;
+	private volatile double initialThreshold = 0.0;
 	
 	private final int solutionMemory;
 
@@ -94,7 +95,7 @@ public class SchrimpfAcceptance implements SolutionAcceptor, IterationStartsList
 			solutionAccepted = true;
 		} else {
 			VehicleRoutingProblemSolution worst = null;
-			double threshold = getThreshold(currentIteration);
+			double threshold = getThreshold(currentIteration.get());
 			for(VehicleRoutingProblemSolution solutionInMemory : solutions){
 				if(worst == null) worst = solutionInMemory;
 				else if(solutionInMemory.getCost() > worst.getCost()) worst = solutionInMemory;
@@ -145,12 +146,21 @@ public class SchrimpfAcceptance implements SolutionAcceptor, IterationStartsList
 	}
 
 	private void reset() {
-		currentIteration = 0;
+		currentIteration.set(0);
 	}
 
+	/**
+	 * Memorizes the current iteration that determines the threshold.
+	 *
+	 * <p>If several threads search concurrently and share this acceptor, iterations might start in a different order
+	 * than they are counted. Thus the current iteration is only increased, i.e. the threshold never goes back up.
+	 */
 	@Override
 	public void informIterationStarts(int i, VehicleRoutingProblem problem, Collection<VehicleRoutingProblemSolution> solutions) {
-		currentIteration = i;
+		while(true){
+			int current = currentIteration.get();
+			if(i <= current || currentIteration.compareAndSet(current, i)) return;
+		}
 	}
 
 }
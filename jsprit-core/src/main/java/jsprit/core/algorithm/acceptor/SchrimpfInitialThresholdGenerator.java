@@ -16,36 +16,151 @@
  ******************************************************************************/
 package jsprit.core.algorithm.acceptor;
 
+import jsprit.core.algorithm.ConcurrentTasks;
+import jsprit.core.algorithm.ExecutionContext;
+import jsprit.core.algorithm.SearchStrategy.DiscoveredSolution;
 import jsprit.core.algorithm.VehicleRoutingAlgorithm;
 import jsprit.core.algorithm.io.AlgorithmConfig;
 import jsprit.core.algorithm.io.AlgorithmConfigXmlReader;
 import jsprit.core.algorithm.io.VehicleRoutingAlgorithms;
 import jsprit.core.algorithm.listener.AlgorithmStartsListener;
 import jsprit.core.algorithm.listener.IterationEndsListener;
+import jsprit.core.algorithm.termination.PrematureAlgorithmTermination;
 import jsprit.core.problem.VehicleRoutingProblem;
 import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.util.RandomNumberGeneration;
 import jsprit.core.util.Resource;
 import jsprit.core.util.Solutions;
-import org.apache.commons.math.stat.descriptive.moment.StandardDeviation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Determines the initial threshold of {@link SchrimpfAcceptance} by random walks through the search space (see randomWalk.xml).
+ * 
+ * <p>The initial threshold is half of the standard deviation of the solution costs visited by the random walks. By default,
+ * one walk runs nOfRandomWalks iterations. If the number of walks is set, the iterations are split among independent
+ * walks, each created in a thread bound to its own random number stream (see {@link RandomNumberGeneration#newStream(long, int)}).
+ * These walks run concurrently on the executor of the algorithm's execution context if there is one. The calling thread 
+ * runs each walk the executor has not started yet itself. Thus the warmup neither waits for idle threads of a busy shared 
+ * executor nor deadlocks if the calling thread is one of its threads.
+ * 
+ * <p>If early stopping is set, the standard deviation is estimated incrementally, and the walks stop as soon as the estimate
+ * changes by no more than tolerance (relative to the estimate) from one window of samples to the next.
+ * 
+ * @author schroeder
+ *
+ */
 public class SchrimpfInitialThresholdGenerator implements AlgorithmStartsListener {
 	
+	/**
+	 * Estimates the standard deviation of a sample incrementally, and tells whether the estimate has converged.
+	 */
+	static class StandardDeviationEstimator {
+		
+		private final double tolerance;
+		
+		private final int window;
+		
+		private int noSamples = 0;
+		
+		private double mean = 0.0;
+		
+		private double sumOfSquaredDeviations = 0.0;
+		
+		private double standardDeviationAtLastWindow = Double.NaN;
+		
+		private boolean converged = false;
+		
+		/**
+		 * @param tolerance max relative change of the estimate between two windows to be converged, or 0 to never converge
+		 * @param window number of samples between two checks of convergence
+		 */
+		StandardDeviationEstimator(double tolerance, int window) {
+			this.tolerance = tolerance;
+			this.window = window;
+		}
+		
+		synchronized void add(double value){
+			noSamples++;
+			double delta = value - mean;
+			mean += delta / noSamples;
+			sumOfSquaredDeviations += delta * (value - mean);
+			if(tolerance > 0. && noSamples % window == 0){
+				double standardDeviation = getStandardDeviation();
+				if(!Double.isNaN(standardDeviationAtLastWindow) && Math.abs(standardDeviation - standardDeviationAtLastWindow) <= tolerance * standardDeviation){
+					converged = true;
+				}
+				standardDeviationAtLastWindow = standardDeviation;
+			}
+		}
+		
+		synchronized boolean hasConverged(){
+			return converged;
+		}
+		
+		/**
+		 * Returns the sample standard deviation, or 0 if there are less than two samples.
+		 */
+		synchronized double getStandardDeviation(){
+			if(noSamples < 2) return 0.;
+			return Math.sqrt(sumOfSquaredDeviations / (noSamples - 1));
+		}
+		
+		synchronized int getNoSamples(){
+			return noSamples;
+		}
+		
+	}
+	
 	private static Logger logger = LogManager.getLogger(SchrimpfInitialThresholdGenerator.class.getName());
 	
 	private SchrimpfAcceptance schrimpfAcceptance;
 	
 	private int nOfRandomWalks;
 	
+	private int nuOfWalks = 1;
+	
+	private double tolerance = 0.;
+	
+	private int window;
+	
 	public SchrimpfInitialThresholdGenerator(SchrimpfAcceptance schrimpfAcceptance, int nOfRandomWalks) {
 		super();
 		this.schrimpfAcceptance = schrimpfAcceptance;
 		this.nOfRandomWalks = nOfRandomWalks;
 	}
+	
+	/**
+	 * Sets the number of independent walks the nOfRandomWalks iterations are split among. Default is 1.
+	 * 
+	 * @param nuOfWalks number of walks
+	 */
+	public void setNuOfWalks(int nuOfWalks) {
+		if(nuOfWalks < 1) throw new IllegalArgumentException("number of walks must be at least 1");
+		this.nuOfWalks = nuOfWalks;
+	}
+	
+	/**
+	 * Lets the walks stop as soon as the estimate of the standard deviation changes by no more than tolerance (relative
+	 * to the estimate) within window iterations.
+	 * 
+	 * @param tolerance max relative change of the estimate
+	 * @param window number of iterations between two checks of convergence
+	 */
+	public void setEarlyStopping(double tolerance, int window) {
+		if(window < 2) throw new IllegalArgumentException("window must be at least 2");
+		this.tolerance = tolerance;
+		this.window = window;
+	}
 
 	@Override
 	public void informAlgorithmStarts(VehicleRoutingProblem problem,VehicleRoutingAlgorithm algorithm,Collection<VehicleRoutingProblemSolution> solutions) {
@@ -54,38 +169,89 @@ public class SchrimpfInitialThresholdGenerator implements AlgorithmStartsListene
 		logger.info("start random-walk (see randomWalk.xml)");
 		double now = System.currentTimeMillis();
 		
-		/*
-		 * randomWalk to determine standardDev
-		 */
-		final double[] results = new double[nOfRandomWalks];
+		StandardDeviationEstimator estimator = new StandardDeviationEstimator(tolerance, window);
+		randomWalks(problem, algorithm.getExecutionContext(), estimator);
+		double standardDeviation = estimator.getStandardDeviation();
+		double initialThreshold = standardDeviation / 2;
 		
+		schrimpfAcceptance.setInitialThreshold(initialThreshold);
+
+		logger.info("warmup done");
+		logger.info("total time: " + ((System.currentTimeMillis()-now)/1000.0) + "s");
+		logger.info("iterations: " + estimator.getNoSamples());
+		logger.info("initial threshold: " + initialThreshold);
+		logger.info("---------------------------------------------------------------------");
+	}
+
+	void randomWalks(final VehicleRoutingProblem problem, ExecutionContext executionContext, final StandardDeviationEstimator estimator) {
+		if(nuOfWalks == 1){
+			randomWalk(problem, nOfRandomWalks, null, estimator);
+			return;
+		}
+		List<FutureTask<Object>> walks = new ArrayList<FutureTask<Object>>();
+		long masterSeed = RandomNumberGeneration.getRandom().nextLong();
+		for(int w=0;w<nuOfWalks;w++){
+			final int iterations = nOfRandomWalks / nuOfWalks + (w < nOfRandomWalks % nuOfWalks ? 1 : 0);
+			final Random walkRandom = RandomNumberGeneration.newStream(masterSeed, w);
+			if(iterations == 0) continue;
+			walks.add(new FutureTask<Object>(new Callable<Object>() {
+
+				@Override
+				public Object call() throws Exception {
+					randomWalk(problem, iterations, walkRandom, estimator);
+					return null;
+				}
+
+			}));
+		}
+		if(executionContext != null){
+			for(FutureTask<Object> walk : walks){
+				try{
+					executionContext.getExecutorService().execute(walk);
+				}
+				catch(RejectedExecutionException e){
+					//walk is run by calling thread below
+				}
+			}
+		}
+		for(FutureTask<Object> walk : walks){
+			//does nothing if walk has already been started by the executor
+			walk.run();
+			ConcurrentTasks.get(walk, walks);
+		}
+	}
+
+	private void randomWalk(VehicleRoutingProblem problem, int iterations, Random random, final StandardDeviationEstimator estimator) {
 		URL resource = Resource.getAsURL("randomWalk.xml");
 		AlgorithmConfig algorithmConfig = new AlgorithmConfig();
 		new AlgorithmConfigXmlReader(algorithmConfig).read(resource);
-		VehicleRoutingAlgorithm vra = VehicleRoutingAlgorithms.createAlgorithm(problem, algorithmConfig);
-		vra.setMaxIterations(nOfRandomWalks);
+		Random previous = null;
+		if(random != null) previous = RandomNumberGeneration.bindToCurrentThread(random);
+		VehicleRoutingAlgorithm vra;
+		try{
+			vra = VehicleRoutingAlgorithms.createAlgorithm(problem, algorithmConfig);
+		}
+		finally{
+			if(random != null) RandomNumberGeneration.bindToCurrentThread(previous);
+		}
+		vra.setMaxIterations(iterations);
 		vra.getAlgorithmListeners().addListener(new IterationEndsListener() {
 			
 			@Override
 			public void informIterationEnds(int iteration, VehicleRoutingProblem problem, Collection<VehicleRoutingProblemSolution> solutions) {
-				double result = Solutions.bestOf(solutions).getCost();
-//				logger.info("result="+result);
-				results[iteration-1] = result;
+				estimator.add(Solutions.bestOf(solutions).getCost());
 			}
 			
+		});
+		vra.addTerminationCriterion(new PrematureAlgorithmTermination() {
+
+			@Override
+			public boolean isPrematureBreak(DiscoveredSolution discoveredSolution) {
+				return estimator.hasConverged() || Thread.currentThread().isInterrupted();
+			}
+
 		});
 		vra.searchSolutions();
-		
-		StandardDeviation dev = new StandardDeviation();
-		double standardDeviation = dev.evaluate(results);
-		double initialThreshold = standardDeviation / 2;
-		
-		schrimpfAcceptance.setInitialThreshold(initialThreshold);
-		
-		logger.info("warmup done");
-		logger.info("total time: " + ((System.currentTimeMillis()-now)/1000.0) + "s");
-		logger.info("initial threshold: " + initialThreshold);
-		logger.info("---------------------------------------------------------------------");
 	}
 
 }
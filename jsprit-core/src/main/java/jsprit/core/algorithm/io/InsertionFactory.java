@@ -105,10 +105,25 @@ class InsertionFactory {
 			if(allowVehicleSwitch != null){
 				iBuilder.setAllowVehicleSwitch(Boolean.parseBoolean(allowVehicleSwitch));
 			}
+			String fastShipmentInsertion = config.getString("fastShipmentInsertion");
+			if(fastShipmentInsertion != null){
+				iBuilder.setFastShipmentInsertion(Boolean.parseBoolean(fastShipmentInsertion));
+			}
+			String routePruning = config.getString("routePruning");
+			if(routePruning != null){
+				iBuilder.setRoutePruning(Boolean.parseBoolean(routePruning));
+			}
 			if(insertionName.equals("bestInsertion")){		
 				insertionStrategy = iBuilder.build();
 			}
-			else throw new IllegalStateException("currently only 'bestInsertion' is supported");
+			else if(insertionName.equals("regretInsertion")){
+				int k = 2;
+				String kString = config.getString("k");
+				if(kString != null) k = Integer.parseInt(kString);
+				else log.warn("parameter k is missing. by default it is 2, i.e. regret-2 insertion");
+				insertionStrategy = iBuilder.setRegretInsertion(k).build();
+			}
+			else throw new IllegalStateException("currently only 'bestInsertion' and 'regretInsertion' are supported");
 			
 			for(InsertionListener l : insertionListeners) insertionStrategy.addListener(l);
 
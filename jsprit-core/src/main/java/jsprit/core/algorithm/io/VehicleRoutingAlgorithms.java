@@ -22,6 +22,7 @@ import jsprit.core.algorithm.acceptor.*;
 import jsprit.core.algorithm.io.VehicleRoutingAlgorithms.TypedMap.*;
 import jsprit.core.algorithm.listener.AlgorithmEndsListener;
 import jsprit.core.algorithm.listener.AlgorithmStartsListener;
+import jsprit.core.algorithm.listener.SearchStrategyModuleListener;
 import jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners.PrioritizedVRAListener;
 import jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners.Priority;
 import jsprit.core.algorithm.module.RuinAndRecreateModule;
@@ -31,6 +32,7 @@ import jsprit.core.algorithm.recreate.listener.InsertionListener;
 import jsprit.core.algorithm.ruin.RadialRuinStrategyFactory;
 import jsprit.core.algorithm.ruin.RandomRuinStrategyFactory;
 import jsprit.core.algorithm.ruin.RuinStrategy;
+import jsprit.core.algorithm.ruin.WorstRuinStrategyFactory;
 import jsprit.core.algorithm.ruin.distance.AvgServiceAndShipmentDistance;
 import jsprit.core.algorithm.ruin.distance.JobDistance;
 import jsprit.core.algorithm.selector.SelectBest;
@@ -60,11 +62,9 @@ import org.apache.commons.configuration.XMLConfiguration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.Thread.UncaughtExceptionHandler;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class VehicleRoutingAlgorithms {
 	
@@ -493,8 +493,38 @@ public class VehicleRoutingAlgorithms {
 		return readAndCreateAlgorithm(vrp, config.getXMLConfiguration(),nuOfThreads, solutionCostCalculator, stateManager, constraintManager, addDefaultCostCalculators);
 	}
 	
+	/**
+	 * Creates an algorithm from config whose concurrent parts run in executionContext.
+	 *
+	 * <p>Use {@link ExecutionContext#newInstance(java.util.concurrent.ExecutorService, int)} to share one executor service
+	 * among many algorithms. Exceptions thrown in concurrent parts are rethrown by {@link VehicleRoutingAlgorithm#searchSolutions()}.
+	 *
+	 * @param vrp the routing problem
+	 * @param config the algorithm config
+	 * @param executionContext the execution context, or null if the algorithm should run in the calling thread only
+	 * @param solutionCostCalculator the objective function, or null if the default one should be used
+	 * @param stateManager the state manager
+	 * @param constraintManager the constraint manager
+	 * @param addDefaultCostCalculators true if default cost calculators should be added
+	 * @return {@link jsprit.core.algorithm.VehicleRoutingAlgorithm}
+	 */
+	public static VehicleRoutingAlgorithm readAndCreateAlgorithm(final VehicleRoutingProblem vrp, AlgorithmConfig config,
+			ExecutionContext executionContext, SolutionCostCalculator solutionCostCalculator, final StateManager stateManager, ConstraintManager constraintManager, boolean addDefaultCostCalculators) {
+		return readAndCreateAlgorithm(vrp, config.getXMLConfiguration(), executionContext, solutionCostCalculator, stateManager, constraintManager, addDefaultCostCalculators);
+	}
+
 	private static VehicleRoutingAlgorithm readAndCreateAlgorithm(final VehicleRoutingProblem vrp, XMLConfiguration config,
 			int nuOfThreads, SolutionCostCalculator solutionCostCalculator, final StateManager stateManager, ConstraintManager constraintManager, boolean addDefaultCostCalculators) {
+		ExecutionContext executionContext = null;
+		if(nuOfThreads > 0){
+			log.info("setup executor-service with " + nuOfThreads + " threads");
+			executionContext = ExecutionContext.newInstance(nuOfThreads);
+		}
+		return readAndCreateAlgorithm(vrp, config, executionContext, solutionCostCalculator, stateManager, constraintManager, addDefaultCostCalculators);
+	}
+
+	private static VehicleRoutingAlgorithm readAndCreateAlgorithm(final VehicleRoutingProblem vrp, XMLConfiguration config,
+			ExecutionContext executionContext, SolutionCostCalculator solutionCostCalculator, final StateManager stateManager, ConstraintManager constraintManager, boolean addDefaultCostCalculators) {
 		// map to store constructed modules
 		TypedMap definedClasses = new TypedMap();
 		
@@ -507,35 +537,15 @@ public class VehicleRoutingAlgorithms {
 
 		//threading
 		final ExecutorService executorService;
-		if(nuOfThreads > 0){
-			log.info("setup executor-service with " + nuOfThreads + " threads");
-			executorService = Executors.newFixedThreadPool(nuOfThreads);
-			algorithmListeners.add(new PrioritizedVRAListener(Priority.LOW, new AlgorithmEndsListener() {
-
-				@Override
-				public void informAlgorithmEnds(VehicleRoutingProblem problem,Collection<VehicleRoutingProblemSolution> solutions) {
-					log.info("shutdown executor-service");
-					executorService.shutdown();
-				}
-			}));
-			Thread.setDefaultUncaughtExceptionHandler(new UncaughtExceptionHandler() {
-
-				@Override
-				public void uncaughtException(Thread arg0, Throwable arg1) {
-					System.err.println(arg1.toString());
-					System.exit(0);
-				}
-			});
-			Runtime.getRuntime().addShutdownHook(new Thread(){
-				public void run(){
-					if(!executorService.isShutdown()){
-						System.err.println("shutdowHook shuts down executorService");
-						executorService.shutdown();
-					}
-				}
-			});
+		final int nuOfThreads;
+		if(executionContext != null){
+			executorService = executionContext.getExecutorService();
+			nuOfThreads = executionContext.getNuOfThreads();
+		}
+		else{
+			executorService = null;
+			nuOfThreads = 0;
 		}
-		else executorService = null; 
 
 
 		//create fleetmanager
@@ -598,9 +608,15 @@ public class VehicleRoutingAlgorithms {
 			}
 			searchStratManager.addStrategy(strategy, strategyConfig.getDouble("probability"));
 		}
+		List<HierarchicalConfiguration> adaptiveWeightsConfigs = config.configurationsAt("strategy.adaptiveWeights");
+		if(!adaptiveWeightsConfigs.isEmpty()){
+			HierarchicalConfiguration adaptiveWeightsConfig = adaptiveWeightsConfigs.get(0);
+			searchStratManager.activateAdaptiveWeights(adaptiveWeightsConfig.getDouble("reactionFactor", 0.1), adaptiveWeightsConfig.getInt("segmentLength", 100));
+		}
 		
 		//construct algorithm
 		VehicleRoutingAlgorithm metaAlgorithm = new VehicleRoutingAlgorithm(vrp, searchStratManager);
+		metaAlgorithm.setExecutionContext(executionContext);
 		String maxIterationsString = config.getString("iterations");
         if(maxIterationsString == null) maxIterationsString = config.getString("maxIterations");
         if(maxIterationsString != null) metaAlgorithm.setMaxIterations(Integer.parseInt(maxIterationsString));
@@ -611,6 +627,9 @@ public class VehicleRoutingAlgorithms {
 		metaAlgorithm.getSearchStrategyManager().addSearchStrategyModuleListener(new RemoveEmptyVehicles(vehicleFleetManager));
 		metaAlgorithm.getSearchStrategyManager().addSearchStrategyModuleListener(new ResetAndIniFleetManager(vehicleFleetManager));
 		metaAlgorithm.getSearchStrategyManager().addSearchStrategyModuleListener(new VehicleSwitched(vehicleFleetManager));
+		if(costCalculator instanceof SearchStrategyModuleListener){
+			metaAlgorithm.getSearchStrategyManager().addSearchStrategyModuleListener((SearchStrategyModuleListener) costCalculator);
+		}
 		
 		//define prematureBreak
 		PrematureAlgorithmTermination prematureAlgorithmTermination = getPrematureTermination(config, algorithmListeners);
@@ -843,6 +862,10 @@ public class VehicleRoutingAlgorithms {
 			SchrimpfAcceptance schrimpf = new SchrimpfAcceptance(solutionMemory, alpha);
 			if(nuWarmupIterations!=null){
 				SchrimpfInitialThresholdGenerator iniThresholdGenerator = new SchrimpfInitialThresholdGenerator(schrimpf, Integer.parseInt(nuWarmupIterations));
+				String nuWalks = strategyConfig.getString("acceptor.warmup[@walks]");
+				if(nuWalks != null) iniThresholdGenerator.setNuOfWalks(Integer.parseInt(nuWalks));
+				String tolerance = strategyConfig.getString("acceptor.warmup[@tolerance]");
+				if(tolerance != null) iniThresholdGenerator.setEarlyStopping(Double.parseDouble(tolerance), strategyConfig.getInt("acceptor.warmup[@window]", 50));
 				algorithmListeners.add(new PrioritizedVRAListener(Priority.LOW, iniThresholdGenerator));
 			}
 			else{
@@ -892,9 +915,15 @@ public class VehicleRoutingAlgorithms {
 			}
 			else if(ruin_name.equals("radialRuin")){
 				JobDistance jobDistance = new AvgServiceAndShipmentDistance(vrp.getTransportCosts());
-				ruin = getRadialRuin(vrp, routeStates, definedClasses, ruinKey, shareToRuin, jobDistance);
+				ruin = getRadialRuin(vrp, routeStates, definedClasses, ruinKey, shareToRuin, jobDistance, executorService, nuOfThreads);
+			}
+			else if(ruin_name.equals("worstRuin")){
+				String exponentString = moduleConfig.getString("ruin.exponent");
+				double exponent = 3.;
+				if(exponentString != null) exponent = Double.valueOf(exponentString);
+				ruin = getWorstRuin(vrp, routeStates, definedClasses, ruinKey, shareToRuin, exponent);
 			}
-			else throw new IllegalStateException("ruin[@name] " + ruin_name + " is not known. Use either randomRuin or radialRuin.");
+			else throw new IllegalStateException("ruin[@name] " + ruin_name + " is not known. Use either randomRuin, radialRuin or worstRuin.");
 			
 			String insertionName = moduleConfig.getString("insertion[@name]");
 			if(insertionName == null) throw new IllegalStateException("module.insertion[@name] is missing. set it to \"regretInsertion\" or \"bestInsertion\"");
@@ -920,14 +949,15 @@ public class VehicleRoutingAlgorithms {
 				"\n\tcurrently there are following modules available: " +
 				"\n\tbestInsertion" +
 				"\n\trandomRuin" +
-				"\n\tradialRuin");
+				"\n\tradialRuin" +
+				"\n\tworstRuin");
 	}
 
-	private static RuinStrategy getRadialRuin(final VehicleRoutingProblem vrp, final StateManager routeStates, TypedMap definedClasses, ModKey modKey, double shareToRuin, JobDistance jobDistance) {
+	private static RuinStrategy getRadialRuin(final VehicleRoutingProblem vrp, final StateManager routeStates, TypedMap definedClasses, ModKey modKey, double shareToRuin, JobDistance jobDistance, ExecutorService executorService, int nuOfThreads) {
 		RuinStrategyKey stratKey = new RuinStrategyKey(modKey);
 		RuinStrategy ruin = definedClasses.get(stratKey);
 		if(ruin == null){
-			ruin = new RadialRuinStrategyFactory(shareToRuin, jobDistance).createStrategy(vrp);
+			ruin = new RadialRuinStrategyFactory(shareToRuin, jobDistance).setConcurrentMode(executorService, nuOfThreads).createStrategy(vrp);
 			definedClasses.put(stratKey, ruin);
 		}
 		return ruin;
@@ -943,6 +973,16 @@ public class VehicleRoutingAlgorithms {
 		return ruin;
 	}
 	
+	private static RuinStrategy getWorstRuin(final VehicleRoutingProblem vrp, final StateManager routeStates, TypedMap definedClasses, ModKey modKey, double shareToRuin, double exponent) {
+		RuinStrategyKey stratKey = new RuinStrategyKey(modKey);
+		RuinStrategy ruin = definedClasses.get(stratKey);
+		if(ruin == null){
+			ruin = new WorstRuinStrategyFactory(shareToRuin, routeStates, exponent).createStrategy(vrp);
+			definedClasses.put(stratKey, ruin);
+		}
+		return ruin;
+	}
+	
 	private static InsertionStrategy createInsertionStrategy(HierarchicalConfiguration moduleConfig, VehicleRoutingProblem vrp,VehicleFleetManager vehicleFleetManager, StateManager routeStates, List<PrioritizedVRAListener> algorithmListeners, ExecutorService executorService, int nuOfThreads, ConstraintManager constraintManager, boolean addDefaultCostCalculators) {
 		return InsertionFactory.createInsertion(vrp, moduleConfig, vehicleFleetManager, routeStates, algorithmListeners, executorService, nuOfThreads, constraintManager, addDefaultCostCalculators);
 	}
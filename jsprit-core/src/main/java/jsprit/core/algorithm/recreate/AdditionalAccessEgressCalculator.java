@@ -25,6 +25,8 @@ import jsprit.core.problem.solution.route.VehicleRoute;
 import jsprit.core.problem.solution.route.activity.TourActivity;
 import jsprit.core.problem.vehicle.Vehicle;
 
+import java.util.List;
+
 /**
  * Estimates additional access/egress costs when operating route with a new vehicle that has different start/end-location.
  * 
@@ -57,13 +59,14 @@ class AdditionalAccessEgressCalculator {
 		Driver newDriver = insertionContext.getNewDriver();
 		double newVehicleDepartureTime = insertionContext.getNewDepTime();
 		if(!currentRoute.isEmpty()){
-			double accessTransportCostNew = routingCosts.getTransportCost(newVehicle.getStartLocationId(), currentRoute.getActivities().get(0).getLocationId(), newVehicleDepartureTime, newDriver, newVehicle);
-			double accessTransportCostOld = routingCosts.getTransportCost(currentRoute.getStart().getLocationId(), currentRoute.getActivities().get(0).getLocationId(), currentRoute.getDepartureTime(), currentRoute.getDriver(), currentRoute.getVehicle());
+			List<TourActivity> activities = currentRoute.getActivities();
+			double accessTransportCostNew = routingCosts.getTransportCost(newVehicle.getStartLocationId(), activities.get(0).getLocationId(), newVehicleDepartureTime, newDriver, newVehicle);
+			double accessTransportCostOld = routingCosts.getTransportCost(currentRoute.getStart().getLocationId(), activities.get(0).getLocationId(), currentRoute.getDepartureTime(), currentRoute.getDriver(), currentRoute.getVehicle());
 			
 			delta_access = accessTransportCostNew - accessTransportCostOld;
 			
 			if(newVehicle.isReturnToDepot()){
-				TourActivity lastActivityBeforeEndOfRoute = currentRoute.getActivities().get(currentRoute.getActivities().size()-1);
+				TourActivity lastActivityBeforeEndOfRoute = activities.get(activities.size()-1);
 				double lastActivityEndTimeWithOldVehicleAndDepartureTime = lastActivityBeforeEndOfRoute.getEndTime();
 				double lastActivityEndTimeEstimationWithNewVehicleAndNewDepartureTime = Math.max(0.0, lastActivityEndTimeWithOldVehicleAndDepartureTime + (newVehicleDepartureTime - currentRoute.getDepartureTime()));
 				double egressTransportCostNew = routingCosts.getTransportCost(lastActivityBeforeEndOfRoute.getLocationId(), newVehicle.getEndLocationId() , lastActivityEndTimeEstimationWithNewVehicleAndNewDepartureTime, newDriver, newVehicle);
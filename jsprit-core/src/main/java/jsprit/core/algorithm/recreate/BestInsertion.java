@@ -63,6 +63,25 @@ final class BestInsertion implements InsertionStrategy{
 		
 	}
 	
+	private static class BoundedRoute implements Comparable<BoundedRoute> {
+		
+		private final VehicleRoute route;
+		
+		private final double lowerBound;
+
+		BoundedRoute(VehicleRoute route, double lowerBound) {
+			super();
+			this.route = route;
+			this.lowerBound = lowerBound;
+		}
+
+		@Override
+		public int compareTo(BoundedRoute o) {
+			return Double.compare(lowerBound, o.lowerBound);
+		}
+		
+	}
+	
 	private static Logger logger = LogManager.getLogger(BestInsertion.class);
 
 	private Random random = RandomNumberGeneration.getRandom();
@@ -78,6 +97,8 @@ final class BestInsertion implements InsertionStrategy{
 	private Inserter inserter;
 	
 	private JobInsertionCostsCalculator bestInsertionCostCalculator;
+	
+	private RouteDetourLowerBound lowerBound;
 
 	public void setRandom(Random random) {
 		this.random = random;
@@ -91,6 +112,16 @@ final class BestInsertion implements InsertionStrategy{
 		logger.info("initialise " + this);
 	}
 
+	/**
+	 * Sets the lower bound of insertion costs. If set, routes are evaluated in ascending order of their lower bounds, and routes 
+	 * whose lower bound is not smaller than the best insertion costs found so far are not evaluated at all.
+	 * 
+	 * @param lowerBound the lower bound of insertion costs
+	 */
+	void setLowerBound(RouteDetourLowerBound lowerBound) {
+		this.lowerBound = lowerBound;
+	}
+
 	@Override
 	public String toString() {
 		return "[name=bestInsertion]";
@@ -102,19 +133,22 @@ final class BestInsertion implements InsertionStrategy{
         List<Job> badJobs = new ArrayList<Job>(unassignedJobs.size());
         List<Job> unassignedJobList = new ArrayList<Job>(unassignedJobs);
 		Collections.shuffle(unassignedJobList, random);
+		if(lowerBound != null) lowerBound.clear();
 		for(Job unassignedJob : unassignedJobList){			
 			Insertion bestInsertion = null;
 			double bestInsertionCost = Double.MAX_VALUE;
-			for(VehicleRoute vehicleRoute : vehicleRoutes){
-				InsertionData iData = bestInsertionCostCalculator.getInsertionData(vehicleRoute, unassignedJob, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, bestInsertionCost); 
-				if(iData instanceof NoInsertionFound) {
-					continue;
+			if(lowerBound == null){
+				for(VehicleRoute vehicleRoute : vehicleRoutes){
+					bestInsertion = getBetterInsertion(vehicleRoute, unassignedJob, bestInsertion);
 				}
-				if(iData.getInsertionCost() < bestInsertionCost){
-					bestInsertion = new Insertion(vehicleRoute,iData);
-					bestInsertionCost = iData.getInsertionCost();
+			}
+			else{
+				for(BoundedRoute boundedRoute : getBoundedRoutes(vehicleRoutes, unassignedJob)){
+					if(bestInsertion != null && boundedRoute.lowerBound >= bestInsertion.getInsertionData().getInsertionCost()) break;
+					bestInsertion = getBetterInsertion(boundedRoute.route, unassignedJob, bestInsertion);
 				}
 			}
+			if(bestInsertion != null) bestInsertionCost = bestInsertion.getInsertionData().getInsertionCost();
             VehicleRoute newRoute = VehicleRoute.emptyRoute();
             InsertionData newIData = bestInsertionCostCalculator.getInsertionData(newRoute, unassignedJob, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, bestInsertionCost);
             if(newIData.getInsertionCost() < bestInsertionCost){
@@ -122,12 +156,37 @@ final class BestInsertion implements InsertionStrategy{
                 vehicleRoutes.add(newRoute);
             }
             if(bestInsertion == null) badJobs.add(unassignedJob);
-            else inserter.insertJob(unassignedJob, bestInsertion.getInsertionData(), bestInsertion.getRoute());
+            else {
+                inserter.insertJob(unassignedJob, bestInsertion.getInsertionData(), bestInsertion.getRoute());
+                if(lowerBound != null) lowerBound.informRouteChanged(bestInsertion.getRoute());
+            }
         }
 		insertionsListeners.informInsertionEndsListeners(vehicleRoutes);
         return badJobs;
 	}
 
+	private Insertion getBetterInsertion(VehicleRoute vehicleRoute, Job unassignedJob, Insertion bestInsertion) {
+		double bestInsertionCost = Double.MAX_VALUE;
+		if(bestInsertion != null) bestInsertionCost = bestInsertion.getInsertionData().getInsertionCost();
+		InsertionData iData = bestInsertionCostCalculator.getInsertionData(vehicleRoute, unassignedJob, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, bestInsertionCost); 
+		if(iData instanceof NoInsertionFound) {
+			return bestInsertion;
+		}
+		if(iData.getInsertionCost() < bestInsertionCost){
+			return new Insertion(vehicleRoute,iData);
+		}
+		return bestInsertion;
+	}
+
+	private List<BoundedRoute> getBoundedRoutes(Collection<VehicleRoute> vehicleRoutes, Job unassignedJob) {
+		List<BoundedRoute> boundedRoutes = new ArrayList<BoundedRoute>(vehicleRoutes.size());
+		for(VehicleRoute vehicleRoute : vehicleRoutes){
+			boundedRoutes.add(new BoundedRoute(vehicleRoute, lowerBound.getLowerBound(vehicleRoute, unassignedJob)));
+		}
+		Collections.sort(boundedRoutes);
+		return boundedRoutes;
+	}
+
     @Override
 	public void removeListener(InsertionListener insertionListener) {
 		insertionsListeners.removeListener(insertionListener);
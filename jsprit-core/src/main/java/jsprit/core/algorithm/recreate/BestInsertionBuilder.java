@@ -23,7 +23,10 @@ import jsprit.core.algorithm.recreate.listener.InsertionListener;
 import jsprit.core.algorithm.state.StateManager;
 import jsprit.core.problem.VehicleRoutingProblem;
 import jsprit.core.problem.constraint.ConstraintManager;
+import jsprit.core.problem.vehicle.Vehicle;
 import jsprit.core.problem.vehicle.VehicleFleetManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +35,8 @@ import java.util.concurrent.ExecutorService;
 
 public class BestInsertionBuilder {
 
+	private static Logger logger = LogManager.getLogger(BestInsertionBuilder.class);
+
 	private VehicleRoutingProblem vrp;
 	
 	private StateManager stateManager;
@@ -64,7 +69,15 @@ public class BestInsertionBuilder {
 
 	private boolean allowVehicleSwitch=true;
 
+	private boolean fastShipmentInsertion=false;
+
+	private boolean routePruning=false;
+
 	private boolean addDefaultCostCalc=true;
+
+	private boolean cheapestInsertion=false;
+
+	private int regretK=0;
 	
 	public BestInsertionBuilder(VehicleRoutingProblem vrp, VehicleFleetManager vehicleFleetManager, StateManager stateManager, ConstraintManager constraintManager) {
 		super();
@@ -118,6 +131,31 @@ public class BestInsertionBuilder {
 		return this;
 	};
 	
+	/**
+	 * Builds a {@link CheapestInsertion} instead of best insertion, i.e. in each step the globally cheapest job is
+	 * inserted and only the route that has been modified is re-evaluated. In concurrent mode, unassigned jobs
+	 * (rather than routes) are evaluated in parallel.
+	 *
+	 * @return this builder
+	 */
+	public BestInsertionBuilder setCheapestInsertion(){
+		this.cheapestInsertion = true;
+		return this;
+	}
+
+	/**
+	 * Builds a {@link RegretInsertion} instead of best insertion, i.e. in each step the job with the highest regret
+	 * regarding its k best route insertions is inserted. In concurrent mode, insertion data are evaluated in parallel.
+	 *
+	 * @param k number of route insertions considered to calculate the regret
+	 * @return this builder
+	 */
+	public BestInsertionBuilder setRegretInsertion(int k){
+		if(k < 1) throw new IllegalArgumentException("k must be at least 1");
+		this.regretK = k;
+		return this;
+	}
+
 	public BestInsertionBuilder setConcurrentMode(ExecutorService executor, int nuOfThreads){
 		this.executor = executor;
 		this.nuOfThreads = nuOfThreads;
@@ -147,10 +185,31 @@ public class BestInsertionBuilder {
 			calcBuilder.experimentalTimeScheduler(timeSlice, nNeighbors);
 		}
 		calcBuilder.setAllowVehicleSwitch(allowVehicleSwitch);
+		calcBuilder.setFastShipmentInsertion(fastShipmentInsertion);
 		JobInsertionCostsCalculator jobInsertions = calcBuilder.build();
 		InsertionStrategy bestInsertion;
-		if(executor == null){
-			bestInsertion = new BestInsertion(jobInsertions,vrp);
+		if(regretK > 0){
+			RegretInsertion regret;
+			if(executor == null) regret = new RegretInsertion(jobInsertions,vrp,fleetManager);
+			else regret = new RegretInsertion(jobInsertions,vrp,fleetManager,executor,nuOfThreads);
+			regret.setK(regretK);
+			regret.setInvalidateAllOnInsertion(considerFixedCosts);
+			bestInsertion = regret;
+		}
+		else if(cheapestInsertion){
+			CheapestInsertion cheapest;
+			if(executor == null) cheapest = new CheapestInsertion(jobInsertions,vrp,fleetManager);
+			else cheapest = new CheapestInsertion(jobInsertions,vrp,fleetManager,executor,nuOfThreads);
+			cheapest.setInvalidateAllOnInsertion(considerFixedCosts);
+			bestInsertion = cheapest;
+		}
+		else if(executor == null){
+			BestInsertion best = new BestInsertion(jobInsertions,vrp);
+			if(routePruning){
+				if(isRoutePruningSound()) best.setLowerBound(new RouteDetourLowerBound(vrp));
+				else logger.warn("route pruning is switched off since its lower bound does not hold if fixed costs are considered or vehicles with different costs or locations can be switched");
+			}
+			bestInsertion = best;
 		}
 		else{
 			bestInsertion = new BestInsertionConcurrent(jobInsertions,executor,nuOfThreads,vrp);
@@ -160,6 +219,24 @@ public class BestInsertionBuilder {
 		return bestInsertion;
 	}
 
+	/**
+	 * Returns true if the lower bound of route pruning holds, i.e. if fixed costs are not considered and switching vehicles
+	 * cannot make a detour cheaper. The latter is the case if vehicles cannot be switched or all vehicles have the same type
+	 * and the same start and end location.
+	 */
+	boolean isRoutePruningSound(){
+		if(considerFixedCosts) return false;
+		if(!allowVehicleSwitch) return true;
+		Vehicle first = null;
+		for(Vehicle vehicle : vrp.getVehicles()){
+			if(first == null) first = vehicle;
+			else if(!vehicle.getType().getTypeId().equals(first.getType().getTypeId())
+					|| !vehicle.getStartLocationId().equals(first.getStartLocationId())
+					|| !vehicle.getEndLocationId().equals(first.getEndLocationId())) return false;
+		}
+		return true;
+	}
+
 	/**
 	 * @deprecated this is experimental and can disappear.
 	 * @param timeSlice the time slice
@@ -176,6 +253,36 @@ public class BestInsertionBuilder {
 		this.allowVehicleSwitch = allowVehicleSwitch;
 	}
 
+	/**
+	 * Sets whether shipments are inserted with the fast shipment insertion calculator, which does not evaluate each delivery position again for each pickup position.
+	 * 
+	 * <p>Only switch it on if no activity constraint and no activity insertion costs consider the related activity context.
+	 * 
+	 * @param fastShipmentInsertion true if shipments are to be inserted with the fast calculator
+	 * @return this builder
+	 */
+	public BestInsertionBuilder setFastShipmentInsertion(boolean fastShipmentInsertion) {
+		this.fastShipmentInsertion = fastShipmentInsertion;
+		return this;
+	}
+
+	/**
+	 * Sets whether best insertion skips routes whose lower bound of insertion costs, i.e. the minimum detour, cannot beat the best insertion found so far.
+	 * 
+	 * <p>This only applies to sequential best insertion. The lower bound assumes that transport costs do not depend on time, and that activity costs and soft constraints
+	 * are non-negative. Route pruning is switched off if fixed costs are considered, or if vehicles can be switched and differ in type or location.
+	 * 
+	 * <p>Computing the lower bound takes two cost lookups per route location. It therefore only pays off if costs can be looked up by location index,
+	 * i.e. with {@link jsprit.core.problem.cost.IndexedVehicleRoutingTransportCosts}.
+	 * 
+	 * @param routePruning true if routes are to be pruned by their lower bound
+	 * @return this builder
+	 */
+	public BestInsertionBuilder setRoutePruning(boolean routePruning) {
+		this.routePruning = routePruning;
+		return this;
+	}
+
 	
 
 
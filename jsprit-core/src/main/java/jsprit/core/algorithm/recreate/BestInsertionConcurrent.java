@@ -16,6 +16,7 @@
  ******************************************************************************/
 package jsprit.core.algorithm.recreate;
 
+import jsprit.core.algorithm.ConcurrentTasks;
 import jsprit.core.algorithm.recreate.InsertionData.NoInsertionFound;
 import jsprit.core.algorithm.recreate.listener.InsertionListener;
 import jsprit.core.algorithm.recreate.listener.InsertionListeners;
@@ -87,7 +88,7 @@ final class BestInsertionConcurrent implements InsertionStrategy{
 
 	private int nuOfBatches;
 
-	private ExecutorCompletionService<Insertion> completionService;
+	private ExecutorService executor;
 
 	public void setRandom(Random random) {
 		this.random = random;
@@ -99,7 +100,7 @@ final class BestInsertionConcurrent implements InsertionStrategy{
 		this.nuOfBatches = nuOfBatches;
 		inserter = new Inserter(insertionsListeners, vehicleRoutingProblem);
 		bestInsertionCostCalculator = jobInsertionCalculator;
-		completionService = new ExecutorCompletionService<Insertion>(executorService);
+		this.executor = executorService;
 		logger.info("initialise " + this);
 	}
 
@@ -118,34 +119,26 @@ final class BestInsertionConcurrent implements InsertionStrategy{
         for(final Job unassignedJob : unassignedJobList){
             Insertion bestInsertion = null;
 			double bestInsertionCost = Double.MAX_VALUE;
+			ExecutorCompletionService<Insertion> completionService = new ExecutorCompletionService<Insertion>(executor);
+			List<Future<Insertion>> futures = new ArrayList<Future<Insertion>>(batches.size());
             for(final Batch batch : batches){
-				completionService.submit(new Callable<Insertion>() {
+				futures.add(completionService.submit(new Callable<Insertion>() {
 					
 					@Override
 					public Insertion call() throws Exception {
 						return getBestInsertion(batch,unassignedJob);
 					}
 					
-				});
+				}));
             }
-            try {
-                for (int i = 0; i < batches.size(); i++) {
-                    Future<Insertion> futureIData = completionService.take();
-                    Insertion insertion = futureIData.get();
-                    if (insertion == null) continue;
-                    if (insertion.getInsertionData().getInsertionCost() < bestInsertionCost) {
-                        bestInsertion = insertion;
-                        bestInsertionCost = insertion.getInsertionData().getInsertionCost();
-                    }
+            for (int i = 0; i < batches.size(); i++) {
+                Insertion insertion = ConcurrentTasks.get(take(completionService, futures), futures);
+                if (insertion == null) continue;
+                if (insertion.getInsertionData().getInsertionCost() < bestInsertionCost) {
+                    bestInsertion = insertion;
+                    bestInsertionCost = insertion.getInsertionData().getInsertionCost();
                 }
-            } catch(InterruptedException e){
-				Thread.currentThread().interrupt();
-			} 
-			catch (ExecutionException e) {
-				e.printStackTrace();
-				logger.error(e.getCause().toString());
-				System.exit(1);
-			}
+            }
             VehicleRoute newRoute = VehicleRoute.emptyRoute();
             InsertionData newIData = bestInsertionCostCalculator.getInsertionData(newRoute, unassignedJob, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, bestInsertionCost);
             if(newIData.getInsertionCost() < bestInsertionCost){
@@ -176,10 +169,21 @@ final class BestInsertionConcurrent implements InsertionStrategy{
 		
 	}
 	
+	private Future<Insertion> take(ExecutorCompletionService<Insertion> completionService, List<Future<Insertion>> futures) {
+		try {
+			return completionService.take();
+		} catch (InterruptedException e) {
+			ConcurrentTasks.cancel(futures);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for insertion tasks", e);
+		}
+	}
+
 	private Insertion getBestInsertion(Batch batch, Job unassignedJob) {
 		Insertion bestInsertion = null;
 		double bestInsertionCost = Double.MAX_VALUE;
 		for(VehicleRoute vehicleRoute : batch.routes){
+			if(ConcurrentTasks.isCancelled()) return null;
 			InsertionData iData = bestInsertionCostCalculator.getInsertionData(vehicleRoute, unassignedJob, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, bestInsertionCost); 
 			if(iData instanceof NoInsertionFound) {
 				continue;
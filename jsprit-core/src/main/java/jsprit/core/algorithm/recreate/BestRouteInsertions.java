@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.recreate.InsertionData.NoInsertionFound;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.route.VehicleRoute;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The k best route insertions of a job in ascending order of insertion costs.
+ *
+ * @author schroeder
+ *
+ */
+class BestRouteInsertions {
+
+	private final VehicleRoute[] routes;
+
+	private final InsertionData[] insertionData;
+
+	private int size = 0;
+
+	BestRouteInsertions(int k) {
+		routes = new VehicleRoute[k];
+		insertionData = new InsertionData[k];
+	}
+
+	/**
+	 * Offers the insertion of the job into route. It is only kept if it is among the k best route insertions.
+	 *
+	 * @param route the route
+	 * @param iData the insertion data
+	 */
+	void offer(VehicleRoute route, InsertionData iData){
+		if(iData instanceof NoInsertionFound) return;
+		int pos = size;
+		while(pos > 0 && iData.getInsertionCost() < insertionData[pos-1].getInsertionCost()) pos--;
+		if(pos == routes.length) return;
+		int last = Math.min(size, routes.length - 1);
+		for(int i=last;i>pos;i--){
+			routes[i] = routes[i-1];
+			insertionData[i] = insertionData[i-1];
+		}
+		routes[pos] = route;
+		insertionData[pos] = iData;
+		if(size < routes.length) size++;
+	}
+
+	/**
+	 * Updates the best route insertions of job after modifiedRoutes have been re-evaluated. If one of the modified
+	 * routes is among the best, the ranking is rebuilt from all routes since its insertion might have become more
+	 * expensive. Otherwise, only the modified routes are offered.
+	 *
+	 * @param job the job
+	 * @param routes all routes
+	 * @param modifiedRoutes the routes that have been re-evaluated
+	 * @param cache the cache containing insertion data of job for all routes
+	 */
+	void update(Job job, List<VehicleRoute> routes, List<VehicleRoute> modifiedRoutes, InsertionDataCache cache){
+		if(modifiedRoutes.isEmpty()) return;
+		if(contains(modifiedRoutes)){
+			clear();
+			for(VehicleRoute route : routes) offer(route, cache.get(route, job));
+		}
+		else{
+			for(VehicleRoute route : modifiedRoutes) offer(route, cache.get(route, job));
+		}
+	}
+
+	boolean contains(Collection<VehicleRoute> routesToCheck){
+		for(int i=0;i<size;i++){
+			if(routesToCheck.contains(routes[i])) return true;
+		}
+		return false;
+	}
+
+	void clear(){
+		Arrays.fill(routes, null);
+		Arrays.fill(insertionData, null);
+		size = 0;
+	}
+
+	int size(){
+		return size;
+	}
+
+	VehicleRoute getRoute(int rank){
+		return routes[rank];
+	}
+
+	InsertionData getInsertionData(int rank){
+		return insertionData[rank];
+	}
+
+	/**
+	 * Returns the sum of cost differences between the k best route insertions and the best one.
+	 *
+	 * @return regret
+	 */
+	double getRegret(){
+		double regret = 0.;
+		for(int i=1;i<size;i++) regret += insertionData[i].getInsertionCost() - insertionData[0].getInsertionCost();
+		return regret;
+	}
+
+}
@@ -93,6 +93,8 @@ class CalculatorBuilder {
 
 	private boolean allowVehicleSwitch = true;
 
+	private boolean fastShipmentInsertion = false;
+
 	private boolean addDefaultCostCalc = true;
 
 	/**
@@ -275,8 +277,17 @@ class CalculatorBuilder {
             }
 
         };
-		ShipmentInsertionCalculator shipmentInsertion = new ShipmentInsertionCalculator(vrp.getTransportCosts(), actInsertionCalc, constraintManager);
-        shipmentInsertion.setJobActivityFactory(activityFactory);
+		JobInsertionCostsCalculator shipmentInsertion;
+		if(fastShipmentInsertion){
+			FastShipmentInsertionCalculator fastShipmentInsertionCalculator = new FastShipmentInsertionCalculator(vrp.getTransportCosts(), actInsertionCalc, constraintManager);
+			fastShipmentInsertionCalculator.setJobActivityFactory(activityFactory);
+			shipmentInsertion = fastShipmentInsertionCalculator;
+		}
+		else{
+			ShipmentInsertionCalculator shipmentInsertionCalculator = new ShipmentInsertionCalculator(vrp.getTransportCosts(), actInsertionCalc, constraintManager);
+			shipmentInsertionCalculator.setJobActivityFactory(activityFactory);
+			shipmentInsertion = shipmentInsertionCalculator;
+		}
 		ServiceInsertionCalculator serviceInsertion = new ServiceInsertionCalculator(vrp.getTransportCosts(), actInsertionCalc, constraintManager);
         serviceInsertion.setJobActivityFactory(activityFactory);
 
@@ -355,6 +366,17 @@ class CalculatorBuilder {
 		this.allowVehicleSwitch = allowVehicleSwitch;
 	}
 
+	/**
+	 * Sets whether shipments are inserted with {@link FastShipmentInsertionCalculator} rather than with {@link ShipmentInsertionCalculator}.
+	 * 
+	 * <p>Only switch it on if no activity constraint and no activity insertion costs consider the related activity context.
+	 * 
+	 * @param fastShipmentInsertion true if shipments are to be inserted with the fast calculator
+	 */
+	public void setFastShipmentInsertion(boolean fastShipmentInsertion) {
+		this.fastShipmentInsertion = fastShipmentInsertion;
+	}
+
 }
 
 
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.recreate.listener.InsertionListener;
+import jsprit.core.algorithm.recreate.listener.InsertionListeners;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.VehicleFleetManager;
+import jsprit.core.util.RandomNumberGeneration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+
+
+/**
+ * Cheapest insertion that, in each step, inserts the job whose insertion is the cheapest among all unassigned jobs.
+ *
+ * <p>Since only the route a job has been inserted into changes, insertion data of all other routes are taken from
+ * an {@link InsertionDataCache}, i.e. after an insertion only the modified route is re-evaluated, and the cheapest
+ * insertion of a job is only searched among all routes again if it has been in the modified route. Insertion data
+ * are always calculated without a cost bound, thus the solution does not depend on whether the cache is enabled or not.
+ *
+ * <p>If an executor is set, jobs rather than routes are evaluated in parallel. This keeps all threads busy even if
+ * there are only a few routes, and requires only one fork/join per insertion instead of one per job.
+ *
+ * <p>Jobs that cannot be inserted anywhere are removed from the set of jobs to be inserted and returned as unassigned.
+ *
+ * @author schroeder
+ *
+ */
+final class CheapestInsertion implements InsertionStrategy{
+
+	private static Logger logger = LogManager.getLogger(CheapestInsertion.class);
+
+	private Random random = RandomNumberGeneration.getRandom();
+
+	private InsertionListeners insertionsListeners;
+
+	private Inserter inserter;
+
+	private InsertionDataEvaluator evaluator;
+
+	private InsertionDataCache cache;
+
+	private boolean cacheEnabled = true;
+
+	public CheapestInsertion(JobInsertionCostsCalculator jobInsertionCalculator, VehicleRoutingProblem vehicleRoutingProblem, VehicleFleetManager fleetManager) {
+		super();
+		this.insertionsListeners = new InsertionListeners();
+		this.inserter = new Inserter(insertionsListeners, vehicleRoutingProblem);
+		this.evaluator = new InsertionDataEvaluator(jobInsertionCalculator);
+		this.cache = new InsertionDataCache(fleetManager);
+		insertionsListeners.addListener(cache);
+		logger.info("initialise " + this);
+	}
+
+	/**
+	 * Constructs cheapest insertion that evaluates unassigned jobs in parallel, i.e. jobs are distributed to
+	 * nuOfBatches batches that are evaluated against all modified routes concurrently.
+	 */
+	public CheapestInsertion(JobInsertionCostsCalculator jobInsertionCalculator, VehicleRoutingProblem vehicleRoutingProblem, VehicleFleetManager fleetManager, ExecutorService executorService, int nuOfBatches) {
+		this(jobInsertionCalculator, vehicleRoutingProblem, fleetManager);
+		this.evaluator = new InsertionDataEvaluator(jobInsertionCalculator, executorService, nuOfBatches);
+	}
+
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	/**
+	 * Enables or disables the insertion data cache. The cache is enabled by default. Disabling it does not change
+	 * the solution but the number of insertion calculations.
+	 *
+	 * @param cacheEnabled true if insertion data are to be cached
+	 */
+	public void setCacheEnabled(boolean cacheEnabled) {
+		this.cacheEnabled = cacheEnabled;
+	}
+
+	/**
+	 * Sets whether the insertion of a job invalidates the cached insertion data of all routes. This must be true if
+	 * insertion costs depend on the entire solution rather than on the route only, e.g. when fixed costs are weighted
+	 * with the completeness of the solution.
+	 *
+	 * @param invalidateAllOnInsertion true if every insertion invalidates all cached insertion data
+	 */
+	public void setInvalidateAllOnInsertion(boolean invalidateAllOnInsertion) {
+		cache.setInvalidateAllOnInsertion(invalidateAllOnInsertion);
+	}
+
+	@Override
+	public String toString() {
+		return "[name=cheapestInsertion][cacheEnabled=" + cacheEnabled + "]";
+	}
+
+	@Override
+	public Collection<Job> insertJobs(Collection<VehicleRoute> vehicleRoutes, Collection<Job> unassignedJobs) {
+		insertionsListeners.informInsertionStarts(vehicleRoutes,unassignedJobs);
+		List<Job> badJobs = new ArrayList<Job>(unassignedJobs.size());
+		List<Job> jobsToInsert = new ArrayList<Job>(unassignedJobs);
+		Collections.shuffle(jobsToInsert, random);
+		Map<Job,BestRouteInsertions> bestRouteInsertions = new HashMap<Job, BestRouteInsertions>();
+		for(Job job : jobsToInsert) bestRouteInsertions.put(job, new BestRouteInsertions(1));
+		List<VehicleRoute> routes = new ArrayList<VehicleRoute>(vehicleRoutes);
+		routes.add(VehicleRoute.emptyRoute());
+		while(!jobsToInsert.isEmpty()){
+			if(!cacheEnabled) cache.clear();
+			List<VehicleRoute> modifiedRoutes = new ArrayList<VehicleRoute>();
+			for(VehicleRoute route : routes){
+				if(!cache.contains(route)) modifiedRoutes.add(route);
+			}
+			evaluator.evaluate(modifiedRoutes, jobsToInsert, cache);
+			Job bestJob = null;
+			BestRouteInsertions bestInsertion = null;
+			Iterator<Job> jobIterator = jobsToInsert.iterator();
+			while(jobIterator.hasNext()){
+				Job job = jobIterator.next();
+				BestRouteInsertions insertion = bestRouteInsertions.get(job);
+				insertion.update(job, routes, modifiedRoutes, cache);
+				if(insertion.size() == 0){
+					badJobs.add(job);
+					jobIterator.remove();
+					continue;
+				}
+				if(bestInsertion == null || insertion.getInsertionData(0).getInsertionCost() < bestInsertion.getInsertionData(0).getInsertionCost()){
+					bestJob = job;
+					bestInsertion = insertion;
+				}
+			}
+			if(bestJob == null) break;
+			VehicleRoute route = bestInsertion.getRoute(0);
+			if(route == routes.get(routes.size()-1)){
+				vehicleRoutes.add(route);
+				routes.add(VehicleRoute.emptyRoute());
+			}
+			inserter.insertJob(bestJob, bestInsertion.getInsertionData(0), route);
+			jobsToInsert.remove(bestJob);
+			bestRouteInsertions.remove(bestJob);
+		}
+		insertionsListeners.informInsertionEndsListeners(vehicleRoutes);
+		return badJobs;
+	}
+
+	@Override
+	public void removeListener(InsertionListener insertionListener) {
+		insertionsListeners.removeListener(insertionListener);
+	}
+
+	@Override
+	public Collection<InsertionListener> getListeners() {
+		return Collections.unmodifiableCollection(insertionsListeners.getListeners());
+	}
+
+	@Override
+	public void addListener(InsertionListener insertionListener) {
+		insertionsListeners.addListener(insertionListener);
+	}
+
+}
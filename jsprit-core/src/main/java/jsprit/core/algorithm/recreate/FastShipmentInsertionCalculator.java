@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.problem.AbstractActivity;
+import jsprit.core.problem.JobActivityFactory;
+import jsprit.core.problem.constraint.*;
+import jsprit.core.problem.constraint.HardActivityConstraint.ConstraintsStatus;
+import jsprit.core.problem.cost.TransportCostsLookup;
+import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Shipment;
+import jsprit.core.problem.misc.ActivityContext;
+import jsprit.core.problem.misc.JobInsertionContext;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.End;
+import jsprit.core.problem.solution.route.activity.Start;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.util.CalculationUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calculator that calculates the best insertion positions for a {@link Shipment} as {@link ShipmentInsertionCalculator} does,
+ * but without evaluating each delivery position again for each pickup position.
+ * 
+ * <p>Inserting the pickup shifts the times of the subsequent activities. As soon as this shift is absorbed, e.g. by waiting
+ * for a time window to open, i.e. as soon as the end time of an activity equals its end time in the route without the
+ * shipment, the evaluation of all subsequent delivery positions does not depend on the pickup position anymore. Thus, the
+ * calculator determines the end times of the route without the shipment (forward) and memorizes the best delivery position
+ * from each position onwards (backward). The delivery loop of a pickup position ends as soon as its shift is absorbed. If
+ * shifts are absorbed quickly, this reduces the evaluations per route from O(n^2) to roughly O(n).
+ * 
+ * <p>It assumes that evaluating a delivery position depends on the pickup only by the previous activity and its end time,
+ * i.e. hard and soft activity constraints as well as activity insertion costs must not consider
+ * {@link JobInsertionContext#getRelatedActivityContext()}. If they do, use {@link ShipmentInsertionCalculator}.
+ * 
+ * @author schroeder
+ *
+ */
+final class FastShipmentInsertionCalculator implements JobInsertionCostsCalculator{
+	
+	/**
+	 * End times of the route without the shipment, and best delivery positions from each position onwards.
+	 */
+	private static class RouteMemory {
+		
+		static ThreadLocal<RouteMemory> newThreadLocal(){
+			return new ThreadLocal<RouteMemory>(){
+
+				@Override
+				protected RouteMemory initialValue() {
+					return new RouteMemory();
+				}
+
+			};
+		}
+		
+		/**
+		 * endTimes[k] is the end time of activity k-1, and endTimes[0] the departure time.
+		 */
+		private double[] endTimes = new double[0];
+		
+		private int noEndTimes;
+		
+		private int[] bestDeliveryIndices = new int[0];
+		
+		private double[] bestDeliveryActivityCosts = new double[0];
+		
+		private double[] bestDeliverySoftCosts = new double[0];
+		
+		/**
+		 * The best delivery position from k onwards is memorized if memorized[k] equals the current generation. Incrementing
+		 * the generation thus invalidates all positions memorized for a former route.
+		 */
+		private int[] memorized = new int[0];
+		
+		private int generation = 0;
+		
+		void reset(int noActivities, double departureTime){
+			if(endTimes.length < noActivities + 2){
+				int size = Math.max(noActivities + 2, 2 * endTimes.length);
+				endTimes = new double[size];
+				bestDeliveryIndices = new int[size];
+				bestDeliveryActivityCosts = new double[size];
+				bestDeliverySoftCosts = new double[size];
+				memorized = new int[size];
+			}
+			endTimes[0] = departureTime;
+			noEndTimes = 1;
+			if(generation == Integer.MAX_VALUE){
+				Arrays.fill(memorized, 0);
+				generation = 0;
+			}
+			generation++;
+		}
+		
+		boolean isMemorized(int k){
+			return memorized[k] == generation;
+		}
+		
+		void setMemorized(int k){
+			memorized[k] = generation;
+		}
+		
+	}
+
+	private static final Logger logger = LogManager.getLogger(FastShipmentInsertionCalculator.class);
+
+	private HardRouteConstraint hardRouteLevelConstraint;
+	
+	private HardActivityConstraint hardActivityLevelConstraint;
+	
+	private SoftRouteConstraint softRouteConstraint;
+	
+	private SoftActivityConstraint softActivityConstraint;
+	
+	private ActivityInsertionCostsCalculator activityInsertionCostsCalculator;
+	
+	private TransportCostsLookup transportCosts;
+	
+	private JobActivityFactory activityFactory;
+	
+	private AdditionalAccessEgressCalculator additionalAccessEgressCalculator;
+
+	private final ThreadLocal<InsertionScratch> scratch = InsertionScratch.newThreadLocal();
+	
+	private final ThreadLocal<RouteMemory> routeMemory = RouteMemory.newThreadLocal();
+	
+	public FastShipmentInsertionCalculator(VehicleRoutingTransportCosts routingCosts, ActivityInsertionCostsCalculator activityInsertionCostsCalculator, ConstraintManager constraintManager) {
+		super();
+		this.activityInsertionCostsCalculator = activityInsertionCostsCalculator;
+		this.hardRouteLevelConstraint = constraintManager;
+		this.hardActivityLevelConstraint = constraintManager;
+		this.softActivityConstraint = constraintManager;
+		this.softRouteConstraint = constraintManager;
+		this.transportCosts = TransportCostsLookup.newInstance(routingCosts);
+		additionalAccessEgressCalculator = new AdditionalAccessEgressCalculator(routingCosts);
+		logger.info("initialise " + this);
+	}
+
+    public void setJobActivityFactory(JobActivityFactory activityFactory){
+        this.activityFactory = activityFactory;
+    }
+	
+	@Override
+	public String toString() {
+		return "[name=calculatesShipmentInsertionFast]";
+	}
+	
+	@Override
+	public InsertionData getInsertionData(final VehicleRoute currentRoute, final Job jobToInsert, final Vehicle newVehicle, double newVehicleDepartureTime, final Driver newDriver, final double bestKnownCosts) {
+        InsertionScratch scratch = this.scratch.get();
+        JobInsertionContext insertionContext = scratch.getInsertionContext(currentRoute, jobToInsert, newVehicle, newDriver, newVehicleDepartureTime);
+        Shipment shipment = (Shipment)jobToInsert;
+        List<AbstractActivity> shipmentActivities = scratch.getActivities(shipment, activityFactory);
+        TourActivity pickupShipment = shipmentActivities.get(0);
+        TourActivity deliverShipment = shipmentActivities.get(1);
+        insertionContext.getAssociatedActivities().add(pickupShipment);
+        insertionContext.getAssociatedActivities().add(deliverShipment);
+
+        /*
+        check hard route constraints
+         */
+        if(!hardRouteLevelConstraint.fulfilled(insertionContext)){
+			return InsertionData.createEmptyInsertionData();
+		}
+        /*
+        check soft route constraints
+         */
+        double additionalICostsAtRouteLevel = softRouteConstraint.getCosts(insertionContext);
+
+        double bestCost = bestKnownCosts;
+        additionalICostsAtRouteLevel += additionalAccessEgressCalculator.getCosts(insertionContext);
+
+        int pickupInsertionIndex = InsertionData.NO_INDEX;
+		int deliveryInsertionIndex = InsertionData.NO_INDEX;
+		
+		Start start = scratch.getStart(newVehicle, newVehicleDepartureTime, newVehicle.getLatestArrival());
+		End end = scratch.getEnd(newVehicle);
+
+        ActivityContext pickupContext = scratch.getActivityContext();
+
+		List<TourActivity> activities = currentRoute.getTourActivities().getActivities();
+		RouteMemory memory = routeMemory.get();
+		memory.reset(activities.size(), newVehicleDepartureTime);
+		
+		TourActivity prevAct = start;
+		double prevActEndTime = newVehicleDepartureTime;
+		boolean pickupShipmentLoopBroken = false;
+		//pickupShipmentLoop
+		for(int i=0;i<activities.size();i++){
+			ConstraintsStatus pickupShipmentConstraintStatus = hardActivityLevelConstraint.fulfilled(insertionContext, prevAct, pickupShipment, activities.get(i), prevActEndTime);
+			if(pickupShipmentConstraintStatus.equals(ConstraintsStatus.NOT_FULFILLED)){
+				prevActEndTime = getEndTime(memory, i+1, activities, start, newDriver, newVehicle);
+				prevAct = activities.get(i);
+				continue;
+			}
+			else if(pickupShipmentConstraintStatus.equals(ConstraintsStatus.NOT_FULFILLED_BREAK)){
+				pickupShipmentLoopBroken = true;
+				break;
+			}
+			double additionalPickupICosts = softActivityConstraint.getCosts(insertionContext, prevAct, pickupShipment, activities.get(i), prevActEndTime);
+			double pickupAIC = calculate(insertionContext,prevAct,pickupShipment,activities.get(i),prevActEndTime);
+			TourActivity prevAct_deliveryLoop = pickupShipment;
+			double shipmentPickupArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct, pickupShipment, prevActEndTime, newDriver, newVehicle);
+			double shipmentPickupEndTime = CalculationUtils.getActivityEndTime(shipmentPickupArrTime, pickupShipment);
+
+            pickupContext.setArrivalTime(shipmentPickupArrTime);
+            pickupContext.setEndTime(shipmentPickupEndTime);
+            pickupContext.setInsertionIndex(i);
+            insertionContext.setRelatedActivityContext(pickupContext);
+
+            double prevActEndTime_deliveryLoop = shipmentPickupEndTime;
+			boolean deliverShipmentLoopBroken = false;
+			//deliverShipmentLoop
+			for(int j=i;j<activities.size();j++){
+				if(j > i && prevActEndTime_deliveryLoop == getEndTime(memory, j, activities, start, newDriver, newVehicle)){
+					/*
+					shift is absorbed, i.e. delivery positions j, j+1, ... are evaluated as in the route without the shipment 
+					 */
+					memorizeDeliveries(memory, j, insertionContext, deliverShipment, activities, start, end, newDriver, newVehicle);
+					if(memory.bestDeliveryIndices[j] != InsertionData.NO_INDEX){
+						double totalActivityInsertionCosts = pickupAIC + memory.bestDeliveryActivityCosts[j]
+								+ additionalICostsAtRouteLevel + additionalPickupICosts + memory.bestDeliverySoftCosts[j];
+						if(totalActivityInsertionCosts < bestCost){
+							bestCost = totalActivityInsertionCosts;
+							pickupInsertionIndex = i;
+							deliveryInsertionIndex = memory.bestDeliveryIndices[j];
+						}
+					}
+					deliverShipmentLoopBroken = true;
+					break;
+				}
+				ConstraintsStatus deliverShipmentConstraintStatus = hardActivityLevelConstraint.fulfilled(insertionContext, prevAct_deliveryLoop, deliverShipment, activities.get(j), prevActEndTime_deliveryLoop); 
+				if(deliverShipmentConstraintStatus.equals(ConstraintsStatus.FULFILLED)){
+					double additionalDeliveryICosts = softActivityConstraint.getCosts(insertionContext, prevAct_deliveryLoop, deliverShipment, activities.get(j), prevActEndTime_deliveryLoop);
+					double deliveryAIC = calculate(insertionContext,prevAct_deliveryLoop,deliverShipment,activities.get(j),prevActEndTime_deliveryLoop);
+					double totalActivityInsertionCosts = pickupAIC + deliveryAIC
+							+ additionalICostsAtRouteLevel + additionalPickupICosts + additionalDeliveryICosts;
+					if(totalActivityInsertionCosts < bestCost){
+						bestCost = totalActivityInsertionCosts;
+						pickupInsertionIndex = i;
+						deliveryInsertionIndex = j;
+					}
+				}
+				else if(deliverShipmentConstraintStatus.equals(ConstraintsStatus.NOT_FULFILLED_BREAK)){
+					deliverShipmentLoopBroken = true;
+					break;
+				}	
+				//update prevAct and endTime
+				double nextActArrTime = prevActEndTime_deliveryLoop + transportCosts.getTransportTime(prevAct_deliveryLoop, activities.get(j), prevActEndTime_deliveryLoop, newDriver, newVehicle);
+				prevActEndTime_deliveryLoop = CalculationUtils.getActivityEndTime(nextActArrTime, activities.get(j));
+				prevAct_deliveryLoop = activities.get(j);
+			}
+			if(!deliverShipmentLoopBroken){ //check insertion between lastAct and endOfTour
+				ConstraintsStatus deliverShipmentConstraintStatus = hardActivityLevelConstraint.fulfilled(insertionContext, prevAct_deliveryLoop, deliverShipment, end, prevActEndTime_deliveryLoop);
+				if(deliverShipmentConstraintStatus.equals(ConstraintsStatus.FULFILLED)){
+					double additionalDeliveryICosts = softActivityConstraint.getCosts(insertionContext, prevAct_deliveryLoop, deliverShipment, end, prevActEndTime_deliveryLoop);
+					double deliveryAIC = calculate(insertionContext,prevAct_deliveryLoop,deliverShipment,end,prevActEndTime_deliveryLoop);
+					double totalActivityInsertionCosts = pickupAIC + deliveryAIC
+							+ additionalICostsAtRouteLevel + additionalPickupICosts + additionalDeliveryICosts;
+					if(totalActivityInsertionCosts < bestCost){
+						bestCost = totalActivityInsertionCosts;
+						pickupInsertionIndex = i;
+						deliveryInsertionIndex = activities.size();
+					}
+				}
+			}
+			//update prevAct and endTime
+			prevActEndTime = getEndTime(memory, i+1, activities, start, newDriver, newVehicle);
+			prevAct = activities.get(i);
+		}
+		if(!pickupShipmentLoopBroken){ //check insertion of pickupShipment and deliverShipment at just before tour ended
+			ConstraintsStatus pickupShipmentConstraintStatus = hardActivityLevelConstraint.fulfilled(insertionContext, prevAct, pickupShipment, end, prevActEndTime);
+			if(pickupShipmentConstraintStatus.equals(ConstraintsStatus.FULFILLED)){
+				double additionalPickupICosts = softActivityConstraint.getCosts(insertionContext, prevAct, pickupShipment, end, prevActEndTime);
+				double pickupAIC = calculate(insertionContext,prevAct,pickupShipment,end,prevActEndTime);
+				TourActivity prevAct_deliveryLoop = pickupShipment;
+				double shipmentPickupArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct, pickupShipment, prevActEndTime, newDriver, newVehicle);
+				double shipmentPickupEndTime = CalculationUtils.getActivityEndTime(shipmentPickupArrTime, pickupShipment);
+				double prevActEndTime_deliveryLoop = shipmentPickupEndTime;
+
+                pickupContext.setArrivalTime(shipmentPickupArrTime);
+                pickupContext.setEndTime(shipmentPickupEndTime);
+                pickupContext.setInsertionIndex(activities.size());
+                insertionContext.setRelatedActivityContext(pickupContext);
+
+                ConstraintsStatus deliverShipmentConstraintStatus = hardActivityLevelConstraint.fulfilled(insertionContext, prevAct_deliveryLoop, deliverShipment, end, prevActEndTime_deliveryLoop);
+				if(deliverShipmentConstraintStatus.equals(ConstraintsStatus.FULFILLED)){
+					double additionalDeliveryICosts = softActivityConstraint.getCosts(insertionContext, prevAct_deliveryLoop, deliverShipment, end, prevActEndTime_deliveryLoop);
+					double deliveryAIC = calculate(insertionContext,prevAct_deliveryLoop,deliverShipment,end,prevActEndTime_deliveryLoop);
+					double totalActivityInsertionCosts = pickupAIC + deliveryAIC
+							+ additionalICostsAtRouteLevel + additionalPickupICosts + additionalDeliveryICosts;
+					if(totalActivityInsertionCosts < bestCost){
+						bestCost = totalActivityInsertionCosts;
+						pickupInsertionIndex = activities.size();
+						deliveryInsertionIndex = activities.size();
+					}
+				}
+			}
+		}
+		if(pickupInsertionIndex == InsertionData.NO_INDEX) {
+			return InsertionData.createEmptyInsertionData();
+		}
+		InsertionData insertionData = new InsertionData(bestCost, pickupInsertionIndex, deliveryInsertionIndex, newVehicle, newDriver);
+		insertionData.setVehicleDepartureTime(newVehicleDepartureTime);
+		return insertionData;
+	}
+
+	/**
+	 * Returns the end time of activity k-1 in the route without the shipment, or the departure time if k is 0.
+	 */
+	private double getEndTime(RouteMemory memory, int k, List<TourActivity> activities, Start start, Driver newDriver, Vehicle newVehicle){
+		while(memory.noEndTimes <= k){
+			int l = memory.noEndTimes;
+			TourActivity prevAct = l == 1 ? start : activities.get(l-2);
+			double prevActEndTime = memory.endTimes[l-1];
+			double actArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct, activities.get(l-1), prevActEndTime, newDriver, newVehicle);
+			memory.endTimes[l] = CalculationUtils.getActivityEndTime(actArrTime, activities.get(l-1));
+			memory.noEndTimes++;
+		}
+		return memory.endTimes[k];
+	}
+
+	/**
+	 * Memorizes the best delivery position from each position k >= from onwards, i.e. the best position in k, k+1, ... up to
+	 * the first position that breaks the delivery loop, where activities are operated as in the route without the shipment.
+	 * Positions are evaluated forward until the delivery loop breaks or a memorized position is reached, and combined backward.
+	 * Only positions that have actually been evaluated are marked as memorized, such that positions behind a break are
+	 * evaluated once they are requested. Ties are resolved in favour of the first position, as in the delivery loop.
+	 */
+	private void memorizeDeliveries(RouteMemory memory, int from, JobInsertionContext insertionContext, TourActivity deliverShipment, List<TourActivity> activities, Start start, End end, Driver newDriver, Vehicle newVehicle){
+		if(memory.isMemorized(from)) return;
+		int k = from;
+		boolean deliverShipmentLoopBroken = false;
+		while(true){
+			TourActivity prevAct = activities.get(k-1);
+			TourActivity nextAct = k < activities.size() ? activities.get(k) : end;
+			double prevActEndTime = getEndTime(memory, k, activities, start, newDriver, newVehicle);
+			ConstraintsStatus status = hardActivityLevelConstraint.fulfilled(insertionContext, prevAct, deliverShipment, nextAct, prevActEndTime);
+			memory.bestDeliveryIndices[k] = InsertionData.NO_INDEX;
+			if(status.equals(ConstraintsStatus.FULFILLED)){
+				memory.bestDeliverySoftCosts[k] = softActivityConstraint.getCosts(insertionContext, prevAct, deliverShipment, nextAct, prevActEndTime);
+				memory.bestDeliveryActivityCosts[k] = calculate(insertionContext, prevAct, deliverShipment, nextAct, prevActEndTime);
+				memory.bestDeliveryIndices[k] = k;
+			}
+			else if(status.equals(ConstraintsStatus.NOT_FULFILLED_BREAK)){
+				deliverShipmentLoopBroken = true;
+				break;
+			}
+			if(k == activities.size()){
+				deliverShipmentLoopBroken = true;
+				break;
+			}
+			if(memory.isMemorized(k + 1)) break;
+			k++;
+		}
+		for(int l=k;l>=from;l--){
+			memory.setMemorized(l);
+			if(l == k && deliverShipmentLoopBroken) continue;
+			int next = memory.bestDeliveryIndices[l+1];
+			if(next == InsertionData.NO_INDEX) continue;
+			double nextCosts = memory.bestDeliveryActivityCosts[l+1] + memory.bestDeliverySoftCosts[l+1];
+			if(memory.bestDeliveryIndices[l] == InsertionData.NO_INDEX || nextCosts < memory.bestDeliveryActivityCosts[l] + memory.bestDeliverySoftCosts[l]){
+				memory.bestDeliveryIndices[l] = next;
+				memory.bestDeliveryActivityCosts[l] = memory.bestDeliveryActivityCosts[l+1];
+				memory.bestDeliverySoftCosts[l] = memory.bestDeliverySoftCosts[l+1];
+			}
+		}
+	}
+
+	private double calculate(JobInsertionContext iFacts, TourActivity prevAct, TourActivity newAct, TourActivity nextAct, double departureTimeAtPrevAct) {
+		return activityInsertionCostsCalculator.getCosts(iFacts, prevAct, nextAct, newAct, departureTimeAtPrevAct);
+	}
+
+}
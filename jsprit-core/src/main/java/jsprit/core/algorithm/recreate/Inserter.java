@@ -20,6 +20,7 @@ import jsprit.core.algorithm.recreate.InsertionData.NoInsertionFound;
 import jsprit.core.algorithm.recreate.listener.InsertionListeners;
 import jsprit.core.problem.AbstractActivity;
 import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.job.Job;
 import jsprit.core.problem.job.Service;
 import jsprit.core.problem.job.Shipment;
@@ -68,20 +69,21 @@ class Inserter {
         @Override
 		public void handleJobInsertion(Job job, InsertionData iData, VehicleRoute route) {
 			if(job instanceof Service){
+                TourActivity activity = vehicleRoutingProblem.copyAndGetActivities(job).get(0);
 				route.setVehicleAndDepartureTime(iData.getSelectedVehicle(),iData.getVehicleDepartureTime());
 				if(!iData.getSelectedVehicle().isReturnToDepot()){
 					if(iData.getDeliveryInsertionIndex()>=route.getTourActivities().getActivities().size()){
-						setEndLocation(route,(Service)job);
+						setEndLocation(route,activity);
 					}
 				}
-                TourActivity activity = vehicleRoutingProblem.copyAndGetActivities(job).get(0);
                 route.getTourActivities().addActivity(iData.getDeliveryInsertionIndex(), activity);
 			}
 			else delegator.handleJobInsertion(job, iData, route);
 		}
 		
-		private void setEndLocation(VehicleRoute route, Service service) {
-			route.getEnd().setLocationId(service.getLocationId());
+		private void setEndLocation(VehicleRoute route, TourActivity serviceActivity) {
+			route.getEnd().setLocationId(serviceActivity.getLocationId());
+			route.getEnd().setLocationIndex(TransportCostsLookup.getLocationIndex(serviceActivity));
 		}
 		
 		public void setNextHandler(JobInsertionHandler jobInsertionHandler){
@@ -111,7 +113,7 @@ class Inserter {
 				route.setVehicleAndDepartureTime(iData.getSelectedVehicle(),iData.getVehicleDepartureTime());
 				if(!iData.getSelectedVehicle().isReturnToDepot()){
 					if(iData.getDeliveryInsertionIndex()>=route.getActivities().size()){
-						setEndLocation(route,(Shipment)job);
+						setEndLocation(route,deliverShipment);
 					}
 				}
 				route.getTourActivities().addActivity(iData.getDeliveryInsertionIndex(), deliverShipment);
@@ -120,8 +122,9 @@ class Inserter {
 			else delegator.handleJobInsertion(job, iData, route);
 		}
 		
-		private void setEndLocation(VehicleRoute route, Shipment shipment) {
-			route.getEnd().setLocationId(shipment.getDeliveryLocationId());
+		private void setEndLocation(VehicleRoute route, TourActivity deliverShipment) {
+			route.getEnd().setLocationId(deliverShipment.getLocationId());
+			route.getEnd().setLocationIndex(TransportCostsLookup.getLocationIndex(deliverShipment));
 		}
 
 		public void setNextHandler(JobInsertionHandler jobInsertionHandler){
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.recreate.listener.InsertionStartsListener;
+import jsprit.core.algorithm.recreate.listener.JobInsertedListener;
+import jsprit.core.algorithm.recreate.listener.VehicleSwitchedListener;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleFleetManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches insertion data per route and job.
+ *
+ * <p>An entry stays valid as long as its route has not been changed. Thus, if a job is inserted, only the entries of
+ * the route the job has been inserted into are invalidated. If the insertion changes the vehicles available in the
+ * fleet (e.g. since a vehicle has been locked), all entries are invalidated since this might change the insertion data
+ * of every route. Without a fleet manager, every vehicle switch is assumed to change the available vehicles.
+ *
+ * <p>If insertion costs depend on the state of the entire solution (e.g. if fixed costs are weighted by the completeness
+ * of the solution), set <code>invalidateAllOnInsertion</code> to true.
+ *
+ * <p>Note that this cache is not thread-safe.
+ *
+ * @author schroeder
+ *
+ */
+class InsertionDataCache implements InsertionStartsListener, JobInsertedListener, VehicleSwitchedListener {
+
+	private Map<VehicleRoute,Map<Job,InsertionData>> cache = new IdentityHashMap<VehicleRoute, Map<Job, InsertionData>>();
+
+	private VehicleFleetManager fleetManager;
+
+	private List<Vehicle> availableVehicles;
+
+	private boolean invalidateAllOnInsertion = false;
+
+	public InsertionDataCache() {
+		super();
+	}
+
+	/**
+	 * Constructs a cache that invalidates all entries only if an insertion changes the vehicles available in fleetManager.
+	 *
+	 * @param fleetManager the fleet manager used to calculate insertion data
+	 */
+	public InsertionDataCache(VehicleFleetManager fleetManager) {
+		super();
+		this.fleetManager = fleetManager;
+	}
+
+	/**
+	 * Sets whether all entries are invalidated whenever a job has been inserted.
+	 *
+	 * @param invalidateAllOnInsertion true if every insertion invalidates all entries
+	 */
+	public void setInvalidateAllOnInsertion(boolean invalidateAllOnInsertion) {
+		this.invalidateAllOnInsertion = invalidateAllOnInsertion;
+	}
+
+	/**
+	 * Returns cached insertion data of job in route, or null if there is no valid entry.
+	 *
+	 * @param route the route
+	 * @param job the job
+	 * @return insertion data or null
+	 */
+	public InsertionData get(VehicleRoute route, Job job){
+		Map<Job,InsertionData> routeEntries = cache.get(route);
+		if(routeEntries == null) return null;
+		return routeEntries.get(job);
+	}
+
+	public void put(VehicleRoute route, Job job, InsertionData iData){
+		Map<Job,InsertionData> routeEntries = cache.get(route);
+		if(routeEntries == null){
+			routeEntries = new HashMap<Job, InsertionData>();
+			cache.put(route, routeEntries);
+		}
+		routeEntries.put(job, iData);
+	}
+
+	/**
+	 * Returns true if there are valid entries for route.
+	 *
+	 * @param route the route
+	 * @return true if route has valid entries
+	 */
+	public boolean contains(VehicleRoute route){
+		return cache.containsKey(route);
+	}
+
+	/**
+	 * Invalidates all entries of route.
+	 *
+	 * @param route the route
+	 */
+	public void invalidate(VehicleRoute route){
+		cache.remove(route);
+	}
+
+	/**
+	 * Invalidates all entries.
+	 */
+	public void clear(){
+		cache.clear();
+	}
+
+	@Override
+	public void informInsertionStarts(Collection<VehicleRoute> vehicleRoutes, Collection<Job> unassignedJobs) {
+		clear();
+		if(fleetManager != null) availableVehicles = new ArrayList<Vehicle>(fleetManager.getAvailableVehicles());
+	}
+
+	@Override
+	public void informJobInserted(Job job2insert, VehicleRoute inRoute, double additionalCosts, double additionalTime) {
+		if(invalidateAllOnInsertion || availableVehiclesChanged()) clear();
+		else invalidate(inRoute);
+	}
+
+	private boolean availableVehiclesChanged() {
+		if(fleetManager == null) return false;
+		List<Vehicle> vehicles = new ArrayList<Vehicle>(fleetManager.getAvailableVehicles());
+		boolean changed = availableVehicles == null || vehicles.size() != availableVehicles.size();
+		for(int i=0;!changed && i<vehicles.size();i++){
+			if(vehicles.get(i) != availableVehicles.get(i)) changed = true;
+		}
+		availableVehicles = vehicles;
+		return changed;
+	}
+
+	@Override
+	public void vehicleSwitched(VehicleRoute vehicleRoute, Vehicle oldVehicle, Vehicle newVehicle) {
+		if(fleetManager == null) clear();
+	}
+
+	@Override
+	public String toString() {
+		return "[name=insertionDataCache]";
+	}
+
+}
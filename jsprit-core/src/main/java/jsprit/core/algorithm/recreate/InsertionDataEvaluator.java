@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.ConcurrentTasks;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates insertion data of many jobs against a number of routes and puts them into an {@link InsertionDataCache}.
+ *
+ * <p>If an executor is set, jobs are distributed to batches that are evaluated in parallel. Since the cache is not
+ * thread-safe, results are put into it by the calling thread. If evaluating a batch fails, the other batches are
+ * cancelled and the failure is rethrown (see {@link ConcurrentTasks}). Insertion data are evaluated without a cost bound.
+ *
+ * @author schroeder
+ *
+ */
+class InsertionDataEvaluator {
+
+	private final static double NO_NEW_DEPARTURE_TIME_YET = -12345.12345;
+
+	private final static Vehicle NO_NEW_VEHICLE_YET = null;
+
+	private final static Driver NO_NEW_DRIVER_YET = null;
+
+	private JobInsertionCostsCalculator insertionCostsCalculator;
+
+	private ExecutorService executor;
+
+	private int nuOfBatches = 1;
+
+	InsertionDataEvaluator(JobInsertionCostsCalculator insertionCostsCalculator) {
+		super();
+		this.insertionCostsCalculator = insertionCostsCalculator;
+	}
+
+	InsertionDataEvaluator(JobInsertionCostsCalculator insertionCostsCalculator, ExecutorService executor, int nuOfBatches) {
+		super();
+		if(nuOfBatches < 1) throw new IllegalArgumentException("number of batches must be at least 1");
+		this.insertionCostsCalculator = insertionCostsCalculator;
+		this.executor = executor;
+		this.nuOfBatches = nuOfBatches;
+	}
+
+	/**
+	 * Evaluates each job against each route and puts the results into cache.
+	 *
+	 * @param routes the routes to be evaluated
+	 * @param jobs the jobs to be evaluated
+	 * @param cache the cache
+	 */
+	void evaluate(final List<VehicleRoute> routes, List<Job> jobs, InsertionDataCache cache) {
+		if(routes.isEmpty() || jobs.isEmpty()) return;
+		if(executor == null || nuOfBatches == 1){
+			for(VehicleRoute route : routes){
+				for(Job job : jobs) cache.put(route, job, getInsertionData(route, job));
+			}
+			return;
+		}
+		int batchSize = (int) Math.ceil((double) jobs.size() / (double) nuOfBatches);
+		List<Future<InsertionData[][]>> futures = new ArrayList<Future<InsertionData[][]>>();
+		for(int from=0;from<jobs.size();from+=batchSize){
+			final List<Job> batch = jobs.subList(from, Math.min(from+batchSize, jobs.size()));
+			futures.add(executor.submit(new Callable<InsertionData[][]>() {
+
+				@Override
+				public InsertionData[][] call() throws Exception {
+					InsertionData[][] iData = new InsertionData[routes.size()][batch.size()];
+					for(int r=0;r<routes.size();r++){
+						for(int j=0;j<batch.size();j++){
+							if(ConcurrentTasks.isCancelled()) return iData;
+							iData[r][j] = getInsertionData(routes.get(r), batch.get(j));
+						}
+					}
+					return iData;
+				}
+
+			}));
+		}
+		int from = 0;
+		for(Future<InsertionData[][]> future : futures){
+			InsertionData[][] iData = ConcurrentTasks.get(future, futures);
+			for(int r=0;r<routes.size();r++){
+				for(int j=0;j<iData[r].length;j++) cache.put(routes.get(r), jobs.get(from+j), iData[r][j]);
+			}
+			from += batchSize;
+		}
+	}
+
+	private InsertionData getInsertionData(VehicleRoute route, Job job) {
+		return insertionCostsCalculator.getInsertionData(route, job, NO_NEW_VEHICLE_YET, NO_NEW_DEPARTURE_TIME_YET, NO_NEW_DRIVER_YET, Double.MAX_VALUE);
+	}
+
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.problem.AbstractActivity;
+import jsprit.core.problem.JobActivityFactory;
+import jsprit.core.problem.cost.TransportCostsLookup;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.misc.ActivityContext;
+import jsprit.core.problem.misc.JobInsertionContext;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.End;
+import jsprit.core.problem.solution.route.activity.Start;
+import jsprit.core.problem.vehicle.Vehicle;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scratch objects of an insertion calculator that would otherwise be allocated in each call of
+ * {@link JobInsertionCostsCalculator#getInsertionData(VehicleRoute, Job, Vehicle, double, Driver, double)}.
+ *
+ * <p>Since calculators might be called concurrently (see {@link BestInsertionConcurrent}), each thread needs its own
+ * scratch, thus obtain it from {@link #newThreadLocal()}. The objects returned are only valid until the next call in the
+ * same thread, and must not be referenced beyond the calculation.
+ *
+ * @author schroeder
+ *
+ */
+class InsertionScratch {
+
+	static ThreadLocal<InsertionScratch> newThreadLocal(){
+		return new ThreadLocal<InsertionScratch>(){
+
+			@Override
+			protected InsertionScratch initialValue() {
+				return new InsertionScratch();
+			}
+
+		};
+	}
+
+	private final JobInsertionContext insertionContext = new JobInsertionContext(null, null, null, null, 0.);
+
+	private final Start start = new Start(null, 0., Double.MAX_VALUE);
+
+	private final End end = new End(null, 0., Double.MAX_VALUE);
+
+	private final ActivityContext activityContext = new ActivityContext();
+
+	private Job[] templateJobs = new Job[0];
+
+	private List<?>[] templateActivities = new List<?>[0];
+
+	JobInsertionContext getInsertionContext(VehicleRoute route, Job job, Vehicle newVehicle, Driver newDriver, double newDepTime){
+		insertionContext.reset(route, job, newVehicle, newDriver, newDepTime);
+		return insertionContext;
+	}
+
+	/**
+	 * Returns the start of the new vehicle.
+	 */
+	Start getStart(Vehicle newVehicle, double newDepTime, double latestStart){
+		start.setLocationId(newVehicle.getStartLocationId());
+		start.setLocationIndex(TransportCostsLookup.getStartLocationIndex(newVehicle));
+		start.setTheoreticalEarliestOperationStartTime(newVehicle.getEarliestDeparture());
+		start.setTheoreticalLatestOperationStartTime(latestStart);
+		start.setEndTime(newDepTime);
+		return start;
+	}
+
+	/**
+	 * Returns the end of the new vehicle.
+	 */
+	End getEnd(Vehicle newVehicle){
+		end.setLocationId(newVehicle.getEndLocationId());
+		end.setLocationIndex(TransportCostsLookup.getEndLocationIndex(newVehicle));
+		end.setTheoreticalEarliestOperationStartTime(0.);
+		end.setTheoreticalLatestOperationStartTime(newVehicle.getLatestArrival());
+		end.setArrTime(0.);
+		end.setEndTime(newVehicle.getLatestArrival());
+		return end;
+	}
+
+	ActivityContext getActivityContext(){
+		return activityContext;
+	}
+
+	/**
+	 * Returns the activities to be inserted for job. They are created by activityFactory only once per job, and reused
+	 * afterwards.
+	 *
+	 * <p>Activities are memorized by job index, i.e. at most one list per index is kept, and a job that replaces another
+	 * job with the same index (e.g. of another problem) gets its own activities.
+	 */
+	@SuppressWarnings("unchecked")
+	List<AbstractActivity> getActivities(Job job, JobActivityFactory activityFactory){
+		int index = job.getIndex();
+		if(index >= templateJobs.length){
+			int capacity = Math.max(index + 1, 2 * templateJobs.length);
+			templateJobs = Arrays.copyOf(templateJobs, capacity);
+			templateActivities = Arrays.copyOf(templateActivities, capacity);
+		}
+		if(templateJobs[index] != job){
+			templateJobs[index] = job;
+			templateActivities[index] = activityFactory.createActivities(job);
+		}
+		return (List<AbstractActivity>) templateActivities[index];
+	}
+
+}
@@ -18,6 +18,7 @@
 
 package jsprit.core.algorithm.recreate;
 
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingActivityCosts;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.misc.JobInsertionContext;
@@ -37,22 +38,22 @@ import jsprit.core.util.CalculationUtils;
  */
 class LocalActivityInsertionCostsCalculator implements ActivityInsertionCostsCalculator{
 
-	private VehicleRoutingTransportCosts routingCosts;
+	private TransportCostsLookup routingCosts;
 	
 	private VehicleRoutingActivityCosts activityCosts;
 	
 	
 	public LocalActivityInsertionCostsCalculator(VehicleRoutingTransportCosts routingCosts, VehicleRoutingActivityCosts actCosts) {
 		super();
-		this.routingCosts = routingCosts;
+		this.routingCosts = TransportCostsLookup.newInstance(routingCosts);
 		this.activityCosts = actCosts;
 	}
 
 	@Override
 	public double getCosts(JobInsertionContext iFacts, TourActivity prevAct, TourActivity nextAct, TourActivity newAct, double depTimeAtPrevAct) {
 		
-		double tp_costs_prevAct_newAct = routingCosts.getTransportCost(prevAct.getLocationId(), newAct.getLocationId(), depTimeAtPrevAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
-		double tp_time_prevAct_newAct = routingCosts.getTransportTime(prevAct.getLocationId(), newAct.getLocationId(), depTimeAtPrevAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
+		double tp_costs_prevAct_newAct = routingCosts.getTransportCost(prevAct, newAct, depTimeAtPrevAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
+		double tp_time_prevAct_newAct = routingCosts.getTransportTime(prevAct, newAct, depTimeAtPrevAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
 		double newAct_arrTime = depTimeAtPrevAct + tp_time_prevAct_newAct;
 		double newAct_endTime = CalculationUtils.getActivityEndTime(newAct_arrTime, newAct);
 		double act_costs_newAct = activityCosts.getActivityCost(newAct, newAct_arrTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
@@ -64,22 +65,22 @@ class LocalActivityInsertionCostsCalculator implements ActivityInsertionCostsCal
 			}
 		}
 		
-		double tp_costs_newAct_nextAct = routingCosts.getTransportCost(newAct.getLocationId(), nextAct.getLocationId(), newAct_endTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
-		double tp_time_newAct_nextAct = routingCosts.getTransportTime(newAct.getLocationId(), nextAct.getLocationId(), newAct_endTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
+		double tp_costs_newAct_nextAct = routingCosts.getTransportCost(newAct, nextAct, newAct_endTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
+		double tp_time_newAct_nextAct = routingCosts.getTransportTime(newAct, nextAct, newAct_endTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
 		double nextAct_arrTime = newAct_endTime + tp_time_newAct_nextAct;
 		double act_costs_nextAct = activityCosts.getActivityCost(nextAct, nextAct_arrTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
 		double totalCosts = tp_costs_prevAct_newAct + tp_costs_newAct_nextAct + act_costs_newAct + act_costs_nextAct; 
 		
 		double oldCosts;
 		if(iFacts.getRoute().isEmpty()){
-			double tp_costs_prevAct_nextAct = routingCosts.getTransportCost(prevAct.getLocationId(), nextAct.getLocationId(), depTimeAtPrevAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
-			double arrTime_nextAct = routingCosts.getTransportTime(prevAct.getLocationId(), nextAct.getLocationId(), depTimeAtPrevAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
+			double tp_costs_prevAct_nextAct = routingCosts.getTransportCost(prevAct, nextAct, depTimeAtPrevAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
+			double arrTime_nextAct = routingCosts.getTransportTime(prevAct, nextAct, depTimeAtPrevAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
 			double actCost_nextAct = activityCosts.getActivityCost(nextAct, arrTime_nextAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
 			oldCosts = tp_costs_prevAct_nextAct + actCost_nextAct;
 		}
 		else{
-			double tp_costs_prevAct_nextAct = routingCosts.getTransportCost(prevAct.getLocationId(), nextAct.getLocationId(), prevAct.getEndTime(), iFacts.getRoute().getDriver(), iFacts.getRoute().getVehicle());
-			double arrTime_nextAct = routingCosts.getTransportTime(prevAct.getLocationId(), nextAct.getLocationId(), prevAct.getEndTime(), iFacts.getRoute().getDriver(), iFacts.getRoute().getVehicle());
+			double tp_costs_prevAct_nextAct = routingCosts.getTransportCost(prevAct, nextAct, prevAct.getEndTime(), iFacts.getRoute().getDriver(), iFacts.getRoute().getVehicle());
+			double arrTime_nextAct = routingCosts.getTransportTime(prevAct, nextAct, prevAct.getEndTime(), iFacts.getRoute().getDriver(), iFacts.getRoute().getVehicle());
 			double actCost_nextAct = activityCosts.getActivityCost(nextAct, arrTime_nextAct, iFacts.getRoute().getDriver(), iFacts.getRoute().getVehicle());
 			oldCosts = tp_costs_prevAct_nextAct + actCost_nextAct;
 		}
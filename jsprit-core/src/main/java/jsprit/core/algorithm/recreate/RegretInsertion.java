@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.recreate.listener.InsertionListener;
+import jsprit.core.algorithm.recreate.listener.InsertionListeners;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.VehicleFleetManager;
+import jsprit.core.util.RandomNumberGeneration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+
+
+/**
+ * Regret-k insertion.
+ *
+ * <p>In each step, it inserts the job with the highest regret at its cheapest position. The regret of a job is the sum of the
+ * cost differences between its k best route insertions and its best insertion, i.e. it indicates how much one loses
+ * if the job is not inserted now. Jobs that have less than k feasible route insertions are preferred (the fewer, the earlier).
+ * With k=1 it equals cheapest insertion.
+ *
+ * <p>Insertion data are cached per route and job. After an insertion only the column of the route that has been
+ * modified is re-evaluated, and the k best route insertions of a job are only re-ranked if this route has been
+ * among them. If an executor is set, the modified columns are evaluated in parallel.
+ *
+ * @author schroeder
+ *
+ */
+final class RegretInsertion implements InsertionStrategy{
+
+	private static Logger logger = LogManager.getLogger(RegretInsertion.class);
+
+	private Random random = RandomNumberGeneration.getRandom();
+
+	private InsertionListeners insertionsListeners;
+
+	private Inserter inserter;
+
+	private InsertionDataEvaluator evaluator;
+
+	private InsertionDataCache cache;
+
+	private int k = 2;
+
+	public RegretInsertion(JobInsertionCostsCalculator jobInsertionCalculator, VehicleRoutingProblem vehicleRoutingProblem, VehicleFleetManager fleetManager) {
+		super();
+		this.insertionsListeners = new InsertionListeners();
+		this.inserter = new Inserter(insertionsListeners, vehicleRoutingProblem);
+		this.evaluator = new InsertionDataEvaluator(jobInsertionCalculator);
+		this.cache = new InsertionDataCache(fleetManager);
+		insertionsListeners.addListener(cache);
+		logger.info("initialise " + this);
+	}
+
+	public RegretInsertion(JobInsertionCostsCalculator jobInsertionCalculator, VehicleRoutingProblem vehicleRoutingProblem, VehicleFleetManager fleetManager, ExecutorService executorService, int nuOfBatches) {
+		this(jobInsertionCalculator, vehicleRoutingProblem, fleetManager);
+		this.evaluator = new InsertionDataEvaluator(jobInsertionCalculator, executorService, nuOfBatches);
+	}
+
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	/**
+	 * Sets the number of route insertions that are considered to calculate the regret of a job. Default is 2.
+	 *
+	 * @param k number of route insertions considered
+	 */
+	public void setK(int k) {
+		if(k < 1) throw new IllegalArgumentException("k must be at least 1");
+		this.k = k;
+	}
+
+	/**
+	 * Sets whether the insertion of a job invalidates the cached insertion data of all routes. This must be true if
+	 * insertion costs depend on the entire solution rather than on the route only, e.g. when fixed costs are weighted
+	 * with the completeness of the solution.
+	 *
+	 * @param invalidateAllOnInsertion true if every insertion invalidates all cached insertion data
+	 */
+	public void setInvalidateAllOnInsertion(boolean invalidateAllOnInsertion) {
+		cache.setInvalidateAllOnInsertion(invalidateAllOnInsertion);
+	}
+
+	@Override
+	public String toString() {
+		return "[name=regretInsertion][k=" + k + "]";
+	}
+
+	@Override
+	public Collection<Job> insertJobs(Collection<VehicleRoute> vehicleRoutes, Collection<Job> unassignedJobs) {
+		insertionsListeners.informInsertionStarts(vehicleRoutes,unassignedJobs);
+		List<Job> badJobs = new ArrayList<Job>(unassignedJobs.size());
+		List<Job> jobsToInsert = new ArrayList<Job>(unassignedJobs);
+		Collections.shuffle(jobsToInsert, random);
+		Map<Job,BestRouteInsertions> bestRouteInsertions = new HashMap<Job, BestRouteInsertions>();
+		for(Job job : jobsToInsert) bestRouteInsertions.put(job, new BestRouteInsertions(k));
+		List<VehicleRoute> routes = new ArrayList<VehicleRoute>(vehicleRoutes);
+		routes.add(VehicleRoute.emptyRoute());
+		while(!jobsToInsert.isEmpty()){
+			List<VehicleRoute> modifiedRoutes = new ArrayList<VehicleRoute>();
+			for(VehicleRoute route : routes){
+				if(!cache.contains(route)) modifiedRoutes.add(route);
+			}
+			evaluator.evaluate(modifiedRoutes, jobsToInsert, cache);
+			Job jobWithHighestRegret = null;
+			BestRouteInsertions insertionsOfJobWithHighestRegret = null;
+			Iterator<Job> jobIterator = jobsToInsert.iterator();
+			while(jobIterator.hasNext()){
+				Job job = jobIterator.next();
+				BestRouteInsertions insertions = bestRouteInsertions.get(job);
+				insertions.update(job, routes, modifiedRoutes, cache);
+				if(insertions.size() == 0){
+					badJobs.add(job);
+					jobIterator.remove();
+					continue;
+				}
+				if(insertionsOfJobWithHighestRegret == null || hasHigherPriority(insertions, insertionsOfJobWithHighestRegret)){
+					jobWithHighestRegret = job;
+					insertionsOfJobWithHighestRegret = insertions;
+				}
+			}
+			if(jobWithHighestRegret == null) break;
+			VehicleRoute route = insertionsOfJobWithHighestRegret.getRoute(0);
+			if(route == routes.get(routes.size()-1)){
+				vehicleRoutes.add(route);
+				routes.add(VehicleRoute.emptyRoute());
+			}
+			inserter.insertJob(jobWithHighestRegret, insertionsOfJobWithHighestRegret.getInsertionData(0), route);
+			jobsToInsert.remove(jobWithHighestRegret);
+			bestRouteInsertions.remove(jobWithHighestRegret);
+		}
+		insertionsListeners.informInsertionEndsListeners(vehicleRoutes);
+		return badJobs;
+	}
+
+	private boolean hasHigherPriority(BestRouteInsertions insertions, BestRouteInsertions other) {
+		if(insertions.size() != other.size()) return insertions.size() < other.size();
+		double regret = insertions.getRegret();
+		double otherRegret = other.getRegret();
+		if(regret != otherRegret) return regret > otherRegret;
+		return insertions.getInsertionData(0).getInsertionCost() < other.getInsertionData(0).getInsertionCost();
+	}
+
+	@Override
+	public void removeListener(InsertionListener insertionListener) {
+		insertionsListeners.removeListener(insertionListener);
+	}
+
+	@Override
+	public Collection<InsertionListener> getListeners() {
+		return Collections.unmodifiableCollection(insertionsListeners.getListeners());
+	}
+
+	@Override
+	public void addListener(InsertionListener insertionListener) {
+		insertionsListeners.addListener(insertionListener);
+	}
+
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.cost.TransportCostsLookup;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.job.Shipment;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleImpl.NoVehicle;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lower bound of the costs of inserting a job into a route, i.e. of the detour the route's vehicle needs to make.
+ * 
+ * <p>Inserting location x between i and j costs c(i,x) + c(x,j) - c(i,j). Since c(i,x) is at least the minimum costs from
+ * any location of the route to x, c(x,j) at least the minimum costs from x to any location of the route, and c(i,j) at most the
+ * maximum costs of an edge of the route, the detour is bounded by these minimum and maximum costs. The locations and the maximum
+ * edge costs of a route are memorized until the route is changed. Locations are looked up by their index, thus with
+ * {@link jsprit.core.problem.cost.IndexedVehicleRoutingTransportCosts} no location-id needs to be hashed.
+ * 
+ * <p>It assumes that transport costs do not depend on time, that activity costs and soft constraints are non-negative and that
+ * the job is inserted with the route's vehicle, i.e. either vehicles cannot be switched or all vehicles have the same costs
+ * and locations. Empty routes and routes that do not return to depot get a lower bound of 0.
+ * 
+ * @author schroeder
+ *
+ */
+final class RouteDetourLowerBound {
+	
+	private static class RouteGeometry {
+		
+		private final int[] locationIndices;
+		
+		private final String[] locationIds;
+		
+		private final double maxEdgeCosts;
+
+		RouteGeometry(int[] locationIndices, String[] locationIds, double maxEdgeCosts) {
+			super();
+			this.locationIndices = locationIndices;
+			this.locationIds = locationIds;
+			this.maxEdgeCosts = maxEdgeCosts;
+		}
+		
+	}
+	
+	private final VehicleRoutingProblem vrp;
+	
+	private final TransportCostsLookup transportCosts;
+	
+	private final Map<VehicleRoute,RouteGeometry> geometries = new IdentityHashMap<VehicleRoute, RouteGeometry>();
+
+	RouteDetourLowerBound(VehicleRoutingProblem vrp) {
+		super();
+		this.vrp = vrp;
+		this.transportCosts = TransportCostsLookup.newInstance(vrp.getTransportCosts());
+	}
+	
+	/**
+	 * Returns the lower bound of the costs of inserting job into route.
+	 * 
+	 * @param route the route
+	 * @param job the job to be inserted
+	 * @return lower bound of insertion costs
+	 */
+	double getLowerBound(VehicleRoute route, Job job){
+		Vehicle vehicle = route.getVehicle();
+		if(route.isEmpty() || vehicle == null || vehicle instanceof NoVehicle || !vehicle.isReturnToDepot()) return 0.;
+		RouteGeometry geometry = geometries.get(route);
+		if(geometry == null){
+			geometry = createGeometry(route);
+			geometries.put(route, geometry);
+		}
+		if(job instanceof Service){
+			String locationId = ((Service) job).getLocationId();
+			int locationIndex = vrp.getLocationIndex(locationId);
+			double detour = getMinCostsTo(geometry, locationIndex, locationId, route) + getMinCostsFrom(geometry, locationIndex, locationId, route) - geometry.maxEdgeCosts;
+			return Math.max(0., detour);
+		}
+		if(job instanceof Shipment){
+			Shipment shipment = (Shipment) job;
+			String pickupId = shipment.getPickupLocationId();
+			int pickupIndex = vrp.getLocationIndex(pickupId);
+			String deliveryId = shipment.getDeliveryLocationId();
+			int deliveryIndex = vrp.getLocationIndex(deliveryId);
+			double toPickup = getMinCostsTo(geometry, pickupIndex, pickupId, route);
+			double fromPickup = getMinCostsFrom(geometry, pickupIndex, pickupId, route);
+			double toDelivery = getMinCostsTo(geometry, deliveryIndex, deliveryId, route);
+			double fromDelivery = getMinCostsFrom(geometry, deliveryIndex, deliveryId, route);
+			double sameEdgeDetour = toPickup + fromDelivery - geometry.maxEdgeCosts;
+			double twoEdgesDetour = toPickup + fromPickup + toDelivery + fromDelivery - 2. * geometry.maxEdgeCosts;
+			return Math.max(0., Math.min(sameEdgeDetour, twoEdgesDetour));
+		}
+		return 0.;
+	}
+	
+	/**
+	 * Informs that route has been changed, i.e. its memorized locations are discarded.
+	 * 
+	 * @param route the changed route
+	 */
+	void informRouteChanged(VehicleRoute route){
+		geometries.remove(route);
+	}
+	
+	/**
+	 * Discards the memorized locations of all routes.
+	 */
+	void clear(){
+		geometries.clear();
+	}
+
+	private RouteGeometry createGeometry(VehicleRoute route) {
+		List<TourActivity> activities = route.getActivities();
+		int[] locationIndices = new int[activities.size() + 2];
+		String[] locationIds = new String[activities.size() + 2];
+		locationIndices[0] = TransportCostsLookup.getLocationIndex(route.getStart());
+		locationIds[0] = route.getStart().getLocationId();
+		for(int i=0;i<activities.size();i++){
+			locationIndices[i+1] = TransportCostsLookup.getLocationIndex(activities.get(i));
+			locationIds[i+1] = activities.get(i).getLocationId();
+		}
+		locationIndices[locationIndices.length - 1] = TransportCostsLookup.getLocationIndex(route.getEnd());
+		locationIds[locationIds.length - 1] = route.getEnd().getLocationId();
+		double maxEdgeCosts = 0.;
+		for(int i=1;i<locationIds.length;i++){
+			maxEdgeCosts = Math.max(maxEdgeCosts, getCosts(locationIndices[i-1], locationIds[i-1], locationIndices[i], locationIds[i], route));
+		}
+		return new RouteGeometry(locationIndices, locationIds, maxEdgeCosts);
+	}
+
+	private double getMinCostsTo(RouteGeometry geometry, int locationIndex, String locationId, VehicleRoute route){
+		double minCosts = Double.MAX_VALUE;
+		for(int i=0;i<geometry.locationIndices.length;i++){
+			minCosts = Math.min(minCosts, getCosts(geometry.locationIndices[i], geometry.locationIds[i], locationIndex, locationId, route));
+		}
+		return minCosts;
+	}
+	
+	private double getMinCostsFrom(RouteGeometry geometry, int locationIndex, String locationId, VehicleRoute route){
+		double minCosts = Double.MAX_VALUE;
+		for(int i=0;i<geometry.locationIndices.length;i++){
+			minCosts = Math.min(minCosts, getCosts(locationIndex, locationId, geometry.locationIndices[i], geometry.locationIds[i], route));
+		}
+		return minCosts;
+	}
+
+	private double getCosts(int fromIndex, String fromId, int toIndex, String toId, VehicleRoute route){
+		return transportCosts.getTransportCost(fromIndex, fromId, toIndex, toId, 0., route.getDriver(), route.getVehicle());
+	}
+
+}
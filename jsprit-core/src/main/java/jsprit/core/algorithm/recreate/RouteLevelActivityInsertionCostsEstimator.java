@@ -26,6 +26,8 @@ import jsprit.core.problem.solution.route.VehicleRoute;
 import jsprit.core.problem.solution.route.activity.End;
 import jsprit.core.problem.solution.route.activity.Start;
 import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.solution.route.state.PrimitiveRouteAndActivityStateGetter;
+import jsprit.core.problem.solution.route.state.PrimitiveStateGetterAdapter;
 import jsprit.core.problem.solution.route.state.RouteAndActivityStateGetter;
 
 import java.util.ArrayList;
@@ -38,14 +40,14 @@ class RouteLevelActivityInsertionCostsEstimator implements ActivityInsertionCost
 	
 	private AuxilliaryCostCalculator auxilliaryPathCostCalculator;
 	
-	private RouteAndActivityStateGetter stateManager;
+	private PrimitiveRouteAndActivityStateGetter stateManager;
 	
 	private int nuOfActivities2LookForward = 0;
 	
 	public RouteLevelActivityInsertionCostsEstimator(VehicleRoutingTransportCosts routingCosts, VehicleRoutingActivityCosts actCosts, RouteAndActivityStateGetter stateManager) {
 		super();
 		this.activityCosts = actCosts;
-		this.stateManager = stateManager;
+		this.stateManager = PrimitiveStateGetterAdapter.adapt(stateManager);
 		auxilliaryPathCostCalculator = new AuxilliaryCostCalculator(routingCosts, activityCosts);
 	}
 
@@ -66,14 +68,14 @@ class RouteLevelActivityInsertionCostsEstimator implements ActivityInsertionCost
 	}
 	
 	private double actCostsOld(VehicleRoute vehicleRoute, TourActivity act) {
-        Double cost_at_act;
+        double cost_at_act;
         if(act instanceof End){
-            cost_at_act = stateManager.getRouteState(vehicleRoute, InternalStates.COSTS, Double.class);
+            cost_at_act = stateManager.getRouteStateDouble(vehicleRoute, InternalStates.COSTS);
 		}
         else{
-            cost_at_act = stateManager.getActivityState(act, InternalStates.COSTS, Double.class);
+            cost_at_act = stateManager.getActivityStateDouble(act, InternalStates.COSTS);
         }
-        if(cost_at_act == null) cost_at_act = 0.;
+        if(Double.isNaN(cost_at_act)) cost_at_act = 0.;
         return cost_at_act;
 	}
 	
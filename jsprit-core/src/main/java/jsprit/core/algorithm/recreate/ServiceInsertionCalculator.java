@@ -19,6 +19,7 @@ package jsprit.core.algorithm.recreate;
 import jsprit.core.problem.JobActivityFactory;
 import jsprit.core.problem.constraint.*;
 import jsprit.core.problem.constraint.HardActivityConstraint.ConstraintsStatus;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.driver.Driver;
 import jsprit.core.problem.job.Job;
@@ -33,6 +34,8 @@ import jsprit.core.util.CalculationUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+
 /**
  * Calculator that calculates the best insertion position for a {@link Service}.
  * 
@@ -51,7 +54,7 @@ final class ServiceInsertionCalculator implements JobInsertionCostsCalculator{
 	
 	private SoftActivityConstraint softActivityConstraint;
 	
-	private VehicleRoutingTransportCosts transportCosts;
+	private TransportCostsLookup transportCosts;
 	
 	private ActivityInsertionCostsCalculator additionalTransportCostsCalculator;
 	
@@ -59,9 +62,11 @@ final class ServiceInsertionCalculator implements JobInsertionCostsCalculator{
 	
 	private AdditionalAccessEgressCalculator additionalAccessEgressCalculator;
 
+	private final ThreadLocal<InsertionScratch> scratch = InsertionScratch.newThreadLocal();
+
 	public ServiceInsertionCalculator(VehicleRoutingTransportCosts routingCosts, ActivityInsertionCostsCalculator additionalTransportCostsCalculator, ConstraintManager constraintManager) {
 		super();
-		this.transportCosts = routingCosts;
+		this.transportCosts = TransportCostsLookup.newInstance(routingCosts);
 		hardRouteLevelConstraint = constraintManager;
 		hardActivityLevelConstraint = constraintManager;
 		softActivityConstraint = constraintManager;
@@ -87,10 +92,11 @@ final class ServiceInsertionCalculator implements JobInsertionCostsCalculator{
 	 */
 	@Override
 	public InsertionData getInsertionData(final VehicleRoute currentRoute, final Job jobToInsert, final Vehicle newVehicle, double newVehicleDepartureTime, final Driver newDriver, final double bestKnownCosts) {
-		JobInsertionContext insertionContext = new JobInsertionContext(currentRoute, jobToInsert, newVehicle, newDriver, newVehicleDepartureTime);
+		InsertionScratch scratch = this.scratch.get();
+		JobInsertionContext insertionContext = scratch.getInsertionContext(currentRoute, jobToInsert, newVehicle, newDriver, newVehicleDepartureTime);
         Service service = (Service)jobToInsert;
         int insertionIndex = InsertionData.NO_INDEX;
-        TourActivity deliveryAct2Insert = activityFactory.createActivities(service).get(0);
+        TourActivity deliveryAct2Insert = scratch.getActivities(service, activityFactory).get(0);
         insertionContext.getAssociatedActivities().add(deliveryAct2Insert);
 
         /*
@@ -109,17 +115,18 @@ final class ServiceInsertionCalculator implements JobInsertionCostsCalculator{
         additionalICostsAtRouteLevel += additionalAccessEgressCalculator.getCosts(insertionContext);
 
         /*
-        generate new start and end for new vehicle
+        get start and end for new vehicle
          */
-		Start start = Start.newInstance(newVehicle.getStartLocationId(), newVehicle.getEarliestDeparture(), Double.MAX_VALUE);
-		start.setEndTime(newVehicleDepartureTime);
-		End end = End.newInstance(newVehicle.getEndLocationId(), 0.0, newVehicle.getLatestArrival());
+		Start start = scratch.getStart(newVehicle, newVehicleDepartureTime, Double.MAX_VALUE);
+		End end = scratch.getEnd(newVehicle);
 		
 		TourActivity prevAct = start;
 		double prevActStartTime = newVehicleDepartureTime;
 		int actIndex = 0;
 		boolean loopBroken = false;
-		for(TourActivity nextAct : currentRoute.getTourActivities().getActivities()){
+		List<TourActivity> activities = currentRoute.getTourActivities().getActivities();
+		for(int i=0;i<activities.size();i++){
+			TourActivity nextAct = activities.get(i);
 			ConstraintsStatus status = hardActivityLevelConstraint.fulfilled(insertionContext, prevAct, deliveryAct2Insert, nextAct, prevActStartTime);
 			if(status.equals(ConstraintsStatus.FULFILLED)){
 				//from job2insert induced costs at activity level
@@ -134,7 +141,7 @@ final class ServiceInsertionCalculator implements JobInsertionCostsCalculator{
 				loopBroken = true;
 				break;
 			}
-			double nextActArrTime = prevActStartTime + transportCosts.getTransportTime(prevAct.getLocationId(), nextAct.getLocationId(), prevActStartTime, newDriver, newVehicle);
+			double nextActArrTime = prevActStartTime + transportCosts.getTransportTime(prevAct, nextAct, prevActStartTime, newDriver, newVehicle);
 			prevActStartTime = CalculationUtils.getActivityEndTime(nextActArrTime, nextAct);
 			prevAct = nextAct;
 			actIndex++;
@@ -21,6 +21,7 @@ import jsprit.core.problem.JobActivityFactory;
 import jsprit.core.problem.constraint.HardActivityConstraint;
 import jsprit.core.problem.constraint.HardActivityConstraint.ConstraintsStatus;
 import jsprit.core.problem.constraint.HardRouteConstraint;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingActivityCosts;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.driver.Driver;
@@ -32,6 +33,8 @@ import jsprit.core.problem.solution.route.activity.End;
 import jsprit.core.problem.solution.route.activity.Start;
 import jsprit.core.problem.solution.route.activity.TourActivities;
 import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.solution.route.state.PrimitiveRouteAndActivityStateGetter;
+import jsprit.core.problem.solution.route.state.PrimitiveStateGetterAdapter;
 import jsprit.core.problem.solution.route.state.RouteAndActivityStateGetter;
 import jsprit.core.problem.vehicle.Vehicle;
 import jsprit.core.problem.vehicle.VehicleImpl.NoVehicle;
@@ -55,7 +58,7 @@ final class ServiceInsertionOnRouteLevelCalculator implements JobInsertionCostsC
 	
 	private JobActivityFactory activityFactory;
 	
-	private RouteAndActivityStateGetter stateManager;
+	private PrimitiveRouteAndActivityStateGetter stateManager;
 	
 	private HardRouteConstraint hardRouteLevelConstraint;
 	
@@ -93,7 +96,7 @@ final class ServiceInsertionOnRouteLevelCalculator implements JobInsertionCostsC
 
 
 	public void setStates(RouteAndActivityStateGetter stateManager){
-		this.stateManager = stateManager;
+		this.stateManager = PrimitiveStateGetterAdapter.adapt(stateManager);
 	}
 	
 	void setNuOfActsForwardLooking(int nOfActsForwardLooking) {
@@ -266,8 +269,8 @@ final class ServiceInsertionOnRouteLevelCalculator implements JobInsertionCostsC
 				/**
 				 * compute cost-diff of tour with and without new activity --> insertion_costs
 				 */
-                Double currentRouteCosts = stateManager.getRouteState(currentRoute, InternalStates.COSTS, Double.class);
-                if(currentRouteCosts == null) currentRouteCosts = 0.;
+                double currentRouteCosts = stateManager.getRouteStateDouble(currentRoute, InternalStates.COSTS);
+                if(Double.isNaN(currentRouteCosts)) currentRouteCosts = 0.;
                 double insertion_costs = auxilliaryPathCostCalculator.costOfPath(wholeTour, start.getEndTime(), newDriver, newVehicle) - currentRouteCosts;
 
 				/**
@@ -302,6 +305,7 @@ final class ServiceInsertionOnRouteLevelCalculator implements JobInsertionCostsC
 			start.setTheoreticalLatestOperationStartTime(Double.MAX_VALUE);
 			start.setEndTime(newVehicleDepartureTime);
 		}
+		start.setLocationIndex(TransportCostsLookup.getStartLocationIndex(newVehicle));
 		
 		if(end == null){
 			end = End.newInstance(newVehicle.getEndLocationId(), 0.0, newVehicle.getLatestArrival());
@@ -311,15 +315,16 @@ final class ServiceInsertionOnRouteLevelCalculator implements JobInsertionCostsC
 			end.setTheoreticalEarliestOperationStartTime(0.0);
 			end.setTheoreticalLatestOperationStartTime(newVehicle.getLatestArrival());
 		}
+		end.setLocationIndex(TransportCostsLookup.getEndLocationIndex(newVehicle));
 	}
 
 	private double sumOf_prevCosts_oldVehicle(VehicleRoute vehicleRoute, TourActivity act) {
-		Double prevCost;
+		double prevCost;
         if(act instanceof End){
-			prevCost = stateManager.getRouteState(vehicleRoute, InternalStates.COSTS,Double.class);
+			prevCost = stateManager.getRouteStateDouble(vehicleRoute, InternalStates.COSTS);
 		}
-        else prevCost = stateManager.getActivityState(act, InternalStates.COSTS,Double.class);
-        if(prevCost == null) prevCost = 0.;
+        else prevCost = stateManager.getActivityStateDouble(act, InternalStates.COSTS);
+        if(Double.isNaN(prevCost)) prevCost = 0.;
 		return prevCost;
 	}
 
@@ -16,9 +16,11 @@
  ******************************************************************************/
 package jsprit.core.algorithm.recreate;
 
+import jsprit.core.problem.AbstractActivity;
 import jsprit.core.problem.JobActivityFactory;
 import jsprit.core.problem.constraint.*;
 import jsprit.core.problem.constraint.HardActivityConstraint.ConstraintsStatus;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.driver.Driver;
 import jsprit.core.problem.job.Job;
@@ -53,11 +55,13 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
 	
 	private ActivityInsertionCostsCalculator activityInsertionCostsCalculator;
 	
-	private VehicleRoutingTransportCosts transportCosts;
+	private TransportCostsLookup transportCosts;
 	
 	private JobActivityFactory activityFactory;
 	
 	private AdditionalAccessEgressCalculator additionalAccessEgressCalculator;
+
+	private final ThreadLocal<InsertionScratch> scratch = InsertionScratch.newThreadLocal();
 	
 	public ShipmentInsertionCalculator(VehicleRoutingTransportCosts routingCosts, ActivityInsertionCostsCalculator activityInsertionCostsCalculator, ConstraintManager constraintManager) {
 		super();
@@ -66,7 +70,7 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
 		this.hardActivityLevelConstraint = constraintManager;
 		this.softActivityConstraint = constraintManager;
 		this.softRouteConstraint = constraintManager;
-		this.transportCosts = routingCosts;
+		this.transportCosts = TransportCostsLookup.newInstance(routingCosts);
 		additionalAccessEgressCalculator = new AdditionalAccessEgressCalculator(routingCosts);
 		logger.info("initialise " + this);
 	}
@@ -87,10 +91,12 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
 	 */
 	@Override
 	public InsertionData getInsertionData(final VehicleRoute currentRoute, final Job jobToInsert, final Vehicle newVehicle, double newVehicleDepartureTime, final Driver newDriver, final double bestKnownCosts) {
-        JobInsertionContext insertionContext = new JobInsertionContext(currentRoute, jobToInsert, newVehicle, newDriver, newVehicleDepartureTime);
+        InsertionScratch scratch = this.scratch.get();
+        JobInsertionContext insertionContext = scratch.getInsertionContext(currentRoute, jobToInsert, newVehicle, newDriver, newVehicleDepartureTime);
         Shipment shipment = (Shipment)jobToInsert;
-        TourActivity pickupShipment = activityFactory.createActivities(shipment).get(0);
-        TourActivity deliverShipment = activityFactory.createActivities(shipment).get(1);
+        List<AbstractActivity> shipmentActivities = scratch.getActivities(shipment, activityFactory);
+        TourActivity pickupShipment = shipmentActivities.get(0);
+        TourActivity deliverShipment = shipmentActivities.get(1);
         insertionContext.getAssociatedActivities().add(pickupShipment);
         insertionContext.getAssociatedActivities().add(deliverShipment);
 
@@ -111,12 +117,10 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
         int pickupInsertionIndex = InsertionData.NO_INDEX;
 		int deliveryInsertionIndex = InsertionData.NO_INDEX;
 		
-		Start start = Start.newInstance(newVehicle.getStartLocationId(), newVehicle.getEarliestDeparture(), newVehicle.getLatestArrival());
-		start.setEndTime(newVehicleDepartureTime);
-		
-		End end = End.newInstance(newVehicle.getEndLocationId(), 0.0, newVehicle.getLatestArrival());
+		Start start = scratch.getStart(newVehicle, newVehicleDepartureTime, newVehicle.getLatestArrival());
+		End end = scratch.getEnd(newVehicle);
 
-        ActivityContext pickupContext = new ActivityContext();
+        ActivityContext pickupContext = scratch.getActivityContext();
 
 		TourActivity prevAct = start;
 		double prevActEndTime = newVehicleDepartureTime;
@@ -126,7 +130,7 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
 		for(int i=0;i<activities.size();i++){
 			ConstraintsStatus pickupShipmentConstraintStatus = hardActivityLevelConstraint.fulfilled(insertionContext, prevAct, pickupShipment, activities.get(i), prevActEndTime);
 			if(pickupShipmentConstraintStatus.equals(ConstraintsStatus.NOT_FULFILLED)){
-				double nextActArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct.getLocationId(), activities.get(i).getLocationId(), prevActEndTime, newDriver, newVehicle);
+				double nextActArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct, activities.get(i), prevActEndTime, newDriver, newVehicle);
 				prevActEndTime = CalculationUtils.getActivityEndTime(nextActArrTime, activities.get(i));
 				prevAct = activities.get(i);
 				continue;
@@ -138,7 +142,7 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
 			double additionalPickupICosts = softActivityConstraint.getCosts(insertionContext, prevAct, pickupShipment, activities.get(i), prevActEndTime);
 			double pickupAIC = calculate(insertionContext,prevAct,pickupShipment,activities.get(i),prevActEndTime);
 			TourActivity prevAct_deliveryLoop = pickupShipment;
-			double shipmentPickupArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct.getLocationId(), pickupShipment.getLocationId(), prevActEndTime, newDriver, newVehicle);
+			double shipmentPickupArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct, pickupShipment, prevActEndTime, newDriver, newVehicle);
 			double shipmentPickupEndTime = CalculationUtils.getActivityEndTime(shipmentPickupArrTime, pickupShipment);
 
             pickupContext.setArrivalTime(shipmentPickupArrTime);
@@ -167,7 +171,7 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
 					break;
 				}	
 				//update prevAct and endTime
-				double nextActArrTime = prevActEndTime_deliveryLoop + transportCosts.getTransportTime(prevAct_deliveryLoop.getLocationId(), activities.get(j).getLocationId(), prevActEndTime_deliveryLoop, newDriver, newVehicle);
+				double nextActArrTime = prevActEndTime_deliveryLoop + transportCosts.getTransportTime(prevAct_deliveryLoop, activities.get(j), prevActEndTime_deliveryLoop, newDriver, newVehicle);
 				prevActEndTime_deliveryLoop = CalculationUtils.getActivityEndTime(nextActArrTime, activities.get(j));
 				prevAct_deliveryLoop = activities.get(j);
 			}
@@ -186,7 +190,7 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
 				}
 			}
 			//update prevAct and endTime
-			double nextActArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct.getLocationId(), activities.get(i).getLocationId(), prevActEndTime, newDriver, newVehicle);
+			double nextActArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct, activities.get(i), prevActEndTime, newDriver, newVehicle);
 			prevActEndTime = CalculationUtils.getActivityEndTime(nextActArrTime, activities.get(i));
 			prevAct = activities.get(i);
 		}
@@ -196,7 +200,7 @@ final class ShipmentInsertionCalculator implements JobInsertionCostsCalculator{
 				double additionalPickupICosts = softActivityConstraint.getCosts(insertionContext, prevAct, pickupShipment, end, prevActEndTime);
 				double pickupAIC = calculate(insertionContext,prevAct,pickupShipment,end,prevActEndTime);
 				TourActivity prevAct_deliveryLoop = pickupShipment;
-				double shipmentPickupArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct.getLocationId(), pickupShipment.getLocationId(), prevActEndTime, newDriver, newVehicle);
+				double shipmentPickupArrTime = prevActEndTime + transportCosts.getTransportTime(prevAct, pickupShipment, prevActEndTime, newDriver, newVehicle);
 				double shipmentPickupEndTime = CalculationUtils.getActivityEndTime(shipmentPickupArrTime, pickupShipment);
 				double prevActEndTime_deliveryLoop = shipmentPickupEndTime;
 
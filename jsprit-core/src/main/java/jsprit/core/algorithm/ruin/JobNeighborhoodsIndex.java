@@ -0,0 +1,404 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.ruin;
+
+import jsprit.core.algorithm.ConcurrentTasks;
+import jsprit.core.algorithm.ruin.RuinRadial.JobNeighborhoods;
+import jsprit.core.algorithm.ruin.distance.AvgServiceAndShipmentDistance;
+import jsprit.core.algorithm.ruin.distance.EuclideanServiceDistance;
+import jsprit.core.algorithm.ruin.distance.JobDistance;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.util.Coordinate;
+import jsprit.core.util.CrowFlyCosts;
+import jsprit.core.util.Locations;
+import jsprit.core.util.SpatialIndex;
+import jsprit.core.util.StopWatch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Neighborhoods that memorize, per job index, the indices of the k nearest jobs sorted by ascending distance.
+ * 
+ * <p>Neighborhoods are computed by bounding the number of memorized neighbors of each job to k while iterating over all
+ * other jobs, optionally split into tasks run by an executor. If the job distance is {@link EuclideanServiceDistance}, or the {@link AvgServiceAndShipmentDistance}
+ * of {@link CrowFlyCosts} (the default of radial ruin), and all jobs are services, they are queried from a {@link SpatialIndex} of the services instead, which takes 
+ * O(n log n) rather than O(n^2). Since they are read-only, neighborhoods of the same problem and the same job distance are shared by all algorithms,
+ * see {@link #getInstance(VehicleRoutingProblem, JobDistance, int)}. This requires the job distance to be thread-safe.
+ * 
+ * @author schroeder
+ *
+ */
+final class JobNeighborhoodsIndex implements JobNeighborhoods {
+	
+	private static final int MIN_JOBS_PER_THREAD = 500;
+
+	private static Logger logger = LogManager.getLogger(JobNeighborhoodsIndex.class);
+	
+	private static class IndexFuture {
+		
+		private final JobDistance jobDistance;
+		
+		private final int capacity;
+		
+		private final FutureTask<JobNeighborhoodsIndex> future;
+
+		IndexFuture(JobDistance jobDistance, int capacity, FutureTask<JobNeighborhoodsIndex> future) {
+			super();
+			this.jobDistance = jobDistance;
+			this.capacity = capacity;
+			this.future = future;
+		}
+		
+	}
+	
+	private static final Map<VehicleRoutingProblem, List<IndexFuture>> indices = new WeakHashMap<VehicleRoutingProblem, List<IndexFuture>>();
+	
+	/**
+	 * Returns neighborhoods of vrp's jobs that memorize at least capacity neighbors per job. They are calculated in the calling thread.
+	 * 
+	 * @see #getInstance(VehicleRoutingProblem, JobDistance, int, ExecutorService, int)
+	 */
+	static JobNeighborhoodsIndex getInstance(VehicleRoutingProblem vrp, JobDistance jobDistance, int capacity){
+		return getInstance(vrp, jobDistance, capacity, null, 1);
+	}
+	
+	/**
+	 * Returns neighborhoods of vrp's jobs that memorize at least capacity neighbors per job.
+	 * 
+	 * <p>If neighborhoods for the same problem and an equal job distance have already been created, these are returned. Otherwise, they 
+	 * are created and memorized as long as vrp is referenced. They are calculated by the thread that requests them first, which splits the work 
+	 * into at most nuOfThreads tasks run by executor. Threads that request the same neighborhoods meanwhile wait for them, requests of other 
+	 * neighborhoods do not.
+	 * 
+	 * @param vrp the problem
+	 * @param jobDistance the distance between jobs
+	 * @param capacity the number of neighbors to memorize per job
+	 * @param executor the executor to calculate neighborhoods concurrently, or null if they are to be calculated in the calling thread
+	 * @param nuOfThreads the maximum number of concurrent tasks
+	 * @return neighborhoods of vrp's jobs
+	 */
+	static JobNeighborhoodsIndex getInstance(VehicleRoutingProblem vrp, final JobDistance jobDistance, int capacity, final ExecutorService executor, final int nuOfThreads){
+		final int nuOfJobs = vrp.getJobs().size();
+		final int cappedCapacity = getCapacity(capacity, nuOfJobs);
+		IndexFuture indexFuture = null;
+		boolean created = false;
+		synchronized (indices) {
+			List<IndexFuture> vrpIndices = indices.get(vrp);
+			if(vrpIndices == null){
+				vrpIndices = new ArrayList<IndexFuture>();
+				indices.put(vrp, vrpIndices);
+			}
+			for(IndexFuture f : vrpIndices){
+				if(f.jobDistance.equals(jobDistance) && f.capacity >= cappedCapacity){
+					indexFuture = f;
+					break;
+				}
+			}
+			if(indexFuture == null){
+				//the task must not reference vrp, otherwise vrp would never be removed from indices
+				final Collection<Job> jobs = vrp.getJobs().values();
+				indexFuture = new IndexFuture(jobDistance, cappedCapacity, new FutureTask<JobNeighborhoodsIndex>(new Callable<JobNeighborhoodsIndex>() {
+
+					@Override
+					public JobNeighborhoodsIndex call() throws Exception {
+						JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(jobs, jobDistance, cappedCapacity);
+						index.initialise(executor, Math.max(1, Math.min(nuOfThreads, nuOfJobs / MIN_JOBS_PER_THREAD)));
+						return index;
+					}
+
+				}));
+				vrpIndices.add(indexFuture);
+				created = true;
+			}
+		}
+		if(created) indexFuture.future.run();
+		boolean succeeded = false;
+		try{
+			JobNeighborhoodsIndex index = ConcurrentTasks.get(indexFuture.future, Collections.<Future<?>>emptyList());
+			succeeded = true;
+			return index;
+		}
+		finally{
+			if(created && !succeeded) discard(vrp, indexFuture);
+		}
+	}
+	
+	/**
+	 * Discards neighborhoods whose calculation failed such that they are calculated again with the next request.
+	 */
+	private static void discard(VehicleRoutingProblem vrp, IndexFuture indexFuture){
+		synchronized (indices) {
+			List<IndexFuture> vrpIndices = indices.get(vrp);
+			if(vrpIndices != null) vrpIndices.remove(indexFuture);
+		}
+	}
+	
+	/**
+	 * Returns the number of neighbors that can actually be memorized per job, i.e. capacity limited to nuOfJobs-1.
+	 */
+	private static int getCapacity(int capacity, int nuOfJobs){
+		return Math.max(0, Math.min(capacity, nuOfJobs - 1));
+	}
+	
+	private final JobDistance jobDistance;
+	
+	private final int capacity;
+	
+	private final int nuOfJobs;
+	
+	private final Job[] jobs;
+	
+	private final int[][] neighbors;
+	
+	private final SpatialIndex<Integer> spatialIndex;
+	
+	JobNeighborhoodsIndex(VehicleRoutingProblem vrp, JobDistance jobDistance, int capacity) {
+		this(vrp.getJobs().values(), jobDistance, capacity);
+	}
+	
+	JobNeighborhoodsIndex(Collection<Job> jobs, JobDistance jobDistance, int capacity) {
+		super();
+		this.jobDistance = jobDistance;
+		this.nuOfJobs = jobs.size();
+		this.capacity = getCapacity(capacity, nuOfJobs);
+		int maxIndex = 0;
+		for(Job job : jobs) maxIndex = Math.max(maxIndex, job.getIndex());
+		this.jobs = new Job[maxIndex + 1];
+		for(Job job : jobs) this.jobs[job.getIndex()] = job;
+		neighbors = new int[maxIndex + 1][];
+		spatialIndex = createSpatialIndex();
+		logger.info("intialise " + this);
+	}
+	
+	private SpatialIndex<Integer> createSpatialIndex() {
+		Locations crowFlyLocations = getCrowFlyLocations(jobDistance);
+		if(!(jobDistance instanceof EuclideanServiceDistance) && crowFlyLocations == null) return null;
+		SpatialIndex.Builder<Integer> builder = SpatialIndex.Builder.newInstance();
+		for(Job job : jobs){
+			if(job == null) continue;
+			if(!(job instanceof Service)) return null;
+			Service service = (Service) job;
+			Coordinate coordinate;
+			if(crowFlyLocations == null) coordinate = service.getCoord();
+			else coordinate = crowFlyLocations.getCoord(service.getLocationId());
+			if(coordinate == null) return null;
+			builder.add(job.getIndex(), coordinate);
+		}
+		return builder.build();
+	}
+	
+	/**
+	 * Returns the locations of crow-fly costs if jobDistance is the {@link AvgServiceAndShipmentDistance} of these costs, i.e. if the distance 
+	 * between services is proportional to the euclidean distance of their locations. Otherwise, it returns null.
+	 */
+	private static Locations getCrowFlyLocations(JobDistance jobDistance){
+		if(jobDistance.getClass() != AvgServiceAndShipmentDistance.class) return null;
+		VehicleRoutingTransportCosts costs = ((AvgServiceAndShipmentDistance) jobDistance).getTransportCosts();
+		if(costs == null || costs.getClass() != CrowFlyCosts.class) return null;
+		CrowFlyCosts crowFlyCosts = (CrowFlyCosts) costs;
+		if(crowFlyCosts.detourFactor <= 0.) return null;
+		return crowFlyCosts.getLocations();
+	}
+	
+	/**
+	 * Returns true if neighbors are queried from a spatial index rather than calculated from all distances.
+	 */
+	boolean isSpatiallyIndexed(){
+		return spatialIndex != null;
+	}
+
+	void initialise(){
+		initialise(null, 1);
+	}
+	
+	/**
+	 * Calculates the neighborhoods. If executor is not null, the work is split into nuOfTasks tasks that are run by executor. Tasks the 
+	 * executor has not started yet are run by the calling thread, thus this also completes if all threads of a shared executor are busy.
+	 * 
+	 * @param executor the executor, or null if neighborhoods are to be calculated in the calling thread
+	 * @param nuOfTasks the number of tasks
+	 */
+	void initialise(ExecutorService executor, int nuOfTasks){
+		if(executor == null) nuOfTasks = 1;
+		if(spatialIndex == null) logger.info("calculates distances from EACH job to EACH job --> n^2 calculations, but only the " + capacity + " nearest neighbors of each job are memorized");
+		else logger.info("queries the " + capacity + " nearest neighbors of each job from spatial index");
+		StopWatch stopWatch = new StopWatch();
+		stopWatch.start();
+		if(nuOfTasks <= 1){
+			calculateNeighbors(0, 1);
+		}
+		else{
+			calculateNeighborsConcurrently(executor, nuOfTasks);
+		}
+		stopWatch.stop();
+		logger.info("preprocessing comp-time: " + stopWatch + "; nuOfTasks: " + nuOfTasks + "; nuOfNeighbors stored: " + ((long) nuOfJobs * capacity) + "; estimated memory: " + 
+				((long) nuOfJobs * (16 + 4L * capacity)) + " bytes");
+	}
+
+	private void calculateNeighborsConcurrently(ExecutorService executor, final int nuOfTasks) {
+		List<FutureTask<Object>> tasks = new ArrayList<FutureTask<Object>>();
+		for(int t=0;t<nuOfTasks;t++){
+			final int offset = t;
+			tasks.add(new FutureTask<Object>(new Callable<Object>() {
+
+				@Override
+				public Object call() throws Exception {
+					calculateNeighbors(offset, nuOfTasks);
+					return null;
+				}
+
+			}));
+		}
+		for(FutureTask<Object> task : tasks){
+			try{
+				executor.execute(task);
+			}
+			catch(RejectedExecutionException e){
+				//task is run by calling thread below
+			}
+		}
+		for(FutureTask<Object> task : tasks){
+			//does nothing if task has already been started by the executor
+			task.run();
+			ConcurrentTasks.get(task, tasks);
+		}
+	}
+
+	/**
+	 * Calculates the neighbors of every job whose index is offset, offset+step, offset+2*step, ...
+	 */
+	private void calculateNeighbors(int offset, int step) {
+		double[] heapDistances = new double[capacity];
+		int[] heapIndices = new int[capacity];
+		for(int i=offset;i<jobs.length;i+=step){
+			if(jobs[i] == null) continue;
+			if(spatialIndex != null){
+				neighbors[i] = getNearestFromSpatialIndex(i);
+				continue;
+			}
+			int heapSize = 0;
+			for(int j=0;j<jobs.length;j++){
+				if(i == j || jobs[j] == null) continue;
+				double distance = jobDistance.getDistance(jobs[i], jobs[j]);
+				if(heapSize < capacity){
+					heapSize = siftUp(heapDistances, heapIndices, heapSize, distance, j);
+				}
+				else if(capacity > 0 && isFarther(heapDistances[0], heapIndices[0], distance, j)){
+					siftDown(heapDistances, heapIndices, heapSize, distance, j);
+				}
+			}
+			int[] nearest = new int[heapSize];
+			while(heapSize > 0){
+				nearest[heapSize - 1] = heapIndices[0];
+				heapSize--;
+				siftDown(heapDistances, heapIndices, heapSize, heapDistances[heapSize], heapIndices[heapSize]);
+			}
+			neighbors[i] = nearest;
+		}
+	}
+	
+	private int[] getNearestFromSpatialIndex(int i) {
+		List<Integer> nearestIncludingSelf = spatialIndex.getNearest(((Service) jobs[i]).getCoord(), capacity + 1);
+		int[] nearest = new int[capacity];
+		int k = 0;
+		for(Integer index : nearestIncludingSelf){
+			if(index == i || k == capacity) continue;
+			nearest[k++] = index;
+		}
+		return nearest;
+	}
+	
+	/*
+	 * the heap is a max-heap, i.e. the farthest of the memorized jobs is at its root. ties are broken by job index.
+	 */
+	private static boolean isFarther(double distance1, int index1, double distance2, int index2){
+		if(distance1 != distance2) return distance1 > distance2;
+		return index1 > index2;
+	}
+	
+	private static int siftUp(double[] heapDistances, int[] heapIndices, int heapSize, double distance, int index){
+		int k = heapSize;
+		while(k > 0){
+			int parent = (k - 1) / 2;
+			if(!isFarther(distance, index, heapDistances[parent], heapIndices[parent])) break;
+			heapDistances[k] = heapDistances[parent];
+			heapIndices[k] = heapIndices[parent];
+			k = parent;
+		}
+		heapDistances[k] = distance;
+		heapIndices[k] = index;
+		return heapSize + 1;
+	}
+	
+	/**
+	 * Replaces the root of the heap by distance and index.
+	 */
+	private static void siftDown(double[] heapDistances, int[] heapIndices, int heapSize, double distance, int index){
+		if(heapSize == 0) return;
+		int k = 0;
+		while(true){
+			int child = 2 * k + 1;
+			if(child >= heapSize) break;
+			if(child + 1 < heapSize && isFarther(heapDistances[child + 1], heapIndices[child + 1], heapDistances[child], heapIndices[child])) child++;
+			if(!isFarther(heapDistances[child], heapIndices[child], distance, index)) break;
+			heapDistances[k] = heapDistances[child];
+			heapIndices[k] = heapIndices[child];
+			k = child;
+		}
+		heapDistances[k] = distance;
+		heapIndices[k] = index;
+	}
+
+	@Override
+	public Iterator<Job> getNearestNeighborsIterator(final int nNeighbors, Job neighborTo) {
+		final int[] nearest = neighbors[neighborTo.getIndex()];
+		if(nNeighbors > nearest.length) logger.warn("more jobs are requested then iterator can iterate over. probably the number of neighbors memorized in JobNeighborhoods is too small");
+		return new Iterator<Job>() {
+			
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < nNeighbors && next < nearest.length;
+			}
+
+			@Override
+			public Job next() {
+				if(!hasNext()) throw new NoSuchElementException();
+				return jobs[nearest[next++]];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+			
+		};
+	}
+	
+	@Override
+	public String toString() {
+		return "[name=neighborhoodIndex][capacity="+capacity+"]";
+	}
+
+}
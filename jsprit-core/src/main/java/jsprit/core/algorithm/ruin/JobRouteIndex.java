@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.ruin;
+
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.TourActivities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index that maps each job of a solution to the route that serves it, such that a job can be removed from its route without
+ * searching all routes.
+ * 
+ * <p>Since routes are copied with each solution, the index is created from the routes to be ruined whenever a ruin starts, and
+ * is kept up to date as long as jobs are removed via {@link #removeJobs(Collection)}. If the jobs to be removed are known in advance,
+ * create the index of these jobs only (see {@link #newInstance(Collection, Collection)}).
+ * 
+ * @author schroeder
+ *
+ */
+final class JobRouteIndex {
+	
+	/**
+	 * Creates the index of the jobs served by vehicleRoutes.
+	 * 
+	 * @param vehicleRoutes the routes
+	 * @return index of jobs and their routes
+	 */
+	static JobRouteIndex newInstance(Collection<VehicleRoute> vehicleRoutes){
+		return new JobRouteIndex(vehicleRoutes);
+	}
+	
+	/**
+	 * Creates the index of jobs, i.e. it only maps those jobs to routes.
+	 * 
+	 * <p>It looks up jobs route by route. Per route, it either iterates over the jobs of the route or over the jobs still to be found,
+	 * whichever is smaller. Thus, it takes at most as long as indexing all jobs of vehicleRoutes, but far less if only a few jobs are to be indexed.
+	 * 
+	 * @param vehicleRoutes the routes
+	 * @param jobs the jobs to be indexed
+	 * @return index of jobs and their routes
+	 */
+	static JobRouteIndex newInstance(Collection<VehicleRoute> vehicleRoutes, Collection<Job> jobs){
+		return new JobRouteIndex(vehicleRoutes, jobs);
+	}
+	
+	private final Map<Job,VehicleRoute> routes;
+	
+	private JobRouteIndex(Collection<VehicleRoute> vehicleRoutes, Collection<Job> jobs) {
+		Set<Job> remaining = new HashSet<Job>(jobs);
+		routes = new HashMap<Job, VehicleRoute>((int) (remaining.size() / 0.75) + 1);
+		for(VehicleRoute route : vehicleRoutes){
+			if(remaining.isEmpty()) break;
+			TourActivities tourActivities = route.getTourActivities();
+			if(tourActivities.getJobs().size() <= remaining.size()){
+				for(Job job : tourActivities.getJobs()){
+					if(remaining.remove(job)) routes.put(job, route);
+				}
+			}
+			else{
+				for(Iterator<Job> iterator = remaining.iterator(); iterator.hasNext();){
+					Job job = iterator.next();
+					if(tourActivities.servesJob(job)){
+						routes.put(job, route);
+						iterator.remove();
+					}
+				}
+			}
+		}
+	}
+
+	private JobRouteIndex(Collection<VehicleRoute> vehicleRoutes) {
+		int nuOfJobs = 0;
+		for(VehicleRoute route : vehicleRoutes) nuOfJobs += route.getTourActivities().getJobs().size();
+		routes = new HashMap<Job, VehicleRoute>((int) (nuOfJobs / 0.75) + 1);
+		for(VehicleRoute route : vehicleRoutes){
+			for(Job job : route.getTourActivities().getJobs()){
+				routes.put(job, route);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the route that serves job, or null if no route serves it.
+	 * 
+	 * @param job the job
+	 * @return route that serves job
+	 */
+	VehicleRoute getRoute(Job job){
+		return routes.get(job);
+	}
+	
+	/**
+	 * Removes jobs from the routes that serve them. Each route is compacted only once, no matter how many of its jobs are removed.
+	 * 
+	 * @param jobs2remove the jobs to be removed
+	 * @return jobs that have actually been removed, mapped to the route they have been removed from, in the order of jobs2remove
+	 */
+	Map<Job,VehicleRoute> removeJobs(Collection<Job> jobs2remove){
+		Map<Job,VehicleRoute> removed = new LinkedHashMap<Job, VehicleRoute>();
+		Map<VehicleRoute,List<Job>> jobsByRoute = new HashMap<VehicleRoute, List<Job>>();
+		for(Job job : jobs2remove){
+			VehicleRoute route = routes.remove(job);
+			if(route == null) continue;
+			removed.put(job, route);
+			List<Job> jobsOfRoute = jobsByRoute.get(route);
+			if(jobsOfRoute == null){
+				jobsOfRoute = new ArrayList<Job>();
+				jobsByRoute.put(route, jobsOfRoute);
+			}
+			jobsOfRoute.add(job);
+		}
+		for(Map.Entry<VehicleRoute,List<Job>> e : jobsByRoute.entrySet()){
+			e.getKey().getTourActivities().removeJobs(e.getValue());
+		}
+		return removed;
+	}
+
+}
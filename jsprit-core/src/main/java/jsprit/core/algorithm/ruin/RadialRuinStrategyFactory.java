@@ -21,21 +21,40 @@ package jsprit.core.algorithm.ruin;
 import jsprit.core.algorithm.ruin.distance.JobDistance;
 import jsprit.core.problem.VehicleRoutingProblem;
 
+import java.util.concurrent.ExecutorService;
+
 public class RadialRuinStrategyFactory implements RuinStrategyFactory{
 
 	private double fraction;
 	
 	private JobDistance jobDistance;
 	
+	private ExecutorService executor;
+	
+	private int nuOfThreads = 1;
+	
 	public RadialRuinStrategyFactory(double fraction, JobDistance jobDistance) {
 		super();
 		this.fraction = fraction;
 		this.jobDistance = jobDistance;
 	}
 
+	/**
+	 * Sets the executor that calculates the neighborhoods of jobs concurrently.
+	 * 
+	 * @param executor the executor
+	 * @param nuOfThreads the maximum number of concurrent tasks
+	 * @return this factory
+	 */
+	public RadialRuinStrategyFactory setConcurrentMode(ExecutorService executor, int nuOfThreads){
+		this.executor = executor;
+		this.nuOfThreads = nuOfThreads;
+		return this;
+	}
+
 	@Override
 	public RuinStrategy createStrategy(VehicleRoutingProblem vrp) {
-		return new RuinRadial(vrp,fraction,jobDistance);
+		return new RuinRadial(vrp,fraction,jobDistance,executor,nuOfThreads);
 	}
 
 }
@@ -28,6 +28,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 
 /**
@@ -261,6 +262,8 @@ final class RuinRadial implements RuinStrategy {
 	
 	private JobNeighborhoods jobNeighborhoods;
 	
+	private final Job[] jobs;
+	
 	public void setRandom(Random random) {
 		this.random = random;
 	}
@@ -273,14 +276,26 @@ final class RuinRadial implements RuinStrategy {
 	 * @param jobDistance i.e. a measure to define the distance between two jobs and whether they are located close or distant to eachother
 	 */
 	public RuinRadial(VehicleRoutingProblem vrp, double fraction2beRemoved, JobDistance jobDistance) {
+		this(vrp, fraction2beRemoved, jobDistance, null, 1);
+	}
+	
+	/**
+	 * Constructs RuinRadial whose neighborhoods are calculated concurrently by executor.
+	 * 
+	 * @param vrp
+	 * @param fraction2beRemoved i.e. the share of jobs to be removed (relative to the total number of jobs in vrp)
+	 * @param jobDistance i.e. a measure to define the distance between two jobs and whether they are located close or distant to eachother
+	 * @param executor the executor to calculate neighborhoods, or null if they are to be calculated in the calling thread
+	 * @param nuOfThreads the maximum number of concurrent tasks
+	 */
+	public RuinRadial(VehicleRoutingProblem vrp, double fraction2beRemoved, JobDistance jobDistance, ExecutorService executor, int nuOfThreads) {
 		super();
 		this.vrp = vrp;
 		this.fractionOfAllNodes2beRuined = fraction2beRemoved;
 		ruinListeners = new RuinListeners();
 		int nJobsToMemorize = (int) Math.ceil(vrp.getJobs().values().size()*fraction2beRemoved);
-		JobNeighborhoodsImplWithCapRestriction jobNeighborhoodsImpl = new JobNeighborhoodsImplWithCapRestriction(vrp, jobDistance, nJobsToMemorize);
-		jobNeighborhoodsImpl.initialise();
-		jobNeighborhoods = jobNeighborhoodsImpl;
+		jobNeighborhoods = JobNeighborhoodsIndex.getInstance(vrp, jobDistance, nJobsToMemorize, executor, nuOfThreads);
+		jobs = vrp.getJobs().values().toArray(new Job[vrp.getJobs().size()]);
 		logger.info("intialise " + this);
 	}
 	
@@ -314,34 +329,22 @@ final class RuinRadial implements RuinStrategy {
 		ruinListeners.ruinStarts(vehicleRoutes);
 		List<Job> unassignedJobs = new ArrayList<Job>();
 		int nNeighbors = nOfJobs2BeRemoved - 1;
-		removeJob(targetJob,vehicleRoutes);
 		unassignedJobs.add(targetJob);
 		Iterator<Job> neighborhoodIterator =  jobNeighborhoods.getNearestNeighborsIterator(nNeighbors, targetJob);
 		while(neighborhoodIterator.hasNext()){
-			Job job = neighborhoodIterator.next();
-			removeJob(job,vehicleRoutes);
-			unassignedJobs.add(job);
+			unassignedJobs.add(neighborhoodIterator.next());
+		}
+		Map<Job,VehicleRoute> removed = JobRouteIndex.newInstance(vehicleRoutes, unassignedJobs).removeJobs(unassignedJobs);
+		for(Map.Entry<Job,VehicleRoute> e : removed.entrySet()){
+			ruinListeners.removed(e.getKey(),e.getValue());
 		}
 		ruinListeners.ruinEnds(vehicleRoutes, unassignedJobs);
 		return unassignedJobs;
 	}
-	
-	private void removeJob(Job job, Collection<VehicleRoute> vehicleRoutes) {
-		boolean removed = false;
-		for (VehicleRoute route : vehicleRoutes) {
-			removed = route.getTourActivities().removeJob(job);; 
-			if (removed) {
-				ruinListeners.removed(job,route);
-				break;
-			}
-		}
-	}
 
 	private Job pickRandomJob() {
-		int totNuOfJobs = vrp.getJobs().values().size();
-		int randomIndex = random.nextInt(totNuOfJobs);
-		Job job = new ArrayList<Job>(vrp.getJobs().values()).get(randomIndex);
-		return job;
+		int randomIndex = random.nextInt(jobs.length);
+		return jobs[randomIndex];
 	}
 
 	private int getNuOfJobs2BeRemoved() {
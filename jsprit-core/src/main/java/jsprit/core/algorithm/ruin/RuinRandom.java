@@ -47,6 +47,13 @@ final class RuinRandom implements RuinStrategy {
 	private Random random = RandomNumberGeneration.getRandom();
 	
 	private RuinListeners ruinListeners;
+	
+	private final Job[] jobs;
+	
+	/**
+	 * positions[job.getIndex()] is the position of job in jobs.
+	 */
+	private final int[] positions;
 
 	public void setRandom(Random random) {
 		this.random = random;
@@ -63,6 +70,11 @@ final class RuinRandom implements RuinStrategy {
 		this.vrp = vrp;
 		this.fractionOfAllNodes2beRuined = fraction;
 		ruinListeners = new RuinListeners();
+		jobs = vrp.getJobs().values().toArray(new Job[vrp.getJobs().size()]);
+		int maxIndex = 0;
+		for(Job job : jobs) maxIndex = Math.max(maxIndex, job.getIndex());
+		positions = new int[maxIndex + 1];
+		for(int i=0;i<jobs.length;i++) positions[jobs[i].getIndex()] = i;
 		logger.info("initialise " + this);
 		logger.info("done");
 	}
@@ -77,7 +89,7 @@ final class RuinRandom implements RuinStrategy {
 		ruinListeners.ruinStarts(vehicleRoutes);
 		List<Job> unassignedJobs = new ArrayList<Job>();
 		int nOfJobs2BeRemoved = selectNuOfJobs2BeRemoved();
-		ruin(vehicleRoutes, nOfJobs2BeRemoved, unassignedJobs);
+		ruin(vehicleRoutes, 0, nOfJobs2BeRemoved, unassignedJobs);
 		ruinListeners.ruinEnds(vehicleRoutes, unassignedJobs);
 		return unassignedJobs;
 	}
@@ -89,41 +101,63 @@ final class RuinRandom implements RuinStrategy {
 	public Collection<Job> ruin(Collection<VehicleRoute> vehicleRoutes, Job targetJob, int nOfJobs2BeRemoved) {
 		ruinListeners.ruinStarts(vehicleRoutes);
 		List<Job> unassignedJobs = new ArrayList<Job>();
-		if(targetJob != null){
-			boolean removed = false;
-			for (VehicleRoute route : vehicleRoutes) {
-				removed = route.getTourActivities().removeJob(targetJob);
-				if (removed) {
-					nOfJobs2BeRemoved--;
-					unassignedJobs.add(targetJob);
-					ruinListeners.removed(targetJob,route);
-					break;
-				}
-			}
+		int targetPosition = -1;
+		if(targetJob != null && isServed(vehicleRoutes, targetJob)){
+			nOfJobs2BeRemoved--;
+			unassignedJobs.add(targetJob);
+			targetPosition = getPosition(targetJob);
+		}
+		if(targetPosition >= 0){
+			swap(jobs, 0, targetPosition);
+			ruin(vehicleRoutes, 1, nOfJobs2BeRemoved, unassignedJobs);
+			swap(jobs, 0, targetPosition);
 		}
-		ruin(vehicleRoutes, nOfJobs2BeRemoved, unassignedJobs);
+		else ruin(vehicleRoutes, 0, nOfJobs2BeRemoved, unassignedJobs);
 		ruinListeners.ruinEnds(vehicleRoutes, unassignedJobs);
 		return unassignedJobs;
 	}
+	
+	private static boolean isServed(Collection<VehicleRoute> vehicleRoutes, Job job){
+		for(VehicleRoute route : vehicleRoutes){
+			if(route.getTourActivities().servesJob(job)) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the position of job in jobs, or -1 if job is not part of the problem.
+	 */
+	private int getPosition(Job job){
+		int index = job.getIndex();
+		if(index < 0 || index >= positions.length || jobs[positions[index]] != job) return -1;
+		return positions[index];
+	}
 
 	public void setRuinFraction(double fractionOfAllNodes2beRuined) {
 		this.fractionOfAllNodes2beRuined = fractionOfAllNodes2beRuined;
 		logger.info("fraction set " + this);
 	}
 
-	private void ruin(Collection<VehicleRoute> vehicleRoutes, int nOfJobs2BeRemoved, List<Job> unassignedJobs) {
-		LinkedList<Job> availableJobs = new LinkedList<Job>(vrp.getJobs().values());
-		for (int i = 0; i < nOfJobs2BeRemoved; i++) {
-			Job job = pickRandomJob(availableJobs);
-			unassignedJobs.add(job);
-			availableJobs.remove(job);
-			for (VehicleRoute route : vehicleRoutes) {
-				boolean removed = route.getTourActivities().removeJob(job);
-				if (removed) {
-					ruinListeners.removed(job,route);
-					break;
-				}
-			}
+	/**
+	 * Removes nOfJobs2BeRemoved jobs randomly picked from jobs[from..], i.e. shuffles them to the front (partial Fisher-Yates),
+	 * and removes them, as well as the jobs already in unassignedJobs, from their routes.
+	 * 
+	 * <p>The swaps are undone afterwards, thus jobs keeps its order and need not be copied for each ruin.
+	 */
+	private void ruin(Collection<VehicleRoute> vehicleRoutes, int from, int nOfJobs2BeRemoved, List<Job> unassignedJobs) {
+		int to = Math.max(from, Math.min(jobs.length, from + nOfJobs2BeRemoved));
+		int[] swappedWith = new int[to - from];
+		for (int i = from; i < to; i++) {
+			swappedWith[i - from] = i + random.nextInt(jobs.length - i);
+			swap(jobs, i, swappedWith[i - from]);
+			unassignedJobs.add(jobs[i]);
+		}
+		for (int i = to - 1; i >= from; i--) {
+			swap(jobs, i, swappedWith[i - from]);
+		}
+		Map<Job,VehicleRoute> removed = JobRouteIndex.newInstance(vehicleRoutes, unassignedJobs).removeJobs(unassignedJobs);
+		for(Map.Entry<Job,VehicleRoute> e : removed.entrySet()){
+			ruinListeners.removed(e.getKey(),e.getValue());
 		}
 	}
 
@@ -133,9 +167,10 @@ final class RuinRandom implements RuinStrategy {
 		return "[name=randomRuin][fraction="+fractionOfAllNodes2beRuined+"]";
 	}
 	
-	private Job pickRandomJob(LinkedList<Job> availableJobs) {
-		int randomIndex = random.nextInt(availableJobs.size());
-		return availableJobs.get(randomIndex);
+	private static void swap(Job[] jobs, int i, int j) {
+		Job job = jobs[i];
+		jobs[i] = jobs[j];
+		jobs[j] = job;
 	}
 
 	private int selectNuOfJobs2BeRemoved() {
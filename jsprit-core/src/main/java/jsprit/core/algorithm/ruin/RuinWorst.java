@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.ruin;
+
+import jsprit.core.algorithm.ruin.listener.RuinListener;
+import jsprit.core.algorithm.ruin.listener.RuinListeners;
+import jsprit.core.algorithm.state.StateId;
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.algorithm.state.UpdateRemovalSavings;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.route.RouteActivityVisitor;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.solution.route.activity.TourActivity.JobActivity;
+import jsprit.core.util.RandomNumberGeneration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+
+/**
+ * Ruin strategy that removes jobs whose removal saves most transport costs (worst removal).
+ * 
+ * <p>The savings of an activity are c(prev,act) + c(act,next) - c(prev,next), and the savings of a job are the sum of the
+ * savings of its activities. If pickup and delivery of a shipment are adjacent, they are removed as one segment (see {@link UpdateRemovalSavings}).
+ * The savings of activities are memorized in the {@link StateManager} and kept up to date by {@link UpdateRemovalSavings}, which
+ * this strategy registers as state updater. Since the stateManager clears its states when an iteration starts, the savings of a
+ * route are only computed by the ruin itself if they are missing.
+ * 
+ * <p>Jobs are kept ordered by their savings during the whole ruin, and removed one after another. After each removal, only 
+ * the savings of the jobs of the route the job has been removed from are updated.
+ * 
+ * <p>Jobs are not removed strictly in the order of their savings, but randomized as suggested by Ropke and Pisinger (2006):
+ * if L is the list of jobs sorted by decreasing savings, the job at L[y^p * |L|] is removed, where y is a random number
+ * in [0,1) and p the randomization exponent. The higher p, the more likely the job with the highest savings is removed.
+ * 
+ * @author schroeder
+ *
+ */
+final class RuinWorst implements RuinStrategy {
+	
+	private static class JobSavings implements Comparable<JobSavings> {
+		
+		final Job job;
+		
+		final double savings;
+
+		JobSavings(Job job, double savings) {
+			super();
+			this.job = job;
+			this.savings = savings;
+		}
+
+		/**
+		 * Orders by decreasing savings, and jobs with equal savings by their index.
+		 */
+		@Override
+		public int compareTo(JobSavings o) {
+			int comparison = Double.compare(o.savings, savings);
+			if(comparison != 0) return comparison;
+			if(job.getIndex() < o.job.getIndex()) return -1;
+			if(job.getIndex() > o.job.getIndex()) return 1;
+			return 0;
+		}
+		
+	}
+	
+	private Logger logger = LogManager.getLogger(RuinWorst.class);
+
+	private VehicleRoutingProblem vrp;
+
+	private double fractionOfAllNodes2beRuined;
+	
+	private double randomizationExponent = 3.;
+
+	private Random random = RandomNumberGeneration.getRandom();
+	
+	private RuinListeners ruinListeners;
+	
+	private final StateManager stateManager;
+	
+	private final StateId removalSavingsId;
+	
+	private final RouteActivityVisitor savingsUpdater;
+	
+	private final int nuOfJobIndices;
+	
+	private final List<Job> jobsOfRoute = new ArrayList<Job>();
+
+	/**
+	 * Constructs worst ruin, and registers {@link UpdateRemovalSavings} at stateManager.
+	 * 
+	 * @param vrp the vehicle routing problem
+	 * @param fraction fraction of all jobs to be removed
+	 * @param stateManager state manager that memorizes the removal savings of activities
+	 */
+	public RuinWorst(VehicleRoutingProblem vrp, double fraction, StateManager stateManager) {
+		super();
+		this.vrp = vrp;
+		this.fractionOfAllNodes2beRuined = fraction;
+		this.stateManager = stateManager;
+		UpdateRemovalSavings updateRemovalSavings = new UpdateRemovalSavings(vrp.getTransportCosts(), stateManager);
+		stateManager.addStateUpdater(updateRemovalSavings);
+		this.removalSavingsId = updateRemovalSavings.getStateId();
+		this.savingsUpdater = new RouteActivityVisitor().addActivityVisitor(updateRemovalSavings);
+		this.nuOfJobIndices = getMaxJobIndex(vrp) + 1;
+		ruinListeners = new RuinListeners();
+		logger.info("initialise " + this);
+		logger.info("done");
+	}
+
+	private static int getMaxJobIndex(VehicleRoutingProblem vrp) {
+		int maxIndex = 0;
+		for(Job job : vrp.getJobs().values()) maxIndex = Math.max(maxIndex, job.getIndex());
+		for(VehicleRoute route : vrp.getInitialVehicleRoutes()){
+			for(Job job : route.getTourActivities().getJobs()) maxIndex = Math.max(maxIndex, job.getIndex());
+		}
+		return maxIndex;
+	}
+
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	/**
+	 * Sets the randomization exponent p. With p=1, jobs are picked uniformly at random; the higher p, the more likely 
+	 * jobs with high savings are picked. Default is 3.
+	 * 
+	 * @param randomizationExponent the exponent p
+	 * @throws IllegalArgumentException if randomizationExponent < 1
+	 */
+	public void setRandomizationExponent(double randomizationExponent) {
+		if(randomizationExponent < 1.) throw new IllegalArgumentException("randomization exponent must be >= 1, but is " + randomizationExponent);
+		this.randomizationExponent = randomizationExponent;
+	}
+
+	/**
+	 * Removes a fraction of jobs from vehicleRoutes. 
+	 * 
+	 * <p>The number of jobs is calculated as follows: Math.ceil(vrp.getJobs().values().size() * fractionOfAllNodes2beRuined).
+	 */
+	@Override
+	public Collection<Job> ruin(Collection<VehicleRoute> vehicleRoutes) {
+		return ruin(vehicleRoutes, null, selectNuOfJobs2BeRemoved());
+	}
+
+	/**
+	 * Removes targetJob and (nOfJobs2BeRemoved-1) jobs with high removal savings.
+	 */
+	@Override
+	public Collection<Job> ruin(Collection<VehicleRoute> vehicleRoutes, Job targetJob, int nOfJobs2BeRemoved) {
+		ruinListeners.ruinStarts(vehicleRoutes);
+		List<Job> unassignedJobs = new ArrayList<Job>();
+		JobRouteIndex jobRouteIndex = JobRouteIndex.newInstance(vehicleRoutes);
+		/*
+		 * savingsOfJobs[job.getIndex()] are the savings of job, sortedSavings are the savings of all jobs sorted by compareTo
+		 */
+		JobSavings[] savingsOfJobs = new JobSavings[nuOfJobIndices];
+		List<JobSavings> sortedSavings = new ArrayList<JobSavings>();
+		for(VehicleRoute route : vehicleRoutes){
+			addSavings(route, savingsOfJobs, sortedSavings);
+		}
+		if(targetJob != null && jobRouteIndex.getRoute(targetJob) != null){
+			removeJob(targetJob, jobRouteIndex, savingsOfJobs, sortedSavings);
+			unassignedJobs.add(targetJob);
+		}
+		while(unassignedJobs.size() < nOfJobs2BeRemoved && !sortedSavings.isEmpty()){
+			Job job = selectJob(sortedSavings);
+			removeJob(job, jobRouteIndex, savingsOfJobs, sortedSavings);
+			unassignedJobs.add(job);
+		}
+		ruinListeners.ruinEnds(vehicleRoutes, unassignedJobs);
+		return unassignedJobs;
+	}
+
+	/**
+	 * Returns the job at position y^p * |L| of sortedSavings.
+	 */
+	private Job selectJob(List<JobSavings> sortedSavings) {
+		int index = (int) (Math.pow(random.nextDouble(), randomizationExponent) * sortedSavings.size());
+		index = Math.min(index, sortedSavings.size() - 1);
+		return sortedSavings.get(index).job;
+	}
+
+	private void removeJob(Job job, JobRouteIndex jobRouteIndex, JobSavings[] savingsOfJobs, List<JobSavings> sortedSavings) {
+		VehicleRoute route = jobRouteIndex.getRoute(job);
+		removeSavings(route, savingsOfJobs, sortedSavings);
+		jobRouteIndex.removeJobs(Collections.singletonList(job));
+		savingsUpdater.visit(route);
+		addSavings(route, savingsOfJobs, sortedSavings);
+		ruinListeners.removed(job, route);
+	}
+
+	/**
+	 * Removes the savings of the jobs of route.
+	 */
+	private void removeSavings(VehicleRoute route, JobSavings[] savingsOfJobs, List<JobSavings> sortedSavings) {
+		for(TourActivity act : route.getActivities()){
+			if(!(act instanceof JobActivity)) continue;
+			int jobIndex = ((JobActivity) act).getJob().getIndex();
+			if(savingsOfJobs[jobIndex] == null) continue;
+			sortedSavings.remove(Collections.binarySearch(sortedSavings, savingsOfJobs[jobIndex]));
+			savingsOfJobs[jobIndex] = null;
+		}
+	}
+
+	/**
+	 * Adds the savings of the jobs of route, whose savings must have been removed before. If the savings of the route's 
+	 * activities are missing, they are updated first.
+	 */
+	private void addSavings(VehicleRoute route, JobSavings[] savingsOfJobs, List<JobSavings> sortedSavings) {
+		List<TourActivity> activities = route.getActivities();
+		if(activities.isEmpty()) return;
+		if(Double.isNaN(stateManager.getActivityStateDouble(activities.get(0), removalSavingsId))){
+			savingsUpdater.visit(route);
+		}
+		jobsOfRoute.clear();
+		for(TourActivity act : activities){
+			if(!(act instanceof JobActivity)) continue;
+			Job job = ((JobActivity) act).getJob();
+			double actSavings = stateManager.getActivityStateDouble(act, removalSavingsId);
+			JobSavings jobSavings = savingsOfJobs[job.getIndex()];
+			if(jobSavings == null){
+				jobsOfRoute.add(job);
+				savingsOfJobs[job.getIndex()] = new JobSavings(job, actSavings);
+			}
+			else savingsOfJobs[job.getIndex()] = new JobSavings(job, jobSavings.savings + actSavings);
+		}
+		for(Job job : jobsOfRoute){
+			JobSavings jobSavings = savingsOfJobs[job.getIndex()];
+			sortedSavings.add(-Collections.binarySearch(sortedSavings, jobSavings) - 1, jobSavings);
+		}
+	}
+
+	private int selectNuOfJobs2BeRemoved() {
+		return (int) Math.ceil(vrp.getJobs().values().size() * fractionOfAllNodes2beRuined);
+	}
+
+	@Override
+	public void addListener(RuinListener ruinListener) {
+		ruinListeners.addListener(ruinListener);
+	}
+
+	@Override
+	public void removeListener(RuinListener ruinListener) {
+		ruinListeners.removeListener(ruinListener);
+	}
+
+	@Override
+	public Collection<RuinListener> getListeners() {
+		return ruinListeners.getListeners();
+	}
+
+	@Override
+	public String toString() {
+		return "[name=worstRuin][fraction="+fractionOfAllNodes2beRuined+"][randomizationExponent="+randomizationExponent+"]";
+	}
+
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.ruin;
+
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+
+public class WorstRuinStrategyFactory implements RuinStrategyFactory{
+
+	private double fraction;
+	
+	private StateManager stateManager;
+	
+	private double randomizationExponent = 3.;
+	
+	public WorstRuinStrategyFactory(double fraction, StateManager stateManager) {
+		super();
+		this.fraction = fraction;
+		this.stateManager = stateManager;
+	}
+	
+	public WorstRuinStrategyFactory(double fraction, StateManager stateManager, double randomizationExponent) {
+		this(fraction, stateManager);
+		this.randomizationExponent = randomizationExponent;
+	}
+
+	@Override
+	public RuinStrategy createStrategy(VehicleRoutingProblem vrp) {
+		RuinWorst ruin = new RuinWorst(vrp,fraction,stateManager);
+		ruin.setRandomizationExponent(randomizationExponent);
+		return ruin;
+	}
+
+}
@@ -43,6 +43,13 @@ public class AvgServiceAndShipmentDistance implements JobDistance {
 
 	}
 
+	/**
+	 * @return the transport costs distances are calculated with
+	 */
+	public VehicleRoutingTransportCosts getTransportCosts() {
+		return costs;
+	}
+
 	/**
 	 * Calculates and returns the average distance between two jobs based on the input-transport costs.
 	 * 
@@ -98,4 +105,17 @@ public class AvgServiceAndShipmentDistance implements JobDistance {
 		double c_ij = EuclideanDistanceCalculator.calculateDistance(coord_i, coord_j);
 		return c_ij;
 	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) return true;
+		if(obj == null || getClass() != obj.getClass()) return false;
+		return costs == ((AvgServiceAndShipmentDistance) obj).costs;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(costs);
+	}
+
 }
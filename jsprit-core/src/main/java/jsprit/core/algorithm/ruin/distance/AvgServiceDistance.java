@@ -77,4 +77,16 @@ public class AvgServiceDistance implements JobDistance {
 		return distance;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) return true;
+		if(obj == null || getClass() != obj.getClass()) return false;
+		return costs == ((AvgServiceDistance) obj).costs;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(costs);
+	}
+
 }
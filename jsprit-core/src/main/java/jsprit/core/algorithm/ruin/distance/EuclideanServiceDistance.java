@@ -45,4 +45,14 @@ public class EuclideanServiceDistance implements JobDistance {
 		return avgCost;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		return obj != null && getClass() == obj.getClass();
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+
 }
@@ -20,6 +20,13 @@ import jsprit.core.problem.job.Job;
 
 
 
+/**
+ * Distance between two jobs.
+ * 
+ * <p>Job neighborhoods are shared by all job distances that are equal, i.e. implementations should only be equal if they 
+ * calculate the same distances.
+ *
+ */
 public interface JobDistance {
 
 	public double getDistance(Job i, Job j);
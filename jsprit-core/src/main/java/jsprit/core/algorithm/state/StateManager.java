@@ -30,7 +30,7 @@ import jsprit.core.problem.solution.route.VehicleRoute;
 import jsprit.core.problem.solution.route.activity.ActivityVisitor;
 import jsprit.core.problem.solution.route.activity.ReverseActivityVisitor;
 import jsprit.core.problem.solution.route.activity.TourActivity;
-import jsprit.core.problem.solution.route.state.RouteAndActivityStateGetter;
+import jsprit.core.problem.solution.route.state.PrimitiveRouteAndActivityStateGetter;
 import jsprit.core.problem.vehicle.Vehicle;
 
 import java.util.*;
@@ -44,7 +44,7 @@ import java.util.*;
  * @author schroeder
  *
  */
-public class StateManager implements RouteAndActivityStateGetter, IterationStartsListener, RuinListener, InsertionStartsListener, JobInsertedListener, InsertionEndsListener {
+public class StateManager implements PrimitiveRouteAndActivityStateGetter, IterationStartsListener, RuinListener, InsertionStartsListener, JobInsertedListener, InsertionEndsListener {
 
 
     static class States_ {
@@ -72,6 +72,40 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 		
 	}
 	
+    /**
+     * Memorizes the activity indices whose states have been written since the last reset, such that clearing
+     * only needs to visit these indices.
+     */
+    static class DirtyIndices {
+
+        private boolean[] dirty;
+
+        private int[] indices;
+
+        private int size = 0;
+
+        DirtyIndices(int capacity){
+            dirty = new boolean[capacity];
+            indices = new int[capacity];
+        }
+
+        void mark(int index){
+            if(dirty[index]) return;
+            dirty[index] = true;
+            indices[size++] = index;
+        }
+
+        int size(){ return size; }
+
+        int get(int i){ return indices[i]; }
+
+        void reset(){
+            for(int i=0;i<size;i++) dirty[indices[i]] = false;
+            size = 0;
+        }
+
+    }
+
 	private States_ problemStates_ = new States_();
 	
 	private RouteActivityVisitor routeActivityVisitor = new RouteActivityVisitor();
@@ -92,6 +126,16 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 
     private final int initialNoStates = 21;
 
+    /**
+     * Value of primitive double states that are not set.
+     */
+    public static final double NO_DOUBLE_STATE = Double.NaN;
+
+    /**
+     * Value of primitive int states that are not set. Thus, this value cannot be memorized as int state.
+     */
+    public static final int NO_INT_STATE = Integer.MIN_VALUE;
+
     private int stateIndexCounter;
 
     private Map<String,StateId> createdStateIds = new HashMap<String, StateId>();
@@ -104,13 +148,37 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 
     private Object[][][] vehicle_dependent_activity_states;
 
-//    private Object[][] route_states;
-//
-//    private Object[][][] vehicle_dependent_route_states;
+    private double[][] activity_double_states;
+
+    private int[][] activity_int_states;
+
+    private double[][][] vehicle_dependent_activity_double_states;
+
+    private DirtyIndices dirty_activities;
+
+    private DirtyIndices dirty_vehicle_dependent_activities;
+
+    /**
+     * Routes whose states are memorized, i.e. routes[routeIndices.get(route)] == route. Index 0 is not used.
+     */
+    private VehicleRoute[] routes;
+
+    /**
+     * Indices this state manager has assigned to routes. A route also caches the index of the state manager that
+     * indexed it last (see {@link VehicleRoute#getIndex(Object)}), thus this map is only looked up if several state
+     * managers index the same route.
+     */
+    private Map<VehicleRoute,Integer> routeIndices = new IdentityHashMap<VehicleRoute, Integer>();
+
+    private int nuRouteIndices = 1;
+
+    private Object[][] route_states;
 
-    private Map<VehicleRoute,Object[]> route_state_map;
+    private Object[][][] vehicle_dependent_route_states;
 
-    private Map<VehicleRoute,Object[][]> vehicle_dependent_route_state_map;
+    private double[][] route_double_states;
+
+    private int[][] route_int_states;
 
     private VehicleRoutingProblem vrp;
 
@@ -132,6 +200,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 //            route_states = new Object[vrp.getNuActivities()+1][stateIndexCounter+1];
             vehicle_dependent_activity_states = new Object[nuActivities][nuVehicleTypeKeys][stateIndexCounter+1];
 //            vehicle_dependent_route_states = new Object[nuActivities][nuVehicleTypeKeys][stateIndexCounter+1];
+            initPrimitiveActivityStates(activity_states.length, stateIndexCounter+1);
         }
         StateId id = StateFactory.createId(name, stateIndexCounter);
         incStateIndexCounter();
@@ -159,8 +228,24 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 //        route_states = new Object[nuActivities][initialStateArrayLength];
         vehicle_dependent_activity_states = new Object[nuActivities][nuVehicleTypeKeys][initialStateArrayLength];
 //        vehicle_dependent_route_states = new Object[nuActivities][nuVehicleTypeKeys][initialStateArrayLength];
-        route_state_map = new HashMap<VehicleRoute, Object[]>();
-        vehicle_dependent_route_state_map = new HashMap<VehicleRoute, Object[][]>();
+        int initialNoRouteIndices = Math.max(10, vrp.getVehicles().size() + 1);
+        routes = new VehicleRoute[initialNoRouteIndices];
+        route_states = new Object[initialNoRouteIndices][];
+        vehicle_dependent_route_states = new Object[initialNoRouteIndices][][];
+        route_double_states = new double[initialNoRouteIndices][];
+        route_int_states = new int[initialNoRouteIndices][];
+        initPrimitiveActivityStates(nuActivities, initialStateArrayLength);
+    }
+
+    private void initPrimitiveActivityStates(int nuActivityIndices, int nuStates) {
+        dirty_activities = new DirtyIndices(nuActivityIndices);
+        dirty_vehicle_dependent_activities = new DirtyIndices(nuActivities);
+        activity_double_states = new double[nuActivityIndices][nuStates];
+        activity_int_states = new int[nuActivityIndices][nuStates];
+        vehicle_dependent_activity_double_states = new double[nuActivities][nuVehicleTypeKeys][nuStates];
+        fill_twoDimArr(activity_double_states, NO_DOUBLE_STATE);
+        fill_twoDimArr(activity_int_states, NO_INT_STATE);
+        fill_threeDimArr(vehicle_dependent_activity_double_states, NO_DOUBLE_STATE);
     }
 
     private int getNuVehicleTypes(VehicleRoutingProblem vrp) {
@@ -200,24 +285,41 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 	/**
 	 * Clears all states, i.e. set all value to null.
 	 * 
+	 * <p>Only activity states that have been written since the last clearing are visited, i.e. the effort depends on
+	 * the number of activities that have been touched rather than on the size of the problem.
+	 * 
 	 */
 	public void clear(){
-        fill_twoDimArr(activity_states, null);
+        for(int i=0;i<dirty_activities.size();i++){
+            int index = dirty_activities.get(i);
+            Arrays.fill(activity_states[index], null);
+            Arrays.fill(activity_double_states[index], NO_DOUBLE_STATE);
+            Arrays.fill(activity_int_states[index], NO_INT_STATE);
+        }
+        dirty_activities.reset();
 //        fill_twoDimArr(route_states, null);
-        fill_threeDimArr(vehicle_dependent_activity_states, null);
+        for(int i=0;i<dirty_vehicle_dependent_activities.size();i++){
+            int index = dirty_vehicle_dependent_activities.get(i);
+            fill_twoDimArr(vehicle_dependent_activity_states[index], null);
+            fill_twoDimArr(vehicle_dependent_activity_double_states[index], NO_DOUBLE_STATE);
+        }
+        dirty_vehicle_dependent_activities.reset();
 //        fill_threeDimArr(vehicle_dependent_route_states, null);
 		problemStates_.clear();
-        route_state_map.clear();
-        vehicle_dependent_route_state_map.clear();
-	}
-
-    private void fill_threeDimArr(Object[][][] states, Object o) {
-        for(Object[][] twoDimArr : states){
-            for(Object[] oneDimArr : twoDimArr){
-                Arrays.fill(oneDimArr,o);
+        for(int routeIndex=1;routeIndex<nuRouteIndices;routeIndex++){
+            if(route_states[routeIndex] != null) Arrays.fill(route_states[routeIndex], null);
+            if(route_double_states[routeIndex] != null) Arrays.fill(route_double_states[routeIndex], NO_DOUBLE_STATE);
+            if(route_int_states[routeIndex] != null) Arrays.fill(route_int_states[routeIndex], NO_INT_STATE);
+            if(vehicle_dependent_route_states[routeIndex] != null){
+                for(Object[] states : vehicle_dependent_route_states[routeIndex]){
+                    if(states != null) Arrays.fill(states, null);
+                }
             }
+            routes[routeIndex] = null;
         }
-    }
+        nuRouteIndices = 1;
+        routeIndices.clear();
+	}
 
     private void fill_twoDimArr(Object[][] states, Object o) {
         for(Object[] rows : states){
@@ -225,6 +327,24 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
         }
     }
 
+    private void fill_threeDimArr(double[][][] states, double value) {
+        for(double[][] twoDimArr : states){
+            fill_twoDimArr(twoDimArr, value);
+        }
+    }
+
+    private void fill_twoDimArr(double[][] states, double value) {
+        for(double[] rows : states){
+            Arrays.fill(rows,value);
+        }
+    }
+
+    private void fill_twoDimArr(int[][] states, int value) {
+        for(int[] rows : states){
+            Arrays.fill(rows,value);
+        }
+    }
+
     /**
 	 * Returns associated state for the specified activity and stateId, or it returns null if no value is associated.
      * <p>If type class is not equal to the associated type class of the requested state value, it throws a ClassCastException.</p>
@@ -243,14 +363,96 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
         if(act.getIndex()<0) return null;
         T state;
         try{
-           state = type.cast(activity_states[act.getIndex()][stateId.getIndex()]);
+           Object o = activity_states[act.getIndex()][stateId.getIndex()];
+           if(o == null) o = getPrimitiveState(activity_double_states[act.getIndex()][stateId.getIndex()], activity_int_states[act.getIndex()][stateId.getIndex()]);
+           state = type.cast(o);
         }
         catch (ClassCastException e){
-            throw getClassCastException(e,stateId,type.toString(),activity_states[act.getIndex()][stateId.getIndex()].getClass().toString());
+            throw getClassCastException(e,stateId,type.toString(),getActivityStateClass(act, stateId));
         }
         return state;
 	}
 
+    private String getActivityStateClass(TourActivity act, StateId stateId) {
+        Object o = activity_states[act.getIndex()][stateId.getIndex()];
+        if(o == null) o = getPrimitiveState(activity_double_states[act.getIndex()][stateId.getIndex()], activity_int_states[act.getIndex()][stateId.getIndex()]);
+        return o.getClass().toString();
+    }
+
+    private Object getPrimitiveState(double doubleState, int intState){
+        if(!Double.isNaN(doubleState)) return doubleState;
+        if(intState != NO_INT_STATE) return intState;
+        return null;
+    }
+
+    /**
+     * Returns the double state value that is associated to the specified activity and stateId, or {@link #NO_DOUBLE_STATE}
+     * (i.e. Double.NaN) if no value is associated.
+     *
+     * <p>In contrary to {@link #getActivityState(TourActivity, StateId, Class)}, this neither boxes nor casts the state value.</p>
+     *
+     * @param act the activity for which a state value is associated to
+     * @param stateId the stateId for which a state value is associated to
+     * @return the state value or Double.NaN if no value is associated
+     * @throws java.lang.IllegalStateException if <code>act.getIndex()==0</code> since this suggests that act has no index at all
+     */
+    @Override
+    public double getActivityStateDouble(TourActivity act, StateId stateId) {
+        if(act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+        if(act.getIndex() < 0) return NO_DOUBLE_STATE;
+        double state = activity_double_states[act.getIndex()][stateId.getIndex()];
+        if(Double.isNaN(state)) return toDouble(activity_states[act.getIndex()][stateId.getIndex()]);
+        return state;
+    }
+
+    /**
+     * Returns the double state value that is associated to the specified activity, vehicle and stateId, or
+     * {@link #NO_DOUBLE_STATE} (i.e. Double.NaN) if no value is associated.
+     *
+     * @param act the activity for which a state value is associated to
+     * @param vehicle the vehicle for which a state value is associated to
+     * @param stateId the stateId for which a state value is associated to
+     * @return the state value or Double.NaN if no value is associated
+     * @throws java.lang.IllegalStateException if <code>act.getIndex()==0</code> since this suggests that act has no index at all
+     */
+    @Override
+    public double getActivityStateDouble(TourActivity act, Vehicle vehicle, StateId stateId) {
+        if(act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+        if(act.getIndex() < 0) return NO_DOUBLE_STATE;
+        int vehicleIndex = vehicle.getVehicleTypeIdentifier().getIndex();
+        double state = vehicle_dependent_activity_double_states[act.getIndex()][vehicleIndex][stateId.getIndex()];
+        if(Double.isNaN(state)) return toDouble(vehicle_dependent_activity_states[act.getIndex()][vehicleIndex][stateId.getIndex()]);
+        return state;
+    }
+
+    /**
+     * Returns the int state value that is associated to the specified activity and stateId, or {@link #NO_INT_STATE}
+     * if no value is associated.
+     *
+     * @param act the activity for which a state value is associated to
+     * @param stateId the stateId for which a state value is associated to
+     * @return the state value or NO_INT_STATE if no value is associated
+     * @throws java.lang.IllegalStateException if <code>act.getIndex()==0</code> since this suggests that act has no index at all
+     */
+    @Override
+    public int getActivityStateInt(TourActivity act, StateId stateId) {
+        if(act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
+        if(act.getIndex() < 0) return NO_INT_STATE;
+        int state = activity_int_states[act.getIndex()][stateId.getIndex()];
+        if(state == NO_INT_STATE) return toInt(activity_states[act.getIndex()][stateId.getIndex()]);
+        return state;
+    }
+
+    private double toDouble(Object state){
+        if(state instanceof Double) return (Double) state;
+        return NO_DOUBLE_STATE;
+    }
+
+    private int toInt(Object state){
+        if(state instanceof Integer) return (Integer) state;
+        return NO_INT_STATE;
+    }
+
     /**
      * Returns true if a state value is associated to the specified activity, vehicle and stateId.
      *
@@ -262,7 +464,8 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      */
     public boolean hasActivityState(TourActivity act, Vehicle vehicle, StateId stateId){
         if(act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
-        return vehicle_dependent_activity_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()] != null;
+        return vehicle_dependent_activity_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()] != null
+                || !Double.isNaN(vehicle_dependent_activity_double_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()]);
     }
 
     /**
@@ -283,12 +486,13 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
         if(act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
         if(act.getIndex() < 0) return null; //act.getIndex() < 0 indicates that act is either Start (-1) or End (-2)
         T state;
+        Object o = vehicle_dependent_activity_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()];
+        if(o == null) o = getPrimitiveState(vehicle_dependent_activity_double_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()], NO_INT_STATE);
         try {
-            state = type.cast(vehicle_dependent_activity_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()]);
+            state = type.cast(o);
         }
         catch(ClassCastException e){
-            Object state_class = vehicle_dependent_activity_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()];
-            throw getClassCastException(e,stateId,type.toString(),state_class.getClass().toString());
+            throw getClassCastException(e,stateId,type.toString(),o.getClass().toString());
         }
         return state;
     }
@@ -312,23 +516,108 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 	@Override
 	public <T> T getRouteState(VehicleRoute route, StateId stateId, Class<T> type) {
         if(route.isEmpty()) return null;
-        T state = null;
-
-//        int index_of_first_act = route.getActivities().get(0).getIndex();
-//        if(index_of_first_act == 0) throw new IllegalStateException("first activity in route has no index. this should not be.");
+        int routeIndex = getRouteIndex(route);
+        if(routeIndex == 0) return null;
+        Object o = getState(route_states[routeIndex], stateId);
+        if(o == null) o = getPrimitiveState(getState(route_double_states[routeIndex], stateId), getState(route_int_states[routeIndex], stateId));
+        T state;
         try{
-            if(route_state_map.containsKey(route)) {
-                state = type.cast(route_state_map.get(route)[stateId.getIndex()]);
-            }
-//            state = type.cast(route_states[index_of_first_act][stateId.getIndex()]);
+            state = type.cast(o);
         }
         catch (ClassCastException e){
-            throw getClassCastException(e,stateId,type.toString(),route_state_map.get(route)[stateId.getIndex()].getClass().toString());
-//            throw getClassCastException(e,stateId,type.toString(),route_states[index_of_first_act][stateId.getIndex()].getClass().toString());
+            throw getClassCastException(e,stateId,type.toString(),o.getClass().toString());
         }
         return state;
 	}
 
+    /**
+     * Returns the double route state that is associated to the route and stateId, or {@link #NO_DOUBLE_STATE}
+     * (i.e. Double.NaN) if no state is associated.
+     *
+     * @param route the route which the associated route key to the route state
+     * @param stateId the stateId which is the associated key to the route state
+     * @return the route state or Double.NaN if no state is associated
+     */
+    @Override
+    public double getRouteStateDouble(VehicleRoute route, StateId stateId) {
+        if(route.isEmpty()) return NO_DOUBLE_STATE;
+        int routeIndex = getRouteIndex(route);
+        if(routeIndex == 0) return NO_DOUBLE_STATE;
+        double state = getState(route_double_states[routeIndex], stateId);
+        if(Double.isNaN(state)) return toDouble(getState(route_states[routeIndex], stateId));
+        return state;
+    }
+
+    /**
+     * Returns the int route state that is associated to the route and stateId, or {@link #NO_INT_STATE} if no
+     * state is associated.
+     *
+     * @param route the route which the associated route key to the route state
+     * @param stateId the stateId which is the associated key to the route state
+     * @return the route state or NO_INT_STATE if no state is associated
+     */
+    @Override
+    public int getRouteStateInt(VehicleRoute route, StateId stateId) {
+        if(route.isEmpty()) return NO_INT_STATE;
+        int routeIndex = getRouteIndex(route);
+        if(routeIndex == 0) return NO_INT_STATE;
+        int state = getState(route_int_states[routeIndex], stateId);
+        if(state == NO_INT_STATE) return toInt(getState(route_states[routeIndex], stateId));
+        return state;
+    }
+
+    private Object getState(Object[] states, StateId stateId){
+        if(states == null || stateId.getIndex() >= states.length) return null;
+        return states[stateId.getIndex()];
+    }
+
+    private double getState(double[] states, StateId stateId){
+        if(states == null || stateId.getIndex() >= states.length) return NO_DOUBLE_STATE;
+        return states[stateId.getIndex()];
+    }
+
+    private int getState(int[] states, StateId stateId){
+        if(states == null || stateId.getIndex() >= states.length) return NO_INT_STATE;
+        return states[stateId.getIndex()];
+    }
+
+    private Object getVehicleDependentRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId){
+        int routeIndex = getRouteIndex(route);
+        if(routeIndex == 0 || vehicle_dependent_route_states[routeIndex] == null) return null;
+        return getState(vehicle_dependent_route_states[routeIndex][vehicle.getVehicleTypeIdentifier().getIndex()], stateId);
+    }
+
+    /**
+     * Returns the index under which states of the specified route are memorized, or 0 if no state of this route has
+     * been memorized since the last clearing.
+     */
+    private int getRouteIndex(VehicleRoute route){
+        int routeIndex = route.getIndex(this);
+        if(routeIndex > 0 && routeIndex < nuRouteIndices && routes[routeIndex] == route) return routeIndex;
+        Integer assignedIndex = routeIndices.get(route);
+        if(assignedIndex == null) return 0;
+        return assignedIndex;
+    }
+
+    private int getOrAssignRouteIndex(VehicleRoute route){
+        int routeIndex = getRouteIndex(route);
+        if(routeIndex != 0) return routeIndex;
+        if(nuRouteIndices == routes.length) growRouteIndices(2 * routes.length);
+        routeIndex = nuRouteIndices++;
+        routes[routeIndex] = route;
+        routeIndices.put(route, routeIndex);
+        route.setIndex(this, routeIndex);
+        return routeIndex;
+    }
+
+    private void growRouteIndices(int capacity) {
+        routes = Arrays.copyOf(routes, capacity);
+        route_states = Arrays.copyOf(route_states, capacity);
+        route_double_states = Arrays.copyOf(route_double_states, capacity);
+        route_int_states = Arrays.copyOf(route_int_states, capacity);
+        vehicle_dependent_route_states = Arrays.copyOf(vehicle_dependent_route_states, capacity);
+    }
+
     /**
      * Returns true if a state is assigned to the specified route, vehicle and stateId. Otherwise it returns false.
      *
@@ -339,9 +628,7 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      */
     @SuppressWarnings("UnusedDeclaration")
     public boolean hasRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId) {
-        if(!vehicle_dependent_route_state_map.containsKey(route)) return false;
-        return vehicle_dependent_route_state_map.get(route)[vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()] != null;
-//        return vehicle_dependent_route_states[route.getActivities().get(0).getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()] != null;
+        return getVehicleDependentRouteState(route, vehicle, stateId) != null;
     }
 
     /**
@@ -354,21 +641,16 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      * @param <T> the type of the class
      * @return the actual route state that is assigned to the route, vehicle and stateId
      * @throws java.lang.ClassCastException if specified type is not equal to the memorized type
-     * @throws java.lang.IllegalStateException if <code>!route.isEmpty()</code> and <code>act(0).getIndex()==0</code> since this suggests that act has no index at all
      */
     public <T> T getRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId, Class<T> type) {
         if(route.isEmpty()) return null;
-//        int index_of_first_act = route.getActivities().get(0).getIndex();
-//        if(index_of_first_act == 0) throw new IllegalStateException("first activity in route has no index. this should not be.");
-        T state = null;
+        Object o = getVehicleDependentRouteState(route, vehicle, stateId);
+        T state;
         try{
-            if(vehicle_dependent_route_state_map.containsKey(route)){
-                state = type.cast(vehicle_dependent_route_state_map.get(route)[vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()]);
-            }
-//           state = type.cast(vehicle_dependent_route_states[index_of_first_act][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()]);
+            state = type.cast(o);
         }
         catch( ClassCastException e){
-            throw getClassCastException(e, stateId, type.toString(), vehicle_dependent_route_state_map.get(route)[vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()].getClass().toString());
+            throw getClassCastException(e, stateId, type.toString(), o.getClass().toString());
         }
         return state;
     }
@@ -386,13 +668,63 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      *
      */
     public <T> void putActivityState(TourActivity act, StateId stateId, T state){
+        checkActivityAndStateId(act, stateId);
+        putInternalTypedActivityState(act, stateId, state);
+    }
+
+    /**
+     * Associates the specified activity and stateId to the double state value without boxing it. If a state value is
+     * already associated to the specified activity and stateId, it is replaced by the new state value.
+     *
+     * @param act the activity for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the activity state
+     * @param state the state that is associated to the activity and stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex() == 0</code>
+     *          || stateId.getIndex < noInternalStates
+     */
+    public void putActivityState(TourActivity act, StateId stateId, double state){
+        checkActivityAndStateId(act, stateId);
+        putInternalDoubleActivityState(act, stateId, state);
+    }
+
+    /**
+     * Associates the specified activity and stateId to the int state value without boxing it. If a state value is
+     * already associated to the specified activity and stateId, it is replaced by the new state value.
+     *
+     * @param act the activity for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the activity state
+     * @param state the state that is associated to the activity and stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex() == 0</code>
+     *          || stateId.getIndex < noInternalStates
+     */
+    public void putActivityState(TourActivity act, StateId stateId, int state){
+        checkActivityAndStateId(act, stateId);
+        putInternalIntActivityState(act, stateId, state);
+    }
+
+    /**
+     * Associates the specified activity, vehicle and stateId to the double state value without boxing it. If a state
+     * value is already associated to the specified activity and stateId, it is replaced by the new state value.
+     *
+     * @param act the activity for which a state value is associated to
+     * @param vehicle the vehicle for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the activity state
+     * @param state the state that is associated to the activity and stateId
+     * @throws java.lang.IllegalStateException if <code>act.getIndex() == 0</code>
+     *          || stateId.getIndex < noInternalStates
+     */
+    public void putActivityState(TourActivity act, Vehicle vehicle, StateId stateId, double state){
+        checkActivityAndStateId(act, stateId);
+        putInternalDoubleActivityState(act, vehicle, stateId, state);
+    }
+
+    private void checkActivityAndStateId(TourActivity act, StateId stateId) {
         if(act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
         if(stateId.getIndex() < initialNoStates) throw new IllegalStateException("either you use a reserved stateId that is applied\n" +
                 "internally or your stateId has been created without index, e.g. StateFactory.createId(stateName)\n" +
                 " does not assign indeces thus do not use it anymore, but use\n " +
                 "stateManager.createStateId(name)\n" +
                 " instead.\n");
-        putInternalTypedActivityState(act, stateId, state);
     }
 
     /**
@@ -408,21 +740,41 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
      *          || stateId.getIndex < noInternalStates
      */
     public <T> void putActivityState(TourActivity act, Vehicle vehicle, StateId stateId, T state){
-        if(act.getIndex() == 0) throw new IllegalStateException("activity index is 0. this should not be.");
-        if(stateId.getIndex() < initialNoStates) throw new IllegalStateException("either you use a reserved stateId that is applied\n" +
-                "internally or your stateId has been created without index, e.g. StateFactory.createId(stateName)\n" +
-                " does not assign indeces thus do not use it anymore, but use\n " +
-                "stateManager.createStateId(name)\n" +
-                " instead.\n");
+        checkActivityAndStateId(act, stateId);
         putInternalTypedActivityState(act, vehicle, stateId, state);
     }
 
     <T> void putInternalTypedActivityState(TourActivity act, StateId stateId, T state){
+        dirty_activities.mark(act.getIndex());
         activity_states[act.getIndex()][stateId.getIndex()]=state;
+        activity_double_states[act.getIndex()][stateId.getIndex()]=NO_DOUBLE_STATE;
+        activity_int_states[act.getIndex()][stateId.getIndex()]=NO_INT_STATE;
 	}
 
     <T> void putInternalTypedActivityState(TourActivity act, Vehicle vehicle, StateId stateId, T state){
+        dirty_vehicle_dependent_activities.mark(act.getIndex());
         vehicle_dependent_activity_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()]=state;
+        vehicle_dependent_activity_double_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()]=NO_DOUBLE_STATE;
+    }
+
+    void putInternalDoubleActivityState(TourActivity act, StateId stateId, double state){
+        dirty_activities.mark(act.getIndex());
+        activity_double_states[act.getIndex()][stateId.getIndex()]=state;
+        activity_states[act.getIndex()][stateId.getIndex()]=null;
+        activity_int_states[act.getIndex()][stateId.getIndex()]=NO_INT_STATE;
+    }
+
+    void putInternalIntActivityState(TourActivity act, StateId stateId, int state){
+        dirty_activities.mark(act.getIndex());
+        activity_int_states[act.getIndex()][stateId.getIndex()]=state;
+        activity_states[act.getIndex()][stateId.getIndex()]=null;
+        activity_double_states[act.getIndex()][stateId.getIndex()]=NO_DOUBLE_STATE;
+    }
+
+    void putInternalDoubleActivityState(TourActivity act, Vehicle vehicle, StateId stateId, double state){
+        dirty_vehicle_dependent_activities.mark(act.getIndex());
+        vehicle_dependent_activity_double_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()]=state;
+        vehicle_dependent_activity_states[act.getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()]=null;
     }
 
      /**
@@ -440,6 +792,34 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
         putTypedInternalRouteState(route, stateId, state);
     }
 
+    /**
+     * Associates the specified route and stateId to the double state value without boxing it. If a state value is
+     * already associated to the specified route and stateId, it is replaced by the new state value.
+     *
+     * @param route the route for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the route state
+     * @param state the state that is associated to the route and stateId
+     * @throws java.lang.IllegalStateException if stateId is equal to a stateId that is already used internally.
+     */
+    public void putRouteState(VehicleRoute route, StateId stateId, double state){
+        if(stateId.getIndex() < initialNoStates) StateFactory.throwReservedIdException(stateId.toString());
+        putInternalDoubleRouteState(route, stateId, state);
+    }
+
+    /**
+     * Associates the specified route and stateId to the int state value without boxing it. If a state value is
+     * already associated to the specified route and stateId, it is replaced by the new state value.
+     *
+     * @param route the route for which a state value is associated to
+     * @param stateId the stateId which is the associated key to the route state
+     * @param state the state that is associated to the route and stateId
+     * @throws java.lang.IllegalStateException if stateId is equal to a stateId that is already used internally.
+     */
+    public void putRouteState(VehicleRoute route, StateId stateId, int state){
+        if(stateId.getIndex() < initialNoStates) StateFactory.throwReservedIdException(stateId.toString());
+        putInternalIntRouteState(route, stateId, state);
+    }
+
     /**
      * Associates the specified route, vehicle and stateId to the state value. If a state value is already associated to the
      * specified activity and stateId, it is replaced by the new state value.
@@ -459,20 +839,78 @@ public class StateManager implements RouteAndActivityStateGetter, IterationStart
 
     <T> void putTypedInternalRouteState(VehicleRoute route, StateId stateId, T state){
         if(route.isEmpty()) return;
-        if(!route_state_map.containsKey(route)){
-            route_state_map.put(route,new Object[stateIndexCounter]);
-        }
-        route_state_map.get(route)[stateId.getIndex()] = state;
-//        route_states[route.getActivities().get(0).getIndex()][stateId.getIndex()] = state;
+        int routeIndex = getOrAssignRouteIndex(route);
+        route_states[routeIndex] = ensureCapacity(route_states[routeIndex], stateId);
+        route_states[routeIndex][stateId.getIndex()] = state;
+        clearState(route_double_states[routeIndex], stateId);
+        clearState(route_int_states[routeIndex], stateId);
+    }
+
+    void putInternalDoubleRouteState(VehicleRoute route, StateId stateId, double state){
+        if(route.isEmpty()) return;
+        int routeIndex = getOrAssignRouteIndex(route);
+        route_double_states[routeIndex] = ensureCapacity(route_double_states[routeIndex], stateId);
+        route_double_states[routeIndex][stateId.getIndex()] = state;
+        clearState(route_states[routeIndex], stateId);
+        clearState(route_int_states[routeIndex], stateId);
+    }
+
+    void putInternalIntRouteState(VehicleRoute route, StateId stateId, int state){
+        if(route.isEmpty()) return;
+        int routeIndex = getOrAssignRouteIndex(route);
+        route_int_states[routeIndex] = ensureCapacity(route_int_states[routeIndex], stateId);
+        route_int_states[routeIndex][stateId.getIndex()] = state;
+        clearState(route_states[routeIndex], stateId);
+        clearState(route_double_states[routeIndex], stateId);
     }
 
     <T> void putTypedInternalRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId, T state){
         if(route.isEmpty()) return;
-        if(!vehicle_dependent_route_state_map.containsKey(route)){
-            vehicle_dependent_route_state_map.put(route,new Object[nuVehicleTypeKeys][stateIndexCounter]);
+        int routeIndex = getOrAssignRouteIndex(route);
+        if(vehicle_dependent_route_states[routeIndex] == null){
+            vehicle_dependent_route_states[routeIndex] = new Object[nuVehicleTypeKeys][];
         }
-        vehicle_dependent_route_state_map.get(route)[vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()] = state;
-//        vehicle_dependent_route_states[route.getActivities().get(0).getIndex()][vehicle.getVehicleTypeIdentifier().getIndex()][stateId.getIndex()] = state;
+        Object[][] states = vehicle_dependent_route_states[routeIndex];
+        int vehicleIndex = vehicle.getVehicleTypeIdentifier().getIndex();
+        states[vehicleIndex] = ensureCapacity(states[vehicleIndex], stateId);
+        states[vehicleIndex][stateId.getIndex()] = state;
+    }
+
+    private Object[] ensureCapacity(Object[] states, StateId stateId){
+        if(states != null && stateId.getIndex() < states.length) return states;
+        int length = Math.max(stateIndexCounter, stateId.getIndex() + 1);
+        if(states == null) return new Object[length];
+        return Arrays.copyOf(states, length);
+    }
+
+    private double[] ensureCapacity(double[] states, StateId stateId){
+        if(states != null && stateId.getIndex() < states.length) return states;
+        int length = Math.max(stateIndexCounter, stateId.getIndex() + 1);
+        int oldLength = states == null ? 0 : states.length;
+        double[] newStates = states == null ? new double[length] : Arrays.copyOf(states, length);
+        Arrays.fill(newStates, oldLength, length, NO_DOUBLE_STATE);
+        return newStates;
+    }
+
+    private int[] ensureCapacity(int[] states, StateId stateId){
+        if(states != null && stateId.getIndex() < states.length) return states;
+        int length = Math.max(stateIndexCounter, stateId.getIndex() + 1);
+        int oldLength = states == null ? 0 : states.length;
+        int[] newStates = states == null ? new int[length] : Arrays.copyOf(states, length);
+        Arrays.fill(newStates, oldLength, length, NO_INT_STATE);
+        return newStates;
+    }
+
+    private void clearState(Object[] states, StateId stateId){
+        if(states != null && stateId.getIndex() < states.length) states[stateId.getIndex()] = null;
+    }
+
+    private void clearState(double[] states, StateId stateId){
+        if(states != null && stateId.getIndex() < states.length) states[stateId.getIndex()] = NO_DOUBLE_STATE;
+    }
+
+    private void clearState(int[] states, StateId stateId){
+        if(states != null && stateId.getIndex() < states.length) states[stateId.getIndex()] = NO_INT_STATE;
     }
 
 	/**
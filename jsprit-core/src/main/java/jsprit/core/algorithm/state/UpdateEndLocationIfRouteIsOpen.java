@@ -18,6 +18,7 @@
  ******************************************************************************/
 package jsprit.core.algorithm.state;
 
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.solution.route.RouteVisitor;
 import jsprit.core.problem.solution.route.VehicleRoute;
 import jsprit.core.problem.solution.route.activity.TourActivity;
@@ -37,6 +38,7 @@ public class UpdateEndLocationIfRouteIsOpen implements StateUpdater, RouteVisito
 		if(!route.getActivities().isEmpty()){
 			TourActivity lastAct = route.getActivities().get(route.getActivities().size()-1);
 			route.getEnd().setLocationId(lastAct.getLocationId());
+			route.getEnd().setLocationIndex(TransportCostsLookup.getLocationIndex(lastAct));
 		}
 	}
 
@@ -18,6 +18,7 @@
  ******************************************************************************/
 package jsprit.core.algorithm.state;
 
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.solution.route.VehicleRoute;
 import jsprit.core.problem.solution.route.activity.ReverseActivityVisitor;
@@ -35,7 +36,7 @@ class UpdatePracticalTimeWindows implements ReverseActivityVisitor, StateUpdater
 	
 	private VehicleRoute route;
 	
-	private VehicleRoutingTransportCosts transportCosts;
+	private TransportCostsLookup transportCosts;
 	
 	private double latestArrTimeAtPrevAct;
 	
@@ -44,7 +45,7 @@ class UpdatePracticalTimeWindows implements ReverseActivityVisitor, StateUpdater
 	public UpdatePracticalTimeWindows(StateManager states, VehicleRoutingTransportCosts tpCosts) {
 		super();
 		this.states = states;
-		this.transportCosts = tpCosts;
+		this.transportCosts = TransportCostsLookup.newInstance(tpCosts);
 	}
 
 	@Override
@@ -56,10 +57,10 @@ class UpdatePracticalTimeWindows implements ReverseActivityVisitor, StateUpdater
 
 	@Override
 	public void visit(TourActivity activity) {
-		double potentialLatestArrivalTimeAtCurrAct = latestArrTimeAtPrevAct - transportCosts.getBackwardTransportTime(activity.getLocationId(), prevAct.getLocationId(), latestArrTimeAtPrevAct, route.getDriver(),route.getVehicle()) - activity.getOperationTime();
+		double potentialLatestArrivalTimeAtCurrAct = latestArrTimeAtPrevAct - transportCosts.getBackwardTransportTime(activity, prevAct, latestArrTimeAtPrevAct, route.getDriver(),route.getVehicle()) - activity.getOperationTime();
 		double latestArrivalTime = Math.min(activity.getTheoreticalLatestOperationStartTime(), potentialLatestArrivalTimeAtCurrAct);
 		
-		states.putInternalTypedActivityState(activity, InternalStates.LATEST_OPERATION_START_TIME, latestArrivalTime);
+		states.putInternalDoubleActivityState(activity, InternalStates.LATEST_OPERATION_START_TIME, latestArrivalTime);
 		
 		latestArrTimeAtPrevAct = latestArrivalTime;
 		prevAct = activity;
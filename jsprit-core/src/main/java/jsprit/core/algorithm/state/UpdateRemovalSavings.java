@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.state;
+
+import jsprit.core.problem.cost.TransportCostsLookup;
+import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.ActivityVisitor;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.solution.route.activity.TourActivity.JobActivity;
+import jsprit.core.util.ActivityTimeTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Updates the transport costs that are saved if an activity is removed from its route, i.e. c(prev,act) + c(act,next) - c(prev,next),
+ * or c(prev,act) if act is the last activity of an open route.
+ * 
+ * <p>If pickup and delivery of a shipment are adjacent, they are removed as one segment. The savings of the segment, i.e.
+ * c(prev,pickup) + c(pickup,delivery) + c(delivery,next) - c(prev,next), are then memorized at the pickup and 0 at the delivery.
+ * Thus, the savings of a job are always the sum of the savings of its activities.
+ * 
+ * <p>Departure times are tracked along the route by this updater itself, i.e. it does not depend on the activity times of the route being up to date.
+ * 
+ * <p>It modifies <code>stateManager.getActivityStateDouble(activity, updater.getStateId())</code>.
+ *
+ */
+public class UpdateRemovalSavings implements ActivityVisitor, StateUpdater {
+
+	private final TransportCostsLookup transportCosts;
+	
+	private final StateManager stateManager;
+	
+	private final StateId removalSavingsId;
+	
+	private final ActivityTimeTracker timeTracker;
+	
+	private VehicleRoute route;
+	
+	/**
+	 * start, activities and end of the route currently visited
+	 */
+	private final List<TourActivity> activities = new ArrayList<TourActivity>();
+	
+	/**
+	 * departureTimes[i] is the time the vehicle departs from activities.get(i)
+	 */
+	private double[] departureTimes = new double[16];
+
+	/**
+	 * Updates the removal savings of activities, and memorizes them as activity state "removal_savings".
+	 * 
+	 * @param transportCosts the transport costs
+	 * @param stateManager the state manager the savings are memorized in
+	 */
+	public UpdateRemovalSavings(VehicleRoutingTransportCosts transportCosts, StateManager stateManager) {
+		super();
+		this.transportCosts = TransportCostsLookup.newInstance(transportCosts);
+		this.stateManager = stateManager;
+		this.removalSavingsId = stateManager.createStateId("removal_savings");
+		this.timeTracker = new ActivityTimeTracker(transportCosts);
+	}
+	
+	/**
+	 * Returns the id of the state the removal savings are memorized as.
+	 * 
+	 * @return state id of removal savings
+	 */
+	public StateId getStateId() {
+		return removalSavingsId;
+	}
+
+	@Override
+	public void begin(VehicleRoute route) {
+		this.route = route;
+		timeTracker.begin(route);
+		add(route.getStart(), timeTracker.getActEndTime());
+	}
+
+	@Override
+	public void visit(TourActivity activity) {
+		timeTracker.visit(activity);
+		add(activity, timeTracker.getActEndTime());
+	}
+
+	@Override
+	public void finish() {
+		timeTracker.finish();
+		add(route.getEnd(), timeTracker.getActEndTime());
+		int endIndex = activities.size() - 1;
+		for(int i=1;i<endIndex;i++){
+			TourActivity act = activities.get(i);
+			if(i >= 2 && isOfSameJob(activities.get(i-1), act)){
+				/*
+				 * pickup and delivery are adjacent, thus they are removed as one segment
+				 */
+				stateManager.putActivityState(activities.get(i-1), removalSavingsId, getSavings(i-2, i));
+				stateManager.putActivityState(act, removalSavingsId, 0.);
+			}
+			else stateManager.putActivityState(act, removalSavingsId, getSavings(i-1, i));
+		}
+		activities.clear();
+		route = null;
+	}
+
+	private void add(TourActivity activity, double departureTime) {
+		if(activities.size() == departureTimes.length) departureTimes = Arrays.copyOf(departureTimes, 2 * departureTimes.length);
+		departureTimes[activities.size()] = departureTime;
+		activities.add(activity);
+	}
+
+	private boolean isOfSameJob(TourActivity act, TourActivity otherAct) {
+		if(!(act instanceof JobActivity) || !(otherAct instanceof JobActivity)) return false;
+		Job job = ((JobActivity) act).getJob();
+		return job.equals(((JobActivity) otherAct).getJob());
+	}
+
+	/**
+	 * Returns the savings of removing the activities (prev,last], i.e. the activities after prev up to and including last.
+	 */
+	private double getSavings(int prev, int last) {
+		double savings = 0.;
+		for(int i=prev;i<last;i++){
+			savings += getTransportCost(i, i+1);
+		}
+		int next = last + 1;
+		if(next == activities.size() - 1 && !route.getVehicle().isReturnToDepot()){
+			return savings;
+		}
+		return savings + getTransportCost(last, next) - getTransportCost(prev, next);
+	}
+
+	private double getTransportCost(int from, int to) {
+		return transportCosts.getTransportCost(activities.get(from), activities.get(to), departureTimes[from], route.getDriver(), route.getVehicle());
+	}
+
+}
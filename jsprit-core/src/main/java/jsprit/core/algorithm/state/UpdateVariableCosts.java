@@ -16,7 +16,7 @@
  ******************************************************************************/
 package jsprit.core.algorithm.state;
 
-import jsprit.core.problem.cost.ForwardTransportCost;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingActivityCosts;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.solution.route.VehicleRoute;
@@ -36,7 +36,7 @@ public class UpdateVariableCosts implements ActivityVisitor,StateUpdater{
 
 	private VehicleRoutingActivityCosts activityCost;
 
-	private ForwardTransportCost transportCost;
+	private TransportCostsLookup transportCost;
 	
 	private StateManager states;
 	
@@ -64,14 +64,14 @@ public class UpdateVariableCosts implements ActivityVisitor,StateUpdater{
 	public UpdateVariableCosts(VehicleRoutingActivityCosts activityCost, VehicleRoutingTransportCosts transportCost, StateManager states) {
 		super();
 		this.activityCost = activityCost;
-		this.transportCost = transportCost;
+		this.transportCost = TransportCostsLookup.newInstance(transportCost);
 		this.states = states;
 		timeTracker = new ActivityTimeTracker(transportCost);
 	}
 
     public UpdateVariableCosts(VehicleRoutingActivityCosts activityCosts, VehicleRoutingTransportCosts transportCosts, StateManager stateManager, ActivityTimeTracker.ActivityPolicy activityPolicy) {
         this.activityCost = activityCosts;
-        this.transportCost = transportCosts;
+        this.transportCost = TransportCostsLookup.newInstance(transportCosts);
         this.states = stateManager;
         timeTracker = new ActivityTimeTracker(transportCosts, activityPolicy);
     }
@@ -88,13 +88,13 @@ public class UpdateVariableCosts implements ActivityVisitor,StateUpdater{
 	public void visit(TourActivity act) {
 		timeTracker.visit(act);
 		
-		double transportCost = this.transportCost.getTransportCost(prevAct.getLocationId(), act.getLocationId(), startTimeAtPrevAct, vehicleRoute.getDriver(), vehicleRoute.getVehicle());
+		double transportCost = this.transportCost.getTransportCost(prevAct, act, startTimeAtPrevAct, vehicleRoute.getDriver(), vehicleRoute.getVehicle());
 		double actCost = activityCost.getActivityCost(act, timeTracker.getActArrTime(), vehicleRoute.getDriver(), vehicleRoute.getVehicle());
 
 		totalOperationCost += transportCost;
 		totalOperationCost += actCost;
 
-		states.putInternalTypedActivityState(act, InternalStates.COSTS, totalOperationCost);
+		states.putInternalDoubleActivityState(act, InternalStates.COSTS, totalOperationCost);
 
 		prevAct = act;
 		startTimeAtPrevAct = timeTracker.getActEndTime();
@@ -103,13 +103,13 @@ public class UpdateVariableCosts implements ActivityVisitor,StateUpdater{
 	@Override
 	public void finish() {
 		timeTracker.finish();
-		double transportCost = this.transportCost.getTransportCost(prevAct.getLocationId(), vehicleRoute.getEnd().getLocationId(), startTimeAtPrevAct, vehicleRoute.getDriver(), vehicleRoute.getVehicle());
+		double transportCost = this.transportCost.getTransportCost(prevAct, vehicleRoute.getEnd(), startTimeAtPrevAct, vehicleRoute.getDriver(), vehicleRoute.getVehicle());
 		double actCost = activityCost.getActivityCost(vehicleRoute.getEnd(), timeTracker.getActEndTime(), vehicleRoute.getDriver(), vehicleRoute.getVehicle());
 
 		totalOperationCost += transportCost;
 		totalOperationCost += actCost;
 		
-		states.putTypedInternalRouteState(vehicleRoute, InternalStates.COSTS, totalOperationCost);
+		states.putInternalDoubleRouteState(vehicleRoute, InternalStates.COSTS, totalOperationCost);
 		
 		startTimeAtPrevAct = 0.0;
 		prevAct = null;
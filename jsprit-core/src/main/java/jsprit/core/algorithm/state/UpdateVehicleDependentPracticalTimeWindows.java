@@ -1,5 +1,6 @@
 package jsprit.core.algorithm.state;
 
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.solution.route.VehicleRoute;
 import jsprit.core.problem.solution.route.activity.ReverseActivityVisitor;
@@ -28,7 +29,7 @@ public class UpdateVehicleDependentPracticalTimeWindows implements ReverseActivi
 
     private final StateManager stateManager;
 
-    private final VehicleRoutingTransportCosts transportCosts;
+    private final TransportCostsLookup transportCosts;
 
     private VehicleRoute route;
 
@@ -36,14 +37,17 @@ public class UpdateVehicleDependentPracticalTimeWindows implements ReverseActivi
 
     private String[] location_of_prevAct;
 
+    private int[] location_index_of_prevAct;
+
     private Collection<Vehicle> vehicles;
 
     public UpdateVehicleDependentPracticalTimeWindows(StateManager stateManager, VehicleRoutingTransportCosts tpCosts) {
         super();
         this.stateManager = stateManager;
-        this.transportCosts = tpCosts;
+        this.transportCosts = TransportCostsLookup.newInstance(tpCosts);
         latest_arrTimes_at_prevAct = new double[stateManager.getMaxIndexOfVehicleTypeIdentifiers() + 1];
         location_of_prevAct = new String[stateManager.getMaxIndexOfVehicleTypeIdentifiers() + 1];
+        location_index_of_prevAct = new int[stateManager.getMaxIndexOfVehicleTypeIdentifiers() + 1];
     }
 
     public void setVehiclesToUpdate(VehiclesToUpdate vehiclesToUpdate){
@@ -57,6 +61,7 @@ public class UpdateVehicleDependentPracticalTimeWindows implements ReverseActivi
         for(Vehicle vehicle : vehicles){
             latest_arrTimes_at_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()] = vehicle.getLatestArrival();
             location_of_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()] = vehicle.getEndLocationId();
+            location_index_of_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()] = TransportCostsLookup.getEndLocationIndex(vehicle);
         }
     }
 
@@ -65,12 +70,14 @@ public class UpdateVehicleDependentPracticalTimeWindows implements ReverseActivi
         for(Vehicle vehicle : vehicles){
             double latestArrTimeAtPrevAct = latest_arrTimes_at_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()];
             String prevLocation = location_of_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()];
-            double potentialLatestArrivalTimeAtCurrAct = latestArrTimeAtPrevAct - transportCosts.getBackwardTransportTime(activity.getLocationId(), prevLocation,
+            int prevLocationIndex = location_index_of_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()];
+            double potentialLatestArrivalTimeAtCurrAct = latestArrTimeAtPrevAct - transportCosts.getBackwardTransportTime(TransportCostsLookup.getLocationIndex(activity), activity.getLocationId(), prevLocationIndex, prevLocation,
                     latestArrTimeAtPrevAct, route.getDriver(), vehicle) - activity.getOperationTime();
             double latestArrivalTime = Math.min(activity.getTheoreticalLatestOperationStartTime(), potentialLatestArrivalTimeAtCurrAct);
-            stateManager.putInternalTypedActivityState(activity, vehicle, InternalStates.LATEST_OPERATION_START_TIME, latestArrivalTime);
+            stateManager.putInternalDoubleActivityState(activity, vehicle, InternalStates.LATEST_OPERATION_START_TIME, latestArrivalTime);
             latest_arrTimes_at_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()] = latestArrivalTime;
             location_of_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()] = activity.getLocationId();
+            location_index_of_prevAct[vehicle.getVehicleTypeIdentifier().getIndex()] = TransportCostsLookup.getLocationIndex(activity);
         }
     }
 
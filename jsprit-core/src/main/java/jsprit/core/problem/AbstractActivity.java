@@ -12,4 +12,10 @@ public abstract class AbstractActivity implements TourActivity {
     public int getIndex(){ return index; }
 
     protected void setIndex(int index){ this.index = index; }
+
+    private int locationIndex;
+
+    public int getLocationIndex(){ return locationIndex; }
+
+    protected void setLocationIndex(int locationIndex){ this.locationIndex = locationIndex; }
 }
@@ -22,10 +22,22 @@ public abstract class AbstractVehicle implements Vehicle {
 
     private VehicleTypeKey vehicleIdentifier;
 
+    private int startLocationIndex;
+
+    private int endLocationIndex;
+
     public int getIndex(){ return index; }
 
     protected void setIndex(int index){ this.index = index; }
 
+    public int getStartLocationIndex(){ return startLocationIndex; }
+
+    protected void setStartLocationIndex(int startLocationIndex){ this.startLocationIndex = startLocationIndex; }
+
+    public int getEndLocationIndex(){ return endLocationIndex; }
+
+    protected void setEndLocationIndex(int endLocationIndex){ this.endLocationIndex = endLocationIndex; }
+
     public VehicleTypeKey getVehicleTypeIdentifier(){
         return vehicleIdentifier;
     }
@@ -247,6 +247,45 @@ public class Capacity {
 		return true;
 	}
 	
+	/**
+	 * Returns true if the sum of cap1 and cap2 is less or equal than the capacity toCompare.
+	 * 
+	 * <p>This is equivalent to <code>Capacity.addup(cap1, cap2).isLessOrEqual(toCompare)</code>, but does not create the sum.
+	 * 
+	 * @param cap1 first capacity to sum up
+	 * @param cap2 second capacity to sum up
+	 * @param toCompare the capacity to compare
+	 * @return true if cap1 + cap2 is less or equal than toCompare
+	 * @throws NullPointerException if one of the args is null
+	 */
+	public static boolean isSumLessOrEqual(Capacity cap1, Capacity cap2, Capacity toCompare){
+		if(cap1 == null || cap2 == null || toCompare == null) throw new NullPointerException("arguments must not be null");
+		for(int i=0;i<Math.max(cap1.getNuOfDimensions(),cap2.getNuOfDimensions());i++){
+			if(cap1.get(i) + cap2.get(i) > toCompare.get(i)) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns true if the difference of cap and cap2subtract is less or equal than the capacity toCompare.
+	 * 
+	 * <p>This is equivalent to <code>Capacity.subtract(cap, cap2subtract).isLessOrEqual(toCompare)</code>, but does not
+	 * create the difference.
+	 * 
+	 * @param cap capacity to subtract from
+	 * @param cap2subtract capacity to subtract
+	 * @param toCompare the capacity to compare
+	 * @return true if cap - cap2subtract is less or equal than toCompare
+	 * @throws NullPointerException if one of the args is null
+	 */
+	public static boolean isDifferenceLessOrEqual(Capacity cap, Capacity cap2subtract, Capacity toCompare){
+		if(cap == null || cap2subtract == null || toCompare == null) throw new NullPointerException("arguments must not be null");
+		for(int i=0;i<Math.max(cap.getNuOfDimensions(),cap2subtract.getNuOfDimensions());i++){
+			if(cap.get(i) - cap2subtract.get(i) > toCompare.get(i)) return false;
+		}
+		return true;
+	}
+	
 	/**
 	 * Returns true if this capacity is greater or equal than the capacity toCompare
 	 * 
@@ -133,6 +133,12 @@ public class VehicleRoutingProblem {
 
         private int vehicleTypeIdIndexCounter = 1;
 
+        private int locationIndexCounter = 1;
+
+        private Map<String,Integer> locationIndices = new HashMap<String, Integer>();
+
+        private List<String> indexedLocationIds = new ArrayList<String>();
+
         private Map<VehicleTypeKey,Integer> typeKeyIndices = new HashMap<VehicleTypeKey, Integer>();
 
         private Map<Job,List<AbstractActivity>> activityMap = new HashMap<Job, List<AbstractActivity>>();
@@ -155,7 +161,7 @@ public class VehicleRoutingProblem {
 			Coordinate coordinate = new Coordinate(x, y);
 			String id = coordinate.toString();
 			if(!tentative_coordinates.containsKey(id)){
-				tentative_coordinates.put(id, coordinate);
+				putLocation(id, coordinate);
 			}
 			return id;
 		}
@@ -170,6 +176,35 @@ public class VehicleRoutingProblem {
 
         private void incVehicleTypeIdIndexCounter() { vehicleTypeIdIndexCounter++; }
 
+        private void incLocationIndexCounter() { locationIndexCounter++; }
+
+        private void putLocation(String locationId, Coordinate coordinate){
+            tentative_coordinates.put(locationId, coordinate);
+            if(locationId != null && !locationIndices.containsKey(locationId)){
+                locationIndices.put(locationId, locationIndexCounter);
+                indexedLocationIds.add(locationId);
+                incLocationIndexCounter();
+            }
+        }
+
+        /**
+         * Returns the index of the specified location.
+         *
+         * <p>Every distinct location-id of services, shipments and vehicle start/end locations gets a dense index
+         * (1,2,...,n) in the order the location is first added to this builder. Thus, if you want location indices to match your
+         * own cost matrix, add locations with {@link #addLocation(String, Coordinate)} in the order of the matrix before adding jobs
+         * and vehicles.
+         *
+         * @param locationId the location-id
+         * @return index of location
+         * @throws IllegalArgumentException if location has not been added yet
+         */
+        public int getLocationIndex(String locationId){
+            Integer index = locationIndices.get(locationId);
+            if(index == null) throw new IllegalArgumentException("location " + locationId + " has not been added to the problem yet");
+            return index;
+        }
+
 		/**
 		 * Returns the unmodifiable map of collected locations (mapped by their location-id).
 		 * 
@@ -261,12 +296,12 @@ public class VehicleRoutingProblem {
 		
 		private void addLocationToTentativeLocations(Job job) {
 			if(job instanceof Service) {
-				tentative_coordinates.put(((Service)job).getLocationId(), ((Service)job).getCoord());
+				putLocation(((Service)job).getLocationId(), ((Service)job).getCoord());
 			}
 			else if(job instanceof Shipment){
 				Shipment shipment = (Shipment)job;
-				tentative_coordinates.put(shipment.getPickupLocationId(), shipment.getPickupCoord());
-				tentative_coordinates.put(shipment.getDeliveryLocationId(), shipment.getDeliveryCoord());
+				putLocation(shipment.getPickupLocationId(), shipment.getPickupCoord());
+				putLocation(shipment.getDeliveryLocationId(), shipment.getDeliveryCoord());
 			}
 		}
 
@@ -283,6 +318,7 @@ public class VehicleRoutingProblem {
             for(AbstractActivity act : jobActs){
                 act.setIndex(activityIndexCounter);
                 incActivityIndexCounter();
+                setLocationIndex(act);
             }
             activityMap.put(job, jobActs);
 		}
@@ -306,20 +342,28 @@ public class VehicleRoutingProblem {
                     registerLocation(job);
                     registerJobAndActivity(abstractAct, job);
                 }
+                setLocationIndex(abstractAct);
             }
+            setLocationIndex(route.getStart());
+            setLocationIndex(route.getEnd());
 			initialRoutes.add(route);
 			return this;
 		}
 
         private void registerLocation(Job job) {
-            if (job instanceof Service) tentative_coordinates.put(((Service) job).getLocationId(), ((Service) job).getCoord());
+            if (job instanceof Service) putLocation(((Service) job).getLocationId(), ((Service) job).getCoord());
             if (job instanceof Shipment) {
                 Shipment shipment = (Shipment) job;
-                tentative_coordinates.put(shipment.getPickupLocationId(), shipment.getPickupCoord());
-                tentative_coordinates.put(shipment.getDeliveryLocationId(), shipment.getDeliveryCoord());
+                putLocation(shipment.getPickupLocationId(), shipment.getPickupCoord());
+                putLocation(shipment.getDeliveryLocationId(), shipment.getDeliveryCoord());
             }
         }
 
+        private void setLocationIndex(AbstractActivity act){
+            Integer locationIndex = locationIndices.get(act.getLocationId());
+            if(locationIndex != null) act.setLocationIndex(locationIndex);
+        }
+
         private void registerJobAndActivity(AbstractActivity abstractAct, Job job) {
             if(activityMap.containsKey(job)) activityMap.get(job).add(abstractAct);
             else{
@@ -344,8 +388,8 @@ public class VehicleRoutingProblem {
 		
 		private void addShipment(Shipment job) {
 			if(jobs.containsKey(job.getId())){ logger.warn("job " + job + " already in job list. overrides existing job."); }
-			tentative_coordinates.put(job.getPickupLocationId(), job.getPickupCoord());
-			tentative_coordinates.put(job.getDeliveryLocationId(), job.getDeliveryCoord());
+			putLocation(job.getPickupLocationId(), job.getPickupCoord());
+			putLocation(job.getDeliveryLocationId(), job.getDeliveryCoord());
 			jobs.put(job.getId(),job);
 		}
 
@@ -388,10 +432,12 @@ public class VehicleRoutingProblem {
                 vehicleTypes.add(vehicle.getType());
             }
             String startLocationId = vehicle.getStartLocationId();
-            tentative_coordinates.put(startLocationId, vehicle.getStartLocationCoordinate());
+            putLocation(startLocationId, vehicle.getStartLocationCoordinate());
             if(!vehicle.getEndLocationId().equals(startLocationId)){
-                tentative_coordinates.put(vehicle.getEndLocationId(), vehicle.getEndLocationCoordinate());
+                putLocation(vehicle.getEndLocationId(), vehicle.getEndLocationCoordinate());
             }
+            vehicle.setStartLocationIndex(locationIndices.get(startLocationId));
+            vehicle.setEndLocationIndex(locationIndices.get(vehicle.getEndLocationId()));
             return this;
         }
 
@@ -477,7 +523,7 @@ public class VehicleRoutingProblem {
 
 		@SuppressWarnings("UnusedDeclaration")
         public Builder addLocation(String locationId, Coordinate coordinate) {
-			tentative_coordinates.put(locationId, coordinate);
+			putLocation(locationId, coordinate);
 			return this;
 		}
 
@@ -576,7 +622,7 @@ public class VehicleRoutingProblem {
 		}
 
 		private Builder addService(Service service){
-			tentative_coordinates.put(service.getLocationId(), service.getCoord());
+			putLocation(service.getLocationId(), service.getCoord());
 			if(jobs.containsKey(service.getId())){ logger.warn("service " + service + " already in job list. overrides existing job."); }
 			jobs.put(service.getId(),service);
 			return this;
@@ -639,6 +685,10 @@ public class VehicleRoutingProblem {
 
     private int nuActivities;
 
+    private final Map<String,Integer> locationIndices;
+
+    private final String[] indexedLocationIds;
+
     private final JobActivityFactory jobActivityFactory = new JobActivityFactory() {
 
         @Override
@@ -659,6 +709,11 @@ public class VehicleRoutingProblem {
 		this.locations = builder.getLocations();
         this.activityMap = builder.activityMap;
         this.nuActivities = builder.activityIndexCounter;
+        this.locationIndices = builder.locationIndices;
+        this.indexedLocationIds = new String[builder.locationIndexCounter];
+        for(int i=0;i<builder.indexedLocationIds.size();i++){
+            indexedLocationIds[i+1] = builder.indexedLocationIds.get(i);
+        }
 		logger.info("initialise " + this);
 	}
 
@@ -759,6 +814,32 @@ public class VehicleRoutingProblem {
      */
     public int getNuActivities(){ return nuActivities; }
 
+    /**
+     * @return total number of location indices, i.e. the highest location index plus one (index 0 is not assigned)
+     */
+    public int getNuLocations(){ return indexedLocationIds.length; }
+
+    /**
+     * @param locationId the location-id
+     * @return index of the specified location
+     * @throws IllegalArgumentException if location is unknown
+     */
+    public int getLocationIndex(String locationId){
+        Integer index = locationIndices.get(locationId);
+        if(index == null) throw new IllegalArgumentException("location " + locationId + " is not part of the problem");
+        return index;
+    }
+
+    /**
+     * @param locationIndex the location index
+     * @return location-id that corresponds to the specified index
+     * @throws IllegalArgumentException if no location is associated to this index
+     */
+    public String getLocationId(int locationIndex){
+        if(locationIndex < 1 || locationIndex >= indexedLocationIds.length) throw new IllegalArgumentException("location index " + locationIndex + " is not assigned");
+        return indexedLocationIds[locationIndex];
+    }
+
     /**
      * @return factory that creates the activities associated to a job
      */
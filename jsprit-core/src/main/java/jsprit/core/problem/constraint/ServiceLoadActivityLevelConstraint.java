@@ -62,12 +62,12 @@ class ServiceLoadActivityLevelConstraint implements HardActivityConstraint {
 			
 		}
 		if(newAct instanceof PickupService || newAct instanceof ServiceActivity){
-			if(!Capacity.addup(newAct.getSize(), futureMaxLoad).isLessOrEqual(iFacts.getNewVehicle().getType().getCapacityDimensions())){
+			if(!Capacity.isSumLessOrEqual(newAct.getSize(), futureMaxLoad, iFacts.getNewVehicle().getType().getCapacityDimensions())){
 				return ConstraintsStatus.NOT_FULFILLED;
 			}
 		}
 		if(newAct instanceof DeliverService){
-			if(!Capacity.addup(Capacity.invert(newAct.getSize()), prevMaxLoad).isLessOrEqual(iFacts.getNewVehicle().getType().getCapacityDimensions())){
+			if(!Capacity.isDifferenceLessOrEqual(prevMaxLoad, newAct.getSize(), iFacts.getNewVehicle().getType().getCapacityDimensions())){
 				return ConstraintsStatus.NOT_FULFILLED_BREAK;
 			}
 		}
@@ -17,10 +17,13 @@
 package jsprit.core.problem.constraint;
 
 import jsprit.core.algorithm.state.InternalStates;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.misc.JobInsertionContext;
 import jsprit.core.problem.solution.route.activity.End;
 import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.solution.route.state.PrimitiveRouteAndActivityStateGetter;
+import jsprit.core.problem.solution.route.state.PrimitiveStateGetterAdapter;
 import jsprit.core.problem.solution.route.state.RouteAndActivityStateGetter;
 import jsprit.core.util.CalculationUtils;
 
@@ -32,32 +35,36 @@ import jsprit.core.util.CalculationUtils;
 	 */
 	class TimeWindowConstraint implements HardActivityConstraint {
 
-		private RouteAndActivityStateGetter states;
+		private PrimitiveRouteAndActivityStateGetter states;
 		
-		private VehicleRoutingTransportCosts routingCosts;
+		private TransportCostsLookup routingCosts;
 		
 		public TimeWindowConstraint(RouteAndActivityStateGetter states, VehicleRoutingTransportCosts routingCosts) {
 			super();
-			this.states = states;
-			this.routingCosts = routingCosts;
+			this.states = PrimitiveStateGetterAdapter.adapt(states);
+			this.routingCosts = TransportCostsLookup.newInstance(routingCosts);
 		}
 
 		@Override
 		public ConstraintsStatus fulfilled(JobInsertionContext iFacts, TourActivity prevAct, TourActivity newAct, TourActivity nextAct, double prevActDepTime) {
 			double latestVehicleArrival = iFacts.getNewVehicle().getLatestArrival();
-            Double latestArrTimeAtNextAct;
+            double latestArrTimeAtNextAct;
             String nextActLocation;
+            int nextActLocationIndex;
             if(nextAct instanceof End) {
                 latestArrTimeAtNextAct = latestVehicleArrival;
                 nextActLocation = iFacts.getNewVehicle().getEndLocationId();
+                nextActLocationIndex = TransportCostsLookup.getEndLocationIndex(iFacts.getNewVehicle());
                 if(!iFacts.getNewVehicle().isReturnToDepot()){
                     nextActLocation = newAct.getLocationId();
+                    nextActLocationIndex = TransportCostsLookup.getLocationIndex(newAct);
                 }
             }
             else{
-                latestArrTimeAtNextAct = states.getActivityState(nextAct, InternalStates.LATEST_OPERATION_START_TIME, Double.class);
-                if(latestArrTimeAtNextAct==null) latestArrTimeAtNextAct=nextAct.getTheoreticalLatestOperationStartTime();
+                latestArrTimeAtNextAct = states.getActivityStateDouble(nextAct, InternalStates.LATEST_OPERATION_START_TIME);
+                if(Double.isNaN(latestArrTimeAtNextAct)) latestArrTimeAtNextAct=nextAct.getTheoreticalLatestOperationStartTime();
                 nextActLocation = nextAct.getLocationId();
+                nextActLocationIndex = TransportCostsLookup.getLocationIndex(nextAct);
             }
 
 			/*
@@ -88,7 +95,7 @@ import jsprit.core.util.CalculationUtils;
 			 *                                          |- earliest arrival of vehicle
 			 *                       |--- nextAct ---|
 			 */
-			double arrTimeAtNextOnDirectRouteWithNewVehicle = prevActDepTime + routingCosts.getTransportTime(prevAct.getLocationId(), nextAct.getLocationId(), prevActDepTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
+			double arrTimeAtNextOnDirectRouteWithNewVehicle = prevActDepTime + routingCosts.getTransportTime(prevAct, nextAct, prevActDepTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
 			if(arrTimeAtNextOnDirectRouteWithNewVehicle > nextAct.getTheoreticalLatestOperationStartTime()){
 				return ConstraintsStatus.NOT_FULFILLED_BREAK;
 			}
@@ -101,11 +108,11 @@ import jsprit.core.util.CalculationUtils;
 			}
 			//			log.info("check insertion of " + newAct + " between " + prevAct + " and " + nextAct + ". prevActDepTime=" + prevActDepTime);
 //            double latestArrTimeAtNextAct = states.getActivityState(nextAct, StateFactory.LATEST_OPERATION_START_TIME, Double.class);
-            double arrTimeAtNewAct = prevActDepTime + routingCosts.getTransportTime(prevAct.getLocationId(), newAct.getLocationId(), prevActDepTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
+            double arrTimeAtNewAct = prevActDepTime + routingCosts.getTransportTime(prevAct, newAct, prevActDepTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
 
 
             double latestArrTimeAtNewAct = Math.min(newAct.getTheoreticalLatestOperationStartTime(),latestArrTimeAtNextAct -
-                    routingCosts.getBackwardTransportTime(nextActLocation, newAct.getLocationId(), latestArrTimeAtNextAct, iFacts.getNewDriver(),
+                    routingCosts.getBackwardTransportTime(nextActLocationIndex, nextActLocation, TransportCostsLookup.getLocationIndex(newAct), newAct.getLocationId(), latestArrTimeAtNextAct, iFacts.getNewDriver(),
                             iFacts.getNewVehicle()) - newAct.getOperationTime());
 			/*
 			 *  |--- prevAct ---|
@@ -123,7 +130,7 @@ import jsprit.core.util.CalculationUtils;
 			}
 //			log.info(newAct + " arrTime=" + arrTimeAtNewAct);
 			double endTimeAtNewAct = CalculationUtils.getActivityEndTime(arrTimeAtNewAct, newAct);
-			double arrTimeAtNextAct = endTimeAtNewAct + routingCosts.getTransportTime(newAct.getLocationId(), nextAct.getLocationId(), endTimeAtNewAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
+			double arrTimeAtNextAct = endTimeAtNewAct + routingCosts.getTransportTime(newAct, nextAct, endTimeAtNewAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
 
 			/*
 			 *  |--- newAct ---|
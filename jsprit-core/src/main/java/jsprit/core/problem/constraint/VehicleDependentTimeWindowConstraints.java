@@ -18,10 +18,13 @@
 package jsprit.core.problem.constraint;
 
 import jsprit.core.algorithm.state.InternalStates;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
 import jsprit.core.problem.misc.JobInsertionContext;
 import jsprit.core.problem.solution.route.activity.End;
 import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.solution.route.state.PrimitiveRouteAndActivityStateGetter;
+import jsprit.core.problem.solution.route.state.PrimitiveStateGetterAdapter;
 import jsprit.core.problem.solution.route.state.RouteAndActivityStateGetter;
 import jsprit.core.util.CalculationUtils;
 
@@ -34,36 +37,40 @@ import jsprit.core.util.CalculationUtils;
  */
 public class VehicleDependentTimeWindowConstraints implements HardActivityConstraint {
 
-    private RouteAndActivityStateGetter states;
+    private PrimitiveRouteAndActivityStateGetter states;
 
-    private VehicleRoutingTransportCosts routingCosts;
+    private TransportCostsLookup routingCosts;
 
     public VehicleDependentTimeWindowConstraints(RouteAndActivityStateGetter states, VehicleRoutingTransportCosts routingCosts) {
         super();
-        this.states = states;
-        this.routingCosts = routingCosts;
+        this.states = PrimitiveStateGetterAdapter.adapt(states);
+        this.routingCosts = TransportCostsLookup.newInstance(routingCosts);
     }
 
     @Override
     public ConstraintsStatus fulfilled(JobInsertionContext iFacts, TourActivity prevAct, TourActivity newAct, TourActivity nextAct, double prevActDepTime) {
         double latestVehicleArrival = iFacts.getNewVehicle().getLatestArrival();
-        Double latestArrTimeAtNextAct;
+        double latestArrTimeAtNextAct;
         String nextActLocation;
+        int nextActLocationIndex;
         if(nextAct instanceof End) {
             latestArrTimeAtNextAct = latestVehicleArrival;
             nextActLocation = iFacts.getNewVehicle().getEndLocationId();
+            nextActLocationIndex = TransportCostsLookup.getEndLocationIndex(iFacts.getNewVehicle());
             if(!iFacts.getNewVehicle().isReturnToDepot()){
                 nextActLocation = newAct.getLocationId();
+                nextActLocationIndex = TransportCostsLookup.getLocationIndex(newAct);
             }
         }
         else{
             //try to get latest_operation_start_time of newVehicle
-            latestArrTimeAtNextAct = states.getActivityState(nextAct, iFacts.getNewVehicle(), InternalStates.LATEST_OPERATION_START_TIME ,Double.class);
+            latestArrTimeAtNextAct = states.getActivityStateDouble(nextAct, iFacts.getNewVehicle(), InternalStates.LATEST_OPERATION_START_TIME);
 //            if(latestArrTimeAtNextAct == null) //try to get latest_operation_start_time of currVehicle
 //                latestArrTimeAtNextAct = states.getActivityState(nextAct, iFacts.getRoute().getVehicle(), StateFactory.LATEST_OPERATION_START_TIME ,Double.class);
-            if(latestArrTimeAtNextAct == null) //otherwise set it to theoretical_latest_operation_startTime
+            if(Double.isNaN(latestArrTimeAtNextAct)) //otherwise set it to theoretical_latest_operation_startTime
                 latestArrTimeAtNextAct=nextAct.getTheoreticalLatestOperationStartTime();
             nextActLocation = nextAct.getLocationId();
+            nextActLocationIndex = TransportCostsLookup.getLocationIndex(nextAct);
         }
 
 			/*
@@ -94,7 +101,7 @@ public class VehicleDependentTimeWindowConstraints implements HardActivityConstr
 			 *                                          |- earliest arrival of vehicle
 			 *                       |--- nextAct ---|
 			 */
-        double arrTimeAtNextOnDirectRouteWithNewVehicle = prevActDepTime + routingCosts.getTransportTime(prevAct.getLocationId(), nextActLocation, prevActDepTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
+        double arrTimeAtNextOnDirectRouteWithNewVehicle = prevActDepTime + routingCosts.getTransportTime(TransportCostsLookup.getLocationIndex(prevAct), prevAct.getLocationId(), nextActLocationIndex, nextActLocation, prevActDepTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
         if(arrTimeAtNextOnDirectRouteWithNewVehicle > latestArrTimeAtNextAct){
             return ConstraintsStatus.NOT_FULFILLED_BREAK;
         }
@@ -106,9 +113,9 @@ public class VehicleDependentTimeWindowConstraints implements HardActivityConstr
             return ConstraintsStatus.NOT_FULFILLED;
         }
         //			log.info("check insertion of " + newAct + " between " + prevAct + " and " + nextAct + ". prevActDepTime=" + prevActDepTime);
-        double arrTimeAtNewAct = prevActDepTime + routingCosts.getTransportTime(prevAct.getLocationId(), newAct.getLocationId(), prevActDepTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
+        double arrTimeAtNewAct = prevActDepTime + routingCosts.getTransportTime(prevAct, newAct, prevActDepTime, iFacts.getNewDriver(), iFacts.getNewVehicle());
         double endTimeAtNewAct = CalculationUtils.getActivityEndTime(arrTimeAtNewAct, newAct);
-        double latestArrTimeAtNewAct = Math.min(newAct.getTheoreticalLatestOperationStartTime(),latestArrTimeAtNextAct - routingCosts.getBackwardTransportTime(newAct.getLocationId(),nextActLocation,
+        double latestArrTimeAtNewAct = Math.min(newAct.getTheoreticalLatestOperationStartTime(),latestArrTimeAtNextAct - routingCosts.getBackwardTransportTime(TransportCostsLookup.getLocationIndex(newAct), newAct.getLocationId(), nextActLocationIndex, nextActLocation,
                 latestArrTimeAtNextAct,iFacts.getNewDriver(),iFacts.getNewVehicle()));
 
 			/*
@@ -127,7 +134,7 @@ public class VehicleDependentTimeWindowConstraints implements HardActivityConstr
         }
 //			log.info(newAct + " arrTime=" + arrTimeAtNewAct);
 
-        double arrTimeAtNextAct = endTimeAtNewAct + routingCosts.getTransportTime(newAct.getLocationId(), nextActLocation, endTimeAtNewAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
+        double arrTimeAtNextAct = endTimeAtNewAct + routingCosts.getTransportTime(TransportCostsLookup.getLocationIndex(newAct), newAct.getLocationId(), nextActLocationIndex, nextActLocation, endTimeAtNewAct, iFacts.getNewDriver(), iFacts.getNewVehicle());
 
 			/*
 			 *  |--- newAct ---|
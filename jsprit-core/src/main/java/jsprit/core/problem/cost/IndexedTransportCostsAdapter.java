@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.problem.cost;
+
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.vehicle.Vehicle;
+
+/**
+ * Adapts location-id based {@link VehicleRoutingTransportCosts} to {@link IndexedVehicleRoutingTransportCosts}.
+ * 
+ * <p>Index-based lookups are translated back to location-ids and delegated to the underlying costs. Thus, this does not 
+ * make lookups faster, but it lets code that works with location indices use any existing cost implementation.
+ * 
+ * @author schroeder
+ *
+ */
+public class IndexedTransportCostsAdapter implements IndexedVehicleRoutingTransportCosts {
+
+	/**
+	 * Returns the transport costs of the specified problem as {@link IndexedVehicleRoutingTransportCosts}.
+	 * 
+	 * <p>If they already are, they are returned as they are. Otherwise they are wrapped by this adapter.
+	 * 
+	 * @param vrp the vehicle routing problem
+	 * @return index-based transport costs
+	 */
+	public static IndexedVehicleRoutingTransportCosts newInstance(VehicleRoutingProblem vrp){
+		if(vrp.getTransportCosts() instanceof IndexedVehicleRoutingTransportCosts){
+			return (IndexedVehicleRoutingTransportCosts) vrp.getTransportCosts();
+		}
+		String[] locationIds = new String[vrp.getNuLocations()];
+		for(int i=1;i<locationIds.length;i++){
+			locationIds[i] = vrp.getLocationId(i);
+		}
+		return new IndexedTransportCostsAdapter(vrp.getTransportCosts(), locationIds);
+	}
+
+	private final VehicleRoutingTransportCosts costs;
+
+	private final String[] locationIds;
+
+	/**
+	 * @param costs location-id based costs
+	 * @param locationIds location-ids by location index, i.e. locationIds[index] is the id of the location with that index
+	 */
+	public IndexedTransportCostsAdapter(VehicleRoutingTransportCosts costs, String[] locationIds) {
+		super();
+		this.costs = costs;
+		this.locationIds = locationIds;
+	}
+
+	@Override
+	public double getTransportTime(int fromIndex, int toIndex, double departureTime, Driver driver, Vehicle vehicle) {
+		return costs.getTransportTime(locationIds[fromIndex], locationIds[toIndex], departureTime, driver, vehicle);
+	}
+
+	@Override
+	public double getTransportCost(int fromIndex, int toIndex, double departureTime, Driver driver, Vehicle vehicle) {
+		return costs.getTransportCost(locationIds[fromIndex], locationIds[toIndex], departureTime, driver, vehicle);
+	}
+
+	@Override
+	public double getBackwardTransportTime(int fromIndex, int toIndex, double arrivalTime, Driver driver, Vehicle vehicle) {
+		return costs.getBackwardTransportTime(locationIds[fromIndex], locationIds[toIndex], arrivalTime, driver, vehicle);
+	}
+
+	@Override
+	public double getBackwardTransportCost(int fromIndex, int toIndex, double arrivalTime, Driver driver, Vehicle vehicle) {
+		return costs.getBackwardTransportCost(locationIds[fromIndex], locationIds[toIndex], arrivalTime, driver, vehicle);
+	}
+
+	@Override
+	public double getTransportTime(String fromId, String toId, double departureTime, Driver driver, Vehicle vehicle) {
+		return costs.getTransportTime(fromId, toId, departureTime, driver, vehicle);
+	}
+
+	@Override
+	public double getTransportCost(String fromId, String toId, double departureTime, Driver driver, Vehicle vehicle) {
+		return costs.getTransportCost(fromId, toId, departureTime, driver, vehicle);
+	}
+
+	@Override
+	public double getBackwardTransportTime(String fromId, String toId, double arrivalTime, Driver driver, Vehicle vehicle) {
+		return costs.getBackwardTransportTime(fromId, toId, arrivalTime, driver, vehicle);
+	}
+
+	@Override
+	public double getBackwardTransportCost(String fromId, String toId, double arrivalTime, Driver driver, Vehicle vehicle) {
+		return costs.getBackwardTransportCost(fromId, toId, arrivalTime, driver, vehicle);
+	}
+
+	@Override
+	public String toString() {
+		return "[name=indexedTransportCostsAdapter][costs=" + costs + "]";
+	}
+
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.problem.cost;
+
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.vehicle.Vehicle;
+
+/**
+ * Transport costs and times that can be looked up by location index rather than by location-id.
+ * 
+ * <p>Location indices are dense integers (1,2,...,n) assigned by {@link jsprit.core.problem.VehicleRoutingProblem.Builder} 
+ * to every distinct location of services, shipments and vehicle start/end locations. They are carried by 
+ * {@link jsprit.core.problem.AbstractActivity} and {@link jsprit.core.problem.AbstractVehicle}, and looked up via 
+ * {@link TransportCostsLookup#getLocationIndex(jsprit.core.problem.solution.route.activity.TourActivity)}. Index 0 is never 
+ * assigned. Activities and vehicles without location index are looked up by location-id.
+ * 
+ * <p>Implement this interface if your costs can be looked up without hashing location-ids, e.g. if they are stored in arrays. 
+ * The algorithm then uses the index-based methods in its insertion and state-updating loops.
+ * 
+ * @author schroeder
+ *
+ */
+public interface IndexedVehicleRoutingTransportCosts extends VehicleRoutingTransportCosts {
+
+	public double getTransportTime(int fromIndex, int toIndex, double departureTime, Driver driver, Vehicle vehicle);
+
+	public double getTransportCost(int fromIndex, int toIndex, double departureTime, Driver driver, Vehicle vehicle);
+
+	public double getBackwardTransportTime(int fromIndex, int toIndex, double arrivalTime, Driver driver, Vehicle vehicle);
+
+	public double getBackwardTransportCost(int fromIndex, int toIndex, double arrivalTime, Driver driver, Vehicle vehicle);
+
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.problem.cost;
+
+import jsprit.core.problem.AbstractActivity;
+import jsprit.core.problem.AbstractVehicle;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.vehicle.Vehicle;
+
+/**
+ * Looks up transport times and costs between locations that are known by both their index and their id.
+ * 
+ * <p>If the underlying costs are {@link IndexedVehicleRoutingTransportCosts} and both locations have an index, the 
+ * index-based methods are used. Otherwise, the lookup falls back to the location-id based methods such that plain 
+ * implementations of {@link VehicleRoutingTransportCosts} keep working as they are.
+ * 
+ * @author schroeder
+ *
+ */
+public final class TransportCostsLookup {
+
+	public static TransportCostsLookup newInstance(VehicleRoutingTransportCosts costs){
+		return new TransportCostsLookup(costs);
+	}
+
+	/**
+	 * Returns the location index of act, or 0 if act does not carry a location index, i.e. if it is not an 
+	 * {@link AbstractActivity} or if its location has not been registered with a problem. Lookups then fall back to the 
+	 * location-id.
+	 * 
+	 * @param act the activity
+	 * @return location index of act
+	 */
+	public static int getLocationIndex(TourActivity act){
+		if(act instanceof AbstractActivity) return ((AbstractActivity) act).getLocationIndex();
+		return 0;
+	}
+
+	/**
+	 * Returns the index of vehicle's start location, or 0 if vehicle does not carry location indices (see {@link #getLocationIndex(TourActivity)}).
+	 * 
+	 * @param vehicle the vehicle
+	 * @return index of start location
+	 */
+	public static int getStartLocationIndex(Vehicle vehicle){
+		if(vehicle instanceof AbstractVehicle) return ((AbstractVehicle) vehicle).getStartLocationIndex();
+		return 0;
+	}
+
+	/**
+	 * Returns the index of vehicle's end location, or 0 if vehicle does not carry location indices (see {@link #getLocationIndex(TourActivity)}).
+	 * 
+	 * @param vehicle the vehicle
+	 * @return index of end location
+	 */
+	public static int getEndLocationIndex(Vehicle vehicle){
+		if(vehicle instanceof AbstractVehicle) return ((AbstractVehicle) vehicle).getEndLocationIndex();
+		return 0;
+	}
+
+	private final VehicleRoutingTransportCosts costs;
+
+	private final IndexedVehicleRoutingTransportCosts indexedCosts;
+
+	private TransportCostsLookup(VehicleRoutingTransportCosts costs) {
+		super();
+		this.costs = costs;
+		if(costs instanceof IndexedVehicleRoutingTransportCosts) indexedCosts = (IndexedVehicleRoutingTransportCosts) costs;
+		else indexedCosts = null;
+	}
+
+	/**
+	 * @return the underlying transport costs
+	 */
+	public VehicleRoutingTransportCosts getTransportCosts(){
+		return costs;
+	}
+
+	public double getTransportTime(TourActivity from, TourActivity to, double departureTime, Driver driver, Vehicle vehicle){
+		return getTransportTime(getLocationIndex(from), from.getLocationId(), getLocationIndex(to), to.getLocationId(), departureTime, driver, vehicle);
+	}
+
+	public double getTransportCost(TourActivity from, TourActivity to, double departureTime, Driver driver, Vehicle vehicle){
+		return getTransportCost(getLocationIndex(from), from.getLocationId(), getLocationIndex(to), to.getLocationId(), departureTime, driver, vehicle);
+	}
+
+	public double getBackwardTransportTime(TourActivity from, TourActivity to, double arrivalTime, Driver driver, Vehicle vehicle){
+		return getBackwardTransportTime(getLocationIndex(from), from.getLocationId(), getLocationIndex(to), to.getLocationId(), arrivalTime, driver, vehicle);
+	}
+
+	public double getBackwardTransportCost(TourActivity from, TourActivity to, double arrivalTime, Driver driver, Vehicle vehicle){
+		return getBackwardTransportCost(getLocationIndex(from), from.getLocationId(), getLocationIndex(to), to.getLocationId(), arrivalTime, driver, vehicle);
+	}
+
+	public double getTransportTime(int fromIndex, String fromId, int toIndex, String toId, double departureTime, Driver driver, Vehicle vehicle){
+		if(indexedCosts != null && fromIndex > 0 && toIndex > 0){
+			return indexedCosts.getTransportTime(fromIndex, toIndex, departureTime, driver, vehicle);
+		}
+		return costs.getTransportTime(fromId, toId, departureTime, driver, vehicle);
+	}
+
+	public double getTransportCost(int fromIndex, String fromId, int toIndex, String toId, double departureTime, Driver driver, Vehicle vehicle){
+		if(indexedCosts != null && fromIndex > 0 && toIndex > 0){
+			return indexedCosts.getTransportCost(fromIndex, toIndex, departureTime, driver, vehicle);
+		}
+		return costs.getTransportCost(fromId, toId, departureTime, driver, vehicle);
+	}
+
+	public double getBackwardTransportTime(int fromIndex, String fromId, int toIndex, String toId, double arrivalTime, Driver driver, Vehicle vehicle){
+		if(indexedCosts != null && fromIndex > 0 && toIndex > 0){
+			return indexedCosts.getBackwardTransportTime(fromIndex, toIndex, arrivalTime, driver, vehicle);
+		}
+		return costs.getBackwardTransportTime(fromId, toId, arrivalTime, driver, vehicle);
+	}
+
+	public double getBackwardTransportCost(int fromIndex, String fromId, int toIndex, String toId, double arrivalTime, Driver driver, Vehicle vehicle){
+		if(indexedCosts != null && fromIndex > 0 && toIndex > 0){
+			return indexedCosts.getBackwardTransportCost(fromIndex, toIndex, arrivalTime, driver, vehicle);
+		}
+		return costs.getBackwardTransportCost(fromId, toId, arrivalTime, driver, vehicle);
+	}
+
+}
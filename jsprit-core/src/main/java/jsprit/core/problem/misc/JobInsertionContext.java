@@ -110,6 +110,27 @@ public class JobInsertionContext {
 		this.newDepTime = newDepTime;
 	}
 
+    /**
+     * Re-initialises the context for another insertion, i.e. clears associated activities and related activity context.
+     *
+     * <p>This allows insertion calculators to reuse one context rather than constructing a new one for each insertion.
+     *
+     * @param route the existing route where the job needs to be inserted in
+     * @param job the job to be inserted
+     * @param newVehicle the new vehicle that should operate the new route
+     * @param newDriver the new driver that should operate the new route
+     * @param newDepTime the new departure time at the new vehicle's start location
+     */
+    public void reset(VehicleRoute route, Job job, Vehicle newVehicle, Driver newDriver, double newDepTime){
+        this.route = route;
+        this.job = job;
+        this.newVehicle = newVehicle;
+        this.newDriver = newDriver;
+        this.newDepTime = newDepTime;
+        associatedActivities.clear();
+        pickupContext = null;
+    }
+
     public List<TourActivity> getAssociatedActivities() {
         return associatedActivities;
     }
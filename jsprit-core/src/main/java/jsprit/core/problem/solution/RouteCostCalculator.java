@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.problem.solution;
+
+import jsprit.core.problem.solution.route.VehicleRoute;
+
+/**
+ * Interface for calculators that evaluate a single route, i.e. the route-level part of an objective function.
+ * 
+ * <p>Costs of a route must only depend on the route itself, i.e. on its vehicle, driver, departure time and activities.
+ * 
+ * @author schroeder
+ *
+ */
+public interface RouteCostCalculator {
+	
+	/**
+	 * Returns costs of route.
+	 * 
+	 * @param route
+	 * @return costs
+	 */
+	public double getCosts(VehicleRoute route);
+
+}
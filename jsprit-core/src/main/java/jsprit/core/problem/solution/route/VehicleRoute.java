@@ -18,6 +18,7 @@ package jsprit.core.problem.solution.route;
 
 import jsprit.core.problem.AbstractActivity;
 import jsprit.core.problem.JobActivityFactory;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.driver.Driver;
 import jsprit.core.problem.driver.DriverImpl;
 import jsprit.core.problem.job.*;
@@ -176,8 +177,10 @@ public class VehicleRoute {
 			this.vehicle = vehicle;
 			this.driver = driver;
 			start = Start.newInstance(vehicle.getStartLocationId(), vehicle.getEarliestDeparture(), Double.MAX_VALUE);
+			start.setLocationIndex(TransportCostsLookup.getStartLocationIndex(vehicle));
 			start.setEndTime(vehicle.getEarliestDeparture());
 			end = End.newInstance(vehicle.getEndLocationId(), 0.0, vehicle.getLatestArrival());
+			end.setLocationIndex(TransportCostsLookup.getEndLocationIndex(vehicle));
 		}
 
 		/**
@@ -299,7 +302,9 @@ public class VehicleRoute {
 			}
 			if(!vehicle.isReturnToDepot()){
 				if(!tourActivities.isEmpty()){
-					end.setLocationId(tourActivities.getActivities().get(tourActivities.getActivities().size()-1).getLocationId());
+					TourActivity lastAct = tourActivities.getActivities().get(tourActivities.getActivities().size()-1);
+					end.setLocationId(lastAct.getLocationId());
+					end.setLocationIndex(TransportCostsLookup.getLocationIndex(lastAct));
 				}
 			}
 			return new VehicleRoute(this);
@@ -317,6 +322,10 @@ public class VehicleRoute {
 	
 	private End end;
 	
+	private Object indexOwner;
+	
+	private int index = 0;
+	
 	/**
 	 * Copy constructor copying a route.
 	 * 
@@ -349,7 +358,7 @@ public class VehicleRoute {
 	 * @return list of tourActivities
 	 */
 	public List<TourActivity> getActivities(){
-		return Collections.unmodifiableList(tourActivities.getActivities());
+		return tourActivities.getActivities();
 	}
 	
 	/**
@@ -408,7 +417,9 @@ public class VehicleRoute {
 			start.setTheoreticalEarliestOperationStartTime(vehicle.getEarliestDeparture());
 			start.setTheoreticalLatestOperationStartTime(vehicle.getLatestArrival());
 			start.setLocationId(vehicle.getStartLocationId());
+			start.setLocationIndex(TransportCostsLookup.getStartLocationIndex(vehicle));
 			end.setLocationId(vehicle.getEndLocationId());
+			end.setLocationIndex(TransportCostsLookup.getEndLocationIndex(vehicle));
 			end.setTheoreticalEarliestOperationStartTime(vehicle.getEarliestDeparture());
 			end.setTheoreticalLatestOperationStartTime(vehicle.getLatestArrival());
 		}
@@ -453,6 +464,32 @@ public class VehicleRoute {
 		return end;
 	}
 	
+	/**
+	 * Returns the index that owner has assigned to this route, or 0 if owner has not assigned an index.
+	 * 
+	 * <p>A route caches the index of only one owner (typically a state manager), namely the one that assigned it last. 
+	 * Thus, owners must not rely on this index but keep their own assignment, and use this one only as a shortcut. 
+	 * The index is not copied with the route.
+	 * 
+	 * @param owner the owner of the index
+	 * @return index
+	 */
+	public int getIndex(Object owner) {
+		if(indexOwner != owner) return 0;
+		return index;
+	}
+	
+	/**
+	 * Caches the index that owner has assigned to this route. This replaces the index of any other owner.
+	 * 
+	 * @param owner the owner of the index
+	 * @param index the index
+	 */
+	public void setIndex(Object owner, int index) {
+		this.indexOwner = owner;
+		this.index = index;
+	}
+	
 	@Override
 	public String toString() {
 		return "[start="+start+"][end=" + end + "][departureTime=" + start.getEndTime() + "][vehicle=" + vehicle + "][driver=" + driver + "][nuOfActs="+tourActivities.getActivities().size()+"]";
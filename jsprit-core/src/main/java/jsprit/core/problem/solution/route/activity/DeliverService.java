@@ -44,6 +44,7 @@ public final class DeliverService extends AbstractActivity implements DeliveryAc
 		this.endTime=deliveryActivity.getEndTime();
 		capacity = deliveryActivity.getSize();
         setIndex(deliveryActivity.getIndex());
+        setLocationIndex(deliveryActivity.getLocationIndex());
 	}
 
 	@Override
@@ -44,6 +44,7 @@ public final class DeliverShipment extends AbstractActivity implements DeliveryA
 		this.endTime = deliveryShipmentActivity.getEndTime();
 		this.capacity = deliveryShipmentActivity.getSize();
         setIndex(deliveryShipmentActivity.getIndex());
+        setLocationIndex(deliveryShipmentActivity.getLocationIndex());
 	}
 
 	@Override
@@ -81,6 +81,7 @@ public final class End extends AbstractActivity implements TourActivity {
 		arrTime = end.getArrTime();
 		endTime = end.getEndTime();
         setIndex(-2);
+        setLocationIndex(end.getLocationIndex());
 	}
 
 	public double getTheoreticalEarliestOperationStartTime() {
@@ -103,6 +104,11 @@ public final class End extends AbstractActivity implements TourActivity {
 		this.locationId = locationId;
 	}
 
+	@Override
+	public void setLocationIndex(int locationIndex) {
+		super.setLocationIndex(locationIndex);
+	}
+
 	@Override
 	public String getLocationId() {
 		return locationId;
@@ -45,6 +45,7 @@ public final class PickupService extends AbstractActivity implements PickupActiv
 		this.arrTime=pickupActivity.getArrTime();
 		this.depTime=pickupActivity.getEndTime();
         setIndex(pickupActivity.getIndex());
+        setLocationIndex(pickupActivity.getLocationIndex());
 	}
 
 	@Override
@@ -40,6 +40,7 @@ public final class PickupShipment extends AbstractActivity implements PickupActi
 		this.arrTime = pickupShipmentActivity.getArrTime();
 		this.endTime = pickupShipmentActivity.getEndTime();
         setIndex(pickupShipmentActivity.getIndex());
+        setLocationIndex(pickupShipmentActivity.getLocationIndex());
 	}
 
 	@Override
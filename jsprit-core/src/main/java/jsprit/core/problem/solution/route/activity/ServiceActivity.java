@@ -79,6 +79,7 @@ public class ServiceActivity extends AbstractActivity implements JobActivity{
 		this.arrTime = serviceActivity.getArrTime();
 		this.endTime = serviceActivity.getEndTime();
         setIndex(serviceActivity.getIndex());
+        setLocationIndex(serviceActivity.getLocationIndex());
 	}
 	
 	
@@ -62,6 +62,7 @@ public final class Start extends AbstractActivity implements TourActivity {
 		theoretical_latestOperationStartTime = start.getTheoreticalLatestOperationStartTime();
 		endTime = start.getEndTime();
         setIndex(-1);
+        setLocationIndex(start.getLocationIndex());
 	}
 
 	public double getTheoreticalEarliestOperationStartTime() {
@@ -72,6 +73,11 @@ public final class Start extends AbstractActivity implements TourActivity {
 		this.locationId = locationId;
 	}
 
+	@Override
+	public void setLocationIndex(int locationIndex) {
+		super.setLocationIndex(locationIndex);
+	}
+
 	public double getTheoreticalLatestOperationStartTime() {
 		return theoretical_latestOperationStartTime;
 	}
@@ -31,6 +31,14 @@ import java.util.*;
 
 public class TourActivities {
 
+	/**
+	 * Returns a deep copy of tourActivities.
+	 *
+	 * <p>Activities are duplicated, such that activity times set on the copy are not visible to the original and vice versa.
+	 *
+	 * @param tourActivities the activity sequence to copy
+	 * @return copied activity sequence
+	 */
 	public static TourActivities copyOf(TourActivities tourActivities){
 		return new TourActivities(tourActivities);
 	}
@@ -76,18 +84,24 @@ public class TourActivities {
 	
 	private final ArrayList<TourActivity> tourActivities = new ArrayList<TourActivity>();
 
+	private final List<TourActivity> unmodifiableTourActivities = Collections.unmodifiableList(tourActivities);
+
 	private final Set<Job> jobs = new HashSet<Job>();
 
     private final Set<TourActivity> activities = new HashSet<TourActivity>();
 
 	private ReverseActivityIterator backward;
+
+	private Object version = new Object();
 	
 	private TourActivities(TourActivities tour2copy) {
-		for (TourActivity tourAct : tour2copy.getActivities()) {
+		version = tour2copy.version;
+		tourActivities.ensureCapacity(tour2copy.tourActivities.size());
+		jobs.addAll(tour2copy.jobs);
+		for (TourActivity tourAct : tour2copy.tourActivities) {
 			TourActivity newAct = tourAct.duplicate();
-			this.tourActivities.add(newAct);
-            addToActivitySet(newAct);
-            addJob(newAct);
+			tourActivities.add(newAct);
+			addToActivitySet(newAct);
 		}
 	}
 
@@ -102,9 +116,25 @@ public class TourActivities {
     public TourActivities(){
 		
 	}
+
+	/**
+	 * Returns an object that identifies the current sequence of activities.
+	 *
+	 * <p>A copy gets the version of its original, and the version is replaced whenever activities are added or removed. Thus
+	 * two sequences with the same version contain the same sequence of activities (with possibly different activity times).
+	 *
+	 * @return version of this sequence
+	 */
+	public Object getVersion() {
+		return version;
+	}
+
+	private void modified() {
+		version = new Object();
+	}
 	
 	public List<TourActivity> getActivities() {
-		return Collections.unmodifiableList(tourActivities);
+		return unmodifiableTourActivities;
 	}
 	
 	public Iterator<TourActivity> iterator(){
@@ -139,26 +169,60 @@ public class TourActivities {
 	 * @return true if job has been removed, otherwise false.
 	 */
 	public boolean removeJob(Job job){
-		boolean jobRemoved = false;
 		if(!jobs.contains(job)){
 			return false;
 		}
-		else{
-			jobRemoved = jobs.remove(job);
+		boolean jobRemoved = jobs.remove(job);
+		boolean activityRemoved = removeActivitiesOf(Collections.singleton(job)) > 0;
+		assert jobRemoved == activityRemoved : "job removed, but belonging activity not.";
+		return activityRemoved;
+	}
+
+	/**
+	 * Removes the specified jobs AND their belonging activities from tour.
+	 *
+	 * <p>In contrast to removing jobs one after another, the activity sequence is compacted only once, i.e. removing k jobs
+	 * from a tour of n activities takes O(n+k) instead of O(k*n).
+	 *
+	 * @param jobs2remove jobs to be removed
+	 * @return true if at least one job has been removed, otherwise false.
+	 */
+	public boolean removeJobs(Collection<? extends Job> jobs2remove){
+		Set<Job> served = new HashSet<Job>();
+		for(Job job : jobs2remove){
+			if(jobs.contains(job)) served.add(job);
+		}
+		if(served.isEmpty()){
+			return false;
+		}
+		for(Job job : served){
+			jobs.remove(job);
 		}
-		boolean activityRemoved = false;
-		List<TourActivity> acts = new ArrayList<TourActivity>(tourActivities);
-		for(TourActivity c : acts){
-			if(c instanceof JobActivity){
-				if(job.equals(((JobActivity) c).getJob())){
-					tourActivities.remove(c);
-                    removeFromActivitySet(c);
-                    activityRemoved = true;
-				}
+		removeActivitiesOf(served);
+		return true;
+	}
+
+	/**
+	 * Removes all activities that belong to one of jobs2remove in one pass, shifting the remaining activities to the left.
+	 *
+	 * @return no. of removed activities
+	 */
+	private int removeActivitiesOf(Set<Job> jobs2remove) {
+		int size = tourActivities.size();
+		int newSize = 0;
+		for(int i=0;i<size;i++){
+			TourActivity act = tourActivities.get(i);
+			if(act instanceof JobActivity && jobs2remove.contains(((JobActivity) act).getJob())){
+				removeFromActivitySet(act);
+			}
+			else{
+				tourActivities.set(newSize, act);
+				newSize++;
 			}
 		}
-		assert jobRemoved == activityRemoved : "job removed, but belonging activity not.";
-		return activityRemoved;
+		tourActivities.subList(newSize, size).clear();
+		if(newSize < size) modified();
+		return size - newSize;
 	}
 
     /**
@@ -185,14 +249,17 @@ public class TourActivities {
         }
         boolean jobIsAlsoAssociateToOtherActs = false;
         boolean actRemoved = false;
-        List<TourActivity> acts = new ArrayList<TourActivity>(tourActivities);
-        for(TourActivity act : acts){
+        int size = tourActivities.size();
+        int newSize = 0;
+        for(int i=0;i<size;i++){
+            TourActivity act = tourActivities.get(i);
             if(act == activity){
-                tourActivities.remove(act);
                 removeFromActivitySet(act);
                 actRemoved = true;
             }
             else{
+                tourActivities.set(newSize, act);
+                newSize++;
                 if(act instanceof JobActivity && job != null){
                     if(((JobActivity) act).getJob().equals(job)){
                         jobIsAlsoAssociateToOtherActs = true;
@@ -200,9 +267,11 @@ public class TourActivities {
                 }
             }
         }
+        tourActivities.subList(newSize, size).clear();
         if(!jobIsAlsoAssociateToOtherActs && actRemoved){
             jobs.remove(job);
         }
+        if(actRemoved) modified();
         return actRemoved;
     }
 
@@ -237,6 +306,7 @@ public class TourActivities {
         }
         addToActivitySet(act);
         addJob(act);
+        modified();
 	}
 	
 	/**
@@ -250,6 +320,7 @@ public class TourActivities {
 		tourActivities.add(act);
         addToActivitySet(act);
         addJob(act);
+        modified();
 	}
 
 	private void addJob(TourActivity act) {
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.problem.solution.route.state;
+
+import jsprit.core.algorithm.state.StateId;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.vehicle.Vehicle;
+
+/**
+ * Adapts a {@link RouteAndActivityStateGetter} to a {@link PrimitiveRouteAndActivityStateGetter}.
+ * 
+ * <p>Primitive states are read through the generic getters of the adapted getter, i.e. they are unboxed.
+ * 
+ * @author schroeder
+ *
+ */
+public final class PrimitiveStateGetterAdapter implements PrimitiveRouteAndActivityStateGetter {
+
+	/**
+	 * Returns states itself if it already is a {@link PrimitiveRouteAndActivityStateGetter}, otherwise an adapter of states.
+	 * 
+	 * @param states the state getter to be adapted
+	 * @return primitive state getter
+	 */
+	public static PrimitiveRouteAndActivityStateGetter adapt(RouteAndActivityStateGetter states){
+		if(states == null) return null;
+		if(states instanceof PrimitiveRouteAndActivityStateGetter) return (PrimitiveRouteAndActivityStateGetter) states;
+		return new PrimitiveStateGetterAdapter(states);
+	}
+	
+	private static double toDouble(Double state){
+		if(state == null) return Double.NaN;
+		return state;
+	}
+	
+	private static int toInt(Integer state){
+		if(state == null) return Integer.MIN_VALUE;
+		return state;
+	}
+	
+	private final RouteAndActivityStateGetter states;
+
+	private PrimitiveStateGetterAdapter(RouteAndActivityStateGetter states) {
+		super();
+		this.states = states;
+	}
+
+	@Override
+	public <T> T getActivityState(TourActivity act, StateId stateId, Class<T> type) {
+		return states.getActivityState(act, stateId, type);
+	}
+
+	@Override
+	public <T> T getActivityState(TourActivity act, Vehicle vehicle, StateId stateId, Class<T> type) {
+		return states.getActivityState(act, vehicle, stateId, type);
+	}
+
+	@Override
+	public <T> T getRouteState(VehicleRoute route, StateId stateId, Class<T> type) {
+		return states.getRouteState(route, stateId, type);
+	}
+
+	@Override
+	public <T> T getRouteState(VehicleRoute route, Vehicle vehicle, StateId stateId, Class<T> type) {
+		return states.getRouteState(route, vehicle, stateId, type);
+	}
+
+	@Override
+	public double getActivityStateDouble(TourActivity act, StateId stateId) {
+		return toDouble(states.getActivityState(act, stateId, Double.class));
+	}
+
+	@Override
+	public double getActivityStateDouble(TourActivity act, Vehicle vehicle, StateId stateId) {
+		return toDouble(states.getActivityState(act, vehicle, stateId, Double.class));
+	}
+
+	@Override
+	public int getActivityStateInt(TourActivity act, StateId stateId) {
+		return toInt(states.getActivityState(act, stateId, Integer.class));
+	}
+
+	@Override
+	public double getRouteStateDouble(VehicleRoute route, StateId stateId) {
+		return toDouble(states.getRouteState(route, stateId, Double.class));
+	}
+
+	@Override
+	public int getRouteStateInt(VehicleRoute route, StateId stateId) {
+		return toInt(states.getRouteState(route, stateId, Integer.class));
+	}
+
+}
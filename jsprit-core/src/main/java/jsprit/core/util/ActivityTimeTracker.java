@@ -17,6 +17,8 @@
 package jsprit.core.util;
 
 import jsprit.core.problem.cost.ForwardTransportTime;
+import jsprit.core.problem.cost.IndexedVehicleRoutingTransportCosts;
+import jsprit.core.problem.cost.TransportCostsLookup;
 import jsprit.core.problem.solution.route.VehicleRoute;
 import jsprit.core.problem.solution.route.activity.ActivityVisitor;
 import jsprit.core.problem.solution.route.activity.TourActivity;
@@ -30,6 +32,8 @@ public class ActivityTimeTracker implements ActivityVisitor{
     }
 
 	private ForwardTransportTime transportTime;
+
+	private IndexedVehicleRoutingTransportCosts indexedTransportTime;
 	
 	private TourActivity prevAct = null;
 	
@@ -48,14 +52,20 @@ public class ActivityTimeTracker implements ActivityVisitor{
 	public ActivityTimeTracker(ForwardTransportTime transportTime) {
 		super();
 		this.transportTime = transportTime;
+		setIndexedTransportTime(transportTime);
 	}
 
     public ActivityTimeTracker(ForwardTransportTime transportTime, ActivityPolicy activityPolicy) {
         super();
         this.transportTime = transportTime;
         this.activityPolicy = activityPolicy;
+        setIndexedTransportTime(transportTime);
     }
 
+	private void setIndexedTransportTime(ForwardTransportTime transportTime) {
+		if(transportTime instanceof IndexedVehicleRoutingTransportCosts) indexedTransportTime = (IndexedVehicleRoutingTransportCosts) transportTime;
+	}
+
 	public double getActArrTime(){
 		return actArrTime;
 	}
@@ -76,7 +86,7 @@ public class ActivityTimeTracker implements ActivityVisitor{
 	@Override
 	public void visit(TourActivity activity) {
 		if(!beginFirst) throw new IllegalStateException("never called begin. this however is essential here");
-		double transportTime = this.transportTime.getTransportTime(prevAct.getLocationId(), activity.getLocationId(), startAtPrevAct, route.getDriver(), route.getVehicle());
+		double transportTime = getTransportTime(prevAct, activity, startAtPrevAct);
 		double arrivalTimeAtCurrAct = startAtPrevAct + transportTime; 
 		
 		actArrTime = arrivalTimeAtCurrAct;
@@ -101,7 +111,7 @@ public class ActivityTimeTracker implements ActivityVisitor{
 
 	@Override
 	public void finish() {
-		double transportTime = this.transportTime.getTransportTime(prevAct.getLocationId(), route.getEnd().getLocationId(), startAtPrevAct, route.getDriver(), route.getVehicle());
+		double transportTime = getTransportTime(prevAct, route.getEnd(), startAtPrevAct);
 		double arrivalTimeAtCurrAct = startAtPrevAct + transportTime; 
 		
 		actArrTime = arrivalTimeAtCurrAct;
@@ -109,6 +119,13 @@ public class ActivityTimeTracker implements ActivityVisitor{
 		
 		beginFirst = false;
 	}
+
+	private double getTransportTime(TourActivity from, TourActivity to, double departureTime) {
+		if(indexedTransportTime != null && TransportCostsLookup.getLocationIndex(from) > 0 && TransportCostsLookup.getLocationIndex(to) > 0){
+			return indexedTransportTime.getTransportTime(TransportCostsLookup.getLocationIndex(from), TransportCostsLookup.getLocationIndex(to), departureTime, route.getDriver(), route.getVehicle());
+		}
+		return transportTime.getTransportTime(from.getLocationId(), to.getLocationId(), departureTime, route.getDriver(), route.getVehicle());
+	}
 	
 	
 	
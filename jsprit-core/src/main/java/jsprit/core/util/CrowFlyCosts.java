@@ -42,6 +42,13 @@ public class CrowFlyCosts extends AbstractForwardVehicleRoutingTransportCosts {
 		this.locations = locations;
 	}
 	
+	/**
+	 * @return the locations whose coordinates distances are calculated from
+	 */
+	public Locations getLocations() {
+		return locations;
+	}
+	
 	@Override
 	public String toString() {
 		return "[name=crowFlyCosts]";
@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.cost.AbstractForwardVehicleRoutingTransportCosts;
+import jsprit.core.problem.cost.IndexedVehicleRoutingTransportCosts;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleTypeImpl.VehicleCostParams;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * CostMatrix that stores pre-compiled time and distance-matrices in flat primitive arrays indexed by location index.
+ * 
+ * <p>In contrary to {@link VehicleRoutingTransportCostsMatrix}, a lookup is a plain array read, i.e. it neither hashes 
+ * location-ids nor allocates any object. Location indices must correspond to the indices assigned by 
+ * {@link VehicleRoutingProblem.Builder} (see {@link VehicleRoutingProblem.Builder#getLocationIndex(String)}). 
+ * 
+ * <p>If the matrix is symmetric, only the upper triangle (including the diagonal) is stored, which halves the memory required.
+ * 
+ * <p>Relations that are not set are 0.0. If times are never set, transport times are 0.0 for all relations. This counts also for distances.
+ * 
+ * <p>Lookups by location-id are supported for locations that are known to the matrix (see {@link Builder#addLocation(String, int)}). 
+ * They require one additional map lookup.
+ * 
+ * @author schroeder
+ *
+ */
+public class FastVehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRoutingTransportCosts implements IndexedVehicleRoutingTransportCosts {
+
+	/**
+	 * Builder that builds the matrix.
+	 * 
+	 * @author schroeder
+	 *
+	 */
+	public static class Builder {
+		
+		/**
+		 * Creates a new builder for a matrix of the specified size.
+		 * 
+		 * <p>Note that noLocations is the number of location indices, i.e. the highest location index plus one.
+		 * 
+		 * @param noLocations number of location indices
+		 * @param isSymmetric true if matrix is symmetric, false otherwise
+		 * @return builder
+		 */
+		public static Builder newInstance(int noLocations, boolean isSymmetric){
+			return new Builder(noLocations, isSymmetric);
+		}
+		
+		/**
+		 * Creates a new builder for all locations that have been added to the specified problem builder so far. 
+		 * 
+		 * <p>Thus, add jobs and vehicles first, and create the matrix afterwards. This way, relations can also be 
+		 * added by location-id.
+		 * 
+		 * @param vrpBuilder problem builder that already contains all locations
+		 * @param isSymmetric true if matrix is symmetric, false otherwise
+		 * @return builder
+		 */
+		public static Builder newInstance(VehicleRoutingProblem.Builder vrpBuilder, boolean isSymmetric){
+			Map<String,Integer> locationIndices = new HashMap<String, Integer>();
+			int maxIndex = 0;
+			for(String locationId : vrpBuilder.getLocationMap().keySet()){
+				if(locationId == null) continue;
+				int index = vrpBuilder.getLocationIndex(locationId);
+				locationIndices.put(locationId, index);
+				maxIndex = Math.max(maxIndex, index);
+			}
+			Builder builder = new Builder(maxIndex + 1, isSymmetric);
+			builder.locationIndices.putAll(locationIndices);
+			return builder;
+		}
+		
+		private final boolean isSymmetric;
+		
+		private final int noLocations;
+		
+		private final int[] rowOffsets;
+		
+		private final int size;
+		
+		private boolean built = false;
+		
+		private double[] distances;
+		
+		private double[] times;
+		
+		private Map<String,Integer> locationIndices = new HashMap<String, Integer>();
+		
+		private Builder(int noLocations, boolean isSymmetric){
+			this.noLocations = noLocations;
+			this.isSymmetric = isSymmetric;
+			this.rowOffsets = new int[noLocations];
+			if(isSymmetric){
+				long offset = 0;
+				for(int i=0;i<noLocations;i++){
+					rowOffsets[i] = (int)(offset - i);
+					offset += noLocations - i;
+				}
+				if(offset > Integer.MAX_VALUE) throw new IllegalArgumentException("matrix of " + noLocations + " locations is too large");
+				this.size = (int) offset;
+			}
+			else{
+				if((long)noLocations * noLocations > Integer.MAX_VALUE) throw new IllegalArgumentException("matrix of " + noLocations + " locations is too large");
+				for(int i=0;i<noLocations;i++) rowOffsets[i] = i * noLocations;
+				this.size = noLocations * noLocations;
+			}
+		}
+		
+		/**
+		 * Makes the specified location-id known to the matrix such that relations can be added and looked up by location-id.
+		 * 
+		 * @param locationId the location-id
+		 * @param locationIndex the location index
+		 * @return builder
+		 */
+		public Builder addLocation(String locationId, int locationIndex){
+			checkNotBuilt();
+			checkIndex(locationIndex);
+			locationIndices.put(locationId, locationIndex);
+			return this;
+		}
+		
+		/**
+		 * Adds a transport-distance for a particular relation.
+		 * 
+		 * @param fromIndex from location index
+		 * @param toIndex to location index
+		 * @param distance the distance to be added
+		 * @return builder
+		 */
+		public Builder addTransportDistance(int fromIndex, int toIndex, double distance){
+			checkNotBuilt();
+			checkIndex(fromIndex);
+			checkIndex(toIndex);
+			if(distances == null) distances = new double[size];
+			distances[getArrayIndex(rowOffsets, isSymmetric, fromIndex, toIndex)] = distance;
+			return this;
+		}
+		
+		/**
+		 * Adds a transport-time for a particular relation.
+		 * 
+		 * @param fromIndex from location index
+		 * @param toIndex to location index
+		 * @param time the time to be added
+		 * @return builder
+		 */
+		public Builder addTransportTime(int fromIndex, int toIndex, double time){
+			checkNotBuilt();
+			checkIndex(fromIndex);
+			checkIndex(toIndex);
+			if(times == null) times = new double[size];
+			times[getArrayIndex(rowOffsets, isSymmetric, fromIndex, toIndex)] = time;
+			return this;
+		}
+		
+		/**
+		 * Adds a transport-distance for a particular relation.
+		 * 
+		 * @param from from locationId
+		 * @param to to locationId
+		 * @param distance the distance to be added
+		 * @return builder
+		 * @throws IllegalStateException if a location is not known to the matrix
+		 */
+		public Builder addTransportDistance(String from, String to, double distance){
+			return addTransportDistance(getIndex(locationIndices, from), getIndex(locationIndices, to), distance);
+		}
+		
+		/**
+		 * Adds a transport-time for a particular relation.
+		 * 
+		 * @param from from locationId
+		 * @param to to locationId
+		 * @param time the time to be added
+		 * @return builder
+		 * @throws IllegalStateException if a location is not known to the matrix
+		 */
+		public Builder addTransportTime(String from, String to, double time){
+			return addTransportTime(getIndex(locationIndices, from), getIndex(locationIndices, to), time);
+		}
+		
+		private void checkNotBuilt() {
+			if(built) throw new IllegalStateException("matrix has already been built. create a new builder to build another matrix.");
+		}
+		
+		private void checkIndex(int locationIndex) {
+			if(locationIndex < 0 || locationIndex >= noLocations) throw new IllegalArgumentException("location index " + locationIndex + " is out of range [0," + noLocations + ")");
+		}
+		
+		/**
+		 * Builds the matrix.
+		 * 
+		 * <p>The matrix takes over the arrays of this builder without copying them. Thus, the builder cannot be used anymore 
+		 * once the matrix has been built.
+		 * 
+		 * @return matrix
+		 * @throws IllegalStateException if the matrix has already been built
+		 */
+		public FastVehicleRoutingTransportCostsMatrix build(){
+			checkNotBuilt();
+			built = true;
+			return new FastVehicleRoutingTransportCostsMatrix(this);
+		}
+		
+	}
+	
+	private static int getArrayIndex(int[] rowOffsets, boolean isSymmetric, int fromIndex, int toIndex){
+		if(isSymmetric && fromIndex > toIndex) return rowOffsets[toIndex] + fromIndex;
+		return rowOffsets[fromIndex] + toIndex;
+	}
+	
+	private static int getIndex(Map<String,Integer> locationIndices, String locationId){
+		Integer index = locationIndices.get(locationId);
+		if(index == null) throw new IllegalStateException("location " + locationId + " is not known to the matrix");
+		return index;
+	}
+	
+	private final boolean isSymmetric;
+	
+	private final int noLocations;
+	
+	private final int[] rowOffsets;
+	
+	private final double[] distances;
+	
+	private final double[] times;
+	
+	private final Map<String,Integer> locationIndices;
+	
+	private FastVehicleRoutingTransportCostsMatrix(Builder builder){
+		this.isSymmetric = builder.isSymmetric;
+		this.noLocations = builder.noLocations;
+		this.rowOffsets = builder.rowOffsets;
+		this.distances = builder.distances;
+		this.times = builder.times;
+		this.locationIndices = new HashMap<String, Integer>(builder.locationIndices);
+	}
+	
+	/**
+	 * @return number of location indices this matrix covers
+	 */
+	public int getNoLocations() {
+		return noLocations;
+	}
+	
+	/**
+	 * @return true if matrix is symmetric
+	 */
+	public boolean isSymmetric() {
+		return isSymmetric;
+	}
+	
+	/**
+	 * Returns the distance from fromIndex to toIndex.
+	 * 
+	 * @param fromIndex from location index
+	 * @param toIndex to location index
+	 * @return the distance
+	 */
+	public double getDistance(int fromIndex, int toIndex){
+		if(distances == null) return 0.0;
+		return distances[getArrayIndex(rowOffsets, isSymmetric, fromIndex, toIndex)];
+	}
+	
+	/**
+	 * Returns the transport time from fromIndex to toIndex.
+	 * 
+	 * @param fromIndex from location index
+	 * @param toIndex to location index
+	 * @return the time
+	 */
+	public double getTime(int fromIndex, int toIndex){
+		if(times == null) return 0.0;
+		return times[getArrayIndex(rowOffsets, isSymmetric, fromIndex, toIndex)];
+	}
+	
+	/**
+	 * Returns the distance fromId to toId.
+	 * 
+	 * @param fromId from locationId
+	 * @param toId to locationId
+	 * @return the distance from fromId to toId
+	 * @throws IllegalStateException if a location is not known to the matrix
+	 */
+	public double getDistance(String fromId, String toId){
+		return getDistance(getIndex(locationIndices, fromId), getIndex(locationIndices, toId));
+	}
+	
+	@Override
+	public double getTransportTime(int fromIndex, int toIndex, double departureTime, Driver driver, Vehicle vehicle) {
+		return getTime(fromIndex, toIndex);
+	}
+	
+	@Override
+	public double getTransportCost(int fromIndex, int toIndex, double departureTime, Driver driver, Vehicle vehicle) {
+		if(vehicle == null) return getDistance(fromIndex, toIndex);
+		VehicleCostParams costParams = vehicle.getType().getVehicleCostParams();
+		return costParams.perDistanceUnit*getDistance(fromIndex, toIndex) + costParams.perTimeUnit*getTime(fromIndex, toIndex);
+	}
+	
+	@Override
+	public double getBackwardTransportTime(int fromIndex, int toIndex, double arrivalTime, Driver driver, Vehicle vehicle) {
+		return getTransportTime(fromIndex, toIndex, arrivalTime, driver, vehicle);
+	}
+	
+	@Override
+	public double getBackwardTransportCost(int fromIndex, int toIndex, double arrivalTime, Driver driver, Vehicle vehicle) {
+		return getTransportCost(fromIndex, toIndex, arrivalTime, driver, vehicle);
+	}
+	
+	@Override
+	public double getTransportTime(String fromId, String toId, double departureTime, Driver driver, Vehicle vehicle) {
+		return getTransportTime(getIndex(locationIndices, fromId), getIndex(locationIndices, toId), departureTime, driver, vehicle);
+	}
+	
+	@Override
+	public double getTransportCost(String fromId, String toId, double departureTime, Driver driver, Vehicle vehicle) {
+		return getTransportCost(getIndex(locationIndices, fromId), getIndex(locationIndices, toId), departureTime, driver, vehicle);
+	}
+	
+	@Override
+	public String toString() {
+		return "[name=fastVehicleRoutingTransportCostsMatrix][noLocations=" + noLocations + "][isSymmetric=" + isSymmetric + "]";
+	}
+	
+}
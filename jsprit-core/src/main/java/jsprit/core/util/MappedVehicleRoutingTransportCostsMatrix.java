@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.cost.AbstractForwardVehicleRoutingTransportCosts;
+import jsprit.core.problem.cost.IndexedVehicleRoutingTransportCosts;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleTypeImpl.VehicleCostParams;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * CostMatrix that reads pre-compiled time and distance-matrices from a binary matrix file that is mapped into memory 
+ * (see {@link MappedVehicleRoutingTransportCostsMatrixWriter} for how to create such a file).
+ * 
+ * <p>Values are not copied to the heap, i.e. the matrix is read lazily through the operating system's page cache. 
+ * Thus opening a matrix is almost instant, even for very large instances, and several JVMs on one machine that use 
+ * the same file share its memory.
+ * 
+ * <p>Analogous to {@link VehicleRoutingTransportCostsMatrix}, an IllegalStateException is thrown for relations 
+ * that have not been written to the file. If times have never been written, transport times are 0.0 for all relations. 
+ * This counts also for distances.
+ * 
+ * <p>Lookups by location index translate the index of the problem to the index in the file. This translation is derived 
+ * from the location-ids known to the problem builder the matrix is created with (see {@link #newInstance(String, VehicleRoutingProblem.Builder)}). 
+ * Note that problem indices start at 1 whereas file indices start at 0, i.e. they cannot be used interchangeably.
+ * 
+ * @author schroeder
+ *
+ */
+public class MappedVehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRoutingTransportCosts implements IndexedVehicleRoutingTransportCosts {
+
+	static final int MAGIC_NUMBER = 0x4A53504D;
+	
+	static final int VERSION = 1;
+	
+	static final int SYMMETRIC_FLAG = 1;
+	
+	static final int DISTANCES_SET_FLAG = 2;
+	
+	static final int TIMES_SET_FLAG = 4;
+	
+	/**
+	 * Number of doubles per mapped segment. A single buffer cannot map more than Integer.MAX_VALUE bytes.
+	 */
+	static final int SEGMENT_SHIFT = 27;
+	
+	static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+	
+	static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+	
+	static long getNoEntries(int noLocations, boolean isSymmetric){
+		if(isSymmetric) return (long)noLocations * (noLocations + 1) / 2;
+		return (long)noLocations * noLocations;
+	}
+	
+	static long getEntry(int noLocations, boolean isSymmetric, int fromIndex, int toIndex){
+		if(isSymmetric){
+			int i = Math.min(fromIndex, toIndex);
+			int j = Math.max(fromIndex, toIndex);
+			return (long)i * noLocations - (long)i * (i - 1) / 2 + (j - i);
+		}
+		return (long)fromIndex * noLocations + toIndex;
+	}
+	
+	static MappedByteBuffer[] map(FileChannel channel, MapMode mode, long dataOffset, long noValues) throws IOException {
+		int noSegments = (int)((noValues + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+		MappedByteBuffer[] buffers = new MappedByteBuffer[noSegments];
+		for(int s=0;s<noSegments;s++){
+			long first = (long)s << SEGMENT_SHIFT;
+			long size = Math.min(SEGMENT_SIZE, noValues - first);
+			buffers[s] = channel.map(mode, dataOffset + first * 8, size * 8);
+		}
+		return buffers;
+	}
+	
+	static DoubleBuffer[] asDoubleBuffers(MappedByteBuffer[] buffers){
+		DoubleBuffer[] segments = new DoubleBuffer[buffers.length];
+		for(int s=0;s<buffers.length;s++) segments[s] = buffers[s].asDoubleBuffer();
+		return segments;
+	}
+	
+	/**
+	 * Opens the matrix in the specified file and translates the location indices of the specified problem builder 
+	 * to the indices of the file.
+	 * 
+	 * <p>Thus, add jobs and vehicles first, and create the matrix afterwards.
+	 * 
+	 * @param filename the matrix file
+	 * @param vrpBuilder problem builder that already contains all locations
+	 * @return matrix
+	 * @throws IllegalStateException if the file cannot be read or is no matrix file
+	 */
+	public static MappedVehicleRoutingTransportCostsMatrix newInstance(String filename, VehicleRoutingProblem.Builder vrpBuilder){
+		return new MappedVehicleRoutingTransportCostsMatrix(filename, vrpBuilder);
+	}
+	
+	private final String filename;
+	
+	private final boolean isSymmetric;
+	
+	private final boolean distancesSet;
+	
+	private final boolean timesSet;
+	
+	private final int noLocations;
+	
+	private final long noEntries;
+	
+	private final Map<String,Integer> fileIndices = new HashMap<String, Integer>();
+	
+	private final int[] problemToFileIndices;
+	
+	private DoubleBuffer[] segments;
+	
+	private MappedVehicleRoutingTransportCostsMatrix(String filename, VehicleRoutingProblem.Builder vrpBuilder){
+		this.filename = filename;
+		RandomAccessFile file = null;
+		try {
+			file = new RandomAccessFile(new File(filename), "r");
+			if(file.readInt() != MAGIC_NUMBER) throw new IllegalStateException(filename + " is no matrix file");
+			int version = file.readInt();
+			if(version != VERSION) throw new IllegalStateException("version " + version + " of matrix file " + filename + " is not supported");
+			int flags = file.readInt();
+			isSymmetric = (flags & SYMMETRIC_FLAG) != 0;
+			distancesSet = (flags & DISTANCES_SET_FLAG) != 0;
+			timesSet = (flags & TIMES_SET_FLAG) != 0;
+			noLocations = file.readInt();
+			long dataOffset = file.readLong();
+			for(int i=0;i<noLocations;i++){
+				fileIndices.put(file.readUTF(), i);
+			}
+			noEntries = getNoEntries(noLocations, isSymmetric);
+			segments = asDoubleBuffers(map(file.getChannel(), MapMode.READ_ONLY, dataOffset, 2 * noEntries));
+		} catch (IOException e) {
+			throw new IllegalStateException("cannot read matrix file " + filename, e);
+		}
+		finally{
+			close(file);
+		}
+		problemToFileIndices = translateLocationIndices(vrpBuilder);
+	}
+	
+	private int[] translateLocationIndices(VehicleRoutingProblem.Builder vrpBuilder) {
+		Map<Integer,Integer> translation = new HashMap<Integer, Integer>();
+		int maxIndex = 0;
+		for(String locationId : vrpBuilder.getLocationMap().keySet()){
+			Integer fileIndex = fileIndices.get(locationId);
+			if(fileIndex == null) continue;
+			int problemIndex = vrpBuilder.getLocationIndex(locationId);
+			translation.put(problemIndex, fileIndex);
+			maxIndex = Math.max(maxIndex, problemIndex);
+		}
+		int[] problemToFileIndices = new int[maxIndex + 1];
+		Arrays.fill(problemToFileIndices, -1);
+		for(Map.Entry<Integer,Integer> e : translation.entrySet()){
+			problemToFileIndices[e.getKey()] = e.getValue();
+		}
+		return problemToFileIndices;
+	}
+
+	private void close(RandomAccessFile file) {
+		if(file == null) return;
+		try {
+			file.close();
+		} catch (IOException e) {
+			throw new IllegalStateException("cannot close matrix file " + filename, e);
+		}
+	}
+	
+	/**
+	 * @return number of locations in the matrix file
+	 */
+	public int getNoLocations() {
+		return noLocations;
+	}
+	
+	/**
+	 * @return true if matrix is symmetric
+	 */
+	public boolean isSymmetric() {
+		return isSymmetric;
+	}
+	
+	private int getFileIndex(int locationIndex){
+		int fileIndex = -1;
+		if(locationIndex >= 0 && locationIndex < problemToFileIndices.length) fileIndex = problemToFileIndices[locationIndex];
+		if(fileIndex < 0) throw new IllegalStateException("location index " + locationIndex + " is not contained in matrix file " + filename);
+		return fileIndex;
+	}
+	
+	private int getFileIndex(String locationId){
+		Integer fileIndex = fileIndices.get(locationId);
+		if(fileIndex == null) throw new IllegalStateException("location " + locationId + " is not contained in matrix file " + filename);
+		return fileIndex;
+	}
+	
+	private double getValue(long offset, int fromFileIndex, int toFileIndex, String type){
+		if(fromFileIndex == toFileIndex) return 0.0;
+		long entry = offset + getEntry(noLocations, isSymmetric, fromFileIndex, toFileIndex);
+		double value = segments[(int)(entry >>> SEGMENT_SHIFT)].get((int)(entry & SEGMENT_MASK));
+		if(Double.isNaN(value)) throw new IllegalStateException(type + " value for relation from index " + fromFileIndex + " to " + toFileIndex + " does not exist in matrix file " + filename);
+		return value;
+	}
+	
+	private double getDistanceOfFileIndices(int fromFileIndex, int toFileIndex){
+		if(!distancesSet) return 0.0;
+		return getValue(0, fromFileIndex, toFileIndex, "distance");
+	}
+	
+	private double getTimeOfFileIndices(int fromFileIndex, int toFileIndex){
+		if(!timesSet) return 0.0;
+		return getValue(noEntries, fromFileIndex, toFileIndex, "time");
+	}
+	
+	private double getCostOfFileIndices(int fromFileIndex, int toFileIndex, Vehicle vehicle){
+		if(vehicle == null) return getDistanceOfFileIndices(fromFileIndex, toFileIndex);
+		VehicleCostParams costParams = vehicle.getType().getVehicleCostParams();
+		return costParams.perDistanceUnit*getDistanceOfFileIndices(fromFileIndex, toFileIndex) + costParams.perTimeUnit*getTimeOfFileIndices(fromFileIndex, toFileIndex);
+	}
+	
+	/**
+	 * Returns the distance fromIndex to toIndex.
+	 * 
+	 * @param fromIndex from location index
+	 * @param toIndex to location index
+	 * @return the distance
+	 * @throws IllegalStateException if distance of fromIndex -> toIndex is not found
+	 */
+	public double getDistance(int fromIndex, int toIndex){
+		return getDistanceOfFileIndices(getFileIndex(fromIndex), getFileIndex(toIndex));
+	}
+	
+	/**
+	 * Returns the distance fromId to toId.
+	 * 
+	 * @param fromId from locationId
+	 * @param toId to locationId
+	 * @return the distance
+	 * @throws IllegalStateException if distance of fromId -> toId is not found
+	 */
+	public double getDistance(String fromId, String toId){
+		return getDistanceOfFileIndices(getFileIndex(fromId), getFileIndex(toId));
+	}
+	
+	@Override
+	public double getTransportTime(int fromIndex, int toIndex, double departureTime, Driver driver, Vehicle vehicle) {
+		return getTimeOfFileIndices(getFileIndex(fromIndex), getFileIndex(toIndex));
+	}
+	
+	@Override
+	public double getTransportCost(int fromIndex, int toIndex, double departureTime, Driver driver, Vehicle vehicle) {
+		return getCostOfFileIndices(getFileIndex(fromIndex), getFileIndex(toIndex), vehicle);
+	}
+	
+	@Override
+	public double getBackwardTransportTime(int fromIndex, int toIndex, double arrivalTime, Driver driver, Vehicle vehicle) {
+		return getTransportTime(fromIndex, toIndex, arrivalTime, driver, vehicle);
+	}
+	
+	@Override
+	public double getBackwardTransportCost(int fromIndex, int toIndex, double arrivalTime, Driver driver, Vehicle vehicle) {
+		return getTransportCost(fromIndex, toIndex, arrivalTime, driver, vehicle);
+	}
+	
+	@Override
+	public double getTransportTime(String fromId, String toId, double departureTime, Driver driver, Vehicle vehicle) {
+		return getTimeOfFileIndices(getFileIndex(fromId), getFileIndex(toId));
+	}
+	
+	@Override
+	public double getTransportCost(String fromId, String toId, double departureTime, Driver driver, Vehicle vehicle) {
+		return getCostOfFileIndices(getFileIndex(fromId), getFileIndex(toId), vehicle);
+	}
+	
+	@Override
+	public String toString() {
+		return "[name=mappedVehicleRoutingTransportCostsMatrix][file=" + filename + "][noLocations=" + noLocations + "][isSymmetric=" + isSymmetric + "]";
+	}
+
+}
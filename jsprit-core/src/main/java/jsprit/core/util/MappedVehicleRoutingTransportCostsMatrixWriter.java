@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+
+/**
+ * Writes time and distance-matrices to a binary matrix file that can be read by {@link MappedVehicleRoutingTransportCostsMatrix}.
+ * 
+ * <p>Values are written directly into the memory-mapped file, i.e. the matrix is never held on the heap. Relations that 
+ * are not written are marked as missing, except for relations from a location to itself which are 0.0.
+ * 
+ * <p>Note that the file is only complete once {@link #close()} has been called.
+ * 
+ * @author schroeder
+ *
+ */
+public class MappedVehicleRoutingTransportCostsMatrixWriter {
+	
+	/**
+	 * Writes the relations that have been added to the specified matrix-builder to the specified file.
+	 * 
+	 * @param matrixBuilder the matrix-builder
+	 * @param filename the matrix file
+	 * @throws IllegalStateException if the file cannot be written
+	 */
+	public static void write(VehicleRoutingTransportCostsMatrix.Builder matrixBuilder, String filename){
+		TreeSet<String> locationIds = new TreeSet<String>();
+		addLocationIds(locationIds, matrixBuilder.distances);
+		addLocationIds(locationIds, matrixBuilder.times);
+		MappedVehicleRoutingTransportCostsMatrixWriter writer = new MappedVehicleRoutingTransportCostsMatrixWriter(filename, new ArrayList<String>(locationIds), matrixBuilder.isSymmetric);
+		for(Map.Entry<VehicleRoutingTransportCostsMatrix.RelationKey,Double> e : matrixBuilder.distances.entrySet()){
+			writer.addTransportDistance(e.getKey().from, e.getKey().to, e.getValue());
+		}
+		for(Map.Entry<VehicleRoutingTransportCostsMatrix.RelationKey,Double> e : matrixBuilder.times.entrySet()){
+			writer.addTransportTime(e.getKey().from, e.getKey().to, e.getValue());
+		}
+		writer.close();
+	}
+	
+	private static void addLocationIds(TreeSet<String> locationIds, Map<VehicleRoutingTransportCostsMatrix.RelationKey,Double> relations){
+		for(VehicleRoutingTransportCostsMatrix.RelationKey key : relations.keySet()){
+			locationIds.add(key.from);
+			locationIds.add(key.to);
+		}
+	}
+	
+	private final String filename;
+	
+	private final boolean isSymmetric;
+	
+	private final int noLocations;
+	
+	private final long noEntries;
+	
+	private final Map<String,Integer> fileIndices = new HashMap<String, Integer>();
+	
+	private RandomAccessFile file;
+	
+	private MappedByteBuffer[] buffers;
+	
+	private DoubleBuffer[] segments;
+	
+	private boolean distancesSet = false;
+	
+	private boolean timesSet = false;
+	
+	/**
+	 * Creates the matrix file for the specified locations. The index of a location in the file is its position in locationIds.
+	 * 
+	 * @param filename the matrix file
+	 * @param locationIds the location-ids
+	 * @param isSymmetric true if matrix is symmetric, false otherwise
+	 * @throws IllegalStateException if the file cannot be written
+	 */
+	public MappedVehicleRoutingTransportCostsMatrixWriter(String filename, List<String> locationIds, boolean isSymmetric) {
+		super();
+		this.filename = filename;
+		this.isSymmetric = isSymmetric;
+		this.noLocations = locationIds.size();
+		this.noEntries = MappedVehicleRoutingTransportCostsMatrix.getNoEntries(noLocations, isSymmetric);
+		try {
+			file = new RandomAccessFile(new File(filename), "rw");
+			file.setLength(0);
+			file.writeInt(MappedVehicleRoutingTransportCostsMatrix.MAGIC_NUMBER);
+			file.writeInt(MappedVehicleRoutingTransportCostsMatrix.VERSION);
+			file.writeInt(0);
+			file.writeInt(noLocations);
+			file.writeLong(0);
+			for(String locationId : locationIds){
+				if(fileIndices.containsKey(locationId)) throw new IllegalArgumentException("location " + locationId + " is not unique");
+				fileIndices.put(locationId, fileIndices.size());
+				file.writeUTF(locationId);
+			}
+			long dataOffset = (file.getFilePointer() + 7) / 8 * 8;
+			file.seek(16);
+			file.writeLong(dataOffset);
+			file.setLength(dataOffset + 2 * noEntries * 8);
+			buffers = MappedVehicleRoutingTransportCostsMatrix.map(file.getChannel(), MapMode.READ_WRITE, dataOffset, 2 * noEntries);
+			segments = MappedVehicleRoutingTransportCostsMatrix.asDoubleBuffers(buffers);
+		} catch (IOException e) {
+			throw new IllegalStateException("cannot write matrix file " + filename, e);
+		}
+		markAllRelationsAsMissing();
+	}
+
+	private void markAllRelationsAsMissing() {
+		for(DoubleBuffer segment : segments){
+			for(int i=0;i<segment.capacity();i++) segment.put(i, Double.NaN);
+		}
+		for(int i=0;i<noLocations;i++){
+			put(0, i, i, 0.0);
+			put(noEntries, i, i, 0.0);
+		}
+	}
+	
+	private void put(long offset, int fromIndex, int toIndex, double value){
+		long entry = offset + MappedVehicleRoutingTransportCostsMatrix.getEntry(noLocations, isSymmetric, fromIndex, toIndex);
+		segments[(int)(entry >>> MappedVehicleRoutingTransportCostsMatrix.SEGMENT_SHIFT)].put((int)(entry & MappedVehicleRoutingTransportCostsMatrix.SEGMENT_MASK), value);
+	}
+	
+	private void checkIndex(int index){
+		if(index < 0 || index >= noLocations) throw new IllegalArgumentException("location index " + index + " is out of range [0," + noLocations + ")");
+	}
+	
+	private int getFileIndex(String locationId){
+		Integer index = fileIndices.get(locationId);
+		if(index == null) throw new IllegalArgumentException("location " + locationId + " is not known to the writer");
+		return index;
+	}
+	
+	private void checkOpen(){
+		if(file == null) throw new IllegalStateException("matrix file " + filename + " has already been closed");
+	}
+	
+	/**
+	 * Writes a transport-distance for a particular relation.
+	 * 
+	 * @param fromIndex from location index, i.e. the position of the location in locationIds
+	 * @param toIndex to location index
+	 * @param distance the distance
+	 * @return this writer
+	 */
+	public MappedVehicleRoutingTransportCostsMatrixWriter addTransportDistance(int fromIndex, int toIndex, double distance){
+		checkOpen();
+		checkIndex(fromIndex);
+		checkIndex(toIndex);
+		distancesSet = true;
+		put(0, fromIndex, toIndex, distance);
+		return this;
+	}
+	
+	/**
+	 * Writes a transport-time for a particular relation.
+	 * 
+	 * @param fromIndex from location index, i.e. the position of the location in locationIds
+	 * @param toIndex to location index
+	 * @param time the time
+	 * @return this writer
+	 */
+	public MappedVehicleRoutingTransportCostsMatrixWriter addTransportTime(int fromIndex, int toIndex, double time){
+		checkOpen();
+		checkIndex(fromIndex);
+		checkIndex(toIndex);
+		timesSet = true;
+		put(noEntries, fromIndex, toIndex, time);
+		return this;
+	}
+	
+	/**
+	 * Writes a transport-distance for a particular relation.
+	 * 
+	 * @param from from locationId
+	 * @param to to locationId
+	 * @param distance the distance
+	 * @return this writer
+	 */
+	public MappedVehicleRoutingTransportCostsMatrixWriter addTransportDistance(String from, String to, double distance){
+		return addTransportDistance(getFileIndex(from), getFileIndex(to), distance);
+	}
+	
+	/**
+	 * Writes a transport-time for a particular relation.
+	 * 
+	 * @param from from locationId
+	 * @param to to locationId
+	 * @param time the time
+	 * @return this writer
+	 */
+	public MappedVehicleRoutingTransportCostsMatrixWriter addTransportTime(String from, String to, double time){
+		return addTransportTime(getFileIndex(from), getFileIndex(to), time);
+	}
+	
+	/**
+	 * Flushes all values to the file and closes it.
+	 * 
+	 * @throws IllegalStateException if the file cannot be written
+	 */
+	public void close(){
+		if(file == null) return;
+		try {
+			int flags = 0;
+			if(isSymmetric) flags |= MappedVehicleRoutingTransportCostsMatrix.SYMMETRIC_FLAG;
+			if(distancesSet) flags |= MappedVehicleRoutingTransportCostsMatrix.DISTANCES_SET_FLAG;
+			if(timesSet) flags |= MappedVehicleRoutingTransportCostsMatrix.TIMES_SET_FLAG;
+			for(MappedByteBuffer buffer : buffers) buffer.force();
+			file.seek(8);
+			file.writeInt(flags);
+			file.close();
+		} catch (IOException e) {
+			throw new IllegalStateException("cannot write matrix file " + filename, e);
+		}
+		finally{
+			file = null;
+		}
+		buffers = null;
+		segments = null;
+	}
+
+}
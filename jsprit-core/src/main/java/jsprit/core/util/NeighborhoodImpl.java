@@ -53,21 +53,22 @@ public class NeighborhoodImpl implements Neighborhood{
 	}
 
 	private void makeNeighbors() {
+		SpatialIndex.Builder<String> depotIndexBuilder = SpatialIndex.Builder.newInstance();
+		for(Vehicle v : vehicles){
+			depotIndexBuilder.add(v.getStartLocationId(), v.getStartLocationCoordinate());
+		}
+		SpatialIndex<String> depotIndex = depotIndexBuilder.build();
+		SpatialIndex.Builder<String> serviceIndexBuilder = SpatialIndex.Builder.newInstance();
 		for(Service i : services){
-			Set<String> neigh = new HashSet<String>();
-			for(Vehicle v : vehicles){
-				double dist2depot = EuclideanDistanceCalculator.calculateDistance(v.getStartLocationCoordinate(), i.getCoord());
-				if(dist2depot <= threshold){
-					neighborsToAll.add(((Service)i).getLocationId());
-				}
-			}
-			for(Service j : services){
-				double crowFlyDistance = EuclideanDistanceCalculator.calculateDistance(i.getCoord(), j.getCoord());
-				if(crowFlyDistance <= threshold) {
-					neigh.add(((Service)j).getLocationId());
-				}
+			serviceIndexBuilder.add(i.getLocationId(), i.getCoord());
+		}
+		SpatialIndex<String> serviceIndex = serviceIndexBuilder.build();
+		for(Service i : services){
+			if(!depotIndex.getWithinRadius(i.getCoord(), threshold).isEmpty()){
+				neighborsToAll.add(i.getLocationId());
 			}
-			neighbors.put(((Service)i).getLocationId(), neigh);
+			Set<String> neigh = new HashSet<String>(serviceIndex.getWithinRadius(i.getCoord(), threshold));
+			neighbors.put(i.getLocationId(), neigh);
 		}
 		
 	}
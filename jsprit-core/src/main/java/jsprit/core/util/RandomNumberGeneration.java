@@ -18,22 +18,85 @@ package jsprit.core.util;
 
 import java.util.Random;
 
+/**
+ * Provides the random number generators of the algorithm components.
+ * 
+ * <p>By default, all components share one global generator. A thread can however be bound to its own generator, typically
+ * a stream derived from a master seed by {@link #newStream(long, int)}. Components created in a bound thread capture
+ * this generator instead of the global one. Thus, concurrently running algorithms neither contend on the global
+ * generator nor depend on each other's draws, and a given master seed and number of threads yields the same streams.
+ *
+ */
 public class RandomNumberGeneration {
 
 	private static long DEFAULT_SEED = 4711L;
+	
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
 
 	private static Random random = new Random(DEFAULT_SEED);
+	
+	private static ThreadLocal<Random> threadRandom = new ThreadLocal<Random>();
 
+	/**
+	 * Returns the generator bound to the current thread or, if there is none, the global generator.
+	 * 
+	 * @return random number generator
+	 */
 	public static Random getRandom() {
+		Random bound = threadRandom.get();
+		if(bound != null) return bound;
 		return random;
 	}
 
+	/**
+	 * Sets the seed of the global generator.
+	 * 
+	 * @param seed the seed
+	 */
 	public static void setSeed(long seed) {
 		random.setSeed(seed);
 	}
 
+	/**
+	 * Resets the global generator to its default seed.
+	 */
 	public static void reset() {
 		random.setSeed(DEFAULT_SEED);
 	}
+	
+	/**
+	 * Returns a new generator of the stream with the specified index.
+	 * 
+	 * <p>The seed of the stream is derived from master seed and stream index by the splitmix64 finalizer, such that
+	 * streams with neighbouring indices are not correlated.
+	 * 
+	 * @param masterSeed the master seed
+	 * @param streamIndex the index of the stream
+	 * @return random number generator
+	 */
+	public static Random newStream(long masterSeed, int streamIndex){
+		return new Random(mix64(masterSeed + (streamIndex + 1) * GOLDEN_GAMMA));
+	}
+	
+	/**
+	 * Binds the current thread to the specified generator, or unbinds it if random is null.
+	 * 
+	 * <p>Restore the previous binding with the returned generator once the thread is done.
+	 * 
+	 * @param random the generator to bind the current thread to, or null
+	 * @return the generator the current thread was bound to before, or null
+	 */
+	public static Random bindToCurrentThread(Random random){
+		Random previous = threadRandom.get();
+		if(random == null) threadRandom.remove();
+		else threadRandom.set(random);
+		return previous;
+	}
+	
+	private static long mix64(long z){
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
 
 }
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import java.util.*;
+
+/**
+ * Static k-d tree over coordinates that finds the nearest items to a coordinate, and the items within a radius around it, 
+ * in terms of the euclidean distance (see {@link EuclideanDistanceCalculator}).
+ * 
+ * <p>Building it takes O(n log n), a nearest-neighbor query takes O(log n) on average. Items at the same distance are ordered
+ * by the order they have been added to the builder. Once built, the index is read-only and can be queried concurrently.
+ * 
+ * @author schroeder
+ *
+ * @param <T> type of items
+ */
+public class SpatialIndex<T> {
+	
+	/**
+	 * Builder that builds the spatial index.
+	 * 
+	 * @author schroeder
+	 *
+	 * @param <T> type of items
+	 */
+	public static class Builder<T> {
+		
+		/**
+		 * Returns a new instance of this builder.
+		 * 
+		 * @return builder
+		 */
+		public static <T> Builder<T> newInstance(){ return new Builder<T>(); }
+		
+		private List<T> items = new ArrayList<T>();
+		
+		private List<Coordinate> coordinates = new ArrayList<Coordinate>();
+		
+		private Builder(){}
+		
+		/**
+		 * Adds item located at coordinate.
+		 * 
+		 * @param item the item
+		 * @param coordinate the coordinate of item
+		 * @return this builder
+		 * @throws IllegalArgumentException if coordinate is null
+		 */
+		public Builder<T> add(T item, Coordinate coordinate){
+			if(coordinate == null) throw new IllegalArgumentException("coordinate of " + item + " is missing");
+			items.add(item);
+			coordinates.add(coordinate);
+			return this;
+		}
+		
+		/**
+		 * Builds the spatial index.
+		 * 
+		 * @return spatial index
+		 */
+		public SpatialIndex<T> build(){
+			return new SpatialIndex<T>(this);
+		}
+		
+	}
+	
+	private final Object[] items;
+	
+	private final Coordinate[] coordinates;
+	
+	/*
+	 * tree[k] is the position (in items and coordinates) of the k-th node. the node of the range [lo,hi) is at mid=(lo+hi)/2, 
+	 * its left subtree is [lo,mid) and its right subtree is [mid+1,hi). nodes at even depth split by x, at odd depth by y.
+	 */
+	private final int[] tree;
+	
+	private SpatialIndex(Builder<T> builder){
+		items = builder.items.toArray();
+		coordinates = builder.coordinates.toArray(new Coordinate[builder.coordinates.size()]);
+		tree = new int[items.length];
+		for(int i=0;i<tree.length;i++) tree[i] = i;
+		build(0, tree.length, 0);
+	}
+
+	private void build(int lo, int hi, int depth) {
+		if(hi - lo <= 1) return;
+		int mid = (lo + hi) >>> 1;
+		select(lo, hi - 1, mid, depth % 2 == 0);
+		build(lo, mid, depth + 1);
+		build(mid + 1, hi, depth + 1);
+	}
+	
+	/**
+	 * Partitions tree[lo..hi] such that tree[k] is the node with the k-th smallest coordinate (quickselect).
+	 */
+	private void select(int lo, int hi, int k, boolean byX) {
+		while(hi > lo){
+			int pivot = tree[(lo + hi) >>> 1];
+			int i = lo;
+			int j = hi;
+			while(i <= j){
+				while(compare(tree[i], pivot, byX) < 0) i++;
+				while(compare(tree[j], pivot, byX) > 0) j--;
+				if(i <= j){
+					int tmp = tree[i];
+					tree[i] = tree[j];
+					tree[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			if(k <= j) hi = j;
+			else if(k >= i) lo = i;
+			else return;
+		}
+	}
+	
+	private int compare(int position1, int position2, boolean byX){
+		double value1 = byX ? coordinates[position1].getX() : coordinates[position1].getY();
+		double value2 = byX ? coordinates[position2].getX() : coordinates[position2].getY();
+		if(value1 != value2) return value1 < value2 ? -1 : 1;
+		return position1 - position2;
+	}
+	
+	/**
+	 * Returns the number of items.
+	 * 
+	 * @return number of items
+	 */
+	public int size(){
+		return items.length;
+	}
+
+	/**
+	 * Returns the k items nearest to coordinate, sorted by ascending distance.
+	 * 
+	 * @param coordinate the coordinate
+	 * @param k the number of items
+	 * @return nearest items
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> getNearest(Coordinate coordinate, int k){
+		int capacity = Math.max(0, Math.min(k, items.length));
+		double[] heapDistances = new double[capacity];
+		int[] heapPositions = new int[capacity];
+		int heapSize = searchNearest(0, tree.length, 0, coordinate, heapDistances, heapPositions, 0);
+		Object[] nearest = new Object[heapSize];
+		while(heapSize > 0){
+			nearest[heapSize - 1] = items[heapPositions[0]];
+			heapSize--;
+			replaceFarthest(heapDistances, heapPositions, heapSize, heapDistances[heapSize], heapPositions[heapSize]);
+		}
+		return (List<T>) Arrays.asList(nearest);
+	}
+
+	private int searchNearest(int lo, int hi, int depth, Coordinate coordinate, double[] heapDistances, int[] heapPositions, int heapSize){
+		if(hi <= lo || heapDistances.length == 0) return heapSize;
+		int mid = (lo + hi) >>> 1;
+		int position = tree[mid];
+		double distance = EuclideanDistanceCalculator.calculateDistance(coordinate, coordinates[position]);
+		if(heapSize < heapDistances.length){
+			heapSize = add(heapDistances, heapPositions, heapSize, distance, position);
+		}
+		else if(isFarther(heapDistances[0], heapPositions[0], distance, position)){
+			replaceFarthest(heapDistances, heapPositions, heapSize, distance, position);
+		}
+		double diff = depth % 2 == 0 ? coordinate.getX() - coordinates[position].getX() : coordinate.getY() - coordinates[position].getY();
+		if(diff < 0){
+			heapSize = searchNearest(lo, mid, depth + 1, coordinate, heapDistances, heapPositions, heapSize);
+			if(heapSize < heapDistances.length || -diff <= heapDistances[0]){
+				heapSize = searchNearest(mid + 1, hi, depth + 1, coordinate, heapDistances, heapPositions, heapSize);
+			}
+		}
+		else{
+			heapSize = searchNearest(mid + 1, hi, depth + 1, coordinate, heapDistances, heapPositions, heapSize);
+			if(heapSize < heapDistances.length || diff <= heapDistances[0]){
+				heapSize = searchNearest(lo, mid, depth + 1, coordinate, heapDistances, heapPositions, heapSize);
+			}
+		}
+		return heapSize;
+	}
+	
+	/**
+	 * Returns all items whose distance to coordinate is at most radius, in no particular order.
+	 * 
+	 * @param coordinate the coordinate
+	 * @param radius the radius
+	 * @return items within radius
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> getWithinRadius(Coordinate coordinate, double radius){
+		List<T> result = new ArrayList<T>();
+		searchWithinRadius(0, tree.length, 0, coordinate, radius, (List<Object>) result);
+		return result;
+	}
+
+	private void searchWithinRadius(int lo, int hi, int depth, Coordinate coordinate, double radius, List<Object> result){
+		if(hi <= lo) return;
+		int mid = (lo + hi) >>> 1;
+		int position = tree[mid];
+		if(EuclideanDistanceCalculator.calculateDistance(coordinate, coordinates[position]) <= radius){
+			result.add(items[position]);
+		}
+		double diff = depth % 2 == 0 ? coordinate.getX() - coordinates[position].getX() : coordinate.getY() - coordinates[position].getY();
+		if(diff <= radius) searchWithinRadius(lo, mid, depth + 1, coordinate, radius, result);
+		if(-diff <= radius) searchWithinRadius(mid + 1, hi, depth + 1, coordinate, radius, result);
+	}
+	
+	/*
+	 * the heap is a max-heap, i.e. the farthest item found so far is at its root. ties are broken by position.
+	 */
+	private static boolean isFarther(double distance1, int position1, double distance2, int position2){
+		if(distance1 != distance2) return distance1 > distance2;
+		return position1 > position2;
+	}
+	
+	private static int add(double[] heapDistances, int[] heapPositions, int heapSize, double distance, int position){
+		int k = heapSize;
+		while(k > 0){
+			int parent = (k - 1) / 2;
+			if(!isFarther(distance, position, heapDistances[parent], heapPositions[parent])) break;
+			heapDistances[k] = heapDistances[parent];
+			heapPositions[k] = heapPositions[parent];
+			k = parent;
+		}
+		heapDistances[k] = distance;
+		heapPositions[k] = position;
+		return heapSize + 1;
+	}
+	
+	private static void replaceFarthest(double[] heapDistances, int[] heapPositions, int heapSize, double distance, int position){
+		if(heapSize == 0) return;
+		int k = 0;
+		while(true){
+			int child = 2 * k + 1;
+			if(child >= heapSize) break;
+			if(child + 1 < heapSize && isFarther(heapDistances[child + 1], heapPositions[child + 1], heapDistances[child], heapPositions[child])) child++;
+			if(!isFarther(heapDistances[child], heapPositions[child], distance, position)) break;
+			heapDistances[k] = heapDistances[child];
+			heapPositions[k] = heapPositions[child];
+			k = child;
+		}
+		heapDistances[k] = distance;
+		heapPositions[k] = position;
+	}
+	
+}
@@ -101,11 +101,11 @@ public class VehicleRoutingTransportCostsMatrix extends AbstractForwardVehicleRo
 	public static class Builder {
 		private static Logger log = LogManager.getLogger(Builder.class);
 		
-		private boolean isSymmetric;
+		boolean isSymmetric;
 		
-		private Map<RelationKey,Double> distances = new HashMap<RelationKey, Double>();
+		Map<RelationKey,Double> distances = new HashMap<RelationKey, Double>();
 		
-		private Map<RelationKey,Double> times = new HashMap<RelationKey, Double>();
+		Map<RelationKey,Double> times = new HashMap<RelationKey, Double>();
 		
 		private boolean distancesSet = false;
 		
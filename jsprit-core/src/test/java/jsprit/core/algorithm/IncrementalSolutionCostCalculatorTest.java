@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.io.VrpXMLReader;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.solution.RouteCostCalculator;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.util.Coordinate;
+import jsprit.core.util.Solutions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalSolutionCostCalculatorTest {
+
+	static class CountingRouteCostCalculator implements RouteCostCalculator {
+
+		int noCalls = 0;
+
+		@Override
+		public double getCosts(VehicleRoute route) {
+			noCalls++;
+			return 10. * route.getActivities().size();
+		}
+
+	}
+
+	private VehicleRoutingProblem vrp;
+
+	private Service s1;
+
+	private Service s2;
+
+	private Service s3;
+
+	private VehicleImpl vehicle;
+
+	private CountingRouteCostCalculator routeCostCalculator;
+
+	private IncrementalSolutionCostCalculator calculator;
+
+	@Before
+	public void doBefore(){
+		s1 = Service.Builder.newInstance("s1").setCoord(Coordinate.newInstance(10, 0)).build();
+		s2 = Service.Builder.newInstance("s2").setCoord(Coordinate.newInstance(20, 0)).build();
+		s3 = Service.Builder.newInstance("s3").setCoord(Coordinate.newInstance(30, 0)).build();
+		vehicle = VehicleImpl.Builder.newInstance("v").setStartLocationCoordinate(Coordinate.newInstance(0, 0)).build();
+		vrp = VehicleRoutingProblem.Builder.newInstance().addJob(s1).addJob(s2).addJob(s3).addVehicle(vehicle).build();
+		routeCostCalculator = new CountingRouteCostCalculator();
+		calculator = new IncrementalSolutionCostCalculator(routeCostCalculator);
+	}
+
+	private VehicleRoutingProblemSolution createSolution(){
+		List<VehicleRoute> routes = new ArrayList<VehicleRoute>();
+		routes.add(VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory()).addService(s1).build());
+		routes.add(VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory()).addService(s2).build());
+		routes.add(VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory()).addService(s3).build());
+		return new VehicleRoutingProblemSolution(routes, 0.);
+	}
+
+	private VehicleRoute routeServing(VehicleRoutingProblemSolution solution, Service service){
+		for(VehicleRoute route : solution.getRoutes()){
+			if(route.getTourActivities().servesJob(service)) return route;
+		}
+		return null;
+	}
+
+	@Test
+	public void whenEvaluatingSolutionFirst_itShouldEvaluateAllRoutes(){
+		assertEquals(30., calculator.getCosts(createSolution()), 0.01);
+		assertEquals(3, routeCostCalculator.noCalls);
+	}
+
+	@Test
+	public void whenEvaluatingSolutionAgain_itShouldNotEvaluateRoutesAgain(){
+		VehicleRoutingProblemSolution solution = createSolution();
+		calculator.getCosts(solution);
+
+		assertEquals(30., calculator.getCosts(solution), 0.01);
+		assertEquals(3, routeCostCalculator.noCalls);
+	}
+
+	@Test
+	public void whenEvaluatingUnchangedCopy_itShouldNotEvaluateRoutesAgain(){
+		VehicleRoutingProblemSolution solution = createSolution();
+		calculator.getCosts(solution);
+		VehicleRoutingProblemSolution copy = VehicleRoutingProblemSolution.copyOf(solution);
+
+		assertEquals(30., calculator.getCosts(copy), 0.01);
+		assertEquals(3, routeCostCalculator.noCalls);
+	}
+
+	@Test
+	public void whenJobIsMovedInCopy_itShouldOnlyEvaluateChangedRoutes(){
+		VehicleRoutingProblemSolution solution = createSolution();
+		calculator.getCosts(solution);
+		VehicleRoutingProblemSolution copy = VehicleRoutingProblemSolution.copyOf(solution);
+		VehicleRoute from = routeServing(copy, s1);
+		VehicleRoute to = routeServing(copy, s2);
+		from.getTourActivities().removeJob(s1);
+		calculator.removed(s1, from);
+		to.getTourActivities().addActivity(vrp.copyAndGetActivities(s1).get(0));
+		calculator.informJobInserted(s1, to, 0., 0.);
+
+		assertEquals(30., calculator.getCosts(copy), 0.01);
+		assertEquals(5, routeCostCalculator.noCalls);
+	}
+
+	@Test
+	public void whenVehicleIsSwitchedInCopy_itShouldEvaluateRoute(){
+		VehicleRoutingProblemSolution solution = createSolution();
+		calculator.getCosts(solution);
+		VehicleRoutingProblemSolution copy = VehicleRoutingProblemSolution.copyOf(solution);
+		calculator.vehicleSwitched(routeServing(copy, s3), vehicle, vehicle);
+
+		calculator.getCosts(copy);
+		assertEquals(4, routeCostCalculator.noCalls);
+	}
+
+	@Test
+	public void whenRouteIsModifiedWithoutInformingCalculator_itShouldEvaluateRouteAgain(){
+		VehicleRoutingProblemSolution solution = createSolution();
+		calculator.getCosts(solution);
+		routeServing(solution, s2).getTourActivities().addActivity(vrp.copyAndGetActivities(s1).get(0));
+
+		assertEquals(40., calculator.getCosts(solution), 0.01);
+		assertEquals(4, routeCostCalculator.noCalls);
+	}
+
+	@Test
+	public void whenEvaluatingRouteOfRejectedCopyFirst_unchangedRouteOfOriginalShouldKeepItsCosts(){
+		VehicleRoutingProblemSolution solution = createSolution();
+		calculator.getCosts(solution);
+		VehicleRoutingProblemSolution rejected = VehicleRoutingProblemSolution.copyOf(solution);
+		VehicleRoute route = routeServing(rejected, s2);
+		route.getTourActivities().addActivity(vrp.copyAndGetActivities(s1).get(0));
+		calculator.informJobInserted(s1, route, 0., 0.);
+		calculator.getCosts(rejected);
+		VehicleRoutingProblemSolution copy = VehicleRoutingProblemSolution.copyOf(solution);
+
+		assertEquals(30., calculator.getCosts(copy), 0.01);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void whenCostsDifferFromVerificationCosts_itShouldThrowException(){
+		calculator.setVerification(new jsprit.core.problem.solution.SolutionCostCalculator() {
+
+			@Override
+			public double getCosts(VehicleRoutingProblemSolution solution) {
+				return 0.;
+			}
+
+		}, 0.01);
+		calculator.getCosts(createSolution());
+	}
+
+	@Test
+	public void whenRunningAlgorithmWithVerification_incrementalCostsShouldEqualFullCosts(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(builder).read("src/test/resources/vrpnc1-jsprit.xml");
+		VehicleRoutingProblem vrp = builder.build();
+		StateManager stateManager = new StateManager(vrp);
+		VariablePlusFixedSolutionCostCalculatorFactory factory = new VariablePlusFixedSolutionCostCalculatorFactory(stateManager);
+		IncrementalSolutionCostCalculator incrementalCalculator = factory.createIncrementalCalculator();
+		incrementalCalculator.setVerification(factory.createCalculator(), 0.01);
+		VehicleRoutingAlgorithmBuilder vraBuilder = new VehicleRoutingAlgorithmBuilder(vrp, "src/test/resources/algorithmConfig.xml");
+		vraBuilder.setStateManager(stateManager);
+		vraBuilder.addCoreConstraints();
+		vraBuilder.addDefaultCostCalculators();
+		vraBuilder.setObjectiveFunction(incrementalCalculator);
+		VehicleRoutingAlgorithm vra = vraBuilder.build();
+		vra.setMaxIterations(100);
+		Collection<VehicleRoutingProblemSolution> solutions = vra.searchSolutions();
+
+		VehicleRoutingProblemSolution best = Solutions.bestOf(solutions);
+		assertTrue(best.getUnassignedJobs().isEmpty());
+	}
+
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import jsprit.core.algorithm.io.VehicleRoutingAlgorithms;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.io.VrpXMLReader;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.util.Solutions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IslandModelAlgorithmTest {
+
+	VehicleRoutingProblem vrp;
+
+	@Before
+	public void doBefore(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(builder).read("src/test/resources/vrpnc1-jsprit.xml");
+		vrp = builder.build();
+	}
+
+	@Test
+	public void whenRunningIslands_itShouldReturnSolutionsOfAllIslandsAndTheirBest(){
+		IslandModelAlgorithm algorithm = IslandModelAlgorithm.Builder.newInstance(vrp, new VehicleRoutingAlgorithmFactory() {
+
+			@Override
+			public VehicleRoutingAlgorithm createAlgorithm(VehicleRoutingProblem vrp) {
+				VehicleRoutingAlgorithm vra = VehicleRoutingAlgorithms.readAndCreateAlgorithm(vrp, "src/test/resources/algorithmConfig.xml");
+				vra.setMaxIterations(50);
+				return vra;
+			}
+
+		}).setNuOfIslands(3).setMigrationInterval(10).build();
+		Collection<VehicleRoutingProblemSolution> solutions = algorithm.searchSolutions();
+
+		assertTrue(solutions.size() >= 3);
+		assertSame(Solutions.bestOf(solutions), algorithm.getBestEver());
+		assertTrue(algorithm.getBestEver().getUnassignedJobs().isEmpty());
+	}
+
+	@Test
+	public void whenRunningIslandsWithSameSeed_itShouldReturnSameSolutionCosts(){
+		assertEquals(islandCosts(42L), islandCosts(42L));
+	}
+
+	private List<Double> islandCosts(long seed) {
+		IslandModelAlgorithm algorithm = IslandModelAlgorithm.Builder.newInstance(vrp, new VehicleRoutingAlgorithmFactory() {
+
+			@Override
+			public VehicleRoutingAlgorithm createAlgorithm(VehicleRoutingProblem vrp) {
+				VehicleRoutingAlgorithm vra = VehicleRoutingAlgorithms.readAndCreateAlgorithm(vrp, "src/test/resources/algorithmConfig.xml");
+				vra.setMaxIterations(20);
+				return vra;
+			}
+
+		}).setNuOfIslands(2).setMigrationInterval(100).setSeed(seed).build();
+		List<Double> costs = new ArrayList<Double>();
+		for(VehicleRoutingProblemSolution solution : algorithm.searchSolutions()) costs.add(solution.getCost());
+		Collections.sort(costs);
+		return costs;
+	}
+
+	@Test
+	public void whenIslandFails_itShouldRethrowException(){
+		IslandModelAlgorithm algorithm = IslandModelAlgorithm.Builder.newInstance(vrp, new VehicleRoutingAlgorithmFactory() {
+
+			@Override
+			public VehicleRoutingAlgorithm createAlgorithm(VehicleRoutingProblem vrp) {
+				SearchStrategyManager stratManager = mock(SearchStrategyManager.class);
+				SearchStrategy strategy = mock(SearchStrategy.class);
+				when(strategy.run(any(VehicleRoutingProblem.class), anyCollectionOf(VehicleRoutingProblemSolution.class))).thenThrow(new UnsupportedOperationException("bad constraint"));
+				when(stratManager.getRandomStrategy()).thenReturn(strategy);
+				when(stratManager.getProbabilities()).thenReturn(Arrays.asList(1.0));
+				return new VehicleRoutingAlgorithm(vrp, stratManager);
+			}
+
+		}).setNuOfIslands(2).build();
+		try{
+			algorithm.searchSolutions();
+			fail("exception expected");
+		}
+		catch(UnsupportedOperationException e){
+			assertEquals("bad constraint", e.getMessage());
+		}
+	}
+
+	private VehicleRoutingProblemSolution solution(double costs){
+		return new VehicleRoutingProblemSolution(Collections.<VehicleRoute>emptyList(), costs);
+	}
+
+	@Test
+	public void whenPoolHasBetterSolution_migrationShouldReplaceWorstSolution(){
+		IslandModelAlgorithm.MigrationPool pool = new IslandModelAlgorithm.MigrationPool();
+		pool.offer(solution(10.));
+		IslandModelAlgorithm.Migration migration = new IslandModelAlgorithm.Migration(pool, 1);
+		VehicleRoutingProblemSolution worst = solution(30.);
+		Collection<VehicleRoutingProblemSolution> solutions = new ArrayList<VehicleRoutingProblemSolution>(Arrays.asList(solution(20.), worst));
+
+		migration.migrate(solutions);
+
+		assertEquals(2, solutions.size());
+		assertFalse(solutions.contains(worst));
+		assertEquals(10., Solutions.bestOf(solutions).getCost(), 0.01);
+		assertEquals(1, migration.getNoImmigrants());
+	}
+
+	@Test
+	public void whenIslandHasBestSolution_migrationShouldOfferItToPool(){
+		IslandModelAlgorithm.MigrationPool pool = new IslandModelAlgorithm.MigrationPool();
+		pool.offer(solution(10.));
+		IslandModelAlgorithm.Migration migration = new IslandModelAlgorithm.Migration(pool, 1);
+		Collection<VehicleRoutingProblemSolution> solutions = new ArrayList<VehicleRoutingProblemSolution>(Arrays.asList(solution(5.), solution(30.)));
+
+		migration.migrate(solutions);
+
+		assertEquals(5., pool.getBest().getCost(), 0.01);
+		assertEquals(0, migration.getNoImmigrants());
+	}
+
+}
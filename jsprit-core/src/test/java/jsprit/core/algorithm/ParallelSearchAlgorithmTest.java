@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import jsprit.core.algorithm.io.VehicleRoutingAlgorithms;
+import jsprit.core.algorithm.listener.IterationStartsListener;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.io.VrpXMLReader;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.util.Solutions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParallelSearchAlgorithmTest {
+
+	VehicleRoutingProblem vrp;
+
+	@Before
+	public void doBefore(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(builder).read("src/test/resources/vrpnc1-jsprit.xml");
+		vrp = builder.build();
+	}
+
+	@Test
+	public void whenRunningWorkers_theyShouldShareIterationsAndReturnTheirBest(){
+		final AtomicInteger noIterations = new AtomicInteger(0);
+		final Set<Integer> iterations = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+		ParallelSearchAlgorithm algorithm = ParallelSearchAlgorithm.Builder.newInstance(vrp, new VehicleRoutingAlgorithmFactory() {
+
+			@Override
+			public VehicleRoutingAlgorithm createAlgorithm(VehicleRoutingProblem vrp) {
+				VehicleRoutingAlgorithm vra = VehicleRoutingAlgorithms.readAndCreateAlgorithm(vrp, "src/test/resources/algorithmConfig.xml");
+				vra.addListener(new IterationStartsListener() {
+
+					@Override
+					public void informIterationStarts(int i, VehicleRoutingProblem problem, Collection<VehicleRoutingProblemSolution> solutions) {
+						noIterations.incrementAndGet();
+						iterations.add(i);
+					}
+
+				});
+				return vra;
+			}
+
+		}).setNuOfWorkers(3).setMaxIterations(60).build();
+		Collection<VehicleRoutingProblemSolution> solutions = algorithm.searchSolutions();
+
+		assertEquals(60, noIterations.get());
+		assertEquals(60, iterations.size());
+		assertSame(Solutions.bestOf(solutions), algorithm.getBestEver());
+		assertTrue(algorithm.getBestEver().getUnassignedJobs().isEmpty());
+	}
+
+	@Test
+	public void whenWorkerFails_itShouldRethrowException(){
+		ParallelSearchAlgorithm algorithm = ParallelSearchAlgorithm.Builder.newInstance(vrp, new VehicleRoutingAlgorithmFactory() {
+
+			@Override
+			public VehicleRoutingAlgorithm createAlgorithm(VehicleRoutingProblem vrp) {
+				SearchStrategyManager stratManager = mock(SearchStrategyManager.class);
+				SearchStrategy strategy = mock(SearchStrategy.class);
+				when(strategy.runOnPool(any(VehicleRoutingProblem.class), any(SolutionPool.class))).thenThrow(new UnsupportedOperationException("bad constraint"));
+				when(stratManager.getRandomStrategy()).thenReturn(strategy);
+				when(stratManager.getProbabilities()).thenReturn(Arrays.asList(1.0));
+				return new VehicleRoutingAlgorithm(vrp, stratManager);
+			}
+
+		}).setNuOfWorkers(2).build();
+		try{
+			algorithm.searchSolutions();
+			fail("exception expected");
+		}
+		catch(UnsupportedOperationException e){
+			assertEquals("bad constraint", e.getMessage());
+		}
+	}
+
+}
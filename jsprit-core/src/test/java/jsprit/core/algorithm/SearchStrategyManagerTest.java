@@ -17,6 +17,7 @@
 package jsprit.core.algorithm;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -27,6 +28,7 @@ import java.util.Random;
 
 import jsprit.core.algorithm.SearchStrategy;
 import jsprit.core.algorithm.SearchStrategyManager;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
 
 import org.junit.Test;
 
@@ -138,4 +140,74 @@ public class SearchStrategyManagerTest {
 		managerUnderTest.getRandomStrategy();
 		
 	}
+
+	private SearchStrategy.DiscoveredSolution discovered(boolean accepted){
+		return new SearchStrategy.DiscoveredSolution(mock(VehicleRoutingProblemSolution.class), accepted, "s");
+	}
+
+	@Test
+	public void whenWeightsAreNotAdaptive_probabilitiesShouldNotChange(){
+		SearchStrategyManager managerUnderTest = new SearchStrategyManager();
+		SearchStrategy mockedStrategy1 = mock(SearchStrategy.class);
+		SearchStrategy mockedStrategy2 = mock(SearchStrategy.class);
+		managerUnderTest.addStrategy(mockedStrategy1, 0.5);
+		managerUnderTest.addStrategy(mockedStrategy2, 0.5);
+		for(int i=0;i<10;i++) managerUnderTest.informStrategyRun(mockedStrategy1, discovered(true), false, 1000000);
+
+		assertEquals(0.5, managerUnderTest.getProbabilities().get(0), 0.001);
+	}
+
+	@Test
+	public void whenWeightsAreAdaptive_rewardedStrategyShouldGainProbability(){
+		SearchStrategyManager managerUnderTest = new SearchStrategyManager();
+		SearchStrategy mockedStrategy1 = mock(SearchStrategy.class);
+		SearchStrategy mockedStrategy2 = mock(SearchStrategy.class);
+		managerUnderTest.addStrategy(mockedStrategy1, 0.5);
+		managerUnderTest.addStrategy(mockedStrategy2, 0.5);
+		managerUnderTest.activateAdaptiveWeights(0.5, 10);
+		for(int i=0;i<5;i++){
+			managerUnderTest.informStrategyRun(mockedStrategy1, discovered(true), false, 1000000);
+			managerUnderTest.informStrategyRun(mockedStrategy2, discovered(false), false, 1000000);
+		}
+
+		assertEquals(0.75, managerUnderTest.getProbabilities().get(0), 0.001);
+		assertEquals(0.25, managerUnderTest.getProbabilities().get(1), 0.001);
+	}
+
+	@Test
+	public void whenWeightsAreAdaptive_expensiveStrategyShouldLoseProbability(){
+		SearchStrategyManager managerUnderTest = new SearchStrategyManager();
+		SearchStrategy mockedStrategy1 = mock(SearchStrategy.class);
+		SearchStrategy mockedStrategy2 = mock(SearchStrategy.class);
+		managerUnderTest.addStrategy(mockedStrategy1, 0.5);
+		managerUnderTest.addStrategy(mockedStrategy2, 0.5);
+		managerUnderTest.activateAdaptiveWeights(0.5, 10);
+		for(int i=0;i<5;i++){
+			managerUnderTest.informStrategyRun(mockedStrategy1, discovered(true), false, 1000000);
+			managerUnderTest.informStrategyRun(mockedStrategy2, discovered(true), false, 4000000);
+		}
+
+		//rewards per ms are 1.0 and 0.25, thus shares are 0.8 and 0.2
+		assertEquals(0.65, managerUnderTest.getProbabilities().get(0), 0.001);
+		assertEquals(0.35, managerUnderTest.getProbabilities().get(1), 0.001);
+	}
+
+	@Test
+	public void whenWeightsAreAdaptive_probabilityShouldNotFallBelowMinProbability(){
+		SearchStrategyManager managerUnderTest = new SearchStrategyManager();
+		SearchStrategy mockedStrategy1 = mock(SearchStrategy.class);
+		SearchStrategy mockedStrategy2 = mock(SearchStrategy.class);
+		managerUnderTest.addStrategy(mockedStrategy1, 0.5);
+		managerUnderTest.addStrategy(mockedStrategy2, 0.5);
+		managerUnderTest.activateAdaptiveWeights(1.0, 10);
+		managerUnderTest.setMinProbability(0.1);
+		for(int i=0;i<5;i++){
+			managerUnderTest.informStrategyRun(mockedStrategy1, discovered(true), true, 1000000);
+			managerUnderTest.informStrategyRun(mockedStrategy2, discovered(false), false, 1000000);
+		}
+
+		assertEquals(0.1 / 1.1, managerUnderTest.getProbabilities().get(1), 0.001);
+		assertEquals(1.0, managerUnderTest.getProbabilities().get(0) + managerUnderTest.getProbabilities().get(1), 0.001);
+	}
+
 }
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm;
+
+import jsprit.core.algorithm.acceptor.GreedyAcceptance;
+import jsprit.core.algorithm.acceptor.SolutionAcceptor;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class SolutionPoolTest {
+
+	private VehicleRoutingProblemSolution solution(double costs){
+		return new VehicleRoutingProblemSolution(Collections.<VehicleRoute>emptyList(), costs);
+	}
+
+	@Test
+	public void whenSeedingEmptyPool_itShouldAddSolutions(){
+		SolutionPool pool = new SolutionPool();
+		assertTrue(pool.seed(Arrays.asList(solution(10.))));
+		assertEquals(1, pool.size());
+	}
+
+	@Test
+	public void whenSeedingNonEmptyPool_itShouldIgnoreSolutions(){
+		SolutionPool pool = new SolutionPool();
+		pool.seed(Arrays.asList(solution(10.)));
+		assertFalse(pool.seed(Arrays.asList(solution(5.))));
+		assertEquals(10., pool.getBest().getCost(), 0.01);
+	}
+
+	@Test
+	public void whenAcceptorAcceptsSolution_itShouldReplaceWorst(){
+		SolutionPool pool = new SolutionPool();
+		pool.seed(Arrays.asList(solution(10.), solution(20.)));
+		assertTrue(pool.accept(new GreedyAcceptance(2), solution(15.)));
+		List<Double> costs = new ArrayList<Double>();
+		for(VehicleRoutingProblemSolution s : pool.getSolutions()) costs.add(s.getCost());
+		assertEquals(2, costs.size());
+		assertTrue(costs.contains(10.));
+		assertTrue(costs.contains(15.));
+	}
+
+	@Test
+	public void whenAcceptorRejectsSolution_itShouldNotModifyPool(){
+		SolutionPool pool = new SolutionPool();
+		pool.seed(Arrays.asList(solution(10.)));
+		assertFalse(pool.accept(new GreedyAcceptance(1), solution(15.)));
+		assertEquals(10., pool.getBest().getCost(), 0.01);
+	}
+
+	@Test
+	public void whenModifyingReturnedSolutions_itShouldNotModifyPool(){
+		SolutionPool pool = new SolutionPool();
+		pool.seed(Arrays.asList(solution(10.)));
+		pool.getSolutions().clear();
+		assertEquals(1, pool.size());
+	}
+
+	@Test
+	public void whenManyThreadsAcceptConcurrently_itShouldNeitherLoseNorDuplicateSolutions() throws InterruptedException {
+		final SolutionPool pool = new SolutionPool();
+		final SolutionAcceptor acceptAll = new SolutionAcceptor() {
+
+			@Override
+			public boolean acceptSolution(Collection<VehicleRoutingProblemSolution> solutions, VehicleRoutingProblemSolution newSolution) {
+				solutions.add(newSolution);
+				return true;
+			}
+
+		};
+		int nuOfThreads = 4;
+		final int nuOfSolutions = 500;
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<Thread>();
+		for(int t=0;t<nuOfThreads;t++){
+			Thread thread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for(int i=0;i<nuOfSolutions;i++) pool.accept(acceptAll, solution(i));
+				}
+
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for(Thread thread : threads) thread.join();
+		assertEquals(nuOfThreads * nuOfSolutions, pool.size());
+	}
+
+}
@@ -25,8 +25,15 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -182,4 +189,55 @@ public class VehicleRoutingAlgorithmTest {
         assertEquals(25,counter.getCountIterations());
     }
 
+    @Test
+    public void whenAlgorithmOwnsExecutionContext_itShouldShutDownExecutorAfterSearch(){
+        SearchStrategyManager stratManager = mock(SearchStrategyManager.class);
+        VehicleRoutingAlgorithm algorithm = new VehicleRoutingAlgorithm(mock(VehicleRoutingProblem.class), stratManager);
+        when(stratManager.getRandomStrategy()).thenReturn(mock(SearchStrategy.class));
+        when(stratManager.getProbabilities()).thenReturn(Arrays.asList(1.0));
+        algorithm.setMaxIterations(10);
+        ExecutionContext context = ExecutionContext.newInstance(2);
+        algorithm.setExecutionContext(context);
+        algorithm.searchSolutions();
+        assertTrue(context.getExecutorService().isShutdown());
+    }
+
+    @Test
+    public void whenExecutionContextIsShared_itShouldNotShutDownExecutorAfterSearch(){
+        SearchStrategyManager stratManager = mock(SearchStrategyManager.class);
+        VehicleRoutingAlgorithm algorithm = new VehicleRoutingAlgorithm(mock(VehicleRoutingProblem.class), stratManager);
+        when(stratManager.getRandomStrategy()).thenReturn(mock(SearchStrategy.class));
+        when(stratManager.getProbabilities()).thenReturn(Arrays.asList(1.0));
+        algorithm.setMaxIterations(10);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try{
+            algorithm.setExecutionContext(ExecutionContext.newInstance(executor, 2));
+            algorithm.searchSolutions();
+            assertFalse(executor.isShutdown());
+        }
+        finally{
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void whenSearchFails_itShouldRethrowAndShutDownOwnedExecutor(){
+        SearchStrategyManager stratManager = mock(SearchStrategyManager.class);
+        VehicleRoutingAlgorithm algorithm = new VehicleRoutingAlgorithm(mock(VehicleRoutingProblem.class), stratManager);
+        SearchStrategy strategy = mock(SearchStrategy.class);
+        when(strategy.run(any(VehicleRoutingProblem.class), anyCollectionOf(VehicleRoutingProblemSolution.class))).thenThrow(new UnsupportedOperationException("bad constraint"));
+        when(stratManager.getRandomStrategy()).thenReturn(strategy);
+        when(stratManager.getProbabilities()).thenReturn(Arrays.asList(1.0));
+        ExecutionContext context = ExecutionContext.newInstance(2);
+        algorithm.setExecutionContext(context);
+        try{
+            algorithm.searchSolutions();
+            fail("exception expected");
+        }
+        catch(UnsupportedOperationException e){
+            assertEquals("bad constraint", e.getMessage());
+        }
+        assertTrue(context.getExecutorService().isShutdown());
+    }
+
 }
@@ -146,7 +146,15 @@ public class SchrimpfAcceptanceTest {
 		boolean accepted = schrimpfAcceptance.acceptSolution(memory, createSolutionWithCost(2.0497));
 		assertFalse(accepted);
 	}
-	
-	
-	
+
+	@Test
+	public void whenEarlierIterationStartsAfterLaterOne_itShouldKeepTheLowerThreshold(){
+		schrimpfAcceptance.setInitialThreshold(0.5);
+		schrimpfAcceptance.informIterationStarts(1000, mock(VehicleRoutingProblem.class), Collections.<VehicleRoutingProblemSolution>emptyList());
+		schrimpfAcceptance.informIterationStarts(1, mock(VehicleRoutingProblem.class), Collections.<VehicleRoutingProblemSolution>emptyList());
+		//threshold(1000)=0.04960628287, whereas threshold(1) would be about 0.499
+		boolean accepted = schrimpfAcceptance.acceptSolution(memory, createSolutionWithCost(2.0497));
+		assertFalse(accepted);
+	}
+
 }
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.acceptor;
+
+import jsprit.core.algorithm.ExecutionContext;
+import jsprit.core.algorithm.acceptor.SchrimpfInitialThresholdGenerator.StandardDeviationEstimator;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.problem.vehicle.VehicleTypeImpl;
+import jsprit.core.util.Coordinate;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SchrimpfInitialThresholdGeneratorTest {
+	
+	private VehicleRoutingProblem vrp;
+	
+	@Before
+	public void doBefore(){
+		Random random = new Random(4711);
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		for(int i=0;i<20;i++){
+			vrpBuilder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+					.setCoord(Coordinate.newInstance(random.nextInt(100), random.nextInt(100))).build());
+		}
+		vrpBuilder.addVehicle(VehicleImpl.Builder.newInstance("v").setStartLocationCoordinate(Coordinate.newInstance(50, 50))
+				.setType(VehicleTypeImpl.Builder.newInstance("type").addCapacityDimension(0, 5).build()).build());
+		vrp = vrpBuilder.build();
+	}
+	
+	@Test
+	public void whenAddingSamples_estimatorShouldReturnSampleStandardDeviation(){
+		StandardDeviationEstimator estimator = new StandardDeviationEstimator(0., 2);
+		for(double value : new double[]{2., 4., 4., 4., 5., 5., 7., 9.}) estimator.add(value);
+		assertEquals(8, estimator.getNoSamples());
+		assertEquals(Math.sqrt(32./7.), estimator.getStandardDeviation(), 0.0001);
+		assertFalse(estimator.hasConverged());
+	}
+	
+	@Test
+	public void whenEstimateDoesNotChangeWithinWindow_estimatorShouldConverge(){
+		StandardDeviationEstimator estimator = new StandardDeviationEstimator(0.1, 4);
+		for(int i=0;i<4;i++){
+			estimator.add(1.);
+			estimator.add(3.);
+		}
+		assertTrue(estimator.hasConverged());
+	}
+	
+	@Test
+	public void whenWalkingSequentially_itShouldSetPositiveThreshold(){
+		SchrimpfAcceptance acceptance = new SchrimpfAcceptance(1, 0.1);
+		SchrimpfInitialThresholdGenerator generator = new SchrimpfInitialThresholdGenerator(acceptance, 20);
+		StandardDeviationEstimator estimator = new StandardDeviationEstimator(0., 2);
+		generator.randomWalks(vrp, null, estimator);
+		assertEquals(20, estimator.getNoSamples());
+		assertTrue(estimator.getStandardDeviation() > 0.);
+	}
+	
+	@Test
+	public void whenSplittingWalksOnExecutor_itShouldSampleAllIterations(){
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+		try{
+			SchrimpfInitialThresholdGenerator generator = new SchrimpfInitialThresholdGenerator(new SchrimpfAcceptance(1, 0.1), 21);
+			generator.setNuOfWalks(4);
+			StandardDeviationEstimator estimator = new StandardDeviationEstimator(0., 2);
+			generator.randomWalks(vrp, ExecutionContext.newInstance(executorService, 2), estimator);
+			assertEquals(21, estimator.getNoSamples());
+			assertTrue(estimator.getStandardDeviation() > 0.);
+		}
+		finally{
+			executorService.shutdownNow();
+		}
+	}
+	
+	@Test(timeout=60000)
+	public void whenAllThreadsOfSharedExecutorAreBusy_callingThreadShouldRunWalks() throws InterruptedException{
+		ExecutorService executorService = Executors.newFixedThreadPool(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		try{
+			executorService.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+
+			});
+			SchrimpfInitialThresholdGenerator generator = new SchrimpfInitialThresholdGenerator(new SchrimpfAcceptance(1, 0.1), 20);
+			generator.setNuOfWalks(4);
+			StandardDeviationEstimator estimator = new StandardDeviationEstimator(0., 2);
+			generator.randomWalks(vrp, ExecutionContext.newInstance(executorService, 1), estimator);
+			assertEquals(20, estimator.getNoSamples());
+		}
+		finally{
+			release.countDown();
+			executorService.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void whenEarlyStoppingWithLargeTolerance_itShouldStopBeforeAllIterations(){
+		SchrimpfInitialThresholdGenerator generator = new SchrimpfInitialThresholdGenerator(new SchrimpfAcceptance(1, 0.1), 200);
+		generator.setEarlyStopping(1., 5);
+		StandardDeviationEstimator estimator = new StandardDeviationEstimator(1., 5);
+		generator.randomWalks(vrp, null, estimator);
+		assertTrue(estimator.getNoSamples() < 200);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void whenSettingZeroWalks_itShouldThrowException(){
+		new SchrimpfInitialThresholdGenerator(new SchrimpfAcceptance(1, 0.1), 20).setNuOfWalks(0);
+	}
+
+}
@@ -46,6 +46,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
@@ -295,4 +296,32 @@ public class TestAlgorithmReader {
 
     }
 	
+    @Test
+    public void whenReadingConfigWithRegretInsertion_itShouldCreateAndRunAlgorithm(){
+        AlgorithmConfig algoConfig = new AlgorithmConfig();
+        new AlgorithmConfigXmlReader(algoConfig).read("src/test/resources/configWithRegretInsertion.xml");
+        VehicleRoutingAlgorithm vra = VehicleRoutingAlgorithms.createAlgorithm(vrp, algoConfig);
+        Collection<VehicleRoutingProblemSolution> solutions = vra.searchSolutions();
+        assertFalse(solutions.isEmpty());
+    }
+
+    @Test
+    public void whenReadingConfigWithAdaptiveWeights_strategyManagerShouldBeAdaptive(){
+        AlgorithmConfig algoConfig = new AlgorithmConfig();
+        new AlgorithmConfigXmlReader(algoConfig).read("src/test/resources/algorithmConfigWithAdaptiveWeights.xml");
+        VehicleRoutingAlgorithm vra = VehicleRoutingAlgorithms.createAlgorithm(vrp, algoConfig);
+        assertTrue(vra.getSearchStrategyManager().isAdaptive());
+        Collection<VehicleRoutingProblemSolution> solutions = vra.searchSolutions();
+        assertFalse(solutions.isEmpty());
+    }
+
+    @Test
+    public void whenReadingConfigWithWorstRuin_itShouldCreateAndRunAlgorithm(){
+        AlgorithmConfig algoConfig = new AlgorithmConfig();
+        new AlgorithmConfigXmlReader(algoConfig).read("src/test/resources/configWithWorstRuin.xml");
+        VehicleRoutingAlgorithm vra = VehicleRoutingAlgorithms.createAlgorithm(vrp, algoConfig);
+        Collection<VehicleRoutingProblemSolution> solutions = vra.searchSolutions();
+        assertFalse(solutions.isEmpty());
+    }
+
 }
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.Vehicle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class BestInsertionConcurrentTest {
+
+	ExecutorService executor;
+
+	@Before
+	public void doBefore(){
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void doAfter(){
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void whenCalculatorFails_itShouldRethrowExceptionAndCancelOtherTasks() throws InterruptedException {
+		final AtomicInteger calls = new AtomicInteger(0);
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		JobInsertionCostsCalculator calculator = new JobInsertionCostsCalculator() {
+
+			@Override
+			public InsertionData getInsertionData(VehicleRoute currentRoute, Job newJob, Vehicle newVehicle, double newVehicleDepartureTime, Driver newDriver, double bestKnownCosts) {
+				if(calls.getAndIncrement() == 0){
+					try {
+						Thread.sleep(10000);
+					} catch (InterruptedException e) {
+						interrupted.countDown();
+					}
+					return InsertionData.createEmptyInsertionData();
+				}
+				throw new UnsupportedOperationException("bad constraint");
+			}
+
+		};
+		BestInsertionConcurrent insertion = new BestInsertionConcurrent(calculator, executor, 4, mock(VehicleRoutingProblem.class));
+		Service service = Service.Builder.newInstance("s").setLocationId("loc").build();
+		try{
+			insertion.insertJobs(new ArrayList<VehicleRoute>(), Arrays.<Job>asList(service));
+			fail("exception expected");
+		}
+		catch(UnsupportedOperationException e){
+			assertEquals("bad constraint", e.getMessage());
+		}
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners.PrioritizedVRAListener;
+import jsprit.core.algorithm.recreate.listener.InsertionListener;
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.constraint.ConstraintManager;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.io.VrpXMLReader;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.vehicle.InfiniteFleetManagerFactory;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleFleetManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CheapestInsertionTest {
+
+	static class CountingCalculator implements JobInsertionCostsCalculator {
+
+		private JobInsertionCostsCalculator calculator;
+
+		int noCalls = 0;
+
+		CountingCalculator(JobInsertionCostsCalculator calculator) {
+			this.calculator = calculator;
+		}
+
+		@Override
+		public InsertionData getInsertionData(VehicleRoute currentRoute, Job newJob, Vehicle newVehicle, double newVehicleDepartureTime, Driver newDriver, double bestKnownCosts) {
+			noCalls++;
+			return calculator.getInsertionData(currentRoute, newJob, newVehicle, newVehicleDepartureTime, newDriver, bestKnownCosts);
+		}
+
+	}
+
+	VehicleRoutingProblem vrp;
+
+	CountingCalculator calculator;
+
+	@Before
+	public void doBefore(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(builder).read("src/test/resources/vrpnc1-jsprit.xml");
+		vrp = builder.build();
+	}
+
+	CheapestInsertion createInsertion(boolean cacheEnabled){
+		return createInsertion(cacheEnabled, null);
+	}
+
+	CheapestInsertion createInsertion(boolean cacheEnabled, ExecutorService executor){
+		StateManager stateManager = new StateManager(vrp);
+		stateManager.updateLoadStates();
+		stateManager.updateTimeWindowStates();
+		ConstraintManager constraintManager = new ConstraintManager(vrp, stateManager);
+		constraintManager.addLoadConstraint();
+		constraintManager.addTimeWindowConstraint();
+		VehicleFleetManager fleetManager = new InfiniteFleetManagerFactory(vrp.getVehicles()).createFleetManager();
+
+		List<InsertionListener> insertionListeners = new ArrayList<InsertionListener>();
+		CalculatorBuilder calcBuilder = new CalculatorBuilder(insertionListeners, new ArrayList<PrioritizedVRAListener>());
+		calcBuilder.setLocalLevel(true);
+		calcBuilder.setConstraintManager(constraintManager);
+		calcBuilder.setStates(stateManager);
+		calcBuilder.setVehicleRoutingProblem(vrp);
+		calcBuilder.setVehicleFleetManager(fleetManager);
+		calculator = new CountingCalculator(calcBuilder.build());
+
+		CheapestInsertion insertion;
+		if(executor == null) insertion = new CheapestInsertion(calculator, vrp, fleetManager);
+		else insertion = new CheapestInsertion(calculator, vrp, fleetManager, executor, 4);
+		insertion.setRandom(new Random(4711));
+		insertion.setCacheEnabled(cacheEnabled);
+		for(InsertionListener l : insertionListeners) insertion.addListener(l);
+		insertion.addListener(stateManager);
+		insertion.addListener(new VehicleSwitched(fleetManager));
+		return insertion;
+	}
+
+	private List<List<String>> getTours(Collection<VehicleRoute> routes){
+		List<List<String>> tours = new ArrayList<List<String>>();
+		for(VehicleRoute route : routes){
+			List<String> tour = new ArrayList<String>();
+			for(TourActivity act : route.getActivities()){
+				tour.add(((TourActivity.JobActivity)act).getJob().getId());
+			}
+			tours.add(tour);
+		}
+		return tours;
+	}
+
+	@Test
+	public void whenInsertingAllJobs_cachedAndUncachedInsertionShouldYieldTheSameRoutes(){
+		Collection<VehicleRoute> uncachedRoutes = new ArrayList<VehicleRoute>();
+		Collection<Job> uncachedBadJobs = createInsertion(false).insertJobs(uncachedRoutes, vrp.getJobs().values());
+
+		Collection<VehicleRoute> cachedRoutes = new ArrayList<VehicleRoute>();
+		Collection<Job> cachedBadJobs = createInsertion(true).insertJobs(cachedRoutes, vrp.getJobs().values());
+
+		assertTrue(uncachedBadJobs.isEmpty());
+		assertTrue(cachedBadJobs.isEmpty());
+		assertEquals(getTours(uncachedRoutes), getTours(cachedRoutes));
+	}
+
+	@Test
+	public void whenReinsertingRuinedJobs_cachedAndUncachedInsertionShouldYieldTheSameRoutes(){
+		Collection<VehicleRoute> uncachedRoutes = new ArrayList<VehicleRoute>();
+		CheapestInsertion uncached = createInsertion(false);
+		uncached.insertJobs(uncachedRoutes, vrp.getJobs().values());
+		List<Job> ruined = ruin(uncachedRoutes);
+		uncached.insertJobs(uncachedRoutes, ruined);
+
+		Collection<VehicleRoute> cachedRoutes = new ArrayList<VehicleRoute>();
+		CheapestInsertion cached = createInsertion(true);
+		cached.insertJobs(cachedRoutes, vrp.getJobs().values());
+		cached.insertJobs(cachedRoutes, ruin(cachedRoutes));
+
+		assertEquals(getTours(uncachedRoutes), getTours(cachedRoutes));
+	}
+
+	private List<Job> ruin(Collection<VehicleRoute> routes){
+		List<Job> ruined = new ArrayList<Job>();
+		int count = 0;
+		for(Job job : vrp.getJobs().values()){
+			if(count++ % 3 != 0) continue;
+			for(VehicleRoute route : routes){
+				if(route.getTourActivities().removeJob(job)){
+					ruined.add(job);
+					break;
+				}
+			}
+		}
+		return ruined;
+	}
+
+	@Test
+	public void whenEvaluatingJobsInParallel_itShouldYieldTheSameRoutesAsSequentialEvaluation(){
+		Collection<VehicleRoute> sequentialRoutes = new ArrayList<VehicleRoute>();
+		createInsertion(true).insertJobs(sequentialRoutes, vrp.getJobs().values());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		Collection<VehicleRoute> parallelRoutes = new ArrayList<VehicleRoute>();
+		try{
+			createInsertion(true, executor).insertJobs(parallelRoutes, vrp.getJobs().values());
+		}
+		finally{
+			executor.shutdown();
+		}
+
+		assertEquals(getTours(sequentialRoutes), getTours(parallelRoutes));
+	}
+
+	@Test
+	public void whenCacheIsEnabled_itShouldCallCalculatorLessOften(){
+		createInsertion(false).insertJobs(new ArrayList<VehicleRoute>(), vrp.getJobs().values());
+		int uncachedCalls = calculator.noCalls;
+
+		CheapestInsertion cached = createInsertion(true);
+		cached.insertJobs(new ArrayList<VehicleRoute>(), vrp.getJobs().values());
+		int cachedCalls = calculator.noCalls;
+		System.out.println("calculator calls without cache=" + uncachedCalls + ";with cache=" + cachedCalls);
+
+		assertTrue(cachedCalls * 2 < uncachedCalls);
+	}
+
+	@Test
+	public void whenJobCannotBeInserted_itShouldBeReturnedAsUnassigned(){
+		Service tooBig = Service.Builder.newInstance("tooBig").addSizeDimension(0, 100000).setLocationId("[x=10.0][y=10.0]").build();
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(builder).read("src/test/resources/vrpnc1-jsprit.xml");
+		vrp = builder.addJob(tooBig).build();
+
+		Collection<Job> badJobs = createInsertion(true).insertJobs(new ArrayList<VehicleRoute>(), vrp.getJobs().values());
+
+		assertEquals(1, badJobs.size());
+		assertEquals("tooBig", badJobs.iterator().next().getId());
+	}
+
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.recreate.listener.InsertionListeners;
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.constraint.ConstraintManager;
+import jsprit.core.problem.constraint.HardActivityConstraint;
+import jsprit.core.problem.io.VrpXMLReader;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Shipment;
+import jsprit.core.problem.misc.JobInsertionContext;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.solution.route.activity.TimeWindow;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.problem.vehicle.VehicleType;
+import jsprit.core.problem.vehicle.VehicleTypeImpl;
+import jsprit.core.util.Coordinate;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class FastShipmentInsertionCalculatorTest {
+
+	static class CountingConstraint implements HardActivityConstraint {
+
+		int counter = 0;
+
+		@Override
+		public ConstraintsStatus fulfilled(JobInsertionContext iFacts, TourActivity prevAct, TourActivity newAct, TourActivity nextAct, double prevActDepTime) {
+			counter++;
+			return ConstraintsStatus.FULFILLED;
+		}
+
+	}
+
+	private VehicleRoutingProblem vrp;
+
+	private StateManager stateManager;
+
+	private ConstraintManager constraintManager;
+
+	private CountingConstraint counter;
+
+	private ShipmentInsertionCalculator shipmentInsertionCalculator;
+
+	private FastShipmentInsertionCalculator fastShipmentInsertionCalculator;
+
+	private VehicleRoutingProblem read(String problemFile){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(vrpBuilder).read(problemFile);
+		return vrpBuilder.build();
+	}
+
+	/**
+	 * Creates shipments that are to be picked up and delivered one after another and that have time windows that cause waiting times,
+	 * and shipment "x" without time windows.
+	 */
+	private VehicleRoutingProblem createProblemWithWaitingTimes(){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		VehicleType type = VehicleTypeImpl.Builder.newInstance("type").addCapacityDimension(0, 5).setCostPerDistance(1).build();
+		vrpBuilder.addVehicle(VehicleImpl.Builder.newInstance("v").setStartLocationCoordinate(Coordinate.newInstance(0, 0)).setType(type).build());
+		for(int i=1;i<=10;i++){
+			vrpBuilder.addJob(Shipment.Builder.newInstance("s" + (10 + i)).addSizeDimension(0, 1)
+					.setPickupCoord(Coordinate.newInstance(10 * i, 0)).setPickupTimeWindow(TimeWindow.newInstance(40 * i, 10000))
+					.setDeliveryCoord(Coordinate.newInstance(10 * i, 10)).setDeliveryTimeWindow(TimeWindow.newInstance(40 * i + 20, 10000)).build());
+		}
+		vrpBuilder.addJob(Shipment.Builder.newInstance("x").addSizeDimension(0, 1)
+				.setPickupCoord(Coordinate.newInstance(0, 20)).setDeliveryCoord(Coordinate.newInstance(50, 20)).build());
+		return vrpBuilder.build();
+	}
+
+	/**
+	 * Creates shipments with random locations, sizes and time windows, such that routes contain both waiting times and
+	 * positions that break the delivery loop.
+	 */
+	private VehicleRoutingProblem createRandomProblem(Random random){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		VehicleType type = VehicleTypeImpl.Builder.newInstance("type").addCapacityDimension(0, 4).setCostPerDistance(1).build();
+		vrpBuilder.addVehicle(VehicleImpl.Builder.newInstance("v").setStartLocationCoordinate(Coordinate.newInstance(50, 50))
+				.setLatestArrival(1000).setType(type).build());
+		for(int i=0;i<30;i++){
+			double pickupStart = random.nextInt(600);
+			double deliveryStart = pickupStart + random.nextInt(200);
+			vrpBuilder.addJob(Shipment.Builder.newInstance("s" + (10 + i)).addSizeDimension(0, 1 + random.nextInt(2))
+					.setPickupCoord(Coordinate.newInstance(random.nextInt(100), random.nextInt(100)))
+					.setPickupTimeWindow(TimeWindow.newInstance(pickupStart, pickupStart + 20 + random.nextInt(200)))
+					.setDeliveryCoord(Coordinate.newInstance(random.nextInt(100), random.nextInt(100)))
+					.setDeliveryTimeWindow(TimeWindow.newInstance(deliveryStart, deliveryStart + 20 + random.nextInt(200))).build());
+		}
+		return vrpBuilder.build();
+	}
+
+	private void createCalculators(VehicleRoutingProblem vrp){
+		this.vrp = vrp;
+		stateManager = new StateManager(vrp);
+		stateManager.updateLoadStates();
+		stateManager.updateTimeWindowStates();
+		constraintManager = new ConstraintManager(vrp, stateManager);
+		constraintManager.addLoadConstraint();
+		constraintManager.addTimeWindowConstraint();
+		counter = new CountingConstraint();
+		constraintManager.addConstraint(counter, ConstraintManager.Priority.LOW);
+		ActivityInsertionCostsCalculator activityInsertionCostsCalculator = new LocalActivityInsertionCostsCalculator(vrp.getTransportCosts(), vrp.getActivityCosts());
+		shipmentInsertionCalculator = new ShipmentInsertionCalculator(vrp.getTransportCosts(), activityInsertionCostsCalculator, constraintManager);
+		shipmentInsertionCalculator.setJobActivityFactory(vrp.getJobActivityFactory());
+		fastShipmentInsertionCalculator = new FastShipmentInsertionCalculator(vrp.getTransportCosts(), activityInsertionCostsCalculator, constraintManager);
+		fastShipmentInsertionCalculator.setJobActivityFactory(vrp.getJobActivityFactory());
+	}
+
+	private List<Job> getJobs(){
+		List<Job> jobs = new ArrayList<Job>(vrp.getJobs().values());
+		Collections.sort(jobs, new Comparator<Job>() {
+
+			@Override
+			public int compare(Job o1, Job o2) {
+				return o1.getId().compareTo(o2.getId());
+			}
+
+		});
+		return jobs;
+	}
+
+	/**
+	 * Inserts shipments one after another at their best positions into one route until the route contains noShipments.
+	 */
+	private VehicleRoute createRoute(List<Job> jobs, int noShipments){
+		Vehicle vehicle = vrp.getVehicles().iterator().next();
+		VehicleRoute route = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory()).build();
+		Inserter inserter = new Inserter(new InsertionListeners(), vrp);
+		int inserted = 0;
+		for(Job job : jobs){
+			if(inserted == noShipments) break;
+			stateManager.informInsertionStarts(Arrays.asList(route), Collections.<Job>emptyList());
+			InsertionData iData = shipmentInsertionCalculator.getInsertionData(route, job, vehicle, vehicle.getEarliestDeparture(), route.getDriver(), Double.MAX_VALUE);
+			if(iData instanceof InsertionData.NoInsertionFound) continue;
+			inserter.insertJob(job, iData, route);
+			inserted++;
+		}
+		stateManager.informInsertionStarts(Arrays.asList(route), Collections.<Job>emptyList());
+		return route;
+	}
+
+	/**
+	 * Creates a route that picks up and delivers shipments "s11" to "s20" one after another.
+	 */
+	private VehicleRoute createRouteWithWaitingTimes(){
+		VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vrp.getVehicles().iterator().next()).setJobActivityFactory(vrp.getJobActivityFactory());
+		for(int i=1;i<=10;i++){
+			Shipment shipment = (Shipment) vrp.getJobs().get("s" + (10 + i));
+			routeBuilder.addPickup(shipment).addDelivery(shipment);
+		}
+		VehicleRoute route = routeBuilder.build();
+		stateManager.informInsertionStarts(Arrays.asList(route), Collections.<Job>emptyList());
+		return route;
+	}
+
+	private void assertSameInsertionData(VehicleRoute route, List<Job> jobs){
+		Vehicle vehicle = route.getVehicle();
+		for(Job job : jobs){
+			if(!(job instanceof Shipment) || route.getTourActivities().servesJob(job)) continue;
+			InsertionData expected = shipmentInsertionCalculator.getInsertionData(route, job, vehicle, vehicle.getEarliestDeparture(), route.getDriver(), Double.MAX_VALUE);
+			InsertionData actual = fastShipmentInsertionCalculator.getInsertionData(route, job, vehicle, vehicle.getEarliestDeparture(), route.getDriver(), Double.MAX_VALUE);
+			assertEquals(expected.getInsertionCost(), actual.getInsertionCost(), 0.0001);
+			assertEquals(expected.getPickupInsertionIndex(), actual.getPickupInsertionIndex());
+			assertEquals(expected.getDeliveryInsertionIndex(), actual.getDeliveryInsertionIndex());
+		}
+	}
+
+	@Test
+	public void whenInsertingShipmentsWithTimeWindows_itShouldReturnSameInsertionDataAsShipmentInsertionCalculator(){
+		createCalculators(read("src/test/resources/lilim_lr101.xml"));
+		List<Job> jobs = getJobs();
+		assertSameInsertionData(createRoute(jobs, 10), jobs);
+	}
+
+	@Test
+	public void whenInsertingShipmentsWithCapacityConstraints_itShouldReturnSameInsertionDataAsShipmentInsertionCalculator(){
+		createCalculators(read("src/test/resources/pdp.xml"));
+		List<Job> jobs = getJobs();
+		assertSameInsertionData(createRoute(jobs, 10), jobs);
+	}
+
+	@Test
+	public void whenInsertingShipmentsWithWaitingTimes_itShouldReturnSameInsertionDataAsShipmentInsertionCalculator(){
+		createCalculators(createProblemWithWaitingTimes());
+		assertSameInsertionData(createRouteWithWaitingTimes(), getJobs());
+	}
+
+	@Test
+	public void whenTimeShiftsAreAbsorbedByWaitingTimes_itShouldCheckFewerActivityConstraints(){
+		createCalculators(createProblemWithWaitingTimes());
+		VehicleRoute route = createRouteWithWaitingTimes();
+		Vehicle vehicle = route.getVehicle();
+		Job job = vrp.getJobs().get("x");
+		counter.counter = 0;
+		shipmentInsertionCalculator.getInsertionData(route, job, vehicle, vehicle.getEarliestDeparture(), route.getDriver(), Double.MAX_VALUE);
+		int standardChecks = counter.counter;
+		counter.counter = 0;
+		fastShipmentInsertionCalculator.getInsertionData(route, job, vehicle, vehicle.getEarliestDeparture(), route.getDriver(), Double.MAX_VALUE);
+		int fastChecks = counter.counter;
+		assertTrue(fastChecks < standardChecks);
+	}
+
+	@Test
+	public void whenInsertingShipmentsIntoRandomRoutes_itShouldReturnSameInsertionDataAsShipmentInsertionCalculator(){
+		Random random = new Random(4711);
+		for(int run=0;run<50;run++){
+			createCalculators(createRandomProblem(random));
+			List<Job> jobs = getJobs();
+			Collections.shuffle(jobs, random);
+			assertSameInsertionData(createRoute(jobs, 5 + random.nextInt(15)), jobs);
+		}
+	}
+
+}
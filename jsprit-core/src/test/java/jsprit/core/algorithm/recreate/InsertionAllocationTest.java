@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.constraint.ConstraintManager;
+import jsprit.core.problem.driver.DriverImpl;
+import jsprit.core.problem.io.VrpXMLReader;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.Vehicle;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the bytes allocated per call of {@link ServiceInsertionCalculator#getInsertionData}, which should not depend on
+ * the number of insertion positions since scratch objects are reused (see {@link InsertionScratch}).
+ *
+ * <p>Calls are measured after warming up the jit, since escape analysis removes part of the allocations. Skipped if
+ * the jvm cannot measure thread allocation.
+ */
+public class InsertionAllocationTest {
+
+	private static final int NU_OF_MEASURED_CALLS = 10000;
+
+	@Test
+	public void whenCalculatingInsertionData_itShouldAllocateLessThan160BytesPerCall(){
+		java.lang.management.ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) mxBean;
+		Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(vrpBuilder).read("src/test/resources/vrpnc1-jsprit.xml");
+		VehicleRoutingProblem vrp = vrpBuilder.build();
+		Vehicle vehicle = vrp.getVehicles().iterator().next();
+
+		List<Job> jobs = new ArrayList<Job>(vrp.getJobs().values());
+		VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicle, DriverImpl.noDriver())
+				.setJobActivityFactory(vrp.getJobActivityFactory());
+		for(Job job : jobs.subList(0, 8)) routeBuilder.addService((Service) job);
+		VehicleRoute route = routeBuilder.build();
+		List<Job> jobsToInsert = jobs.subList(8, jobs.size());
+
+		StateManager stateManager = new StateManager(vrp);
+		stateManager.updateLoadStates();
+		stateManager.updateTimeWindowStates();
+		ConstraintManager constraintManager = new ConstraintManager(vrp, stateManager);
+		constraintManager.addLoadConstraint();
+		constraintManager.addTimeWindowConstraint();
+		stateManager.informInsertionStarts(Arrays.asList(route), Collections.<Job>emptyList());
+
+		ServiceInsertionCalculator calculator = new ServiceInsertionCalculator(vrp.getTransportCosts(),
+				new LocalActivityInsertionCostsCalculator(vrp.getTransportCosts(), vrp.getActivityCosts()), constraintManager);
+		calculator.setJobActivityFactory(vrp.getJobActivityFactory());
+
+		calculate(calculator, route, vehicle, jobsToInsert, 20 * NU_OF_MEASURED_CALLS);
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+		calculate(calculator, route, vehicle, jobsToInsert, NU_OF_MEASURED_CALLS);
+		long bytesPerCall = (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / NU_OF_MEASURED_CALLS;
+
+		assertTrue("allocated " + bytesPerCall + " bytes per call", bytesPerCall < 160);
+	}
+
+	private void calculate(ServiceInsertionCalculator calculator, VehicleRoute route, Vehicle vehicle, List<Job> jobs, int nuOfCalls){
+		for(int i=0;i<nuOfCalls;i++){
+			calculator.getInsertionData(route, jobs.get(i % jobs.size()), vehicle, vehicle.getEarliestDeparture(), DriverImpl.noDriver(), Double.MAX_VALUE);
+		}
+	}
+
+}
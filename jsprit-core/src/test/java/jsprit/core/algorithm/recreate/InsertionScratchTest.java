@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.problem.AbstractActivity;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class InsertionScratchTest {
+
+	private VehicleRoutingProblem newProblem(String jobId){
+		return VehicleRoutingProblem.Builder.newInstance()
+				.addJob(Service.Builder.newInstance(jobId).setLocationId("loc").build()).build();
+	}
+
+	@Test
+	public void whenRequestingActivitiesOfSameJobTwice_itShouldReturnSameActivities(){
+		VehicleRoutingProblem vrp = newProblem("s");
+		Job job = vrp.getJobs().get("s");
+		InsertionScratch scratch = new InsertionScratch();
+		List<AbstractActivity> activities = scratch.getActivities(job, vrp.getJobActivityFactory());
+		assertSame(activities, scratch.getActivities(job, vrp.getJobActivityFactory()));
+	}
+
+	@Test
+	public void whenJobOfAnotherProblemHasSameIndex_itShouldReplaceActivities(){
+		VehicleRoutingProblem vrp = newProblem("s");
+		VehicleRoutingProblem otherVrp = newProblem("otherS");
+		Job job = vrp.getJobs().get("s");
+		Job otherJob = otherVrp.getJobs().get("otherS");
+		assertEquals(job.getIndex(), otherJob.getIndex());
+
+		InsertionScratch scratch = new InsertionScratch();
+		scratch.getActivities(job, vrp.getJobActivityFactory());
+		List<AbstractActivity> otherActivities = scratch.getActivities(otherJob, otherVrp.getJobActivityFactory());
+		assertEquals(1, otherActivities.size());
+		assertSame(otherJob, ((TourActivity.JobActivity) otherActivities.get(0)).getJob());
+	}
+
+}
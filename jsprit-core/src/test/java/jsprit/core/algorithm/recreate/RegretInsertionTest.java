@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners.PrioritizedVRAListener;
+import jsprit.core.algorithm.recreate.listener.InsertionListener;
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.constraint.ConstraintManager;
+import jsprit.core.problem.io.VrpXMLReader;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import jsprit.core.problem.vehicle.InfiniteFleetManagerFactory;
+import jsprit.core.problem.vehicle.VehicleFleetManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class RegretInsertionTest {
+
+	VehicleRoutingProblem vrp;
+
+	@Before
+	public void doBefore(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(builder).read("src/test/resources/vrpnc1-jsprit.xml");
+		vrp = builder.build();
+	}
+
+	private InsertionStrategy createInsertion(int k, ExecutorService executor){
+		StateManager stateManager = new StateManager(vrp);
+		stateManager.updateLoadStates();
+		stateManager.updateTimeWindowStates();
+		ConstraintManager constraintManager = new ConstraintManager(vrp, stateManager);
+		constraintManager.addLoadConstraint();
+		constraintManager.addTimeWindowConstraint();
+		VehicleFleetManager fleetManager = new InfiniteFleetManagerFactory(vrp.getVehicles()).createFleetManager();
+
+		List<InsertionListener> insertionListeners = new ArrayList<InsertionListener>();
+		CalculatorBuilder calcBuilder = new CalculatorBuilder(insertionListeners, new ArrayList<PrioritizedVRAListener>());
+		calcBuilder.setLocalLevel(true);
+		calcBuilder.setConstraintManager(constraintManager);
+		calcBuilder.setStates(stateManager);
+		calcBuilder.setVehicleRoutingProblem(vrp);
+		calcBuilder.setVehicleFleetManager(fleetManager);
+		JobInsertionCostsCalculator calculator = calcBuilder.build();
+
+		InsertionStrategy insertion;
+		if(k == 0){
+			CheapestInsertion cheapest = new CheapestInsertion(calculator, vrp, fleetManager);
+			cheapest.setRandom(new Random(4711));
+			insertion = cheapest;
+		}
+		else{
+			RegretInsertion regret;
+			if(executor == null) regret = new RegretInsertion(calculator, vrp, fleetManager);
+			else regret = new RegretInsertion(calculator, vrp, fleetManager, executor, 4);
+			regret.setK(k);
+			regret.setRandom(new Random(4711));
+			insertion = regret;
+		}
+		for(InsertionListener l : insertionListeners) insertion.addListener(l);
+		insertion.addListener(stateManager);
+		insertion.addListener(new VehicleSwitched(fleetManager));
+		return insertion;
+	}
+
+	private List<List<String>> getTours(Collection<VehicleRoute> routes){
+		List<List<String>> tours = new ArrayList<List<String>>();
+		for(VehicleRoute route : routes){
+			List<String> tour = new ArrayList<String>();
+			for(TourActivity act : route.getActivities()){
+				tour.add(((TourActivity.JobActivity)act).getJob().getId());
+			}
+			tours.add(tour);
+		}
+		return tours;
+	}
+
+	private InsertionData iData(double costs){
+		return new InsertionData(costs, 0, 0, null, null);
+	}
+
+	@Test
+	public void whenOfferingInsertions_itShouldKeepKBestInAscendingOrder(){
+		BestRouteInsertions insertions = new BestRouteInsertions(2);
+		VehicleRoute r1 = mock(VehicleRoute.class);
+		VehicleRoute r2 = mock(VehicleRoute.class);
+		VehicleRoute r3 = mock(VehicleRoute.class);
+		insertions.offer(r1, iData(5.));
+		insertions.offer(r2, iData(3.));
+		insertions.offer(r3, iData(4.));
+		insertions.offer(r3, new InsertionData.NoInsertionFound());
+
+		assertEquals(2, insertions.size());
+		assertSame(r2, insertions.getRoute(0));
+		assertSame(r3, insertions.getRoute(1));
+		assertEquals(1., insertions.getRegret(), 0.01);
+	}
+
+	@Test
+	public void whenInsertingAllJobs_allJobsShouldBeAssigned(){
+		Collection<VehicleRoute> routes = new ArrayList<VehicleRoute>();
+		Collection<Job> badJobs = createInsertion(3, null).insertJobs(routes, vrp.getJobs().values());
+
+		assertTrue(badJobs.isEmpty());
+		int noActivities = 0;
+		for(VehicleRoute route : routes) noActivities += route.getActivities().size();
+		assertEquals(vrp.getJobs().size(), noActivities);
+	}
+
+	@Test
+	public void whenKIsOne_itShouldYieldTheSameRoutesAsCheapestInsertion(){
+		Collection<VehicleRoute> cheapestRoutes = new ArrayList<VehicleRoute>();
+		createInsertion(0, null).insertJobs(cheapestRoutes, vrp.getJobs().values());
+
+		Collection<VehicleRoute> regretRoutes = new ArrayList<VehicleRoute>();
+		createInsertion(1, null).insertJobs(regretRoutes, vrp.getJobs().values());
+
+		assertEquals(getTours(cheapestRoutes), getTours(regretRoutes));
+	}
+
+	@Test
+	public void whenEvaluatingInParallel_itShouldYieldTheSameRoutesAsSequentialEvaluation(){
+		Collection<VehicleRoute> sequentialRoutes = new ArrayList<VehicleRoute>();
+		createInsertion(2, null).insertJobs(sequentialRoutes, vrp.getJobs().values());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		Collection<VehicleRoute> parallelRoutes = new ArrayList<VehicleRoute>();
+		try{
+			createInsertion(2, executor).insertJobs(parallelRoutes, vrp.getJobs().values());
+		}
+		finally{
+			executor.shutdown();
+		}
+
+		assertEquals(getTours(sequentialRoutes), getTours(parallelRoutes));
+	}
+
+	@Test
+	public void whenJobCannotBeInserted_itShouldBeReturnedAsUnassigned(){
+		Service tooBig = Service.Builder.newInstance("tooBig").addSizeDimension(0, 100000).setLocationId("[x=10.0][y=10.0]").build();
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		new VrpXMLReader(builder).read("src/test/resources/vrpnc1-jsprit.xml");
+		vrp = builder.addJob(tooBig).build();
+
+		Collection<Job> badJobs = createInsertion(2, null).insertJobs(new ArrayList<VehicleRoute>(), vrp.getJobs().values());
+
+		assertEquals(1, badJobs.size());
+		assertEquals("tooBig", badJobs.iterator().next().getId());
+	}
+
+}
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.recreate;
+
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.constraint.ConstraintManager;
+import jsprit.core.problem.driver.Driver;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.job.Shipment;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.problem.vehicle.VehicleType;
+import jsprit.core.problem.vehicle.VehicleTypeImpl;
+import jsprit.core.util.Coordinate;
+import jsprit.core.util.EuclideanDistanceCalculator;
+import jsprit.core.util.FastVehicleRoutingTransportCostsMatrix;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+
+public class RouteDetourLowerBoundTest {
+
+	static class RecordingCalculator implements JobInsertionCostsCalculator {
+
+		private final JobInsertionCostsCalculator serviceInsertion;
+
+		private final List<VehicleRoute> evaluatedRoutes = new ArrayList<VehicleRoute>();
+
+		RecordingCalculator(JobInsertionCostsCalculator serviceInsertion) {
+			this.serviceInsertion = serviceInsertion;
+		}
+
+		@Override
+		public InsertionData getInsertionData(VehicleRoute currentRoute, Job newJob, Vehicle newVehicle, double newVehicleDepartureTime, Driver newDriver, double bestKnownCosts) {
+			if(currentRoute.isEmpty()) return InsertionData.createEmptyInsertionData();
+			evaluatedRoutes.add(currentRoute);
+			return serviceInsertion.getInsertionData(currentRoute, newJob, currentRoute.getVehicle(), currentRoute.getDepartureTime(), currentRoute.getDriver(), bestKnownCosts);
+		}
+
+	}
+
+	private VehicleRoutingProblem vrp;
+
+	private VehicleImpl createVehicle(String id, double x, double y){
+		VehicleType type = VehicleTypeImpl.Builder.newInstance("type").addCapacityDimension(0, 100).setCostPerDistance(1).build();
+		return VehicleImpl.Builder.newInstance(id).setStartLocationCoordinate(Coordinate.newInstance(x, y)).setType(type).build();
+	}
+
+	private Service createService(String id, double x, double y){
+		return Service.Builder.newInstance(id).addSizeDimension(0, 1).setCoord(Coordinate.newInstance(x, y)).build();
+	}
+
+	private VehicleRoute createRoute(Vehicle vehicle, Service... services){
+		VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory());
+		for(Service service : services) routeBuilder.addService(service);
+		return routeBuilder.build();
+	}
+
+	private JobInsertionCostsCalculator createServiceInsertionCalculator(){
+		ConstraintManager constraintManager = new ConstraintManager(vrp, new StateManager(vrp));
+		ServiceInsertionCalculator serviceInsertion = new ServiceInsertionCalculator(vrp.getTransportCosts(), new LocalActivityInsertionCostsCalculator(vrp.getTransportCosts(), vrp.getActivityCosts()), constraintManager);
+		serviceInsertion.setJobActivityFactory(vrp.getJobActivityFactory());
+		return serviceInsertion;
+	}
+
+	private JobInsertionCostsCalculator createShipmentInsertionCalculator(){
+		ConstraintManager constraintManager = new ConstraintManager(vrp, new StateManager(vrp));
+		ShipmentInsertionCalculator shipmentInsertion = new ShipmentInsertionCalculator(vrp.getTransportCosts(), new LocalActivityInsertionCostsCalculator(vrp.getTransportCosts(), vrp.getActivityCosts()), constraintManager);
+		shipmentInsertion.setJobActivityFactory(vrp.getJobActivityFactory());
+		return shipmentInsertion;
+	}
+
+	@Test
+	public void whenRouteIsEmpty_lowerBoundShouldBeZero(){
+		VehicleImpl vehicle = createVehicle("v", 0, 0);
+		Service service = createService("s", 100, 100);
+		vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(service).build();
+		VehicleRoute route = VehicleRoute.Builder.newInstance(vehicle).build();
+		assertEquals(0., new RouteDetourLowerBound(vrp).getLowerBound(route, service), 0.01);
+	}
+
+	@Test
+	public void whenServiceIsFarAwayFromRoute_lowerBoundShouldBePositive(){
+		VehicleImpl vehicle = createVehicle("v", 0, 0);
+		Service s1 = createService("s1", 0, 10);
+		Service s2 = createService("s2", 10, 10);
+		Service service = createService("s", 100, 0);
+		vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(s1).addJob(s2).addJob(service).build();
+		VehicleRoute route = createRoute(vehicle, s1, s2);
+		//min costs from and to route are sqrt(8200), i.e. to (10,10), max edge costs are sqrt(200), i.e. from (10,10) back to depot
+		assertEquals(2. * Math.sqrt(8200.) - Math.sqrt(200.), new RouteDetourLowerBound(vrp).getLowerBound(route, service), 0.01);
+	}
+
+	@Test
+	public void whenInsertingServices_lowerBoundShouldNotExceedInsertionCosts(){
+		VehicleImpl vehicle = createVehicle("v", 50, 50);
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle);
+		List<Service> services = new ArrayList<Service>();
+		for(int i=0;i<100;i++){
+			Service service = createService("s" + i, (i * 37) % 100, (i * 61) % 100);
+			services.add(service);
+			vrpBuilder.addJob(service);
+		}
+		vrp = vrpBuilder.build();
+		VehicleRoute route = createRoute(vehicle, services.get(0), services.get(1), services.get(2), services.get(3), services.get(4));
+		JobInsertionCostsCalculator serviceInsertion = createServiceInsertionCalculator();
+		RouteDetourLowerBound lowerBound = new RouteDetourLowerBound(vrp);
+		boolean positiveBound = false;
+		for(Service service : services.subList(5, services.size())){
+			double bound = lowerBound.getLowerBound(route, service);
+			InsertionData iData = serviceInsertion.getInsertionData(route, service, vehicle, vehicle.getEarliestDeparture(), route.getDriver(), Double.MAX_VALUE);
+			assertTrue(bound <= iData.getInsertionCost() + 0.0001);
+			if(bound > 0.) positiveBound = true;
+		}
+		assertTrue(positiveBound);
+	}
+
+	@Test
+	public void whenInsertingShipments_lowerBoundShouldNotExceedInsertionCosts(){
+		VehicleImpl vehicle = createVehicle("v", 50, 50);
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle);
+		List<Shipment> shipments = new ArrayList<Shipment>();
+		for(int i=0;i<50;i++){
+			Shipment shipment = Shipment.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+					.setPickupCoord(Coordinate.newInstance((i * 37) % 100, (i * 61) % 100))
+					.setDeliveryCoord(Coordinate.newInstance((i * 53) % 100, (i * 17) % 100)).build();
+			shipments.add(shipment);
+			vrpBuilder.addJob(shipment);
+		}
+		vrp = vrpBuilder.build();
+		VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory());
+		for(Shipment shipment : shipments.subList(0, 3)) routeBuilder.addPickup(shipment).addDelivery(shipment);
+		VehicleRoute route = routeBuilder.build();
+		JobInsertionCostsCalculator shipmentInsertion = createShipmentInsertionCalculator();
+		RouteDetourLowerBound lowerBound = new RouteDetourLowerBound(vrp);
+		for(Shipment shipment : shipments.subList(3, shipments.size())){
+			double bound = lowerBound.getLowerBound(route, shipment);
+			InsertionData iData = shipmentInsertion.getInsertionData(route, shipment, vehicle, vehicle.getEarliestDeparture(), route.getDriver(), Double.MAX_VALUE);
+			assertTrue(bound <= iData.getInsertionCost() + 0.0001);
+		}
+	}
+
+	@Test
+	public void whenRoutePruningIsSet_bestInsertionShouldNotEvaluateHopelessRoutes(){
+		VehicleImpl v1 = createVehicle("v1", 0, 0);
+		VehicleImpl v2 = createVehicle("v2", 1000, 0);
+		Service s1 = createService("s1", 0, 10);
+		Service s2 = createService("s2", 1000, 10);
+		Service service = createService("s", 10, 10);
+		vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(v1).addVehicle(v2).addJob(s1).addJob(s2).addJob(service).build();
+		VehicleRoute nearRoute = createRoute(v1, s1);
+		VehicleRoute farRoute = createRoute(v2, s2);
+		Collection<VehicleRoute> routes = new ArrayList<VehicleRoute>(Arrays.asList(farRoute, nearRoute));
+
+		RecordingCalculator calculator = new RecordingCalculator(createServiceInsertionCalculator());
+		BestInsertion bestInsertion = new BestInsertion(calculator, vrp);
+		bestInsertion.setLowerBound(new RouteDetourLowerBound(vrp));
+		Collection<Job> unassigned = bestInsertion.insertJobs(routes, Arrays.<Job>asList(service));
+
+		assertTrue(unassigned.isEmpty());
+		assertTrue(nearRoute.getTourActivities().servesJob(service));
+		assertFalse(calculator.evaluatedRoutes.contains(farRoute));
+	}
+
+	@Test
+	public void whenRoutePruningIsNotSet_bestInsertionShouldEvaluateAllRoutes(){
+		VehicleImpl v1 = createVehicle("v1", 0, 0);
+		VehicleImpl v2 = createVehicle("v2", 1000, 0);
+		Service s1 = createService("s1", 0, 10);
+		Service s2 = createService("s2", 1000, 10);
+		Service service = createService("s", 10, 10);
+		vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(v1).addVehicle(v2).addJob(s1).addJob(s2).addJob(service).build();
+		VehicleRoute nearRoute = createRoute(v1, s1);
+		VehicleRoute farRoute = createRoute(v2, s2);
+		Collection<VehicleRoute> routes = new ArrayList<VehicleRoute>(Arrays.asList(farRoute, nearRoute));
+
+		RecordingCalculator calculator = new RecordingCalculator(createServiceInsertionCalculator());
+		BestInsertion bestInsertion = new BestInsertion(calculator, vrp);
+		bestInsertion.insertJobs(routes, Arrays.<Job>asList(service));
+
+		assertTrue(nearRoute.getTourActivities().servesJob(service));
+		assertTrue(calculator.evaluatedRoutes.contains(farRoute));
+	}
+
+	@Test
+	public void whenCostsAreIndexed_itShouldLookUpCostsByLocationIndex(){
+		VehicleImpl vehicle = createVehicle("v", 0, 0);
+		Service s1 = createService("s1", 0, 10);
+		Service s2 = createService("s2", 10, 10);
+		Service service = createService("s", 100, 0);
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(s1).addJob(s2).addJob(service);
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(vrpBuilder, true);
+		for(String from : vrpBuilder.getLocationMap().keySet()){
+			for(String to : vrpBuilder.getLocationMap().keySet()){
+				double distance = EuclideanDistanceCalculator.calculateDistance(vrpBuilder.getLocationMap().get(from), vrpBuilder.getLocationMap().get(to));
+				matrixBuilder.addTransportDistance(vrpBuilder.getLocationIndex(from), vrpBuilder.getLocationIndex(to), distance);
+			}
+		}
+		FastVehicleRoutingTransportCostsMatrix matrix = spy(matrixBuilder.build());
+		vrp = vrpBuilder.setRoutingCost(matrix).build();
+		VehicleRoute route = createRoute(vehicle, s1, s2);
+
+		assertEquals(2. * Math.sqrt(8200.) - Math.sqrt(200.), new RouteDetourLowerBound(vrp).getLowerBound(route, service), 0.01);
+		verify(matrix, never()).getTransportCost(anyString(), anyString(), anyDouble(), any(Driver.class), any(Vehicle.class));
+	}
+
+	private BestInsertionBuilder createRoutePruningBuilder(VehicleImpl... vehicles){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		for(VehicleImpl vehicle : vehicles) vrpBuilder.addVehicle(vehicle);
+		vrp = vrpBuilder.build();
+		StateManager stateManager = new StateManager(vrp);
+		return new BestInsertionBuilder(vrp, null, stateManager, new ConstraintManager(vrp, stateManager)).setRoutePruning(true);
+	}
+
+	@Test
+	public void whenVehiclesHaveSameTypeAndLocation_routePruningShouldBeSound(){
+		BestInsertionBuilder builder = createRoutePruningBuilder(createVehicle("v1", 0, 0), createVehicle("v2", 0, 0));
+		assertTrue(builder.isRoutePruningSound());
+	}
+
+	@Test
+	public void whenVehiclesDifferInLocationAndCanBeSwitched_routePruningShouldNotBeSound(){
+		BestInsertionBuilder builder = createRoutePruningBuilder(createVehicle("v1", 0, 0), createVehicle("v2", 1000, 0));
+		assertFalse(builder.isRoutePruningSound());
+	}
+
+	@Test
+	public void whenVehiclesDifferInLocationButCannotBeSwitched_routePruningShouldBeSound(){
+		BestInsertionBuilder builder = createRoutePruningBuilder(createVehicle("v1", 0, 0), createVehicle("v2", 1000, 0));
+		builder.setAllowVehicleSwitch(false);
+		assertTrue(builder.isRoutePruningSound());
+	}
+
+	@Test
+	public void whenFixedCostsAreConsidered_routePruningShouldNotBeSound(){
+		BestInsertionBuilder builder = createRoutePruningBuilder(createVehicle("v1", 0, 0), createVehicle("v2", 0, 0));
+		builder.considerFixedCosts(1.);
+		assertFalse(builder.isRoutePruningSound());
+	}
+
+}
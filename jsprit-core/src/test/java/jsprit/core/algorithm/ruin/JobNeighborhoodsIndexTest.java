@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.ruin;
+
+import jsprit.core.algorithm.ruin.distance.AvgServiceAndShipmentDistance;
+import jsprit.core.algorithm.ruin.distance.EuclideanServiceDistance;
+import jsprit.core.algorithm.ruin.distance.JobDistance;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.cost.VehicleRoutingTransportCosts;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.job.Shipment;
+import jsprit.core.util.Coordinate;
+import jsprit.core.util.FastVehicleRoutingTransportCostsMatrix;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+
+public class JobNeighborhoodsIndexTest {
+
+	VehicleRoutingProblem vrp;
+	
+	JobDistance jobDistance;
+	
+	Service target;
+	Service s2;
+	Service s3;
+	Service s4;
+	Service s5;
+	Service s6;
+	Service s7;
+	
+	@Before
+	public void doBefore(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		target = Service.Builder.newInstance("s1").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(0, 5)).build();
+		s2 = Service.Builder.newInstance("s2").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(0, 4)).build();
+		s3 = Service.Builder.newInstance("s3").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(0, 3)).build();
+		s4 = Service.Builder.newInstance("s4").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(0, 2)).build();
+		
+		s5 = Service.Builder.newInstance("s5").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(0, 6)).build();
+		s6 = Service.Builder.newInstance("s6").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(0, 7)).build();
+		s7 = Service.Builder.newInstance("s7").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(0, 8)).build();
+		
+		vrp = builder.addJob(target).addJob(s2).addJob(s3).addJob(s4).addJob(s5).addJob(s6).addJob(s7).build();
+		
+		jobDistance = new EuclideanServiceDistance();
+	}
+
+	private List<Job> getNeighbors(JobNeighborhoodsIndex index, int nNeighbors, Job job){
+		Iterator<Job> iter = index.getNearestNeighborsIterator(nNeighbors, job);
+		List<Job> neighbors = new ArrayList<Job>();
+		while(iter.hasNext()){
+			neighbors.add(iter.next());
+		}
+		return neighbors;
+	}
+	
+	@Test
+	public void whenRequestingNeighborhoodOfTargetJob_itShouldReturnNearestNeighborsInAscendingOrder(){
+		JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(vrp, jobDistance, 4);
+		index.initialise();
+		List<Job> neighbors = getNeighbors(index, 4, target);
+		assertEquals(4, neighbors.size());
+		//s2 and s5 as well as s3 and s6 are equally distant, ties are broken by job index
+		assertEquals(Arrays.<Job>asList(s2, s5, s3, s6), neighbors);
+	}
+	
+	@Test
+	public void whenRequestingLessNeighborsThanMemorized_itShouldReturnRequestedNumberOfNeighbors(){
+		JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(vrp, jobDistance, 4);
+		index.initialise();
+		assertEquals(Arrays.<Job>asList(s2, s5), getNeighbors(index, 2, target));
+	}
+	
+	@Test
+	public void whenRequestingMoreNeighborsThanMemorized_itShouldReturnMemorizedNeighbors(){
+		JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(vrp, jobDistance, 2);
+		index.initialise();
+		assertEquals(2, getNeighbors(index, 4, target).size());
+	}
+	
+	@Test
+	public void whenCapacityExceedsNumberOfOtherJobs_itShouldReturnAllOtherJobs(){
+		JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(vrp, jobDistance, 100);
+		index.initialise();
+		List<Job> neighbors = getNeighbors(index, 100, s7);
+		assertEquals(Arrays.<Job>asList(s6, s5, target, s2, s3, s4), neighbors);
+	}
+	
+	@Test
+	public void whenCalculatingConcurrently_itShouldReturnSameNeighborsAsSortingAllJobs(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		Random random = new Random(4711);
+		for(int i=0;i<200;i++){
+			builder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1).setCoord(Coordinate.newInstance(random.nextInt(50), random.nextInt(50))).build());
+		}
+		VehicleRoutingProblem vrp = builder.build();
+		JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(vrp, jobDistance, 20);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try{
+			index.initialise(executor, 3);
+		}
+		finally{
+			executor.shutdownNow();
+		}
+		for(final Job job : vrp.getJobs().values()){
+			List<Job> expected = new ArrayList<Job>(vrp.getJobs().values());
+			expected.remove(job);
+			Collections.sort(expected, new Comparator<Job>() {
+
+				@Override
+				public int compare(Job o1, Job o2) {
+					int result = Double.compare(jobDistance.getDistance(job, o1), jobDistance.getDistance(job, o2));
+					if(result != 0) return result;
+					return o1.getIndex() - o2.getIndex();
+				}
+
+			});
+			assertEquals(expected.subList(0, 20), getNeighbors(index, 20, job));
+		}
+	}
+	
+	@Test
+	public void whenQueryingSpatialIndex_itShouldReturnSameNeighborsAsCalculatingAllDistances(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance();
+		Random random = new Random(42);
+		for(int i=0;i<300;i++){
+			builder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1).setCoord(Coordinate.newInstance(random.nextInt(30), random.nextInt(30))).build());
+		}
+		VehicleRoutingProblem vrp = builder.build();
+		JobNeighborhoodsIndex spatial = new JobNeighborhoodsIndex(vrp, new EuclideanServiceDistance(), 25);
+		spatial.initialise();
+		JobNeighborhoodsIndex crowFlySpatial = new JobNeighborhoodsIndex(vrp, new AvgServiceAndShipmentDistance(vrp.getTransportCosts()), 25);
+		crowFlySpatial.initialise();
+		//same distance, but spatial index is not applicable since it is not the default distance class
+		JobNeighborhoodsIndex allDistances = new JobNeighborhoodsIndex(vrp, new AvgServiceAndShipmentDistance(vrp.getTransportCosts()){}, 25);
+		allDistances.initialise();
+		assertTrue(spatial.isSpatiallyIndexed());
+		assertTrue(crowFlySpatial.isSpatiallyIndexed());
+		assertFalse(allDistances.isSpatiallyIndexed());
+		for(Job job : vrp.getJobs().values()){
+			assertEquals(getNeighbors(allDistances, 25, job), getNeighbors(spatial, 25, job));
+			assertEquals(getNeighbors(allDistances, 25, job), getNeighbors(crowFlySpatial, 25, job));
+		}
+	}
+	
+	@Test
+	public void whenCostsAreNotCrowFlyCosts_itShouldNotUseSpatialIndex(){
+		VehicleRoutingProblem.Builder builder = VehicleRoutingProblem.Builder.newInstance().addJob(target).addJob(s2).addJob(s3);
+		VehicleRoutingTransportCosts matrix = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(builder, true).build();
+		VehicleRoutingProblem vrp = builder.setRoutingCost(matrix).build();
+		JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(vrp, new AvgServiceAndShipmentDistance(vrp.getTransportCosts()), 2);
+		assertFalse(index.isSpatiallyIndexed());
+	}
+	
+	@Test
+	public void whenProblemContainsShipments_itShouldNotUseSpatialIndex(){
+		Shipment shipment = Shipment.Builder.newInstance("shipment").addSizeDimension(0, 1)
+				.setPickupCoord(Coordinate.newInstance(0, 0)).setDeliveryCoord(Coordinate.newInstance(10, 0)).build();
+		VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addJob(target).addJob(s2).addJob(shipment).build();
+		JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(vrp, new AvgServiceAndShipmentDistance(vrp.getTransportCosts()), 2);
+		assertFalse(index.isSpatiallyIndexed());
+	}
+	
+	@Test
+	public void whenRequestingNeighborhoodsOfSameProblemAndEqualDistance_itShouldReturnSharedNeighborhoods(){
+		JobNeighborhoodsIndex index = JobNeighborhoodsIndex.getInstance(vrp, new EuclideanServiceDistance(), 3);
+		assertSame(index, JobNeighborhoodsIndex.getInstance(vrp, new EuclideanServiceDistance(), 2));
+		assertNotSame(index, JobNeighborhoodsIndex.getInstance(vrp, new EuclideanServiceDistance(), 5));
+		assertNotSame(index, JobNeighborhoodsIndex.getInstance(vrp, new AvgServiceAndShipmentDistance(vrp.getTransportCosts()), 3));
+	}
+	
+	@Test
+	public void whenRequestingMoreNeighborsThanOtherJobs_itShouldReturnSharedNeighborhoods(){
+		JobNeighborhoodsIndex index = JobNeighborhoodsIndex.getInstance(vrp, new EuclideanServiceDistance(), 100);
+		assertSame(index, JobNeighborhoodsIndex.getInstance(vrp, new EuclideanServiceDistance(), 100));
+		assertSame(index, JobNeighborhoodsIndex.getInstance(vrp, new EuclideanServiceDistance(), 7));
+		assertSame(index, JobNeighborhoodsIndex.getInstance(vrp, new EuclideanServiceDistance(), 6));
+	}
+	
+	@Test(timeout=60000)
+	public void whenAllThreadsOfExecutorAreBusy_callingThreadShouldCalculateNeighborhoods() throws InterruptedException{
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		final CountDownLatch release = new CountDownLatch(1);
+		try{
+			executor.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+
+			});
+			JobNeighborhoodsIndex index = new JobNeighborhoodsIndex(vrp, jobDistance, 4);
+			index.initialise(executor, 3);
+			assertEquals(Arrays.<Job>asList(s2, s5, s3, s6), getNeighbors(index, 4, target));
+		}
+		finally{
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test(timeout=60000)
+	public void whenNeighborhoodsOfOneProblemAreBeingCalculated_neighborhoodsOfAnotherProblemShouldNotWait() throws Exception{
+		final VehicleRoutingProblem otherVrp = VehicleRoutingProblem.Builder.newInstance().addJob(target).addJob(s2).addJob(s3).build();
+		final CountDownLatch calculationStarted = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final JobDistance blockingDistance = new JobDistance() {
+
+			@Override
+			public double getDistance(Job i, Job j) {
+				calculationStarted.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return jobDistance.getDistance(i, j);
+			}
+
+		};
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try{
+			Future<JobNeighborhoodsIndex> blocked = executor.submit(new Callable<JobNeighborhoodsIndex>() {
+
+				@Override
+				public JobNeighborhoodsIndex call() throws Exception {
+					return JobNeighborhoodsIndex.getInstance(vrp, blockingDistance, 2);
+				}
+
+			});
+			assertTrue(calculationStarted.await(30, TimeUnit.SECONDS));
+			JobNeighborhoodsIndex other = JobNeighborhoodsIndex.getInstance(otherVrp, jobDistance, 2);
+			assertEquals(Arrays.<Job>asList(s2, s3), getNeighbors(other, 2, target));
+			assertFalse(blocked.isDone());
+			release.countDown();
+			assertSame(blocked.get(), JobNeighborhoodsIndex.getInstance(vrp, blockingDistance, 2));
+		}
+		finally{
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+	
+}
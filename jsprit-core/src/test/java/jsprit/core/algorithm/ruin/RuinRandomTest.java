@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.ruin;
+
+import jsprit.core.algorithm.ruin.listener.RuinListener;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.util.Coordinate;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+
+public class RuinRandomTest {
+
+	static class RemovalRecorder implements RuinListener {
+
+		Map<Job,VehicleRoute> removed = new HashMap<Job, VehicleRoute>();
+
+		@Override
+		public void ruinStarts(Collection<VehicleRoute> routes) {}
+
+		@Override
+		public void ruinEnds(Collection<VehicleRoute> routes, Collection<Job> unassignedJobs) {}
+
+		@Override
+		public void removed(Job job, VehicleRoute fromRoute) {
+			assertNull(removed.put(job, fromRoute));
+		}
+
+	}
+
+	VehicleRoutingProblem vrp;
+
+	List<VehicleRoute> routes;
+
+	Map<Job,VehicleRoute> routeOfJob;
+
+	Service unassignedService;
+
+	@Before
+	public void doBefore(){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		List<VehicleImpl> vehicles = new ArrayList<VehicleImpl>();
+		List<List<Service>> servicesOfRoutes = new ArrayList<List<Service>>();
+		for(int r=0;r<5;r++){
+			VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v" + r).setStartLocationCoordinate(Coordinate.newInstance(0, r)).build();
+			vehicles.add(vehicle);
+			vrpBuilder.addVehicle(vehicle);
+			List<Service> services = new ArrayList<Service>();
+			for(int i=0;i<20;i++){
+				Service service = Service.Builder.newInstance("s" + r + "_" + i).addSizeDimension(0, 1).setCoord(Coordinate.newInstance(i, r)).build();
+				services.add(service);
+				vrpBuilder.addJob(service);
+			}
+			servicesOfRoutes.add(services);
+		}
+		unassignedService = Service.Builder.newInstance("unassigned").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(50, 50)).build();
+		vrpBuilder.addJob(unassignedService);
+		vrp = vrpBuilder.build();
+		routes = new ArrayList<VehicleRoute>();
+		routeOfJob = new HashMap<Job, VehicleRoute>();
+		for(int r=0;r<5;r++){
+			VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicles.get(r)).setJobActivityFactory(vrp.getJobActivityFactory());
+			for(Service service : servicesOfRoutes.get(r)) routeBuilder.addService(service);
+			VehicleRoute route = routeBuilder.build();
+			routes.add(route);
+			for(Service service : servicesOfRoutes.get(r)) routeOfJob.put(service, route);
+		}
+	}
+
+	private int getNuOfActivities(){
+		int nuOfActivities = 0;
+		for(VehicleRoute route : routes) nuOfActivities += route.getActivities().size();
+		return nuOfActivities;
+	}
+
+	@Test
+	public void whenRuining_itShouldRemoveDistinctJobsFromTheirRoutes(){
+		RuinRandom ruin = new RuinRandom(vrp, 0.5);
+		ruin.setRandom(new Random(4711));
+		RemovalRecorder recorder = new RemovalRecorder();
+		ruin.addListener(recorder);
+		Collection<Job> unassigned = ruin.ruin(routes);
+		assertEquals(51, unassigned.size());
+		assertEquals(51, new HashSet<Job>(unassigned).size());
+		for(Job job : unassigned){
+			if(job == unassignedService) continue;
+			assertSame(routeOfJob.get(job), recorder.removed.get(job));
+			assertFalse(routeOfJob.get(job).getTourActivities().servesJob(job));
+		}
+		assertEquals(100 - recorder.removed.size(), getNuOfActivities());
+	}
+
+	@Test
+	public void whenRuiningAllJobs_itShouldRemoveEachJobOnce(){
+		RuinRandom ruin = new RuinRandom(vrp, 1.0);
+		Collection<Job> unassigned = ruin.ruin(routes);
+		assertEquals(new HashSet<Job>(vrp.getJobs().values()), new HashSet<Job>(unassigned));
+		assertEquals(vrp.getJobs().size(), unassigned.size());
+		assertEquals(0, getNuOfActivities());
+	}
+
+	@Test
+	public void whenRuiningWithTargetJob_itShouldRemoveTargetJobOnlyOnce(){
+		RuinRandom ruin = new RuinRandom(vrp, 0.5);
+		Job targetJob = vrp.getJobs().get("s2_3");
+		for(int seed=0;seed<20;seed++){
+			doBefore();
+			ruin.setRandom(new Random(seed));
+			List<Job> unassigned = new ArrayList<Job>(ruin.ruin(routes, targetJob, 101));
+			assertEquals(targetJob, unassigned.get(0));
+			assertEquals(101, unassigned.size());
+			assertEquals(101, new HashSet<Job>(unassigned).size());
+		}
+	}
+
+	@Test
+	public void whenRuiningWithSameRandomNumbers_itShouldRemoveSameJobs(){
+		RuinRandom ruin = new RuinRandom(vrp, 0.3);
+		ruin.setRandom(new Random(42));
+		Collection<Job> unassigned = ruin.ruin(routes);
+		doBefore();
+		ruin.setRandom(new Random(42));
+		List<String> ids = new ArrayList<String>();
+		for(Job job : unassigned) ids.add(job.getId());
+		List<String> idsOfSecondRuin = new ArrayList<String>();
+		for(Job job : ruin.ruin(routes)) idsOfSecondRuin.add(job.getId());
+		assertEquals(ids, idsOfSecondRuin);
+	}
+
+	@Test
+	public void whenRuiningWithTargetJobAndSameRandomNumbers_itShouldRemoveSameJobs(){
+		RuinRandom ruin = new RuinRandom(vrp, 0.3);
+		Job targetJob = vrp.getJobs().get("s4_19");
+		ruin.setRandom(new Random(42));
+		Collection<Job> unassigned = ruin.ruin(routes, targetJob, 30);
+		doBefore();
+		ruin.setRandom(new Random(42));
+		List<String> ids = new ArrayList<String>();
+		for(Job job : unassigned) ids.add(job.getId());
+		List<String> idsOfSecondRuin = new ArrayList<String>();
+		for(Job job : ruin.ruin(routes, targetJob, 30)) idsOfSecondRuin.add(job.getId());
+		assertEquals(ids, idsOfSecondRuin);
+	}
+
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.ruin;
+
+import jsprit.core.algorithm.state.StateId;
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.job.Shipment;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.util.Coordinate;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class RuinWorstTest {
+
+	VehicleRoutingProblem vrp;
+
+	VehicleImpl vehicle;
+
+	VehicleRoute route;
+
+	Service outlier;
+
+	@Before
+	public void doBefore(){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		vehicle = VehicleImpl.Builder.newInstance("v").setStartLocationCoordinate(Coordinate.newInstance(0, 0)).build();
+		vrpBuilder.addVehicle(vehicle);
+		List<Service> services = new ArrayList<Service>();
+		for(int i=1;i<=10;i++){
+			Service service = Service.Builder.newInstance("s" + i).addSizeDimension(0, 1).setCoord(Coordinate.newInstance(i, 0)).build();
+			services.add(service);
+			vrpBuilder.addJob(service);
+		}
+		outlier = Service.Builder.newInstance("outlier").addSizeDimension(0, 1).setCoord(Coordinate.newInstance(5, 10)).build();
+		services.add(5, outlier);
+		vrpBuilder.addJob(outlier);
+		vrp = vrpBuilder.build();
+		VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory());
+		for(Service service : services) routeBuilder.addService(service);
+		route = routeBuilder.build();
+	}
+
+	private Random alwaysZero(){
+		Random random = mock(Random.class);
+		when(random.nextDouble()).thenReturn(0.);
+		return random;
+	}
+
+	private Service createService(String id, double x, double y){
+		return Service.Builder.newInstance(id).addSizeDimension(0, 1).setCoord(Coordinate.newInstance(x, y)).build();
+	}
+
+	@Test
+	public void whenRemovingOneJobWithoutRandomization_itShouldRemoveJobWithHighestSavings(){
+		RuinWorst ruin = new RuinWorst(vrp, 0.1, new StateManager(vrp));
+		ruin.setRandom(alwaysZero());
+		Collection<Job> unassigned = ruin.ruin(Arrays.asList(route), null, 1);
+		assertEquals(1, unassigned.size());
+		assertSame(outlier, unassigned.iterator().next());
+		assertFalse(route.getTourActivities().servesJob(outlier));
+		assertEquals(10, route.getActivities().size());
+	}
+
+	@Test
+	public void whenSavingsAreMemorizedAlready_itShouldUseThemInsteadOfRecalculating(){
+		StateManager stateManager = new StateManager(vrp);
+		RuinWorst ruin = new RuinWorst(vrp, 0.1, stateManager);
+		ruin.setRandom(alwaysZero());
+		stateManager.informInsertionStarts(Arrays.asList(route), null);
+		StateId removalSavingsId = stateManager.createStateId("removal_savings");
+		Job s3 = vrp.getJobs().get("s3");
+		stateManager.putActivityState(route.getActivities().get(2), removalSavingsId, 100.);
+		Collection<Job> unassigned = ruin.ruin(Arrays.asList(route), null, 1);
+		assertEquals(Arrays.asList(s3), new ArrayList<Job>(unassigned));
+	}
+
+	@Test
+	public void whenPickupAndDeliveryAreAdjacent_itShouldRemoveThemAsOneSegment(){
+		/*
+		 * removing shipment saves 10 + 0.5 + sqrt(1 + 10.5^2) - 1 = 20.05, whereas the sum of the savings of pickup and 
+		 * delivery is only 0 + 1.0. removing service c saves 5 + sqrt(1 + 5^2) - 1 = 9.1.
+		 */
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		vrpBuilder.addVehicle(vehicle);
+		Shipment shipment = Shipment.Builder.newInstance("shipment").addSizeDimension(0, 1)
+				.setPickupCoord(Coordinate.newInstance(5, 10)).setDeliveryCoord(Coordinate.newInstance(5, 10.5)).build();
+		Service c = createService("c", 8, 5);
+		vrpBuilder.addJob(shipment).addJob(c);
+		List<Service> services = new ArrayList<Service>();
+		for(int i=1;i<=10;i++){
+			Service service = createService("s" + i, i, 0);
+			services.add(service);
+			vrpBuilder.addJob(service);
+		}
+		VehicleRoutingProblem vrp = vrpBuilder.build();
+		VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory());
+		for(int i=0;i<10;i++){
+			routeBuilder.addService(services.get(i));
+			if(i == 4) routeBuilder.addPickup(shipment).addDelivery(shipment);
+			if(i == 7) routeBuilder.addService(c);
+		}
+		VehicleRoute route = routeBuilder.build();
+
+		RuinWorst ruin = new RuinWorst(vrp, 0.1, new StateManager(vrp));
+		ruin.setRandom(alwaysZero());
+		Collection<Job> unassigned = ruin.ruin(Arrays.asList(route), null, 1);
+		assertEquals(Arrays.<Job>asList(shipment), new ArrayList<Job>(unassigned));
+		assertEquals(11, route.getActivities().size());
+	}
+
+	@Test
+	public void whenRemovingJob_savingsOfRemainingJobsOfRouteShouldBeUpdated(){
+		/*
+		 * o1 and o2 share their location, thus removing one of them saves nothing. c saves 3 + sqrt(1 + 3^2) - 1 = 5.2, and 
+		 * o2 saves 10 + sqrt(1 + 10^2) - 1 = 19.05 once o1 has been removed.
+		 */
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		vrpBuilder.addVehicle(vehicle);
+		Service o1 = createService("o1", 5, 10);
+		Service o2 = createService("o2", 5, 10);
+		Service c = createService("c", 8, 3);
+		vrpBuilder.addJob(o1).addJob(o2).addJob(c);
+		List<Service> services = new ArrayList<Service>();
+		for(int i=1;i<=10;i++){
+			Service service = createService("s" + i, i, 0);
+			services.add(service);
+			vrpBuilder.addJob(service);
+		}
+		VehicleRoutingProblem vrp = vrpBuilder.build();
+		VehicleRoute.Builder routeBuilder = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory());
+		for(int i=0;i<10;i++){
+			routeBuilder.addService(services.get(i));
+			if(i == 4) routeBuilder.addService(o1).addService(o2);
+			if(i == 7) routeBuilder.addService(c);
+		}
+		VehicleRoute route = routeBuilder.build();
+
+		RuinWorst ruin = new RuinWorst(vrp, 0.1, new StateManager(vrp));
+		ruin.setRandom(alwaysZero());
+		List<Job> unassigned = new ArrayList<Job>(ruin.ruin(Arrays.asList(route), o1, 2));
+		assertEquals(Arrays.<Job>asList(o1, o2), unassigned);
+	}
+
+	@Test
+	public void whenRemovingSeveralJobs_itShouldRemoveDistinctJobsAndInformListeners(){
+		RuinWorst ruin = new RuinWorst(vrp, 0.5, new StateManager(vrp));
+		RuinRandomTest.RemovalRecorder recorder = new RuinRandomTest.RemovalRecorder();
+		ruin.addListener(recorder);
+		Collection<Job> unassigned = ruin.ruin(Arrays.asList(route));
+		assertEquals(6, unassigned.size());
+		assertEquals(6, new HashSet<Job>(unassigned).size());
+		assertEquals(new HashSet<Job>(unassigned), recorder.removed.keySet());
+		assertEquals(5, route.getActivities().size());
+	}
+
+	@Test
+	public void whenRuiningWithTargetJob_itShouldRemoveTargetJobFirst(){
+		RuinWorst ruin = new RuinWorst(vrp, 0.5, new StateManager(vrp));
+		ruin.setRandom(alwaysZero());
+		Job targetJob = vrp.getJobs().get("s3");
+		List<Job> unassigned = new ArrayList<Job>(ruin.ruin(Arrays.asList(route), targetJob, 2));
+		assertEquals(Arrays.<Job>asList(targetJob, outlier), unassigned);
+	}
+
+	@Test
+	public void whenRuiningMoreJobsThanServed_itShouldRemoveAllJobs(){
+		RuinWorst ruin = new RuinWorst(vrp, 1., new StateManager(vrp));
+		Collection<Job> unassigned = ruin.ruin(Arrays.asList(route), null, 20);
+		assertEquals(11, unassigned.size());
+		assertTrue(route.isEmpty());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void whenSettingRandomizationExponentLowerThanOne_itShouldThrowException(){
+		new RuinWorst(vrp, 0.1, new StateManager(vrp)).setRandomizationExponent(0.5);
+	}
+
+}
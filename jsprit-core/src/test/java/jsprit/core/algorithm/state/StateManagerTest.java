@@ -329,4 +329,161 @@ public class StateManagerTest {
         assertNull(stateManager.getActivityState(act, vehicle, id, Double.class));
         assertNull(stateManager.getActivityState(act,vehicle2, id, Double.class));
     }
+
+    @Test
+    public void whenActivityStateIsSetAsDouble_itShouldBeReturnedAsPrimitiveAndAsObject(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        stateManager.putActivityState(act, id, 10.);
+        assertEquals(10., stateManager.getActivityStateDouble(act, id), 0.01);
+        assertEquals(10., stateManager.getActivityState(act, id, Double.class), 0.01);
+    }
+
+    @Test
+    public void whenActivityStateIsSetAsObject_itShouldBeReturnedAsPrimitive(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        stateManager.putActivityState(act, id, Double.valueOf(10.));
+        assertEquals(10., stateManager.getActivityStateDouble(act, id), 0.01);
+    }
+
+    @Test
+    public void whenPrimitiveActivityStateIsNotSet_itShouldReturnNoState(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        assertTrue(Double.isNaN(stateManager.getActivityStateDouble(act, id)));
+        assertEquals(StateManager.NO_INT_STATE, stateManager.getActivityStateInt(act, id));
+    }
+
+    @Test
+    public void whenActivityStateIsSetAsInt_itShouldBeMemorized(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        stateManager.putActivityState(act, id, 3);
+        assertEquals(3, stateManager.getActivityStateInt(act, id));
+        assertEquals(3, (int) stateManager.getActivityState(act, id, Integer.class));
+        assertTrue(Double.isNaN(stateManager.getActivityStateDouble(act, id)));
+    }
+
+    @Test
+    public void whenDoubleActivityStateIsOverriddenByObject_itShouldReturnObject(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        stateManager.putActivityState(act, id, 10.);
+        stateManager.putActivityState(act, id, true);
+        assertTrue(stateManager.getActivityState(act, id, Boolean.class));
+        assertTrue(Double.isNaN(stateManager.getActivityStateDouble(act, id)));
+    }
+
+    @Test
+    public void whenVehicleDependentActivityStateIsSetAsDouble_itShouldBeMemorized(){
+        VehicleImpl vehicle = VehicleImpl.Builder.newInstance("v").setStartLocationId("loc").build();
+        //noinspection UnusedDeclaration
+        VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).build();
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        stateManager.putActivityState(act, vehicle, id, 10.);
+        assertEquals(10., stateManager.getActivityStateDouble(act, vehicle, id), 0.01);
+        assertEquals(10., stateManager.getActivityState(act, vehicle, id, Double.class), 0.01);
+        assertTrue(stateManager.hasActivityState(act, vehicle, id));
+    }
+
+    @Test
+    public void whenRouteStateIsSetAsDoubleAndInt_itShouldBeMemorized(){
+        VehicleRoute route = getRoute(mock(Vehicle.class));
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId doubleId = stateManager.createStateId("myDoubleState");
+        StateId intId = stateManager.createStateId("myIntState");
+        stateManager.putRouteState(route, doubleId, 10.);
+        stateManager.putRouteState(route, intId, 4);
+        assertEquals(10., stateManager.getRouteStateDouble(route, doubleId), 0.01);
+        assertEquals(10., stateManager.getRouteState(route, doubleId, Double.class), 0.01);
+        assertEquals(4, stateManager.getRouteStateInt(route, intId));
+        assertEquals(4, (int) stateManager.getRouteState(route, intId, Integer.class));
+    }
+
+    @Test
+    public void whenClearing_primitiveStatesShouldBeUnset(){
+        VehicleRoute route = getRoute(mock(Vehicle.class));
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        TourActivity act = mock(TourActivity.class);
+        when(act.getIndex()).thenReturn(1);
+        stateManager.putActivityState(act, id, 10.);
+        stateManager.putRouteState(route, id, 10.);
+        stateManager.clear();
+        assertTrue(Double.isNaN(stateManager.getActivityStateDouble(act, id)));
+        assertTrue(Double.isNaN(stateManager.getRouteStateDouble(route, id)));
+        assertNull(stateManager.getActivityState(act, id, Double.class));
+    }
+
+    @Test
+    public void whenMemorizingStatesOfManyRoutes_eachRouteShouldGetItsOwnIndex(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        List<VehicleRoute> routes = new ArrayList<VehicleRoute>();
+        for(int i=0;i<50;i++){
+            VehicleRoute route = getRoute(mock(Vehicle.class));
+            stateManager.putRouteState(route, id, (double) i);
+            routes.add(route);
+        }
+        for(int i=0;i<50;i++){
+            assertEquals((double) i, stateManager.getRouteStateDouble(routes.get(i), id), 0.01);
+            assertEquals(i + 1, routes.get(i).getIndex(stateManager));
+        }
+    }
+
+    @Test
+    public void whenClearing_routeIndicesShouldBeReassigned(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        VehicleRoute route = getRoute(mock(Vehicle.class));
+        VehicleRoute otherRoute = getRoute(mock(Vehicle.class));
+        stateManager.putRouteState(route, id, 10.);
+        stateManager.clear();
+        stateManager.putRouteState(otherRoute, id, 20.);
+        assertEquals(otherRoute.getIndex(stateManager), route.getIndex(stateManager));
+        assertTrue(Double.isNaN(stateManager.getRouteStateDouble(route, id)));
+        assertNull(stateManager.getRouteState(route, id, Double.class));
+        assertEquals(20., stateManager.getRouteStateDouble(otherRoute, id), 0.01);
+    }
+
+    @Test
+    public void whenTwoStateManagersMemorizeStatesOfSameRoute_eachShouldKeepItsStates(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateManager otherStateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        StateId otherId = otherStateManager.createStateId("myState");
+        VehicleRoute route = getRoute(mock(Vehicle.class));
+        stateManager.putRouteState(route, id, 10.);
+        otherStateManager.putRouteState(getRoute(mock(Vehicle.class)), otherId, 0.);
+        otherStateManager.putRouteState(route, otherId, 20.);
+        assertEquals(10., stateManager.getRouteStateDouble(route, id), 0.01);
+        assertEquals(20., otherStateManager.getRouteStateDouble(route, otherId), 0.01);
+        stateManager.putRouteState(route, id, 30.);
+        assertEquals(30., stateManager.getRouteStateDouble(route, id), 0.01);
+        assertEquals(20., otherStateManager.getRouteStateDouble(route, otherId), 0.01);
+    }
+
+    @Test
+    public void whenCopyingRoute_copyShouldNotShareStates(){
+        StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+        StateId id = stateManager.createStateId("myState");
+        VehicleRoute route = getRoute(mock(Vehicle.class));
+        stateManager.putRouteState(route, id, 10.);
+        VehicleRoute copy = VehicleRoute.copyOf(route);
+        assertNull(stateManager.getRouteState(copy, id, Double.class));
+    }
 }
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.algorithm.state;
+
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.job.Shipment;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.util.Coordinate;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class UpdateRemovalSavingsTest {
+	
+	private Service a = Service.Builder.newInstance("a").setCoord(Coordinate.newInstance(0, 3)).build();
+	
+	private Service b = Service.Builder.newInstance("b").setCoord(Coordinate.newInstance(4, 3)).build();
+	
+	private VehicleImpl createVehicle(boolean returnToDepot){
+		return VehicleImpl.Builder.newInstance("v").setStartLocationCoordinate(Coordinate.newInstance(0, 0)).setReturnToDepot(returnToDepot).build();
+	}
+	
+	private StateManager stateManager;
+	
+	private UpdateRemovalSavings updater;
+	
+	private void update(VehicleRoutingProblem vrp, VehicleRoute route){
+		stateManager = new StateManager(vrp);
+		updater = new UpdateRemovalSavings(vrp.getTransportCosts(), stateManager);
+		stateManager.addStateUpdater(updater);
+		stateManager.informInsertionStarts(Arrays.asList(route), null);
+	}
+
+	@Test
+	public void whenRouteIsClosed_savingsShouldBeCostsOfDetour(){
+		VehicleImpl vehicle = createVehicle(true);
+		VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(a).addJob(b).build();
+		VehicleRoute route = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory()).addService(a).addService(b).build();
+		update(vrp, route);
+		assertEquals(3. + 4. - 5., stateManager.getActivityStateDouble(route.getActivities().get(0), updater.getStateId()), 0.01);
+		assertEquals(4. + 5. - 3., stateManager.getActivityStateDouble(route.getActivities().get(1), updater.getStateId()), 0.01);
+	}
+	
+	@Test
+	public void whenRouteIsOpen_savingsOfLastActivityShouldBeCostsOfReachingIt(){
+		VehicleImpl vehicle = createVehicle(false);
+		VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(a).addJob(b).build();
+		VehicleRoute route = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory()).addService(a).addService(b).build();
+		update(vrp, route);
+		assertEquals(3. + 4. - 5., stateManager.getActivityStateDouble(route.getActivities().get(0), updater.getStateId()), 0.01);
+		assertEquals(4., stateManager.getActivityStateDouble(route.getActivities().get(1), updater.getStateId()), 0.01);
+	}
+	
+	@Test
+	public void whenPickupAndDeliveryAreAdjacent_savingsOfSegmentShouldBeMemorizedAtPickup(){
+		VehicleImpl vehicle = createVehicle(true);
+		Shipment shipment = Shipment.Builder.newInstance("shipment").setPickupCoord(Coordinate.newInstance(0, 3))
+				.setDeliveryCoord(Coordinate.newInstance(4, 3)).build();
+		VehicleRoutingProblem vrp = VehicleRoutingProblem.Builder.newInstance().addVehicle(vehicle).addJob(shipment).build();
+		VehicleRoute route = VehicleRoute.Builder.newInstance(vehicle).setJobActivityFactory(vrp.getJobActivityFactory()).addPickup(shipment).addDelivery(shipment).build();
+		update(vrp, route);
+		assertEquals(3. + 4. + 5., stateManager.getActivityStateDouble(route.getActivities().get(0), updater.getStateId()), 0.01);
+		assertEquals(0., stateManager.getActivityStateDouble(route.getActivities().get(1), updater.getStateId()), 0.01);
+	}
+
+}
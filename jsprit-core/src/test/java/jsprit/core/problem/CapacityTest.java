@@ -372,4 +372,36 @@ public class CapacityTest {
 		Capacity cap2 = Capacity.Builder.newInstance().build();
 		assertEquals(0.0,Capacity.divide(cap1, cap2),0.001);
 	}
+	
+	@Test
+	public void whenSumFitsIntoCapacity_isSumLessOrEqualShouldReturnTrue(){
+		Capacity cap1 = Capacity.Builder.newInstance().addDimension(0, 1).addDimension(1, 2).build();
+		Capacity cap2 = Capacity.Builder.newInstance().addDimension(0, 2).build();
+		Capacity capacity = Capacity.Builder.newInstance().addDimension(0, 3).addDimension(1, 2).build();
+		assertTrue(Capacity.isSumLessOrEqual(cap1, cap2, capacity));
+	}
+	
+	@Test
+	public void whenSumExceedsCapacityInOneDim_isSumLessOrEqualShouldReturnFalse(){
+		Capacity cap1 = Capacity.Builder.newInstance().addDimension(0, 1).build();
+		Capacity cap2 = Capacity.Builder.newInstance().addDimension(0, 2).addDimension(1, 3).build();
+		Capacity capacity = Capacity.Builder.newInstance().addDimension(0, 3).addDimension(1, 2).build();
+		assertFalse(Capacity.isSumLessOrEqual(cap1, cap2, capacity));
+	}
+	
+	@Test
+	public void whenDifferenceFitsIntoCapacity_isDifferenceLessOrEqualShouldReturnTrue(){
+		Capacity cap = Capacity.Builder.newInstance().addDimension(0, 5).addDimension(1, 2).build();
+		Capacity cap2subtract = Capacity.Builder.newInstance().addDimension(0, 2).build();
+		Capacity capacity = Capacity.Builder.newInstance().addDimension(0, 3).addDimension(1, 2).build();
+		assertTrue(Capacity.isDifferenceLessOrEqual(cap, cap2subtract, capacity));
+	}
+	
+	@Test
+	public void whenDifferenceExceedsCapacity_isDifferenceLessOrEqualShouldReturnFalse(){
+		Capacity cap = Capacity.Builder.newInstance().addDimension(0, 5).build();
+		Capacity cap2subtract = Capacity.Builder.newInstance().addDimension(0, 1).build();
+		Capacity capacity = Capacity.Builder.newInstance().addDimension(0, 3).build();
+		assertFalse(Capacity.isDifferenceLessOrEqual(cap, cap2subtract, capacity));
+	}
 }
@@ -589,4 +589,54 @@ public class VehicleRoutingProblemTest {
         assertEquals(2,veh2.getVehicleTypeIdentifier().getIndex());
 
     }
+
+    @Test
+    public void whenAddingJobsAndVehicles_locationsShouldHaveDenseIndices(){
+        Service service = Service.Builder.newInstance("myService").setLocationId("loc").build();
+        Shipment shipment = Shipment.Builder.newInstance("shipment").setPickupLocationId("pick").setDeliveryLocationId("loc").build();
+        VehicleImpl veh = VehicleImpl.Builder.newInstance("v1").setStartLocationId("start").setStartLocationCoordinate(Coordinate.newInstance(0, 1)).setEndLocationId("end").build();
+
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+        vrpBuilder.addJob(service).addJob(shipment).addVehicle(veh);
+        VehicleRoutingProblem vrp = vrpBuilder.build();
+
+        assertEquals(1, vrp.getLocationIndex("loc"));
+        assertEquals(2, vrp.getLocationIndex("pick"));
+        assertEquals(3, vrp.getLocationIndex("start"));
+        assertEquals(4, vrp.getLocationIndex("end"));
+        assertEquals(5, vrp.getNuLocations());
+        assertEquals("pick", vrp.getLocationId(2));
+        assertEquals(3, veh.getStartLocationIndex());
+        assertEquals(4, veh.getEndLocationIndex());
+    }
+
+    @Test
+    public void whenBuildingProblem_activitiesShouldKnowTheirLocationIndex(){
+        Shipment shipment = Shipment.Builder.newInstance("shipment").setPickupLocationId("pick").setDeliveryLocationId("del").build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+        vrpBuilder.addLocation("del", Coordinate.newInstance(0, 0));
+        vrpBuilder.addJob(shipment);
+        VehicleRoutingProblem vrp = vrpBuilder.build();
+
+        assertEquals(2, vrp.copyAndGetActivities(shipment).get(0).getLocationIndex());
+        assertEquals(1, vrp.copyAndGetActivities(shipment).get(1).getLocationIndex());
+    }
+
+    @Test
+    public void whenBuildingRouteWithRegisteredVehicle_startAndEndShouldKnowTheirLocationIndex(){
+        VehicleImpl veh = VehicleImpl.Builder.newInstance("v1").setStartLocationId("start").setStartLocationCoordinate(Coordinate.newInstance(0, 1)).setEndLocationId("end").build();
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+        vrpBuilder.addVehicle(veh);
+        vrpBuilder.build();
+
+        VehicleRoute route = VehicleRoute.Builder.newInstance(veh, DriverImpl.noDriver()).build();
+        assertEquals(1, route.getStart().getLocationIndex());
+        assertEquals(2, route.getEnd().getLocationIndex());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void whenRequestingIndexOfUnknownLocation_itShouldThrowException(){
+        VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+        vrpBuilder.getLocationIndex("unknown");
+    }
 }
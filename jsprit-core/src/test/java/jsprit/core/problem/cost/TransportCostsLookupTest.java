@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.problem.cost;
+
+import jsprit.core.problem.AbstractActivity;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransportCostsLookupTest {
+
+    @Test
+    public void whenCostsAreIndexedAndActivitiesHaveLocationIndex_itShouldUseIndices(){
+        IndexedVehicleRoutingTransportCosts costs = mock(IndexedVehicleRoutingTransportCosts.class);
+        when(costs.getTransportTime(1, 2, 0., null, null)).thenReturn(10.);
+        when(costs.getTransportTime("from", "to", 0., null, null)).thenReturn(20.);
+        TransportCostsLookup lookup = TransportCostsLookup.newInstance(costs);
+        assertEquals(10., lookup.getTransportTime(activity("from",1), activity("to",2), 0., null, null), 0.01);
+    }
+
+    @Test
+    public void whenActivityHasNoLocationIndex_itShouldFallBackToLocationIds(){
+        IndexedVehicleRoutingTransportCosts costs = mock(IndexedVehicleRoutingTransportCosts.class);
+        when(costs.getTransportCost(1, 2, 0., null, null)).thenReturn(10.);
+        when(costs.getTransportCost("from", "to", 0., null, null)).thenReturn(20.);
+        TransportCostsLookup lookup = TransportCostsLookup.newInstance(costs);
+        assertEquals(20., lookup.getTransportCost(activity("from",0), activity("to",2), 0., null, null), 0.01);
+    }
+
+    @Test
+    public void whenCostsAreNotIndexed_itShouldUseLocationIds(){
+        VehicleRoutingTransportCosts costs = mock(VehicleRoutingTransportCosts.class);
+        when(costs.getBackwardTransportTime("from", "to", 0., null, null)).thenReturn(20.);
+        TransportCostsLookup lookup = TransportCostsLookup.newInstance(costs);
+        assertEquals(20., lookup.getBackwardTransportTime(activity("from",1), activity("to",2), 0., null, null), 0.01);
+    }
+
+    @Test
+    public void adapterShouldTranslateIndicesToLocationIds(){
+        VehicleRoutingTransportCosts costs = mock(VehicleRoutingTransportCosts.class);
+        when(costs.getTransportCost("from", "to", 0., null, null)).thenReturn(20.);
+        IndexedTransportCostsAdapter adapter = new IndexedTransportCostsAdapter(costs, new String[]{ null, "from", "to" });
+        assertEquals(20., adapter.getTransportCost(1, 2, 0., null, null), 0.01);
+    }
+
+    @Test
+    public void whenActivityDoesNotCarryLocationIndex_itShouldFallBackToLocationIds(){
+        IndexedVehicleRoutingTransportCosts costs = mock(IndexedVehicleRoutingTransportCosts.class);
+        when(costs.getTransportCost("from", "to", 0., null, null)).thenReturn(20.);
+        TransportCostsLookup lookup = TransportCostsLookup.newInstance(costs);
+        TourActivity from = mock(TourActivity.class);
+        when(from.getLocationId()).thenReturn("from");
+        assertEquals(0, TransportCostsLookup.getLocationIndex(from));
+        assertEquals(20., lookup.getTransportCost(from, activity("to",2), 0., null, null), 0.01);
+    }
+
+    private TourActivity activity(String locationId, int locationIndex){
+        AbstractActivity act = mock(AbstractActivity.class);
+        when(act.getLocationId()).thenReturn(locationId);
+        when(act.getLocationIndex()).thenReturn(locationIndex);
+        return act;
+    }
+
+}
@@ -21,6 +21,8 @@ import jsprit.core.problem.job.Shipment;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 
@@ -226,5 +228,121 @@ public class TestTourActivities {
 
         assertTrue(copiedTour.servesJob(s));
     }
-	
+
+    @Test
+    public void whenCopyingSeq_itShouldDuplicateActivities(){
+        tour.addActivity(act);
+        TourActivities copiedTour = TourActivities.copyOf(tour);
+        copiedTour.getActivities().get(0).setArrTime(10.);
+
+        assertNotSame(act, copiedTour.getActivities().get(0));
+        assertTrue(copiedTour.servesJob(service));
+        assertEquals(0., act.getArrTime(), 0.01);
+    }
+
+    @Test
+    public void whenCopyingSeq_copyShouldHaveSameVersionUntilModified(){
+        tour.addActivity(act);
+        TourActivities copiedTour = TourActivities.copyOf(tour);
+        Object version = tour.getVersion();
+
+        assertSame(version, copiedTour.getVersion());
+        copiedTour.removeJob(service);
+        assertNotSame(version, copiedTour.getVersion());
+        assertSame(version, tour.getVersion());
+    }
+
+    @Test
+    public void whenModifyingCopiedSeq_originalShouldNotChange(){
+        tour.addActivity(act);
+        TourActivities copiedTour = TourActivities.copyOf(tour);
+        Service anotherService = Service.Builder.newInstance("s2").addSizeDimension(0, 10).setLocationId("loc").build();
+        copiedTour.addActivity(ServiceActivity.newInstance(anotherService));
+        copiedTour.removeJob(service);
+
+        assertEquals(1, copiedTour.getActivities().size());
+        assertFalse(copiedTour.servesJob(service));
+        assertEquals(1, tour.getActivities().size());
+        assertTrue(tour.servesJob(service));
+        assertFalse(tour.servesJob(anotherService));
+        assertSame(act, tour.getActivities().get(0));
+    }
+
+    @Test
+    public void whenModifyingCopiedSeq_itShouldDuplicateItsActivities(){
+        Service anotherService = Service.Builder.newInstance("s2").addSizeDimension(0, 10).setLocationId("loc").build();
+        tour.addActivity(act);
+        TourActivities copiedTour = TourActivities.copyOf(tour);
+        copiedTour.addActivity(ServiceActivity.newInstance(anotherService));
+        copiedTour.getActivities().get(0).setArrTime(10.);
+
+        assertNotSame(act, copiedTour.getActivities().get(0));
+        assertEquals(0., act.getArrTime(), 0.01);
+    }
+
+    @Test
+    public void whenModifyingOriginalSeq_copyShouldNotChange(){
+        tour.addActivity(act);
+        TourActivities copiedTour = TourActivities.copyOf(tour);
+        tour.removeJob(service);
+
+        assertTrue(tour.isEmpty());
+        assertEquals(1, copiedTour.getActivities().size());
+        assertTrue(copiedTour.servesJob(service));
+    }
+
+    @Test
+    public void whenRemovingSeveralJobsAtOnce_onlyTheirActivitiesShouldBeRemovedAndOrderBeKept(){
+        Service s2 = Service.Builder.newInstance("s2").addSizeDimension(0, 1).setLocationId("loc2").build();
+        Service s3 = Service.Builder.newInstance("s3").addSizeDimension(0, 1).setLocationId("loc3").build();
+        Shipment shipment = Shipment.Builder.newInstance("shipment").addSizeDimension(0, 1).setDeliveryLocationId("delLoc").setPickupLocationId("pickLoc").build();
+        TourShipmentActivityFactory fac = new DefaultShipmentActivityFactory();
+        TourActivity pickupShipment = fac.createPickup(shipment);
+        TourActivity deliverShipment = fac.createDelivery(shipment);
+        ServiceActivity act2 = ServiceActivity.newInstance(s2);
+        ServiceActivity act3 = ServiceActivity.newInstance(s3);
+        tour.addActivity(pickupShipment);
+        tour.addActivity(act);
+        tour.addActivity(act2);
+        tour.addActivity(deliverShipment);
+        tour.addActivity(act3);
+
+        assertTrue(tour.removeJobs(Arrays.asList(shipment, s2)));
+
+        assertEquals(2, tour.getActivities().size());
+        assertSame(act, tour.getActivities().get(0));
+        assertSame(act3, tour.getActivities().get(1));
+        assertFalse(tour.servesJob(shipment));
+        assertFalse(tour.servesJob(s2));
+        assertFalse(tour.hasActivity(pickupShipment));
+        assertFalse(tour.hasActivity(act2));
+        assertEquals(2, tour.jobSize());
+    }
+
+    @Test
+    public void whenRemovingJobsThatAreNotServed_nothingShouldBeRemoved(){
+        Service s2 = Service.Builder.newInstance("s2").addSizeDimension(0, 1).setLocationId("loc2").build();
+        tour.addActivity(act);
+
+        assertFalse(tour.removeJobs(Arrays.asList(s2)));
+        assertEquals(1, tour.getActivities().size());
+        assertTrue(tour.servesJob(service));
+    }
+
+    @Test
+    public void whenRemovingSeveralJobsFromCopiedSeq_originalShouldNotChange(){
+        Service s2 = Service.Builder.newInstance("s2").addSizeDimension(0, 1).setLocationId("loc2").build();
+        ServiceActivity act2 = ServiceActivity.newInstance(s2);
+        tour.addActivity(act);
+        tour.addActivity(act2);
+        TourActivities copiedTour = TourActivities.copyOf(tour);
+
+        assertTrue(copiedTour.removeJobs(Arrays.asList(service, s2)));
+        assertTrue(copiedTour.isEmpty());
+        assertEquals(0, copiedTour.jobSize());
+        assertEquals(2, tour.getActivities().size());
+        assertSame(act, tour.getActivities().get(0));
+        assertTrue(tour.servesJob(s2));
+    }
+
 }
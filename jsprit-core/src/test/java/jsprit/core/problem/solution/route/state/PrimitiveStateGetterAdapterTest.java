@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.problem.solution.route.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import jsprit.core.algorithm.state.InternalStates;
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.solution.route.VehicleRoute;
+import jsprit.core.problem.solution.route.activity.TourActivity;
+
+import org.junit.Test;
+
+public class PrimitiveStateGetterAdapterTest {
+
+	@Test
+	public void whenAdaptingStateManager_itShouldReturnStateManagerItself(){
+		StateManager stateManager = new StateManager(mock(VehicleRoutingProblem.class));
+		assertSame(stateManager, PrimitiveStateGetterAdapter.adapt(stateManager));
+	}
+	
+	@Test
+	public void whenAdaptingPlainStateGetter_itShouldUnboxStates(){
+		RouteAndActivityStateGetter states = mock(RouteAndActivityStateGetter.class);
+		TourActivity act = mock(TourActivity.class);
+		VehicleRoute route = mock(VehicleRoute.class);
+		when(states.getActivityState(act, InternalStates.LATEST_OPERATION_START_TIME, Double.class)).thenReturn(10.);
+		when(states.getRouteState(route, InternalStates.COSTS, Double.class)).thenReturn(20.);
+		PrimitiveRouteAndActivityStateGetter adapter = PrimitiveStateGetterAdapter.adapt(states);
+		assertEquals(10.,adapter.getActivityStateDouble(act, InternalStates.LATEST_OPERATION_START_TIME),0.01);
+		assertEquals(20.,adapter.getRouteStateDouble(route, InternalStates.COSTS),0.01);
+	}
+	
+	@Test
+	public void whenStateIsNotSetInPlainStateGetter_itShouldReturnNoState(){
+		RouteAndActivityStateGetter states = mock(RouteAndActivityStateGetter.class);
+		PrimitiveRouteAndActivityStateGetter adapter = PrimitiveStateGetterAdapter.adapt(states);
+		assertTrue(Double.isNaN(adapter.getActivityStateDouble(mock(TourActivity.class), InternalStates.COSTS)));
+		assertEquals(StateManager.NO_INT_STATE,adapter.getRouteStateInt(mock(VehicleRoute.class), InternalStates.COSTS));
+	}
+
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleType;
+import jsprit.core.problem.vehicle.VehicleTypeImpl;
+
+import org.junit.Test;
+
+public class FastVehicleRoutingTransportCostsMatrixTest {
+	
+	@Test
+	public void whenAddingDistanceToSymmetricMatrix_itShouldReturnCorrectValues(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, true);
+		matrixBuilder.addTransportDistance(1, 2, 2.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		assertEquals(2.,matrix.getTransportCost(1, 2, 0.0, null, null),0.1);
+		assertEquals(2.,matrix.getDistance(1, 2),0.1);
+		assertEquals(2.,matrix.getTransportCost(2, 1, 0.0, null, null),0.1);
+		assertEquals(2.,matrix.getDistance(2, 1),0.1);
+	}
+	
+	@Test
+	public void whenAddingRelationsAfterBuildingMatrix_itShouldThrowException(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, false);
+		matrixBuilder.addTransportDistance(1, 2, 2.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		try{
+			matrixBuilder.addTransportDistance(1, 2, 4.);
+			assertTrue(false);
+		}
+		catch(IllegalStateException e){ assertTrue(true); }
+		assertEquals(2.,matrix.getDistance(1, 2),0.1);
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void whenBuildingMatrixTwice_itShouldThrowException(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, false);
+		matrixBuilder.build();
+		matrixBuilder.build();
+	}
+	
+	@Test
+	public void whenAddingDistanceToSymmetricMatrixWhereReverseKeyAlreadyExists_itShouldOverrideValues(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, true);
+		matrixBuilder.addTransportDistance(1, 2, 2.);
+		//overide
+		matrixBuilder.addTransportDistance(2, 1, 4.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		assertEquals(4.,matrix.getDistance(1, 2),0.1);
+		assertEquals(4.,matrix.getDistance(2, 1),0.1);
+	}
+	
+	@Test
+	public void whenFillingSymmetricMatrix_allRelationsShouldBeStoredSeparately(){
+		int n = 5;
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(n, true);
+		for(int i=0;i<n;i++){
+			for(int j=i;j<n;j++){
+				matrixBuilder.addTransportDistance(i, j, 10.*i + j);
+				matrixBuilder.addTransportTime(j, i, 100.*i + j);
+			}
+		}
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		for(int i=0;i<n;i++){
+			for(int j=0;j<n;j++){
+				int min = Math.min(i, j);
+				int max = Math.max(i, j);
+				assertEquals(10.*min + max, matrix.getDistance(i, j), 0.01);
+				assertEquals(100.*min + max, matrix.getTime(i, j), 0.01);
+			}
+		}
+	}
+	
+	@Test
+	public void whenAddingDistanceToAsymmetricMatrix_itShouldReturnCorrectValues(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, false);
+		matrixBuilder.addTransportDistance(1, 2, 2.);
+		matrixBuilder.addTransportDistance(2, 1, 4.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		assertEquals(2.,matrix.getTransportCost(1, 2, 0.0, null, null),0.1);
+		assertEquals(4.,matrix.getTransportCost(2, 1, 0.0, null, null),0.1);
+	}
+	
+	@Test
+	public void whenAddingTimeToAsymmetricMatrix_itShouldReturnCorrectValues(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, false);
+		matrixBuilder.addTransportTime(1, 2, 2.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		assertEquals(2.,matrix.getTransportTime(1, 2, 0.0, null, null),0.1);
+		assertEquals(0.,matrix.getTransportTime(2, 1, 0.0, null, null),0.1);
+		assertEquals(2.,matrix.getBackwardTransportTime(1, 2, 0.0, null, null),0.1);
+	}
+	
+	@Test
+	public void whenTimesAreNotSet_itShouldReturnZero(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, false);
+		matrixBuilder.addTransportDistance(1, 2, 2.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		assertEquals(0.,matrix.getTransportTime(1, 2, 0.0, null, null),0.1);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void whenAddingRelationWithIndexOutOfRange_itShouldThrowException(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, false);
+		matrixBuilder.addTransportDistance(1, 3, 2.);
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void whenRequestingRelationOfUnknownLocationId_itShouldThrowException(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, false);
+		matrixBuilder.addLocation("from", 1).addTransportDistance(1, 2, 2.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		matrix.getTransportCost("from", "to", 0.0, null, null);
+	}
+	
+	@Test
+	public void whenBuildingMatrixFromProblemBuilder_locationIdsAndIndicesShouldMatch(){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		vrpBuilder.addJob(Service.Builder.newInstance("s1").setCoord(Coordinate.newInstance(0, 10)).setLocationId("loc1").build());
+		vrpBuilder.addJob(Service.Builder.newInstance("s2").setCoord(Coordinate.newInstance(10, 10)).setLocationId("loc2").build());
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(vrpBuilder, false);
+		matrixBuilder.addTransportDistance("loc1", "loc2", 3.);
+		matrixBuilder.addTransportTime("loc2", "loc1", 5.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		int loc1 = vrpBuilder.getLocationIndex("loc1");
+		int loc2 = vrpBuilder.getLocationIndex("loc2");
+		assertEquals(3.,matrix.getDistance(loc1, loc2),0.1);
+		assertEquals(3.,matrix.getDistance("loc1", "loc2"),0.1);
+		assertEquals(5.,matrix.getTransportTime("loc2", "loc1", 0.0, null, null),0.1);
+		assertEquals(5.,matrix.getTime(loc2, loc1),0.1);
+	}
+	
+	@Test
+	public void whenAddingTimeAndDistanceToAsymmetricMatrix_itShouldReturnCorrectCostValues(){
+		FastVehicleRoutingTransportCostsMatrix.Builder matrixBuilder = FastVehicleRoutingTransportCostsMatrix.Builder.newInstance(3, false);
+		matrixBuilder.addTransportTime(1, 2, 5.);
+		matrixBuilder.addTransportDistance(1, 2, 100.);
+		FastVehicleRoutingTransportCostsMatrix matrix = matrixBuilder.build();
+		Vehicle vehicle = mock(Vehicle.class);
+		VehicleType type = VehicleTypeImpl.Builder.newInstance("t").setCostPerDistance(1.).setCostPerTime(2.).build();
+		when(vehicle.getType()).thenReturn(type);
+		assertEquals(110.,matrix.getTransportCost(1, 2, 0.0, null, vehicle),0.01);
+		assertEquals(110.,matrix.getBackwardTransportCost(1, 2, 0.0, null, vehicle),0.01);
+	}
+
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import jsprit.core.algorithm.VehicleRoutingAlgorithm;
+import jsprit.core.algorithm.box.SchrimpfFactory;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.problem.vehicle.VehicleType;
+import jsprit.core.problem.vehicle.VehicleTypeImpl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedVehicleRoutingTransportCostsMatrixTest {
+	
+	private String filename;
+	
+	@Before
+	public void doBefore() throws IOException{
+		File file = File.createTempFile("matrix", ".bin");
+		file.deleteOnExit();
+		filename = file.getAbsolutePath();
+	}
+	
+	@Test
+	public void whenWritingAsymmetricMatrix_itShouldReturnCorrectValues(){
+		new MappedVehicleRoutingTransportCostsMatrixWriter(filename, Arrays.asList("from","to"), false)
+			.addTransportDistance("from", "to", 2.)
+			.addTransportDistance("to", "from", 4.)
+			.close();
+		VehicleRoutingProblem.Builder vrpBuilder = newProblemBuilder("from","to");
+		MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.newInstance(filename, vrpBuilder);
+		assertEquals(2.,matrix.getTransportCost("from", "to", 0.0, null, null),0.1);
+		assertEquals(4.,matrix.getTransportCost("to", "from", 0.0, null, null),0.1);
+		assertEquals(2.,matrix.getDistance(vrpBuilder.getLocationIndex("from"), vrpBuilder.getLocationIndex("to")),0.1);
+		assertEquals(0.,matrix.getTransportTime("from", "to", 0.0, null, null),0.1);
+	}
+	
+	@Test
+	public void whenWritingSymmetricMatrix_itShouldReturnCorrectValues(){
+		new MappedVehicleRoutingTransportCostsMatrixWriter(filename, Arrays.asList("1","2","3"), true)
+			.addTransportTime("1", "2", 2.)
+			.addTransportTime("3", "2", 5.)
+			.close();
+		VehicleRoutingProblem.Builder vrpBuilder = newProblemBuilder("1","2","3");
+		MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.newInstance(filename, vrpBuilder);
+		assertEquals(2.,matrix.getTransportTime("1", "2", 0.0, null, null),0.1);
+		assertEquals(2.,matrix.getTransportTime("2", "1", 0.0, null, null),0.1);
+		assertEquals(5.,matrix.getTransportTime("2", "3", 0.0, null, null),0.1);
+		assertEquals(5.,matrix.getBackwardTransportTime(vrpBuilder.getLocationIndex("3"), vrpBuilder.getLocationIndex("2"), 0.0, null, null),0.1);
+		assertEquals(0.,matrix.getTransportTime("3", "3", 0.0, null, null),0.1);
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void whenRequestingRelationThatDoesNotExist_itShouldThrowException(){
+		new MappedVehicleRoutingTransportCostsMatrixWriter(filename, Arrays.asList("1","2"), false)
+			.addTransportDistance("1", "2", 2.)
+			.close();
+		MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.newInstance(filename, newProblemBuilder("1","2"));
+		matrix.getTransportCost("2", "1", 0.0, null, null);
+	}
+	
+	@Test
+	public void whenConvertingMatrixBuilder_itShouldReturnSameValues(){
+		VehicleRoutingTransportCostsMatrix.Builder matrixBuilder = VehicleRoutingTransportCostsMatrix.Builder.newInstance(false);
+		matrixBuilder.addTransportDistance("a", "b", 3.).addTransportDistance("b", "c", 7.);
+		matrixBuilder.addTransportTime("a", "b", 30.).addTransportTime("b", "c", 70.);
+		MappedVehicleRoutingTransportCostsMatrixWriter.write(matrixBuilder, filename);
+		MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.newInstance(filename, newProblemBuilder("a","b","c"));
+		VehicleRoutingTransportCostsMatrix expected = matrixBuilder.build();
+		assertEquals(expected.getDistance("a", "b"),matrix.getDistance("a", "b"),0.01);
+		assertEquals(expected.getDistance("b", "c"),matrix.getDistance("b", "c"),0.01);
+		assertEquals(expected.getTransportTime("b", "c", 0.0, null, null),matrix.getTransportTime("b", "c", 0.0, null, null),0.01);
+		
+		Vehicle vehicle = mock(Vehicle.class);
+		VehicleType type = VehicleTypeImpl.Builder.newInstance("t").setCostPerDistance(1.).setCostPerTime(2.).build();
+		when(vehicle.getType()).thenReturn(type);
+		assertEquals(expected.getTransportCost("a", "b", 0.0, null, vehicle),matrix.getTransportCost("a", "b", 0.0, null, vehicle),0.01);
+	}
+	
+	@Test
+	public void whenOpeningMatrixForProblemBuilder_locationIndicesShouldBeTranslated(){
+		new MappedVehicleRoutingTransportCostsMatrixWriter(filename, Arrays.asList("loc1","loc2","loc3"), false)
+			.addTransportDistance("loc3", "loc2", 4.)
+			.close();
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		vrpBuilder.addJob(Service.Builder.newInstance("s3").setCoord(Coordinate.newInstance(0, 10)).setLocationId("loc3").build());
+		vrpBuilder.addJob(Service.Builder.newInstance("s2").setCoord(Coordinate.newInstance(10, 10)).setLocationId("loc2").build());
+		MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.newInstance(filename, vrpBuilder);
+		assertEquals(4.,matrix.getDistance(vrpBuilder.getLocationIndex("loc3"), vrpBuilder.getLocationIndex("loc2")),0.01);
+		assertEquals(4.,matrix.getTransportCost(vrpBuilder.getLocationIndex("loc3"), vrpBuilder.getLocationIndex("loc2"), 0.0, null, null),0.01);
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void whenRequestingLocationIndexThatIsNotContainedInFile_itShouldThrowException(){
+		new MappedVehicleRoutingTransportCostsMatrixWriter(filename, Arrays.asList("loc1","loc2"), false)
+			.addTransportDistance("loc1", "loc2", 4.)
+			.close();
+		VehicleRoutingProblem.Builder vrpBuilder = newProblemBuilder("loc1","loc2","loc3");
+		MappedVehicleRoutingTransportCostsMatrix matrix = MappedVehicleRoutingTransportCostsMatrix.newInstance(filename, vrpBuilder);
+		matrix.getDistance(vrpBuilder.getLocationIndex("loc1"), vrpBuilder.getLocationIndex("loc3"));
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void whenFileIsNoMatrixFile_itShouldThrowException(){
+		MappedVehicleRoutingTransportCostsMatrix.newInstance(filename, VehicleRoutingProblem.Builder.newInstance());
+	}
+	
+	@Test
+	public void whenSolvingProblemWithMappedMatrix_itShouldYieldSameCostsAsWithMatrix(){
+		Random random = new Random(23);
+		List<Coordinate> coords = new ArrayList<Coordinate>();
+		for(int i=0;i<20;i++) coords.add(Coordinate.newInstance(random.nextInt(100), random.nextInt(100)));
+		VehicleRoutingTransportCostsMatrix.Builder matrixBuilder = VehicleRoutingTransportCostsMatrix.Builder.newInstance(false);
+		List<String> locationIds = new ArrayList<String>();
+		for(int i=0;i<coords.size();i++) locationIds.add("loc" + i);
+		for(int i=0;i<coords.size();i++){
+			for(int j=0;j<coords.size();j++){
+				if(i == j) continue;
+				double distance = EuclideanDistanceCalculator.calculateDistance(coords.get(i), coords.get(j));
+				matrixBuilder.addTransportDistance(locationIds.get(i), locationIds.get(j), distance);
+				matrixBuilder.addTransportTime(locationIds.get(i), locationIds.get(j), 2. * distance);
+			}
+		}
+		/*
+		 * write locations in reverse order, i.e. file indices differ from problem indices
+		 */
+		List<String> fileLocationIds = new ArrayList<String>(locationIds);
+		Collections.reverse(fileLocationIds);
+		MappedVehicleRoutingTransportCostsMatrixWriter writer = new MappedVehicleRoutingTransportCostsMatrixWriter(filename, fileLocationIds, false);
+		VehicleRoutingTransportCostsMatrix expected = matrixBuilder.build();
+		for(String from : locationIds){
+			for(String to : locationIds){
+				if(from.equals(to)) continue;
+				writer.addTransportDistance(from, to, expected.getDistance(from, to));
+				writer.addTransportTime(from, to, expected.getTransportTime(from, to, 0.0, null, null));
+			}
+		}
+		writer.close();
+		
+		VehicleRoutingProblem.Builder expectedVrpBuilder = newProblemBuilder(locationIds, coords);
+		VehicleRoutingProblem expectedVrp = expectedVrpBuilder.setRoutingCost(expected).build();
+		VehicleRoutingProblem.Builder vrpBuilder = newProblemBuilder(locationIds, coords);
+		VehicleRoutingProblem vrp = vrpBuilder.setRoutingCost(MappedVehicleRoutingTransportCostsMatrix.newInstance(filename, vrpBuilder)).build();
+		
+		VehicleRoutingProblemSolution expectedSolution = solve(expectedVrp);
+		VehicleRoutingProblemSolution solution = solve(vrp);
+		assertEquals(expectedSolution.getCost(),solution.getCost(),0.01);
+		assertEquals(expectedSolution.getRoutes().size(),solution.getRoutes().size());
+	}
+	
+	private VehicleRoutingProblemSolution solve(VehicleRoutingProblem vrp){
+		RandomNumberGeneration.reset();
+		VehicleRoutingAlgorithm vra = new SchrimpfFactory().createAlgorithm(vrp);
+		vra.setMaxIterations(50);
+		return Solutions.bestOf(vra.searchSolutions());
+	}
+	
+	private VehicleRoutingProblem.Builder newProblemBuilder(List<String> locationIds, List<Coordinate> coords){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("t").addCapacityDimension(0, 5).setCostPerDistance(1.).setCostPerTime(.5).build();
+		vrpBuilder.addVehicle(VehicleImpl.Builder.newInstance("v").setStartLocationId(locationIds.get(0)).setStartLocationCoordinate(coords.get(0)).setType(type).build());
+		for(int i=1;i<locationIds.size();i++){
+			vrpBuilder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1).setLocationId(locationIds.get(i)).setCoord(coords.get(i)).build());
+		}
+		return vrpBuilder;
+	}
+	
+	private VehicleRoutingProblem.Builder newProblemBuilder(String... locationIds){
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		for(int i=0;i<locationIds.length;i++) vrpBuilder.addLocation(locationIds[i], Coordinate.newInstance(i, 0));
+		return vrpBuilder;
+	}
+
+}
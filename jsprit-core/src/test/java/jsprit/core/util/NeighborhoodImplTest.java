@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.vehicle.Vehicle;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class NeighborhoodImplTest {
+
+	@Test
+	public void whenLocationsAreWithinThreshold_theyShouldBeNeighbors(){
+		Vehicle vehicle = VehicleImpl.Builder.newInstance("v").setStartLocationId("depot").setStartLocationCoordinate(Coordinate.newInstance(0, 0)).build();
+		Service s1 = Service.Builder.newInstance("s1").setLocationId("l1").setCoord(Coordinate.newInstance(100, 0)).build();
+		Service s2 = Service.Builder.newInstance("s2").setLocationId("l2").setCoord(Coordinate.newInstance(105, 0)).build();
+		Service s3 = Service.Builder.newInstance("s3").setLocationId("l3").setCoord(Coordinate.newInstance(100, 50)).build();
+		Service s4 = Service.Builder.newInstance("s4").setLocationId("l4").setCoord(Coordinate.newInstance(5, 0)).build();
+		NeighborhoodImpl neighborhood = new NeighborhoodImpl(Arrays.asList(vehicle), Arrays.asList(s1, s2, s3, s4));
+		neighborhood.setThreshold(10.);
+		neighborhood.initialise();
+		assertTrue(neighborhood.areNeighbors("l1", "l2"));
+		assertFalse(neighborhood.areNeighbors("l1", "l3"));
+		//l4 is close to the depot, thus it is neighbor to all
+		assertTrue(neighborhood.areNeighbors("l3", "l4"));
+		assertTrue(neighborhood.areNeighbors("depot", "l3"));
+	}
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RandomNumberGenerationTest {
+	
+	@After
+	public void doAfter(){
+		RandomNumberGeneration.bindToCurrentThread(null);
+	}
+	
+	@Test
+	public void whenDerivingStreamsFromSameSeedAndIndex_theyShouldDrawSameNumbers(){
+		Random first = RandomNumberGeneration.newStream(42L, 3);
+		Random second = RandomNumberGeneration.newStream(42L, 3);
+		for(int i=0;i<10;i++) assertEquals(first.nextLong(), second.nextLong());
+	}
+	
+	@Test
+	public void whenDerivingStreamsWithDifferentIndices_theyShouldDrawDifferentNumbers(){
+		Random first = RandomNumberGeneration.newStream(42L, 0);
+		Random second = RandomNumberGeneration.newStream(42L, 1);
+		assertTrue(first.nextLong() != second.nextLong());
+	}
+	
+	@Test
+	public void whenThreadIsBound_itShouldGetBoundRandom(){
+		Random random = new Random(1);
+		assertNull(RandomNumberGeneration.bindToCurrentThread(random));
+		assertSame(random, RandomNumberGeneration.getRandom());
+	}
+	
+	@Test
+	public void whenThreadIsUnbound_itShouldGetGlobalRandomAgain(){
+		Random global = RandomNumberGeneration.getRandom();
+		Random random = new Random(1);
+		RandomNumberGeneration.bindToCurrentThread(random);
+		assertSame(random, RandomNumberGeneration.bindToCurrentThread(null));
+		assertSame(global, RandomNumberGeneration.getRandom());
+	}
+	
+	@Test
+	public void whenThreadIsBound_otherThreadsShouldNotGetBoundRandom() throws Exception {
+		Random random = new Random(1);
+		RandomNumberGeneration.bindToCurrentThread(random);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		try{
+			Random other = executorService.submit(new Callable<Random>() {
+
+				@Override
+				public Random call() throws Exception {
+					return RandomNumberGeneration.getRandom();
+				}
+
+			}).get();
+			assertNotSame(random, other);
+		}
+		finally{
+			executorService.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.core.util;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+
+public class SpatialIndexTest {
+
+	private List<Coordinate> createCoordinates(int n, long seed){
+		Random random = new Random(seed);
+		List<Coordinate> coordinates = new ArrayList<Coordinate>();
+		for(int i=0;i<n;i++){
+			coordinates.add(Coordinate.newInstance(random.nextInt(100), random.nextInt(100)));
+		}
+		return coordinates;
+	}
+
+	private SpatialIndex<Integer> createIndex(List<Coordinate> coordinates){
+		SpatialIndex.Builder<Integer> builder = SpatialIndex.Builder.newInstance();
+		for(int i=0;i<coordinates.size();i++) builder.add(i, coordinates.get(i));
+		return builder.build();
+	}
+
+	private List<Integer> getNearestBySorting(final List<Coordinate> coordinates, final Coordinate coordinate, int k){
+		List<Integer> items = new ArrayList<Integer>();
+		for(int i=0;i<coordinates.size();i++) items.add(i);
+		Collections.sort(items, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				int result = Double.compare(EuclideanDistanceCalculator.calculateDistance(coordinate, coordinates.get(o1)), 
+						EuclideanDistanceCalculator.calculateDistance(coordinate, coordinates.get(o2)));
+				if(result != 0) return result;
+				return o1 - o2;
+			}
+
+		});
+		return items.subList(0, Math.min(k, items.size()));
+	}
+
+	@Test
+	public void whenQueryingNearestItems_itShouldReturnSameItemsAsSortingAllItems(){
+		List<Coordinate> coordinates = createCoordinates(1000, 4711);
+		SpatialIndex<Integer> index = createIndex(coordinates);
+		for(Coordinate query : createCoordinates(100, 42)){
+			assertEquals(getNearestBySorting(coordinates, query, 15), index.getNearest(query, 15));
+		}
+	}
+
+	@Test
+	public void whenQueryingItemsWithinRadius_itShouldReturnAllItemsWithinRadius(){
+		List<Coordinate> coordinates = createCoordinates(1000, 4711);
+		SpatialIndex<Integer> index = createIndex(coordinates);
+		for(Coordinate query : createCoordinates(100, 42)){
+			Set<Integer> expected = new HashSet<Integer>();
+			for(int i=0;i<coordinates.size();i++){
+				if(EuclideanDistanceCalculator.calculateDistance(query, coordinates.get(i)) <= 10.) expected.add(i);
+			}
+			List<Integer> withinRadius = index.getWithinRadius(query, 10.);
+			assertEquals(expected.size(), withinRadius.size());
+			assertEquals(expected, new HashSet<Integer>(withinRadius));
+		}
+	}
+
+	@Test
+	public void whenItemsAreEquallyDistant_itShouldReturnThemInOrderOfAdding(){
+		SpatialIndex<String> index = SpatialIndex.Builder.<String>newInstance().add("a", Coordinate.newInstance(0, 1))
+				.add("b", Coordinate.newInstance(1, 0)).add("c", Coordinate.newInstance(0, -1)).add("d", Coordinate.newInstance(0, 0)).build();
+		assertEquals(Arrays.asList("d", "a", "b"), index.getNearest(Coordinate.newInstance(0, 0), 3));
+	}
+
+	@Test
+	public void whenRequestingMoreItemsThanIndexed_itShouldReturnAllItems(){
+		SpatialIndex<String> index = SpatialIndex.Builder.<String>newInstance().add("a", Coordinate.newInstance(0, 1)).add("b", Coordinate.newInstance(5, 0)).build();
+		assertEquals(Arrays.asList("a", "b"), index.getNearest(Coordinate.newInstance(0, 0), 5));
+	}
+
+	@Test
+	public void whenIndexIsEmpty_itShouldReturnNoItems(){
+		SpatialIndex<String> index = SpatialIndex.Builder.<String>newInstance().build();
+		assertTrue(index.getNearest(Coordinate.newInstance(0, 0), 5).isEmpty());
+		assertTrue(index.getWithinRadius(Coordinate.newInstance(0, 0), 5.).isEmpty());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void whenAddingItemWithoutCoordinate_itShouldThrowException(){
+		SpatialIndex.Builder.<String>newInstance().add("a", null);
+	}
+
+}
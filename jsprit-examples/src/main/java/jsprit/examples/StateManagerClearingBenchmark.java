@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (C) 2014  Stefan Schroeder
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public 
+ * License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package jsprit.examples;
+
+import jsprit.core.algorithm.state.StateId;
+import jsprit.core.algorithm.state.StateManager;
+import jsprit.core.problem.AbstractActivity;
+import jsprit.core.problem.VehicleRoutingProblem;
+import jsprit.core.problem.job.Job;
+import jsprit.core.problem.job.Service;
+import jsprit.core.problem.vehicle.VehicleImpl;
+import jsprit.core.problem.vehicle.VehicleTypeImpl;
+import jsprit.core.util.Coordinate;
+import jsprit.core.util.RandomNumberGeneration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Measures the time StateManager needs to clear its states at the beginning of an iteration, depending on
+ * problem size and on the number of activities whose states have been written during the iteration.
+ * 
+ * <p>Since clearing only visits activities that have been touched, the per-iteration overhead should grow with the
+ * number of touched activities, but not with the number of activities in the problem.
+ * 
+ * @author schroeder
+ *
+ */
+public class StateManagerClearingBenchmark {
+
+	private static final int NO_VEHICLE_TYPES = 20;
+	
+	private static final int NO_ITERATIONS = 100;
+	
+	public static void main(String[] args) {
+		int[] problemSizes = { 1000, 5000, 10000, 20000 };
+		double[] touchedShares = { 0.01, 0.1, 1.0 };
+		System.out.println("noActivities;touchedActivities;avgClearingTimeInMicroSec");
+		for(int problemSize : problemSizes){
+			for(double touchedShare : touchedShares){
+				run(problemSize, touchedShare);
+			}
+		}
+	}
+
+	private static void run(int problemSize, double touchedShare) {
+		Random random = RandomNumberGeneration.getRandom();
+		VehicleRoutingProblem.Builder vrpBuilder = VehicleRoutingProblem.Builder.newInstance();
+		for(int t=0;t<NO_VEHICLE_TYPES;t++){
+			VehicleTypeImpl type = VehicleTypeImpl.Builder.newInstance("type" + t).addCapacityDimension(0, 100).setCostPerDistance(1. + t).build();
+			vrpBuilder.addVehicle(VehicleImpl.Builder.newInstance("v" + t).setType(type).setStartLocationCoordinate(Coordinate.newInstance(0, 0)).build());
+		}
+		for(int i=0;i<problemSize;i++){
+			vrpBuilder.addJob(Service.Builder.newInstance("s" + i).addSizeDimension(0, 1)
+					.setCoord(Coordinate.newInstance(random.nextDouble() * 100, random.nextDouble() * 100)).build());
+		}
+		VehicleRoutingProblem vrp = vrpBuilder.build();
+		List<AbstractActivity> activities = new ArrayList<AbstractActivity>();
+		for(Job job : vrp.getJobs().values()){
+			activities.addAll(vrp.getActivities(job));
+		}
+		
+		StateManager stateManager = new StateManager(vrp);
+		StateId stateId = stateManager.createStateId("benchmark");
+		int noTouched = (int) (activities.size() * touchedShare);
+		
+		long clearingTime = 0;
+		for(int iteration=0;iteration<NO_ITERATIONS;iteration++){
+			Collections.shuffle(activities, random);
+			for(int i=0;i<noTouched;i++){
+				AbstractActivity act = activities.get(i);
+				stateManager.putActivityState(act, stateId, (double) iteration);
+				stateManager.putActivityState(act, vrp.getVehicles().iterator().next(), stateId, (double) iteration);
+			}
+			long start = System.nanoTime();
+			stateManager.clear();
+			clearingTime += System.nanoTime() - start;
+		}
+		System.out.println(activities.size() + ";" + noTouched + ";" + (clearingTime / NO_ITERATIONS / 1000.));
+	}
+
+}
@@ -18,26 +18,48 @@
 package jsprit.instance.reader;
 
 
+import jsprit.core.util.MappedVehicleRoutingTransportCostsMatrixWriter;
 import jsprit.core.util.VehicleRoutingTransportCostsMatrix;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TSPLIB95CostMatrixReader {
 
     private VehicleRoutingTransportCostsMatrix.Builder costMatrixBuilder;
 
+    private String mappedMatrixFile;
+
     public TSPLIB95CostMatrixReader(VehicleRoutingTransportCostsMatrix.Builder costMatrixBuilder) {
         this.costMatrixBuilder = costMatrixBuilder;
     }
 
+    /**
+     * Creates a reader that writes the explicit matrix directly to the specified binary matrix file,
+     * which can be opened with {@link jsprit.core.util.MappedVehicleRoutingTransportCostsMatrix}.
+     *
+     * @param mappedMatrixFile the binary matrix file to be written
+     */
+    public TSPLIB95CostMatrixReader(String mappedMatrixFile) {
+        this.mappedMatrixFile = mappedMatrixFile;
+    }
+
     public void read(String matrixFile){
         BufferedReader reader = getBufferedReader(matrixFile);
         String line;
         boolean isEdgeWeights = false;
         int fromIndex = 0;
+        int dimension = 0;
+        MappedVehicleRoutingTransportCostsMatrixWriter matrixWriter = null;
         while( ( line = getLine(reader) ) != null ){
+            if(line.startsWith("DIMENSION")){
+                dimension = Integer.parseInt(line.split(":")[1].trim());
+                continue;
+            }
             if(line.startsWith("EDGE_WEIGHT_SECTION")){
                 isEdgeWeights = true;
+                if(mappedMatrixFile != null) matrixWriter = new MappedVehicleRoutingTransportCostsMatrixWriter(mappedMatrixFile, getLocationIds(dimension), false);
                 continue;
             }
             if(line.startsWith("DEMAND_SECTION")){
@@ -45,7 +67,16 @@ public class TSPLIB95CostMatrixReader {
                 continue;
             }
             if(isEdgeWeights){
-                String[] tokens = line.split("\\s+");
+                String[] tokens = line.trim().split("\\s+");
+                if(matrixWriter != null){
+                    for(int i=0;i<tokens.length;i++){
+                        double distance = Double.parseDouble(tokens[i]);
+                        matrixWriter.addTransportDistance(fromIndex, i, distance);
+                        matrixWriter.addTransportTime(fromIndex, i, distance);
+                    }
+                    fromIndex++;
+                    continue;
+                }
                 String fromId = "" + (fromIndex + 1);
                 for(int i=0;i<tokens.length;i++){
                     double distance = Double.parseDouble(tokens[i]);
@@ -57,6 +88,13 @@ public class TSPLIB95CostMatrixReader {
             }
         }
         close(reader);
+        if(matrixWriter != null) matrixWriter.close();
+    }
+
+    private List<String> getLocationIds(int dimension) {
+        List<String> locationIds = new ArrayList<String>(dimension);
+        for(int i=0;i<dimension;i++) locationIds.add("" + (i+1));
+        return locationIds;
     }
 
     private void close(BufferedReader reader) {